@@ -0,0 +1,47 @@
+#!/bin/bash
+
+set -e  # Exit on any error
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+# Get script directory and project root
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+
+TARGET="${1:-embedded}"
+shift || true
+
+case "$TARGET" in
+    embedded)
+        PROFILES="test"
+        ;;
+    postgres)
+        PROFILES="local"
+        echo -e "${GREEN}Ensuring PostgreSQL is running...${NC}"
+        docker compose -f "$PROJECT_ROOT/docker-compose.local.yml" up -d postgres
+
+        echo -e "${YELLOW}Waiting for database to be ready...${NC}"
+        for i in {1..30}; do
+            if docker compose -f "$PROJECT_ROOT/docker-compose.local.yml" exec -T postgres pg_isready -h localhost -p 5432 >/dev/null 2>&1; then
+                echo -e "${GREEN}Database is ready!${NC}"
+                break
+            fi
+            echo -n "."
+            sleep 1
+        done
+        echo
+        ;;
+    *)
+        echo -e "${RED}Error: unknown target '$TARGET' (embedded | postgres)${NC}"
+        exit 1
+        ;;
+esac
+
+echo -e "${GREEN}Running load test against ${YELLOW}$TARGET${GREEN} database (profiles ${YELLOW}$PROFILES${GREEN})...${NC}"
+cd "$PROJECT_ROOT"
+./mvnw -q test -Pload-test -Dloadtest.profiles="$PROFILES" "$@"
+echo -e "${GREEN}Budgets met. Latency distributions in ${YELLOW}target/load-test/${NC}"
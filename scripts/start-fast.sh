@@ -0,0 +1,61 @@
+#!/bin/bash
+
+set -e  # Exit on any error
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+# Get script directory and project root
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+ENV_FILE="$PROJECT_ROOT/.env"
+
+# Check if .env file exists
+if [ ! -f "$ENV_FILE" ]; then
+    echo -e "${RED}Error: .env file not found at $ENV_FILE${NC}"
+    echo "Please create the .env file with the required environment variables."
+    exit 1
+fi
+
+echo -e "${GREEN}Loading environment variables from .env file...${NC}"
+
+set -a
+source "$ENV_FILE"
+set +a
+
+PROFILE="${SPRING_PROFILES_ACTIVE:-local}"
+
+echo -e "${GREEN}Ensuring PostgreSQL is running...${NC}"
+docker compose -f "$PROJECT_ROOT/docker-compose.local.yml" up -d postgres
+
+echo -e "${YELLOW}Waiting for database to be ready...${NC}"
+for i in {1..30}; do
+    if docker compose -f "$PROJECT_ROOT/docker-compose.local.yml" exec -T postgres pg_isready -h localhost -p 5432 >/dev/null 2>&1; then
+        echo -e "${GREEN}Database is ready!${NC}"
+        break
+    fi
+    echo -n "."
+    sleep 1
+done
+echo
+
+# The AOT code and the CDS archive are only valid for the profile and jar they were built with
+CDS_DIR="$PROJECT_ROOT/target/cds"
+if [ ! -f "$CDS_DIR/application.jsa" ] || [ "$(cat "$CDS_DIR/profile" 2>/dev/null)" != "$PROFILE" ]; then
+    echo -e "${GREEN}Building AOT jar and CDS archive for profile ${YELLOW}$PROFILE${GREEN}...${NC}"
+    (cd "$PROJECT_ROOT" && ./mvnw -q -DskipTests -Pfast-startup -Dstartup.profiles="$PROFILE" package)
+    echo "$PROFILE" > "$CDS_DIR/profile"
+fi
+
+JAR=$(ls "$CDS_DIR"/payout-service-*.jar | head -1)
+
+echo -e "${GREEN}Starting Spring Boot application with AOT and CDS (profile ${YELLOW}$PROFILE${GREEN})...${NC}"
+cd "$PROJECT_ROOT"
+exec java \
+    -XX:SharedArchiveFile="$CDS_DIR/application.jsa" \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active="$PROFILE" \
+    -jar "$JAR"
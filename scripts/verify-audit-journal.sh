@@ -0,0 +1,32 @@
+#!/bin/bash
+
+set -e  # Exit on any error
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+NC='\033[0m' # No Color
+
+# Get script directory and project root
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_ROOT="$(dirname "$SCRIPT_DIR")"
+
+COMMAND="${1:-verify}"
+JOURNAL_DIR="${2:-$PROJECT_ROOT/data/audit-journal}"
+
+JAR=$(ls "$PROJECT_ROOT"/target/payout-service-*.jar 2>/dev/null | grep -v plain | head -1 || true)
+if [ -z "$JAR" ]; then
+    echo -e "${GREEN}Building application jar...${NC}"
+    (cd "$PROJECT_ROOT" && ./mvnw -q -DskipTests package)
+    JAR=$(ls "$PROJECT_ROOT"/target/payout-service-*.jar | grep -v plain | head -1)
+fi
+
+if [ ! -d "$JOURNAL_DIR" ]; then
+    echo -e "${RED}Error: journal directory not found at $JOURNAL_DIR${NC}"
+    exit 1
+fi
+
+java -cp "$JAR" \
+    -Dloader.main=com.luisovando.payout_service.infrastructure.audit.AuditJournalTool \
+    org.springframework.boot.loader.launch.PropertiesLauncher \
+    "$COMMAND" "$JOURNAL_DIR" "${@:3}"
@@ -0,0 +1,56 @@
+package com.luisovando.payout_service.application.duplicates;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Result of {@link NearDuplicateDetector#register}: the earlier payout matched, if any, and
+ * the registration of the new one.
+ *
+ * <p>The registration is removed from the index when the payout transaction rolls back or
+ * {@link #release()} is called first.
+ */
+public final class NearDuplicateCheck {
+    private static final NearDuplicateCheck NONE = new NearDuplicateCheck(null, null, null, null);
+
+    private final UUID duplicateOf;
+    private final NearDuplicateDetector.Bucket bucket;
+    private final NearDuplicateDetector.Fingerprint fingerprint;
+    private final NearDuplicateDetector.Entry entry;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    NearDuplicateCheck(UUID duplicateOf, NearDuplicateDetector.Bucket bucket,
+                       NearDuplicateDetector.Fingerprint fingerprint, NearDuplicateDetector.Entry entry) {
+        this.duplicateOf = duplicateOf;
+        this.bucket = bucket;
+        this.fingerprint = fingerprint;
+        this.entry = entry;
+    }
+
+    /**
+     * Nothing matched and nothing was registered, e.g. when detection is off.
+     */
+    public static NearDuplicateCheck none() {
+        return NONE;
+    }
+
+    public boolean duplicate() {
+        return duplicateOf != null;
+    }
+
+    /**
+     * The earlier payout with the same company, amount and currency, {@code null} when none.
+     */
+    public UUID duplicateOf() {
+        return duplicateOf;
+    }
+
+    /**
+     * Removes the registration; no-op when already released.
+     */
+    public void release() {
+        if (bucket != null && released.compareAndSet(false, true)) {
+            bucket.entries.remove(fingerprint, entry);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.luisovando.payout_service.application.duplicates;
+
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Finds creates with the same company, amount and currency as an earlier create inside
+ * {@code window}, which the idempotency key cannot catch when a client retries with a
+ * new key.
+ *
+ * <p>The index lives in memory: a ring of time buckets, each a hash map from
+ * {@code (companyId, amount, currency)} to the first payout registered in it. A lookup
+ * checks the buckets still inside the window; a bucket is replaced wholesale once it
+ * falls out, so entries expire without a sweep. The window is therefore matched to
+ * bucket granularity. Registering is one hash lookup per live bucket plus one
+ * {@code putIfAbsent}, and never touches the database.
+ *
+ * <p>Each node indexes the creates it handled itself; near duplicates spread across
+ * nodes are not matched.
+ */
+@Service
+public class NearDuplicateDetector {
+    private final NearDuplicateProperties properties;
+    private final Clock clock;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    @Autowired
+    public NearDuplicateDetector(NearDuplicateProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    NearDuplicateDetector(NearDuplicateProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.bucketMillis = Math.max(1, properties.window().toMillis() / properties.buckets());
+        this.ring = new AtomicReferenceArray<>(properties.buckets());
+    }
+
+    public NearDuplicateProperties.Mode mode() {
+        return properties.mode();
+    }
+
+    /**
+     * Registers a new payout and returns the earliest payout in the window it duplicates.
+     *
+     * <p>A match needs a different idempotency key; the same key is a retry of the same create.
+     * Inside a transaction the registration is removed again if it rolls back.
+     */
+    public NearDuplicateCheck register(UUID payoutId, UUID companyId, MoneyVO money, String idempotencyKey) {
+        if (properties.mode() == NearDuplicateProperties.Mode.OFF) {
+            return NearDuplicateCheck.none();
+        }
+
+        long epoch = clock.millis() / bucketMillis;
+        Fingerprint fingerprint = new Fingerprint(companyId, money.amount().stripTrailingZeros(), money.currency().value());
+        Entry entry = new Entry(payoutId, idempotencyKey);
+
+        Entry earlier = null;
+        for (long past = epoch - properties.buckets() + 1; past < epoch && earlier == null; past++) {
+            Bucket bucket = ring.get(index(past));
+            if (bucket != null && bucket.epoch == past) {
+                earlier = match(bucket.entries.get(fingerprint), idempotencyKey);
+            }
+        }
+
+        Bucket current = current(epoch);
+        Entry previous = current.entries.putIfAbsent(fingerprint, entry);
+        if (earlier == null) {
+            earlier = match(previous, idempotencyKey);
+        }
+
+        NearDuplicateCheck check = new NearDuplicateCheck(earlier == null ? null : earlier.payoutId(),
+                previous == null ? current : null, fingerprint, entry);
+        releaseOnRollback(check);
+        return check;
+    }
+
+    private Bucket current(long epoch) {
+        int index = index(epoch);
+        while (true) {
+            Bucket bucket = ring.get(index);
+            if (bucket != null && bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (ring.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int index(long epoch) {
+        return (int) Math.floorMod(epoch, (long) properties.buckets());
+    }
+
+    private static Entry match(Entry entry, String idempotencyKey) {
+        return entry != null && !entry.idempotencyKey().equals(idempotencyKey) ? entry : null;
+    }
+
+    private static void releaseOnRollback(NearDuplicateCheck check) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    check.release();
+                }
+            }
+        });
+    }
+
+    record Fingerprint(UUID companyId, BigDecimal amount, String currency) {
+    }
+
+    record Entry(UUID payoutId, String idempotencyKey) {
+    }
+
+    static final class Bucket {
+        final long epoch;
+        final Map<Fingerprint, Entry> entries = new ConcurrentHashMap<>();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.luisovando.payout_service.application.duplicates;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of near-duplicate detection ({@code payouts.near-duplicates.*}).
+ *
+ * @param mode    what happens to a create matching an earlier one
+ * @param window  how far back creates are matched
+ * @param buckets time buckets the window is split into; entries expire a bucket at a time
+ */
+@ConfigurationProperties("payouts.near-duplicates")
+public record NearDuplicateProperties(
+        @DefaultValue("FLAG") Mode mode,
+        @DefaultValue("10m") Duration window,
+        @DefaultValue("10") int buckets
+) {
+    public enum Mode {
+        /**
+         * No detection.
+         */
+        OFF,
+        /**
+         * The payout is created as usual and reported as a near duplicate.
+         */
+        FLAG,
+        /**
+         * The payout is created {@code HELD} for review and reported as a near duplicate;
+         * {@code POST /payouts/{id}/release} lets it proceed.
+         */
+        HOLD
+    }
+}
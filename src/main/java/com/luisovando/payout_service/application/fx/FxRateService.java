@@ -0,0 +1,74 @@
+package com.luisovando.payout_service.application.fx;
+
+import com.luisovando.payout_service.domain.fx.FxRateSnapshot;
+import com.luisovando.payout_service.domain.fx.FxRateSource;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current FX rate snapshot.
+ *
+ * <p>Readers get the snapshot with a single volatile read and never wait. A refresh
+ * loads a complete snapshot from the {@link FxRateSource} and swaps it in atomically,
+ * so a reader always sees one consistent set of rates. A failed refresh keeps the
+ * previous snapshot.
+ */
+@Service
+public class FxRateService {
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private final FxRateSource source;
+    private final AtomicReference<FxRateSnapshot> snapshot = new AtomicReference<>();
+
+    public FxRateService(FxRateSource source) {
+        this.source = source;
+        try {
+            this.snapshot.set(source.load());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the initial FX rate snapshot", e);
+        }
+    }
+
+    public FxRateSnapshot current() {
+        return snapshot.get();
+    }
+
+    public boolean supports(CurrencyVO currency) {
+        return snapshot.get().supports(currency);
+    }
+
+    /**
+     * Converts {@code money} with the current snapshot.
+     */
+    public MoneyVO convert(MoneyVO money, CurrencyVO target) {
+        return money.convert(target, snapshot.get().rate(money.currency(), target));
+    }
+
+    /**
+     * Reloads the snapshot from the source.
+     *
+     * @return whether a new snapshot was installed
+     */
+    @Scheduled(fixedDelayString = "${payouts.fx.refresh-interval:60s}", initialDelayString = "${payouts.fx.refresh-interval:60s}")
+    public boolean refresh() {
+        try {
+            FxRateSnapshot loaded = source.load();
+            FxRateSnapshot previous = snapshot.getAndSet(loaded);
+            if (previous == null || !previous.asOf().equals(loaded.asOf())) {
+                log.info("Installed FX rate snapshot as of {} with currencies {}", loaded.asOf(), loaded.currencies());
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("FX rate refresh failed, keeping snapshot as of {}", snapshot.get().asOf(), e);
+            return false;
+        }
+    }
+}
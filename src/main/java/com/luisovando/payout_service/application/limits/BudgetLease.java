@@ -0,0 +1,30 @@
+package com.luisovando.payout_service.application.limits;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Budget this node leased for one company, currency and day.
+ */
+final class BudgetLease {
+    final PayoutLimits.LimitKey key;
+    final LocalDate day;
+    final StripedBudget budget;
+    final LongAdder committed = new LongAdder();
+    /**
+     * Serializes leasing from the database so concurrent misses lease one slice, not one each.
+     */
+    final ReentrantLock leaseLock = new ReentrantLock();
+    /**
+     * Set when the database had no budget left to lease, so further misses are rejected
+     * locally until the next reconciliation.
+     */
+    volatile boolean exhausted;
+
+    BudgetLease(PayoutLimits.LimitKey key, LocalDate day, int stripes) {
+        this.key = key;
+        this.day = day;
+        this.budget = new StripedBudget(stripes);
+    }
+}
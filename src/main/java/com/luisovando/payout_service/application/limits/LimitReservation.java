@@ -0,0 +1,65 @@
+package com.luisovando.payout_service.application.limits;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Result of {@link PayoutLimits#reserve}: either a hold on limit budget or the reason it was refused.
+ *
+ * <p>A granted reservation is settled once: committed when the payout transaction commits,
+ * released (budget returned) when it rolls back or {@link #release()} is called first.
+ */
+public final class LimitReservation {
+    private static final LimitReservation UNLIMITED = new LimitReservation(null, 0, null);
+
+    private final BudgetLease lease;
+    private final long amountMinor;
+    private final String rejection;
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    private LimitReservation(BudgetLease lease, long amountMinor, String rejection) {
+        this.lease = lease;
+        this.amountMinor = amountMinor;
+        this.rejection = rejection;
+    }
+
+    /**
+     * Granted reservation that holds no budget, for companies without a daily limit.
+     */
+    public static LimitReservation unlimited() {
+        return UNLIMITED;
+    }
+
+    public static LimitReservation rejected(String reason) {
+        return new LimitReservation(null, 0, reason);
+    }
+
+    static LimitReservation held(BudgetLease lease, long amountMinor) {
+        return new LimitReservation(lease, amountMinor, null);
+    }
+
+    public boolean granted() {
+        return rejection == null;
+    }
+
+    /**
+     * Why the reservation was refused, {@code null} when granted.
+     */
+    public String rejection() {
+        return rejection;
+    }
+
+    /**
+     * Returns the held budget; no-op when already settled.
+     */
+    public void release() {
+        if (lease != null && settled.compareAndSet(false, true)) {
+            lease.budget.add(amountMinor);
+        }
+    }
+
+    void commit() {
+        if (lease != null && settled.compareAndSet(false, true)) {
+            lease.committed.add(amountMinor);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.luisovando.payout_service.application.limits;
+
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutLimitEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutLimitRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.support.SqlStates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-company daily amount caps and per-payout maximums, checked without a database
+ * round trip per payout.
+ *
+ * <p>The daily limit of a company and currency is a budget shared by all nodes in
+ * {@code payout_limit_usage}. Each node leases slices of it ({@code dailyLimit / sliceDivisor})
+ * under a row lock and spends them locally from a {@link StripedBudget}; only when its
+ * slice runs out does it go back to the database, and once the database has no budget
+ * left it stops asking until the next reconciliation. Together the nodes can never
+ * reserve more than the limit. Budget leased by a node that dies is lost for the rest
+ * of the day, which errs on the side of paying out less.
+ *
+ * <p>A reservation is tied to the surrounding transaction: it is returned to the local
+ * budget if the payout transaction rolls back. Leases run in their own transactions on the
+ * {@code leases} pool, never on the connection pool of the creates that wait for them.
+ *
+ * <p>Limits are loaded on startup and on every reconciliation, which also raises the
+ * leased budget to at least what was actually paid out today, e.g. for payouts created
+ * before a limit was configured.
+ */
+@Service
+public class PayoutLimits {
+    private static final Logger log = LoggerFactory.getLogger(PayoutLimits.class);
+
+    private final PayoutLimitRepository limitRepository;
+    private final PayoutRepository payoutRepository;
+    private final JdbcTemplate leaseJdbc;
+    private final TransactionTemplate leaseTransaction;
+    private final PayoutLimitsProperties properties;
+    private final Clock clock;
+
+    private volatile Map<LimitKey, CompanyLimit> limits = Map.of();
+    private final Map<BudgetKey, BudgetLease> leases = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PayoutLimits(
+            PayoutLimitRepository limitRepository,
+            PayoutRepository payoutRepository,
+            @Qualifier(Bulkheads.LEASES) DataSource leaseDataSource,
+            @Qualifier(Bulkheads.LEASES) PlatformTransactionManager leaseTransactionManager,
+            PayoutLimitsProperties properties) {
+        this(limitRepository, payoutRepository, leaseDataSource, leaseTransactionManager, properties, Clock.systemUTC());
+    }
+
+    PayoutLimits(
+            PayoutLimitRepository limitRepository,
+            PayoutRepository payoutRepository,
+            DataSource leaseDataSource,
+            PlatformTransactionManager leaseTransactionManager,
+            PayoutLimitsProperties properties,
+            Clock clock) {
+        this.limitRepository = limitRepository;
+        this.payoutRepository = payoutRepository;
+        this.leaseJdbc = new JdbcTemplate(leaseDataSource);
+        this.leaseTransaction = new TransactionTemplate(leaseTransactionManager);
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Reserves {@code money} against the limits of the company.
+     *
+     * <p>Inside a transaction the reservation is settled when it completes; outside one
+     * it is committed immediately.
+     */
+    public LimitReservation reserve(UUID companyId, MoneyVO money) {
+        LimitKey key = new LimitKey(companyId, money.currency().value());
+        CompanyLimit limit = limits.get(key);
+        if (limit == null) {
+            return LimitReservation.unlimited();
+        }
+
+        long amountMinor = toMinor(money.amount(), money.currency());
+        if (limit.perPayoutMaxMinor() >= 0 && amountMinor > limit.perPayoutMaxMinor()) {
+            return LimitReservation.rejected("amount exceeds the per-payout maximum");
+        }
+        if (limit.dailyLimitMinor() < 0) {
+            return LimitReservation.unlimited();
+        }
+
+        LocalDate today = today();
+        BudgetLease lease = leases.computeIfAbsent(new BudgetKey(key, today),
+                k -> new BudgetLease(key, today, properties.effectiveStripes()));
+        if (!lease.budget.tryAcquire(amountMinor) && !leaseAndAcquire(lease, limit, amountMinor)) {
+            return LimitReservation.rejected("daily limit exceeded");
+        }
+
+        LimitReservation reservation = LimitReservation.held(lease, amountMinor);
+        settleWithTransaction(reservation);
+        return reservation;
+    }
+
+    /**
+     * Reloads the limits and aligns today's leased budgets with the payouts actually created.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${payouts.limits.reconcile-interval:5m}",
+            initialDelayString = "${payouts.limits.reconcile-interval:5m}")
+    public void reconcile() {
+        Map<LimitKey, CompanyLimit> loaded = new HashMap<>();
+        for (PayoutLimitEntity entity : limitRepository.findAll()) {
+            CurrencyVO currency = CurrencyVO.of(entity.getCurrency());
+            loaded.put(new LimitKey(entity.getCompanyId(), currency.value()), new CompanyLimit(
+                    entity.getDailyLimit() == null ? -1 : toMinor(entity.getDailyLimit(), currency),
+                    entity.getPerPayoutMax() == null ? -1 : toMinor(entity.getPerPayoutMax(), currency)
+            ));
+        }
+        limits = Map.copyOf(loaded);
+
+        LocalDate today = today();
+        leases.keySet().removeIf(key -> key.day().isBefore(today));
+        leases.values().forEach(lease -> lease.exhausted = false);
+
+        Map<LimitKey, Long> committed = new HashMap<>();
+        for (PayoutRepository.AmountTotal total : payoutRepository.sumAmountsCreatedBetween(dayStart(today), dayStart(today.plusDays(1)))) {
+            LimitKey key = new LimitKey(total.getCompanyId(), total.getCurrency());
+            CompanyLimit limit = loaded.get(key);
+            if (limit != null && limit.dailyLimitMinor() >= 0) {
+                committed.put(key, toMinor(total.getTotal(), CurrencyVO.of(total.getCurrency())));
+            }
+        }
+
+        committed.forEach((key, committedMinor) -> inLeaseTransaction(status -> {
+            if (leasedForUpdate(key.companyId(), key.currency(), today) != null) {
+                leaseJdbc.update("UPDATE payout_limit_usage SET leased_minor = ?"
+                                + " WHERE company_id = ? AND currency = ? AND usage_date = ? AND leased_minor < ?",
+                        committedMinor, key.companyId(), key.currency(), today, committedMinor);
+            } else {
+                insertUsage(key.companyId(), key.currency(), today, committedMinor);
+            }
+            return null;
+        }));
+        log.debug("Reconciled payout limits: {} limits, {} company budgets in use today", loaded.size(), committed.size());
+    }
+
+    /**
+     * Gives today's unused leased budget back so other nodes can use it.
+     */
+    @PreDestroy
+    public void returnUnusedBudget() {
+        LocalDate today = today();
+        leases.forEach((key, lease) -> {
+            if (!key.day().equals(today)) {
+                return;
+            }
+            long unused = lease.budget.drain();
+            if (unused > 0) {
+                leaseJdbc.update("UPDATE payout_limit_usage SET leased_minor = leased_minor - ?"
+                                + " WHERE company_id = ? AND currency = ? AND usage_date = ? AND leased_minor >= ?",
+                        unused, key.limit().companyId(), key.limit().currency(), today, unused);
+            }
+        });
+    }
+
+    /**
+     * Minor units committed by this node today for a company and currency.
+     */
+    public long committedToday(UUID companyId, CurrencyVO currency) {
+        BudgetLease lease = leases.get(new BudgetKey(new LimitKey(companyId, currency.value()), today()));
+        return lease == null ? 0 : lease.committed.sum();
+    }
+
+    private boolean leaseAndAcquire(BudgetLease lease, CompanyLimit limit, long amountMinor) {
+        lease.leaseLock.lock();
+        try {
+            if (lease.budget.tryAcquire(amountMinor)) {
+                return true;
+            }
+            if (lease.exhausted) {
+                return false;
+            }
+
+            long slice = Math.max(amountMinor, Math.max(1, limit.dailyLimitMinor() / properties.sliceDivisor()));
+            long granted = leaseSlice(lease, limit, slice);
+            if (granted < slice) {
+                lease.exhausted = true;
+            }
+            lease.budget.add(granted);
+            return granted > 0 && lease.budget.tryAcquire(amountMinor);
+        } finally {
+            lease.leaseLock.unlock();
+        }
+    }
+
+    private long leaseSlice(BudgetLease lease, CompanyLimit limit, long wanted) {
+        UUID companyId = lease.key.companyId();
+        String currency = lease.key.currency();
+        LocalDate day = lease.day;
+
+        Long granted = inLeaseTransaction(status -> {
+            Long leased = leasedForUpdate(companyId, currency, day);
+            if (leased == null) {
+                BigDecimal paidOut = leaseJdbc.queryForObject(
+                        "SELECT COALESCE(SUM(amount), 0) FROM payouts"
+                                + " WHERE company_id = ? AND currency = ? AND created_at >= ? AND created_at < ?",
+                        BigDecimal.class, companyId, currency,
+                        Timestamp.from(dayStart(day)), Timestamp.from(dayStart(day.plusDays(1))));
+                leased = toMinor(paidOut, CurrencyVO.of(currency));
+                insertUsage(companyId, currency, day, leased);
+            }
+
+            long grant = Math.min(wanted, limit.dailyLimitMinor() - leased);
+            if (grant <= 0) {
+                return 0L;
+            }
+            leaseJdbc.update("UPDATE payout_limit_usage SET leased_minor = leased_minor + ?"
+                            + " WHERE company_id = ? AND currency = ? AND usage_date = ?",
+                    grant, companyId, currency, day);
+            return grant;
+        });
+        return granted == null ? 0 : granted;
+    }
+
+    /**
+     * Budget leased today by all nodes, locking the usage row; {@code null} when there is none yet.
+     */
+    private Long leasedForUpdate(UUID companyId, String currency, LocalDate day) {
+        return leaseJdbc.query(
+                "SELECT leased_minor FROM payout_limit_usage"
+                        + " WHERE company_id = ? AND currency = ? AND usage_date = ? FOR UPDATE",
+                rs -> rs.next() ? rs.getLong(1) : null,
+                companyId, currency, day);
+    }
+
+    /**
+     * Creates the usage row of a day; fails with a unique violation if another node created it first.
+     */
+    private void insertUsage(UUID companyId, String currency, LocalDate day, long leasedMinor) {
+        leaseJdbc.update("INSERT INTO payout_limit_usage (company_id, currency, usage_date, leased_minor)"
+                + " VALUES (?, ?, ?, ?)", companyId, currency, day, leasedMinor);
+    }
+
+    /**
+     * Runs {@code callback} in its own transaction, once more if it lost the race to create a usage row.
+     */
+    private <T> T inLeaseTransaction(TransactionCallback<T> callback) {
+        try {
+            return leaseTransaction.execute(callback);
+        } catch (DataIntegrityViolationException e) {
+            if (!SqlStates.isUniqueViolation(e)) {
+                throw e;
+            }
+            return leaseTransaction.execute(callback);
+        }
+    }
+
+    private static void settleWithTransaction(LimitReservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reservation.commit();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reservation.commit();
+                } else {
+                    reservation.release();
+                }
+            }
+        });
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private static Instant dayStart(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * Converts to minor units, rounding up so limits are never undercounted.
+     */
+    static long toMinor(BigDecimal amount, CurrencyVO currency) {
+        return amount.movePointRight(currency.fractionDigits()).setScale(0, RoundingMode.CEILING).longValueExact();
+    }
+
+    record LimitKey(UUID companyId, String currency) {
+    }
+
+    private record BudgetKey(LimitKey limit, LocalDate day) {
+    }
+
+    /**
+     * Limits in minor units, {@code -1} when not set.
+     */
+    private record CompanyLimit(long dailyLimitMinor, long perPayoutMaxMinor) {
+    }
+}
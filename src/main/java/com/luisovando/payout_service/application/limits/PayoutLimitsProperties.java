@@ -0,0 +1,26 @@
+package com.luisovando.payout_service.application.limits;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the payout limits engine ({@code payouts.limits.*}).
+ *
+ * @param sliceDivisor daily limit is leased from the database in slices of {@code dailyLimit / sliceDivisor}
+ * @param stripes      counter stripes per leased budget, {@code 0} for one per core
+ */
+@ConfigurationProperties("payouts.limits")
+public record PayoutLimitsProperties(
+        @DefaultValue("20") int sliceDivisor,
+        @DefaultValue("0") int stripes
+) {
+    public PayoutLimitsProperties {
+        if (sliceDivisor <= 0) {
+            throw new IllegalArgumentException("payouts.limits.slice-divisor must be greater than 0");
+        }
+    }
+
+    public int effectiveStripes() {
+        return stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,113 @@
+package com.luisovando.payout_service.application.limits;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative budget split across padded stripes so concurrent reservations rarely
+ * touch the same cache line.
+ *
+ * <p>A thread first tries to take the whole amount from its home stripe, then from
+ * any single stripe, and only then gathers it from several stripes. Units are moved
+ * between stripes but never created, so the stripes never hand out more than was
+ * {@link #add(long) added}.
+ */
+final class StripedBudget {
+    /**
+     * Longs per 64-byte cache line; only every {@code PAD}-th cell is used.
+     */
+    private static final int PAD = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    StripedBudget(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be greater than 0");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PAD);
+    }
+
+    /**
+     * Takes {@code amount} from the budget, or nothing when not enough is available.
+     */
+    boolean tryAcquire(long amount) {
+        if (amount <= 0) {
+            return true;
+        }
+
+        int home = home();
+        for (int i = 0; i < stripes; i++) {
+            int cell = cell(home + i);
+            long available;
+            while ((available = cells.get(cell)) >= amount) {
+                if (cells.compareAndSet(cell, available, available - amount)) {
+                    return true;
+                }
+            }
+        }
+
+        long gathered = 0;
+        for (int i = 0; i < stripes && gathered < amount; i++) {
+            int cell = cell(home + i);
+            long available;
+            while ((available = cells.get(cell)) > 0) {
+                long take = Math.min(available, amount - gathered);
+                if (cells.compareAndSet(cell, available, available - take)) {
+                    gathered += take;
+                    break;
+                }
+            }
+        }
+        if (gathered == amount) {
+            return true;
+        }
+        if (gathered > 0) {
+            cells.addAndGet(cell(home), gathered);
+        }
+        return false;
+    }
+
+    /**
+     * Adds budget, e.g. a newly leased slice or a released reservation.
+     */
+    void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must not be negative");
+        }
+        if (amount > 0) {
+            cells.addAndGet(cell(home()), amount);
+        }
+    }
+
+    /**
+     * Sum of all stripes; only a snapshot while reservations are running.
+     */
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    /**
+     * Removes and returns everything left in the budget.
+     */
+    long drain() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.getAndSet(i * PAD, 0);
+        }
+        return sum;
+    }
+
+    private int home() {
+        int h = System.identityHashCode(Thread.currentThread());
+        return (h ^ (h >>> 16)) & Integer.MAX_VALUE;
+    }
+
+    private int cell(int stripe) {
+        return (stripe % stripes) * PAD;
+    }
+}
@@ -1,11 +1,36 @@
 package com.luisovando.payout_service.application.usecase.createpayout;
 
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
 import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
+/**
+ * @param settlementCurrency currency the payout is settled in, {@code null} to settle in the currency of {@code money}
+ * @param executeAt          time to release the payout, {@code null} for now; kept to microseconds as stored
+ */
 public record CreatePayoutCommand(
         UUID companyId,
         MoneyVO money,
-        String idempotencyKey
+        String idempotencyKey,
+        CurrencyVO settlementCurrency,
+        Instant executeAt
 ) {
+    public CreatePayoutCommand {
+        if (executeAt != null) {
+            executeAt = executeAt.truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+
+    public CreatePayoutCommand(UUID companyId, MoneyVO money, String idempotencyKey) {
+        this(companyId, money, idempotencyKey, null, null);
+    }
+
+    /**
+     * Currency the payout settles in, defaulting to the currency of {@code money}.
+     */
+    public CurrencyVO effectiveSettlementCurrency() {
+        return settlementCurrency != null ? settlementCurrency : money.currency();
+    }
 }
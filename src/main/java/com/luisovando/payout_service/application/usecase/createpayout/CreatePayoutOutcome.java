@@ -0,0 +1,49 @@
+package com.luisovando.payout_service.application.usecase.createpayout;
+
+import java.util.UUID;
+
+/**
+ * Result of {@link CreatePayoutUseCase#execute(CreatePayoutCommand)}.
+ *
+ * <p>Expected business results (replays, near duplicates, conflicts, exceeded limits, invalid commands) are returned
+ * as values instead of being thrown, so callers map them directly to a response.
+ */
+public sealed interface CreatePayoutOutcome {
+
+    /**
+     * A new payout was persisted.
+     */
+    record Created(UUID payoutId, String status) implements CreatePayoutOutcome {
+    }
+
+    /**
+     * A new payout was persisted, matching an earlier payout with the same company, amount and
+     * currency under another idempotency key. It is {@code HELD} when near duplicates are held.
+     */
+    record NearDuplicate(UUID payoutId, String status, UUID duplicateOf) implements CreatePayoutOutcome {
+    }
+
+    /**
+     * The idempotency key was already used with the same parameters; the existing payout is returned.
+     */
+    record Replayed(UUID payoutId, String status) implements CreatePayoutOutcome {
+    }
+
+    /**
+     * The idempotency key was already used with different parameters.
+     */
+    record Conflict(String reason) implements CreatePayoutOutcome {
+    }
+
+    /**
+     * The payout would exceed a payout limit of the company.
+     */
+    record LimitExceeded(String reason) implements CreatePayoutOutcome {
+    }
+
+    /**
+     * The command was rejected by validation.
+     */
+    record Invalid(String reason) implements CreatePayoutOutcome {
+    }
+}
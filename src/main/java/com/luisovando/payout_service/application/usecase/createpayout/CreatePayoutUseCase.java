@@ -1,91 +1,230 @@
 package com.luisovando.payout_service.application.usecase.createpayout;
 
-import com.luisovando.payout_service.domain.exceptions.IdempotencyConflictException;
+import com.luisovando.payout_service.application.duplicates.NearDuplicateCheck;
+import com.luisovando.payout_service.application.duplicates.NearDuplicateDetector;
+import com.luisovando.payout_service.application.duplicates.NearDuplicateProperties;
+import com.luisovando.payout_service.application.fx.FxRateService;
+import com.luisovando.payout_service.application.limits.LimitReservation;
+import com.luisovando.payout_service.application.limits.PayoutLimits;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.observability.CreatePayoutStageEvent;
 import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutTombstoneEntity;
 import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutTombstoneRepository;
+import com.luisovando.payout_service.infrastructure.persistence.support.SqlStates;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.UUID;
 
 @Service
 @Transactional
 public class CreatePayoutUseCase {
     private final PayoutRepository payoutRepository;
-    private static final String INITIAL_STATUS = "CREATED";
-    private static final Set<String> SUPPORTED_CURRENCIES = Set.of("USD", "MXN", "EUR");
+    private final PayoutTombstoneRepository payoutTombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FxRateService fxRateService;
+    private final PayoutLimits payoutLimits;
+    private final NearDuplicateDetector nearDuplicateDetector;
 
-    public CreatePayoutUseCase(PayoutRepository payoutRepository) {
+    public CreatePayoutUseCase(
+            PayoutRepository payoutRepository,
+            PayoutTombstoneRepository payoutTombstoneRepository,
+            ApplicationEventPublisher eventPublisher,
+            FxRateService fxRateService,
+            PayoutLimits payoutLimits,
+            NearDuplicateDetector nearDuplicateDetector) {
         this.payoutRepository = payoutRepository;
+        this.payoutTombstoneRepository = payoutTombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.fxRateService = fxRateService;
+        this.payoutLimits = payoutLimits;
+        this.nearDuplicateDetector = nearDuplicateDetector;
     }
 
-    private void validate(CreatePayoutCommand command) {
-        Objects.requireNonNull(command, "command is required");
-        Objects.requireNonNull(command.companyId(), "companyId is required");
-        Objects.requireNonNull(command.money(), "money is required");
-        Objects.requireNonNull(command.idempotencyKey(), "idempotencyKey is required");
+    /**
+     * Returns the reason the command is invalid, or {@code null} when it is valid.
+     */
+    private String validate(CreatePayoutCommand command) {
+        if (command == null) {
+            return "command is required";
+        }
+        if (command.companyId() == null) {
+            return "companyId is required";
+        }
+        if (command.money() == null) {
+            return "money is required";
+        }
+        if (command.idempotencyKey() == null) {
+            return "idempotencyKey is required";
+        }
 
         if (command.idempotencyKey().isBlank()) {
-            throw new IllegalArgumentException("idempotencyKey must not be blank");
+            return "idempotencyKey must not be blank";
+        }
+
+        if (!fxRateService.supports(command.money().currency())) {
+            return "currency not supported";
         }
 
-        if (!SUPPORTED_CURRENCIES.contains(command.money().currency().value())) {
-            throw new IllegalArgumentException("currency not supported");
+        if (command.settlementCurrency() != null && !fxRateService.supports(command.settlementCurrency())) {
+            return "settlement currency not supported";
         }
+
+        return null;
     }
 
     /**
      * Executes the payout creation use case.
      */
-    public CreatePayoutResult execute(CreatePayoutCommand command) {
-        this.validate(command);
+    public CreatePayoutOutcome execute(CreatePayoutCommand command) {
+        CreatePayoutStageEvent validation = CreatePayoutStageEvent.start(CreatePayoutStageEvent.VALIDATION);
+        String invalidReason = this.validate(command);
+        validation.complete(command == null ? null : command.companyId(), invalidReason == null ? "valid" : "invalid");
+        if (invalidReason != null) {
+            return new CreatePayoutOutcome.Invalid(invalidReason);
+        }
 
-        Optional<PayoutEntity> existingPayout = this.payoutRepository.findByCompanyIdAndIdempotencyKey(command.companyId(), command.idempotencyKey());
+        CreatePayoutStageEvent lookup = CreatePayoutStageEvent.start(CreatePayoutStageEvent.LOOKUP);
+        Optional<CreatePayoutOutcome> existingPayout = this.findExistingPayout(command);
+        lookup.complete(command.companyId(), existingPayout.isPresent() ? "found" : "not-found");
         if (existingPayout.isPresent()) {
-            return this.createResultFromExistingPayout(existingPayout.get(), command);
+            return existingPayout.get();
         }
 
+        CurrencyVO settlementCurrency = command.effectiveSettlementCurrency();
+        BigDecimal rate = null;
+        MoneyVO settlement = null;
+        if (!settlementCurrency.equals(command.money().currency())) {
+            rate = fxRateService.current().rate(command.money().currency(), settlementCurrency);
+            try {
+                settlement = command.money().convert(settlementCurrency, rate);
+            } catch (IllegalArgumentException e) {
+                // e.g. 0.01 MXN rounds to 0.00 USD
+                return new CreatePayoutOutcome.Invalid("amount is too small to settle in " + settlementCurrency.value());
+            }
+        }
+
+        CreatePayoutStageEvent limits = CreatePayoutStageEvent.start(CreatePayoutStageEvent.LIMITS);
+        LimitReservation reservation = this.payoutLimits.reserve(command.companyId(), command.money());
+        limits.complete(command.companyId(), reservation.granted() ? "reserved" : "exceeded");
+        if (!reservation.granted()) {
+            return new CreatePayoutOutcome.LimitExceeded(reservation.rejection());
+        }
+
+        NearDuplicateCheck nearDuplicate = NearDuplicateCheck.none();
+        CreatePayoutStageEvent insert = CreatePayoutStageEvent.start(CreatePayoutStageEvent.INSERT);
         try {
+            Instant now = Instant.now();
+            boolean scheduled = command.executeAt() != null && command.executeAt().isAfter(now);
             PayoutEntity newPayout = PayoutEntity.createNew(
                     command.companyId(),
                     command.money().amount(),
                     command.money().currency().value(),
-                    INITIAL_STATUS,
+                    (scheduled ? PayoutStatus.SCHEDULED : PayoutStatus.CREATED).name(),
                     command.idempotencyKey()
             );
+            if (command.executeAt() != null) {
+                newPayout.scheduleAt(command.executeAt());
+            }
+            nearDuplicate = this.nearDuplicateDetector.register(newPayout.getId(), command.companyId(), command.money(), command.idempotencyKey());
+            if (nearDuplicate.duplicate() && this.nearDuplicateDetector.mode() == NearDuplicateProperties.Mode.HOLD) {
+                newPayout.hold();
+            }
+            if (settlement != null) {
+                newPayout.settleIn(settlement.amount(), settlement.currency().value(), rate);
+            }
 
-            PayoutEntity saved = this.payoutRepository.save(newPayout);
+            PayoutEntity saved = this.payoutRepository.insert(newPayout);
+            insert.complete(command.companyId(), nearDuplicate.duplicate() ? "near-duplicate" : "created");
 
-            return new CreatePayoutResult(saved.getId(), saved.getStatus(), true);
+            this.eventPublisher.publishEvent(new PayoutCreatedEvent(
+                    saved.getId(),
+                    command.companyId(),
+                    command.money(),
+                    settlement != null ? settlement : command.money(),
+                    command.idempotencyKey(),
+                    saved.getStatus(),
+                    now,
+                    saved.getExecuteAt()
+            ));
+
+            if (nearDuplicate.duplicate()) {
+                return new CreatePayoutOutcome.NearDuplicate(saved.getId(), saved.getStatus(), nearDuplicate.duplicateOf());
+            }
+            return new CreatePayoutOutcome.Created(saved.getId(), saved.getStatus());
         } catch (DataIntegrityViolationException e) {
-            Throwable cause = e.getMostSpecificCause();
-            String message = (cause != null) ? cause.getMessage() : null;
-            if (cause != null && (message != null && message.contains("uk_payouts_company_id_idempotency_key"))) {
-                Optional<PayoutEntity> payout = this.payoutRepository.findByCompanyIdAndIdempotencyKey(command.companyId(), command.idempotencyKey());
-                if (payout.isPresent()) {
-                    return this.createResultFromExistingPayout(payout.get(), command);
-                }
-                throw new IllegalStateException("Idempotency conflict detected but existing payout not found", e);
+            if (!SqlStates.isUniqueViolation(e)) {
+                insert.complete(command.companyId(), "failed");
+                throw e;
+            }
+            insert.complete(command.companyId(), "unique-violation");
+            reservation.release();
+            nearDuplicate.release();
+
+            CreatePayoutStageEvent retry = CreatePayoutStageEvent.start(CreatePayoutStageEvent.CONFLICT_RETRY);
+            Optional<CreatePayoutOutcome> payout = this.findExistingPayout(command);
+            if (payout.isPresent()) {
+                CreatePayoutOutcome outcome = payout.get();
+                retry.complete(command.companyId(), outcome instanceof CreatePayoutOutcome.Replayed ? "replayed" : "conflict");
+                return outcome;
             }
-            throw e;
+            retry.complete(command.companyId(), "not-found");
+            throw new IllegalStateException("Idempotency conflict detected but existing payout not found", e);
         }
     }
 
-    private CreatePayoutResult createResultFromExistingPayout(PayoutEntity existingPayout, CreatePayoutCommand command) {
-        validateMoneyAndCurrencyMatch(existingPayout, command);
-        return new CreatePayoutResult(existingPayout.getId(), existingPayout.getStatus(), false);
+    /**
+     * Answers for the payout already created with the command's idempotency key, looking in
+     * {@code payouts} first and then in the tombstones of archived payouts. The archiver writes
+     * the tombstone in the transaction that deletes the row, so one of the two lookups sees it.
+     */
+    private Optional<CreatePayoutOutcome> findExistingPayout(CreatePayoutCommand command) {
+        Optional<PayoutEntity> payout = this.payoutRepository.findByCompanyIdAndIdempotencyKey(command.companyId(), command.idempotencyKey());
+        if (payout.isPresent()) {
+            return Optional.of(this.createOutcomeFromExistingPayout(payout.get(), command));
+        }
+
+        Optional<PayoutTombstoneEntity> tombstone = this.payoutTombstoneRepository.findById(
+                new PayoutTombstoneEntity.Key(command.companyId(), command.idempotencyKey()));
+        return tombstone.map(archived -> this.createOutcomeFromExistingPayout(archived.getPayoutId(), archived.getStatus(),
+                archived.getAmount(), archived.getCurrency(), archived.getSettlementCurrency(), archived.getExecuteAt(), command));
     }
 
-    private void validateMoneyAndCurrencyMatch(PayoutEntity existingPayout, CreatePayoutCommand command) {
-        if (existingPayout.getAmount().compareTo(command.money().amount()) != 0) {
-            throw new IdempotencyConflictException("Money amount differs from existing payout");
+    private CreatePayoutOutcome createOutcomeFromExistingPayout(PayoutEntity existingPayout, CreatePayoutCommand command) {
+        return this.createOutcomeFromExistingPayout(existingPayout.getId(), existingPayout.getStatus(),
+                existingPayout.getAmount(), existingPayout.getCurrency(), existingPayout.getEffectiveSettlementCurrency(),
+                existingPayout.getExecuteAt(), command);
+    }
+
+    private CreatePayoutOutcome createOutcomeFromExistingPayout(UUID payoutId, String status, BigDecimal amount,
+                                                                String currency, String settlementCurrency,
+                                                                Instant executeAt, CreatePayoutCommand command) {
+        if (amount.compareTo(command.money().amount()) != 0) {
+            return new CreatePayoutOutcome.Conflict("Money amount differs from existing payout");
+        }
+
+        if (!currency.equals(command.money().currency().value())) {
+            return new CreatePayoutOutcome.Conflict("Currency differs from existing payout");
         }
-        
-        if (!existingPayout.getCurrency().equals(command.money().currency().value())) {
-            throw new IdempotencyConflictException("Currency differs from existing payout");
+
+        if (!settlementCurrency.equals(command.effectiveSettlementCurrency().value())) {
+            return new CreatePayoutOutcome.Conflict("Settlement currency differs from existing payout");
+        }
+
+        if (!Objects.equals(executeAt, command.executeAt())) {
+            return new CreatePayoutOutcome.Conflict("Execution time differs from existing payout");
         }
+
+        return new CreatePayoutOutcome.Replayed(payoutId, status);
     }
 }
@@ -0,0 +1,27 @@
+package com.luisovando.payout_service.application.usecase.createpayout;
+
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published by {@link CreatePayoutUseCase} for every newly persisted payout.
+ *
+ * <p>{@code settlement} is what the payout settles as: the converted amount when it settles in
+ * another currency, {@code money} otherwise. {@code executeAt} is only set for scheduled payouts.
+ *
+ * <p>Listeners that must only see committed payouts should use
+ * {@code @TransactionalEventListener}.
+ */
+public record PayoutCreatedEvent(
+        UUID payoutId,
+        UUID companyId,
+        MoneyVO money,
+        MoneyVO settlement,
+        String idempotencyKey,
+        String status,
+        Instant acceptedAt,
+        Instant executeAt
+) {
+}
@@ -0,0 +1,18 @@
+package com.luisovando.payout_service.application.usecase.releasepayout;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published by {@link ReleasePayoutUseCase} after a held payout was released and the change
+ * was committed, next to the {@code PayoutStatusChangedEvent} of the same change.
+ *
+ * <p>{@code executeAt} is only set for payouts released to {@code SCHEDULED}.
+ */
+public record PayoutReleasedEvent(
+        UUID payoutId,
+        String status,
+        Instant releasedAt,
+        Instant executeAt
+) {
+}
@@ -0,0 +1,27 @@
+package com.luisovando.payout_service.application.usecase.releasepayout;
+
+import java.util.UUID;
+
+/**
+ * Result of {@link ReleasePayoutUseCase#execute(UUID)}.
+ */
+public sealed interface ReleasePayoutOutcome {
+
+    /**
+     * The payout left {@code HELD} for {@code status}.
+     */
+    record Released(UUID payoutId, String status) implements ReleasePayoutOutcome {
+    }
+
+    /**
+     * The payout is not held, e.g. it was already released; {@code status} is its current status.
+     */
+    record NotHeld(String status) implements ReleasePayoutOutcome {
+    }
+
+    /**
+     * No payout has the given id.
+     */
+    record NotFound() implements ReleasePayoutOutcome {
+    }
+}
@@ -0,0 +1,54 @@
+package com.luisovando.payout_service.application.usecase.releasepayout;
+
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Releases a payout held for review as a near duplicate: to {@code SCHEDULED} when it was
+ * created with an execution time, so the scheduler releases it when due, otherwise to
+ * {@code CREATED}.
+ *
+ * <p>The status update commits on its own before the events are published.
+ */
+@Service
+public class ReleasePayoutUseCase {
+    private final PayoutRepository payoutRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReleasePayoutUseCase(PayoutRepository payoutRepository, ApplicationEventPublisher eventPublisher) {
+        this.payoutRepository = payoutRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ReleasePayoutOutcome execute(UUID payoutId) {
+        Optional<PayoutEntity> payout = this.payoutRepository.findById(payoutId);
+        if (payout.isEmpty()) {
+            return new ReleasePayoutOutcome.NotFound();
+        }
+        if (!PayoutStatus.HELD.name().equals(payout.get().getStatus())) {
+            return new ReleasePayoutOutcome.NotHeld(payout.get().getStatus());
+        }
+
+        Instant executeAt = payout.get().getExecuteAt();
+        PayoutStatus to = executeAt != null ? PayoutStatus.SCHEDULED : PayoutStatus.CREATED;
+        // guarded by the status, so concurrent releases of the same payout apply once
+        if (this.payoutRepository.updateStatus(payoutId, PayoutStatus.HELD.name(), to.name()) == 0) {
+            return this.payoutRepository.findById(payoutId)
+                    .<ReleasePayoutOutcome>map(current -> new ReleasePayoutOutcome.NotHeld(current.getStatus()))
+                    .orElseGet(ReleasePayoutOutcome.NotFound::new);
+        }
+
+        Instant releasedAt = Instant.now();
+        this.eventPublisher.publishEvent(new PayoutStatusChangedEvent(payoutId, PayoutStatus.HELD, to, releasedAt));
+        this.eventPublisher.publishEvent(new PayoutReleasedEvent(payoutId, to.name(), releasedAt, executeAt));
+        return new ReleasePayoutOutcome.Released(payoutId, to.name());
+    }
+}
@@ -1,7 +0,0 @@
-package com.luisovando.payout_service.domain.exceptions;
-
-public class IdempotencyConflictException extends RuntimeException {
-    public IdempotencyConflictException(String message) {
-        super(message);
-    }
-}
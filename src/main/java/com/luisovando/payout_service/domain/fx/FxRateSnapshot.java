@@ -0,0 +1,88 @@
+package com.luisovando.payout_service.domain.fx;
+
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable set of FX rates, all quoted against one base currency.
+ *
+ * <p>{@code unitsPerBase} holds how many units of each currency one unit of the
+ * base currency buys; the base itself is always 1. Cross rates are derived from it,
+ * so a snapshot with {@code n} currencies supports every one of the {@code n²} pairs.
+ */
+public final class FxRateSnapshot {
+    /**
+     * Decimal places kept for derived rates.
+     */
+    public static final int RATE_SCALE = 10;
+
+    private final String base;
+    private final Map<String, BigDecimal> unitsPerBase;
+    private final Instant asOf;
+
+    public FxRateSnapshot(String base, Map<String, BigDecimal> unitsPerBase, Instant asOf) {
+        Objects.requireNonNull(base, "base is required");
+        Objects.requireNonNull(unitsPerBase, "unitsPerBase is required");
+        Objects.requireNonNull(asOf, "asOf is required");
+
+        String normalizedBase = CurrencyVO.of(base).value();
+        BigDecimal baseRate = unitsPerBase.get(normalizedBase);
+        if (baseRate != null && baseRate.compareTo(BigDecimal.ONE) != 0) {
+            throw new IllegalArgumentException("rate of the base currency must be 1");
+        }
+        for (Map.Entry<String, BigDecimal> rate : unitsPerBase.entrySet()) {
+            CurrencyVO.of(rate.getKey());
+            if (rate.getValue() == null || rate.getValue().signum() <= 0) {
+                throw new IllegalArgumentException("rate of " + rate.getKey() + " must be greater than 0");
+            }
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>(unitsPerBase);
+        rates.put(normalizedBase, BigDecimal.ONE);
+
+        this.base = normalizedBase;
+        this.unitsPerBase = Map.copyOf(rates);
+        this.asOf = asOf;
+    }
+
+    public String base() {
+        return base;
+    }
+
+    public Instant asOf() {
+        return asOf;
+    }
+
+    public Set<String> currencies() {
+        return unitsPerBase.keySet();
+    }
+
+    public boolean supports(CurrencyVO currency) {
+        return unitsPerBase.containsKey(currency.value());
+    }
+
+    /**
+     * Units of {@code to} bought by one unit of {@code from}, rounded to {@link #RATE_SCALE} places.
+     *
+     * @throws IllegalArgumentException if either currency is not in the snapshot
+     */
+    public BigDecimal rate(CurrencyVO from, CurrencyVO to) {
+        BigDecimal fromRate = unitsPerBase.get(from.value());
+        BigDecimal toRate = unitsPerBase.get(to.value());
+        if (fromRate == null || toRate == null) {
+            throw new IllegalArgumentException("no FX rate for " + from.value() + "/" + to.value());
+        }
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        return toRate.divide(fromRate, MathContext.DECIMAL128).setScale(RATE_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
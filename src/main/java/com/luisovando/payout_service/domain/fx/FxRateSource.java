@@ -0,0 +1,16 @@
+package com.luisovando.payout_service.domain.fx;
+
+import java.io.IOException;
+
+/**
+ * Where FX rate snapshots come from.
+ */
+@FunctionalInterface
+public interface FxRateSource {
+    /**
+     * Loads a complete, consistent snapshot.
+     *
+     * @throws IOException if the rates cannot be read
+     */
+    FxRateSnapshot load() throws IOException;
+}
@@ -0,0 +1,61 @@
+package com.luisovando.payout_service.domain.payout;
+
+/**
+ * Lifecycle status of a payout, stored by name in {@code payouts.status}.
+ *
+ * <p>Statuses are declared in lifecycle order; a payout only moves forward along
+ * {@link #canBecome(PayoutStatus)}.
+ */
+public enum PayoutStatus {
+    /**
+     * Held for review as a near duplicate of an earlier payout; released to {@link #SCHEDULED}
+     * when it has an {@code executeAt}, otherwise to {@link #CREATED}.
+     */
+    HELD,
+    /**
+     * Accepted with a future {@code executeAt}; released to {@link #CREATED} when due.
+     */
+    SCHEDULED,
+    /**
+     * Accepted and ready to be paid out.
+     */
+    CREATED,
+    /**
+     * Taken by the provider.
+     */
+    PROCESSING,
+    /**
+     * Paid out by the provider.
+     */
+    PAID,
+    /**
+     * Rejected by the provider; final.
+     */
+    FAILED,
+    /**
+     * Paid out and later returned by the beneficiary's bank; final.
+     */
+    RETURNED;
+
+    /**
+     * Whether a payout in this status may move to {@code next}. Providers may skip
+     * {@link #PROCESSING}.
+     */
+    public boolean canBecome(PayoutStatus next) {
+        return switch (this) {
+            case HELD -> next == SCHEDULED || next == CREATED;
+            case SCHEDULED -> next == CREATED;
+            case CREATED -> next == PROCESSING || next == PAID || next == FAILED;
+            case PROCESSING -> next == PAID || next == FAILED;
+            case PAID -> next == RETURNED;
+            case FAILED, RETURNED -> false;
+        };
+    }
+
+    /**
+     * Whether providers report this status through callbacks.
+     */
+    public boolean isProviderReported() {
+        return this == PROCESSING || this == PAID || this == FAILED || this == RETURNED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.luisovando.payout_service.domain.payout;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published after the status of an existing payout changed and the change was committed.
+ */
+public record PayoutStatusChangedEvent(
+        UUID payoutId,
+        PayoutStatus from,
+        PayoutStatus to,
+        Instant changedAt
+) {
+}
@@ -53,4 +53,14 @@ public record CurrencyVO(String value) {
     public static CurrencyVO of(String raw) {
         return new CurrencyVO(raw);
     }
+
+    /**
+     * Returns the number of minor-unit digits of this currency (e.g. 2 for USD, 0 for JPY).
+     *
+     * @return the default fraction digits, or 2 for currencies without minor units defined
+     */
+    public int fractionDigits() {
+        int digits = java.util.Currency.getInstance(value).getDefaultFractionDigits();
+        return digits < 0 ? 2 : digits;
+    }
 }
\ No newline at end of file
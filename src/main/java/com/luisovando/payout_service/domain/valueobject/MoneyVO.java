@@ -1,6 +1,7 @@
 package com.luisovando.payout_service.domain.valueobject;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Objects;
 
 public record MoneyVO(BigDecimal amount, CurrencyVO currency) {
@@ -16,4 +17,23 @@ public record MoneyVO(BigDecimal amount, CurrencyVO currency) {
     public static MoneyVO of(BigDecimal amount, String currency) {
         return new MoneyVO(amount, CurrencyVO.of(currency));
     }
+
+    /**
+     * Converts this amount into {@code target} at {@code rate} (units of target per unit of this currency),
+     * rounding half-even to the minor units of the target currency.
+     *
+     * @throws NullPointerException if target or rate is null
+     * @throws IllegalArgumentException if rate is not positive or the converted amount rounds to 0
+     */
+    public MoneyVO convert(CurrencyVO target, BigDecimal rate) {
+        Objects.requireNonNull(target, "target currency is required");
+        Objects.requireNonNull(rate, "rate is required");
+
+        if (rate.signum() <= 0) {
+            throw new IllegalArgumentException("rate must be greater than 0");
+        }
+
+        BigDecimal converted = amount.multiply(rate).setScale(target.fractionDigits(), RoundingMode.HALF_EVEN);
+        return new MoneyVO(converted, target);
+    }
 }
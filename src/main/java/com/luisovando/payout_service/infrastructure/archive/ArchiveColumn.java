@@ -0,0 +1,19 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+/**
+ * Columns of an archive segment, in the order they are stored. Each column is compressed
+ * on its own, so a reader only inflates the columns it asks for.
+ */
+public enum ArchiveColumn {
+    ID,
+    AMOUNT,
+    CURRENCY,
+    STATUS,
+    IDEMPOTENCY_KEY,
+    CREATED_AT,
+    UPDATED_AT,
+    SETTLEMENT_AMOUNT,
+    SETTLEMENT_CURRENCY,
+    FX_RATE,
+    EXECUTE_AT
+}
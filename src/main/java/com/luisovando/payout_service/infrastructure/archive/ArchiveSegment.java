@@ -0,0 +1,340 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Layout of an archive segment file: a 16-byte header followed by one deflated block per
+ * {@link ArchiveColumn}, so values of the same kind sit next to each other and compress well.
+ *
+ * <pre>
+ * offset size field
+ *      0    4 magic "PAR1"
+ *      4    4 format version
+ *      8    4 row count
+ *     12    4 column count
+ *     16      per column: [int ordinal][int compressed length][int crc32c][deflated values]
+ * </pre>
+ *
+ * Strings of low cardinality are dictionary encoded, timestamps are stored as deltas of
+ * epoch microseconds and decimals as scale and unscaled bytes; nullable values carry a
+ * presence flag.
+ */
+final class ArchiveSegment {
+    static final int MAGIC = 0x50415231;
+    static final int VERSION = 1;
+    static final String SUFFIX = ".pcol";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private ArchiveSegment() {
+    }
+
+    /**
+     * Writes {@code rows} to {@code file} atomically: the segment is forced to disk under a
+     * temporary name and then renamed, so readers never see a partial segment.
+     */
+    static void write(Path file, List<ArchivedPayout> rows) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows.size());
+            out.writeInt(ArchiveColumn.values().length);
+            for (ArchiveColumn column : ArchiveColumn.values()) {
+                byte[] compressed = deflate(encode(column, rows));
+                out.writeInt(column.ordinal());
+                out.writeInt(compressed.length);
+                out.writeInt(checksum(compressed));
+                out.write(compressed);
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the rows of a segment, inflating only {@code columns}; the other values are {@code null}.
+     */
+    static List<ArchivedPayout> read(Path file, UUID companyId, Set<ArchiveColumn> columns) throws IOException {
+        Map<ArchiveColumn, Object> values = new EnumMap<>(ArchiveColumn.class);
+        int rows;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an archive segment: " + file);
+            }
+            if (in.readInt() != VERSION) {
+                throw new IOException("Unsupported archive segment format: " + file);
+            }
+            rows = in.readInt();
+            int columnCount = in.readInt();
+            for (int i = 0; i < columnCount; i++) {
+                ArchiveColumn column = ArchiveColumn.values()[in.readInt()];
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (!columns.contains(column)) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                byte[] compressed = in.readNBytes(length);
+                if (compressed.length != length || checksum(compressed) != checksum) {
+                    throw new IOException("Corrupt column " + column + " in archive segment " + file);
+                }
+                values.put(column, decode(column, inflate(compressed, file), rows));
+            }
+        }
+
+        List<ArchivedPayout> payouts = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            payouts.add(new ArchivedPayout(
+                    (UUID) value(values, ArchiveColumn.ID, row),
+                    companyId,
+                    (BigDecimal) value(values, ArchiveColumn.AMOUNT, row),
+                    (String) value(values, ArchiveColumn.CURRENCY, row),
+                    (String) value(values, ArchiveColumn.STATUS, row),
+                    (String) value(values, ArchiveColumn.IDEMPOTENCY_KEY, row),
+                    (Instant) value(values, ArchiveColumn.CREATED_AT, row),
+                    (Instant) value(values, ArchiveColumn.UPDATED_AT, row),
+                    (BigDecimal) value(values, ArchiveColumn.SETTLEMENT_AMOUNT, row),
+                    (String) value(values, ArchiveColumn.SETTLEMENT_CURRENCY, row),
+                    (BigDecimal) value(values, ArchiveColumn.FX_RATE, row),
+                    (Instant) value(values, ArchiveColumn.EXECUTE_AT, row)
+            ));
+        }
+        return payouts;
+    }
+
+    private static Object value(Map<ArchiveColumn, Object> values, ArchiveColumn column, int row) {
+        Object[] decoded = (Object[]) values.get(column);
+        return decoded == null ? null : decoded[row];
+    }
+
+    private static byte[] encode(ArchiveColumn column, List<ArchivedPayout> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 8);
+        DataOutputStream out = new DataOutputStream(bytes);
+        switch (column) {
+            case ID -> writeUuids(out, rows, ArchivedPayout::id);
+            case AMOUNT -> writeDecimals(out, rows, ArchivedPayout::amount);
+            case CURRENCY -> writeDictionary(out, rows, ArchivedPayout::currency);
+            case STATUS -> writeDictionary(out, rows, ArchivedPayout::status);
+            case IDEMPOTENCY_KEY -> writeStrings(out, rows, ArchivedPayout::idempotencyKey);
+            case CREATED_AT -> writeInstants(out, rows, ArchivedPayout::createdAt);
+            case UPDATED_AT -> writeInstants(out, rows, ArchivedPayout::updatedAt);
+            case SETTLEMENT_AMOUNT -> writeDecimals(out, rows, ArchivedPayout::settlementAmount);
+            case SETTLEMENT_CURRENCY -> writeDictionary(out, rows, ArchivedPayout::settlementCurrency);
+            case FX_RATE -> writeDecimals(out, rows, ArchivedPayout::fxRate);
+            case EXECUTE_AT -> writeInstants(out, rows, ArchivedPayout::executeAt);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Object[] decode(ArchiveColumn column, byte[] bytes, int rows) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        return switch (column) {
+            case ID -> readUuids(in, rows);
+            case AMOUNT, SETTLEMENT_AMOUNT, FX_RATE -> readDecimals(in, rows);
+            case CURRENCY, STATUS, SETTLEMENT_CURRENCY -> readDictionary(in, rows);
+            case IDEMPOTENCY_KEY -> readStrings(in, rows);
+            case CREATED_AT, UPDATED_AT, EXECUTE_AT -> readInstants(in, rows);
+        };
+    }
+
+    private static void writeUuids(DataOutputStream out, List<ArchivedPayout> rows,
+                                   Function<ArchivedPayout, UUID> getter) throws IOException {
+        for (ArchivedPayout row : rows) {
+            UUID value = getter.apply(row);
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    private static Object[] readUuids(DataInputStream in, int rows) throws IOException {
+        Object[] values = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = new UUID(in.readLong(), in.readLong());
+        }
+        return values;
+    }
+
+    private static void writeDecimals(DataOutputStream out, List<ArchivedPayout> rows,
+                                      Function<ArchivedPayout, BigDecimal> getter) throws IOException {
+        for (ArchivedPayout row : rows) {
+            BigDecimal value = getter.apply(row);
+            out.writeBoolean(value != null);
+            if (value != null) {
+                byte[] unscaled = value.unscaledValue().toByteArray();
+                out.writeInt(value.scale());
+                out.writeShort(unscaled.length);
+                out.write(unscaled);
+            }
+        }
+    }
+
+    private static Object[] readDecimals(DataInputStream in, int rows) throws IOException {
+        Object[] values = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            if (in.readBoolean()) {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedShort()];
+                in.readFully(unscaled);
+                values[i] = new BigDecimal(new BigInteger(unscaled), scale);
+            }
+        }
+        return values;
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<ArchivedPayout> rows,
+                                        Function<ArchivedPayout, String> getter) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] indexes = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String value = getter.apply(rows.get(i));
+            indexes[i] = value == null ? -1 : dictionary.computeIfAbsent(value, key -> {
+                entries.add(key);
+                return entries.size() - 1;
+            });
+        }
+        out.writeInt(entries.size());
+        for (String entry : entries) {
+            out.writeUTF(entry);
+        }
+        for (int index : indexes) {
+            out.writeInt(index);
+        }
+    }
+
+    private static Object[] readDictionary(DataInputStream in, int rows) throws IOException {
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+        Object[] values = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            int index = in.readInt();
+            values[i] = index < 0 ? null : dictionary[index];
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<ArchivedPayout> rows,
+                                     Function<ArchivedPayout, String> getter) throws IOException {
+        for (ArchivedPayout row : rows) {
+            String value = getter.apply(row);
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+    }
+
+    private static Object[] readStrings(DataInputStream in, int rows) throws IOException {
+        Object[] values = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = in.readBoolean() ? in.readUTF() : null;
+        }
+        return values;
+    }
+
+    private static void writeInstants(DataOutputStream out, List<ArchivedPayout> rows,
+                                      Function<ArchivedPayout, Instant> getter) throws IOException {
+        long previous = 0;
+        for (ArchivedPayout row : rows) {
+            Instant value = getter.apply(row);
+            out.writeBoolean(value != null);
+            if (value != null) {
+                long micros = Math.addExact(Math.multiplyExact(value.getEpochSecond(), 1_000_000L), value.getNano() / 1_000);
+                out.writeLong(micros - previous);
+                previous = micros;
+            }
+        }
+    }
+
+    private static Object[] readInstants(DataInputStream in, int rows) throws IOException {
+        Object[] values = new Object[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (in.readBoolean()) {
+                previous += in.readLong();
+                values[i] = Instant.ofEpochSecond(Math.floorDiv(previous, 1_000_000L),
+                        Math.floorMod(previous, 1_000_000L) * 1_000);
+            }
+        }
+        return values;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, Path file) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated column in archive segment " + file);
+                }
+                out.write(buffer, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column in archive segment " + file, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,35 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A payout moved from {@code payouts} to the archive. Columns left out of a read
+ * are {@code null}, except {@code companyId}, which comes from the segment location.
+ */
+public record ArchivedPayout(
+        UUID id,
+        UUID companyId,
+        BigDecimal amount,
+        String currency,
+        String status,
+        String idempotencyKey,
+        Instant createdAt,
+        Instant updatedAt,
+        BigDecimal settlementAmount,
+        String settlementCurrency,
+        BigDecimal fxRate,
+        Instant executeAt
+) {
+    /**
+     * Amount the payout settles for: the settlement amount, or the amount when it settles in its own currency.
+     */
+    public BigDecimal settledAmount() {
+        return settlementAmount != null ? settlementAmount : amount;
+    }
+
+    public String settledCurrency() {
+        return settlementCurrency != null ? settlementCurrency : currency;
+    }
+}
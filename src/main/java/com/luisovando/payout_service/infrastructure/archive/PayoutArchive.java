@@ -0,0 +1,139 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Archived payouts on local disk, stored as {@code <directory>/<company id>/<yyyy-MM>/segment-*.pcol}
+ * by company and month of creation.
+ *
+ * <p>Reads only open the segments of the requested company and months and stream them one
+ * at a time, so memory is bounded by one segment. A payout may be found in more than one
+ * segment if the archiver stopped between writing a segment and deleting its rows; the
+ * rows are identical and readers that merge with {@code payouts} keep one of them.
+ */
+@Component
+public class PayoutArchive {
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private final Path directory;
+
+    public PayoutArchive(PayoutArchiveProperties properties) {
+        this.directory = properties.directory();
+    }
+
+    /**
+     * Companies with archived payouts.
+     */
+    public List<UUID> companies() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<UUID> companies = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            for (Path entry : entries.filter(Files::isDirectory).toList()) {
+                try {
+                    companies.add(UUID.fromString(entry.getFileName().toString()));
+                } catch (IllegalArgumentException e) {
+                    // not a company directory
+                }
+            }
+        }
+        return companies;
+    }
+
+    /**
+     * Streams the archived payouts of {@code companyId} created in {@code [createdFrom, createdTo)},
+     * either bound may be {@code null}. Segments are read lazily and only {@code columns} are decompressed.
+     */
+    public Stream<ArchivedPayout> stream(UUID companyId, Instant createdFrom, Instant createdTo,
+                                         Set<ArchiveColumn> columns) throws IOException {
+        Set<ArchiveColumn> projection = EnumSet.noneOf(ArchiveColumn.class);
+        projection.addAll(columns);
+        if (createdFrom != null || createdTo != null) {
+            projection.add(ArchiveColumn.CREATED_AT);
+        }
+
+        YearMonth firstMonth = createdFrom == null ? null : YearMonth.from(createdFrom.atZone(ZoneOffset.UTC));
+        YearMonth lastMonth = createdTo == null ? null : YearMonth.from(createdTo.minusNanos(1).atZone(ZoneOffset.UTC));
+        return segments(companyId, firstMonth, lastMonth).stream()
+                .flatMap(segment -> {
+                    try {
+                        return ArchiveSegment.read(segment, companyId, projection).stream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .filter(payout -> (createdFrom == null || !payout.createdAt().isBefore(createdFrom))
+                        && (createdTo == null || payout.createdAt().isBefore(createdTo)));
+    }
+
+    /**
+     * Writes {@code rows}, all of {@code companyId} and created in {@code month}, as a new durable segment.
+     */
+    Path write(UUID companyId, YearMonth month, List<ArchivedPayout> rows) throws IOException {
+        Path monthDirectory = Files.createDirectories(directory.resolve(companyId.toString()).resolve(month.toString()));
+        Path file = monthDirectory.resolve(SEGMENT_PREFIX + UUID.randomUUID() + ArchiveSegment.SUFFIX);
+        ArchiveSegment.write(file, rows);
+        forceDirectory(monthDirectory);
+        return file;
+    }
+
+    private List<Path> segments(UUID companyId, YearMonth firstMonth, YearMonth lastMonth) throws IOException {
+        Path companyDirectory = directory.resolve(companyId.toString());
+        if (!Files.isDirectory(companyDirectory)) {
+            return List.of();
+        }
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> months = Files.list(companyDirectory)) {
+            for (Path monthDirectory : months.sorted().toList()) {
+                YearMonth month = monthOf(monthDirectory);
+                if (month == null || !Files.isDirectory(monthDirectory)
+                        || (firstMonth != null && month.isBefore(firstMonth))
+                        || (lastMonth != null && month.isAfter(lastMonth))) {
+                    continue;
+                }
+                try (Stream<Path> files = Files.list(monthDirectory)) {
+                    files.filter(file -> {
+                                String name = file.getFileName().toString();
+                                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(ArchiveSegment.SUFFIX);
+                            })
+                            .sorted()
+                            .forEach(segments::add);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static YearMonth monthOf(Path monthDirectory) {
+        try {
+            return YearMonth.parse(monthDirectory.getFileName().toString());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not every platform can sync a directory; the segment itself is already durable
+        }
+    }
+}
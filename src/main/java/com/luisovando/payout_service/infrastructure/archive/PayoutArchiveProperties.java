@@ -0,0 +1,23 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the archival of settled payouts ({@code payouts.archive.*}).
+ *
+ * @param directory directory holding the segment files, one subdirectory per company and month
+ * @param olderThan age, by creation time, after which a settled payout is archived; idempotency
+ *                  keys of archived payouts are no longer enforced, so it must exceed any retry window
+ * @param batchSize payouts moved per transaction, which also bounds the rows of a segment
+ */
+@ConfigurationProperties("payouts.archive")
+public record PayoutArchiveProperties(
+        @DefaultValue("data/archive") Path directory,
+        @DefaultValue("90d") Duration olderThan,
+        @DefaultValue("5000") int batchSize
+) {
+}
@@ -0,0 +1,193 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves settled payouts older than {@code payouts.archive.older-than} from {@code payouts}
+ * to the {@link PayoutArchive}, on the {@code payouts.archive.cron} schedule (disabled by default).
+ *
+ * <p>Each batch locks up to {@code batch-size} payouts, writes them as one durable segment per
+ * company and month and deletes them in the same transaction. Segments of a batch that rolls
+ * back are removed again; if the process dies after a segment is written but before the
+ * delete commits, the next run archives the rows again and readers drop the duplicate.
+ *
+ * <p>The idempotency key and request parameters of every archived payout are kept in
+ * {@code payout_tombstones}, written in the transaction that deletes the payout, so a retry
+ * of an archived payout is still replayed or refused instead of creating it again. An
+ * archived payout no longer takes part in status updates: a {@code RETURNED} callback for an
+ * archived {@code PAID} payout is ignored.
+ */
+@Component
+public class PayoutArchiver {
+    private static final Logger log = LoggerFactory.getLogger(PayoutArchiver.class);
+    private static final String SELECT_SETTLED = "SELECT id, company_id, amount, currency, status, idempotency_key,"
+            + " created_at, updated_at, settlement_amount, settlement_currency, fx_rate, execute_at"
+            + " FROM payouts WHERE created_at < ? AND status IN (?, ?, ?)"
+            + " ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String INSERT_TOMBSTONE = "INSERT INTO payout_tombstones (company_id, idempotency_key,"
+            + " payout_id, status, amount, currency, settlement_currency, execute_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PayoutArchive archive;
+    private final PayoutArchiveProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public PayoutArchiver(
+            @Qualifier(Bulkheads.BULK) DataSource dataSource,
+            @Qualifier(Bulkheads.BULK) PlatformTransactionManager transactionManager,
+            PayoutArchive archive,
+            PayoutArchiveProperties properties) {
+        this(dataSource, transactionManager, archive, properties, Clock.systemUTC());
+    }
+
+    PayoutArchiver(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            PayoutArchive archive,
+            PayoutArchiveProperties properties,
+            Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archive = archive;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${payouts.archive.cron:-}", zone = "UTC")
+    public void archiveSettled() {
+        long started = System.nanoTime();
+        long archived = archive();
+        if (archived > 0) {
+            log.info("Archived {} settled payouts in {}", archived, Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Archives every settled payout created before {@code now - olderThan}.
+     *
+     * @return the number of payouts moved out of {@code payouts}
+     */
+    public long archive() {
+        Instant cutoff = clock.instant().minus(properties.olderThan());
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == properties.batchSize());
+        return total;
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<ArchivedPayout> payouts = jdbcTemplate.query(SELECT_SETTLED, PayoutArchiver::map,
+                Timestamp.from(cutoff), PayoutStatus.PAID.name(), PayoutStatus.FAILED.name(),
+                PayoutStatus.RETURNED.name(), properties.batchSize());
+        if (payouts.isEmpty()) {
+            return 0;
+        }
+
+        Map<SegmentKey, List<ArchivedPayout>> segments = new LinkedHashMap<>();
+        for (ArchivedPayout payout : payouts) {
+            YearMonth month = YearMonth.from(payout.createdAt().atZone(ZoneOffset.UTC));
+            segments.computeIfAbsent(new SegmentKey(payout.companyId(), month), key -> new ArrayList<>()).add(payout);
+        }
+
+        List<Path> written = new ArrayList<>(segments.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    deleteQuietly(written);
+                }
+            }
+        });
+        try {
+            for (Map.Entry<SegmentKey, List<ArchivedPayout>> segment : segments.entrySet()) {
+                written.add(archive.write(segment.getKey().companyId(), segment.getKey().month(), segment.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TOMBSTONE, payouts, payouts.size(), (ps, payout) -> {
+            ps.setObject(1, payout.companyId());
+            ps.setString(2, payout.idempotencyKey());
+            ps.setObject(3, payout.id());
+            ps.setString(4, payout.status());
+            ps.setBigDecimal(5, payout.amount());
+            ps.setString(6, payout.currency());
+            ps.setString(7, payout.settledCurrency());
+            ps.setTimestamp(8, payout.executeAt() == null ? null : Timestamp.from(payout.executeAt()));
+        });
+        jdbcTemplate.batchUpdate("DELETE FROM payouts WHERE id = ?", payouts, payouts.size(),
+                (ps, payout) -> ps.setObject(1, payout.id()));
+        return payouts.size();
+    }
+
+    private static ArchivedPayout map(ResultSet rs, int rowNum) throws SQLException {
+        return new ArchivedPayout(
+                rs.getObject("id", UUID.class),
+                rs.getObject("company_id", UUID.class),
+                rs.getBigDecimal("amount"),
+                rs.getString("currency"),
+                rs.getString("status"),
+                rs.getString("idempotency_key"),
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("updated_at")),
+                rs.getBigDecimal("settlement_amount"),
+                rs.getString("settlement_currency"),
+                rs.getBigDecimal("fx_rate"),
+                instant(rs.getTimestamp("execute_at"))
+        );
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not remove archive segment {} of a rolled back batch", file, e);
+            }
+        }
+    }
+
+    private record SegmentKey(UUID companyId, YearMonth month) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tamper-evident, append-only journal of accepted create commands.
+ *
+ * <p>Committed payouts are published into a lock-free ring buffer; a single writer
+ * thread appends them to memory-mapped segment files with a SHA-256 hash chain and
+ * periodically forces them to disk. Request threads never perform I/O here.
+ *
+ * <p>A command that cannot be appended is replaced by a gap record carrying its payout
+ * id, so the chain stays verifiable and the verifier reports the gap. If not even the
+ * gap can be written, the journal is broken: it moves readiness to
+ * {@code REFUSING_TRAFFIC} so the instance stops taking creates it could not journal.
+ *
+ * <p>Use {@link AuditJournalTool} to verify or dump a journal directory offline.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payouts.audit-journal", name = "enabled", havingValue = "true")
+public class AuditJournal {
+    private static final Logger log = LoggerFactory.getLogger(AuditJournal.class);
+    private static final int DRAIN_BATCH = 1_024;
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    private final MpscRingBuffer<PayoutCreatedEvent> ring;
+    private final AuditJournalWriter writer;
+    private final long forceIntervalNanos;
+    private final Thread writerThread;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+    private volatile boolean running = true;
+    private volatile boolean broken;
+
+    public AuditJournal(AuditJournalProperties properties, ApplicationEventPublisher eventPublisher) throws IOException {
+        this.eventPublisher = eventPublisher;
+        this.ring = new MpscRingBuffer<>(properties.ringCapacity());
+        this.writer = new AuditJournalWriter(properties.directory(), properties.recordsPerSegment());
+        this.forceIntervalNanos = properties.forceInterval().toNanos();
+        this.writerThread = new Thread(this::runWriter, "audit-journal-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+
+        log.info("Audit journal opened at {} (next sequence {})", properties.directory(), writer.nextSequence());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayoutCreated(PayoutCreatedEvent event) {
+        ring.publish(event);
+    }
+
+    /**
+     * Number of accepted commands not yet written to the mapped segment.
+     */
+    public long backlog() {
+        return ring.backlog();
+    }
+
+    /**
+     * Commands replaced by a gap record because they could not be appended.
+     */
+    public long gaps() {
+        return gaps.get();
+    }
+
+    /**
+     * Commands missing from the journal without even a gap record.
+     */
+    public long lost() {
+        return lost.get();
+    }
+
+    /**
+     * Whether a command could not be recorded at all; stays set until restart.
+     */
+    public boolean broken() {
+        return broken;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writerThread.join();
+    }
+
+    private void runWriter() {
+        long lastForce = System.nanoTime();
+        while (running || ring.backlog() > 0) {
+            int drained = ring.drain(this::append, DRAIN_BATCH);
+
+            long now = System.nanoTime();
+            if (now - lastForce >= forceIntervalNanos) {
+                writer.force();
+                lastForce = now;
+            }
+
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        writer.close();
+    }
+
+    private void append(PayoutCreatedEvent event) {
+        try {
+            writer.append(event);
+            return;
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not journal payout {}, recording a gap", event.payoutId(), e);
+        }
+
+        try {
+            writer.appendGap(event);
+            gaps.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            lost.incrementAndGet();
+            log.error("Could not record the journal gap of payout {}; audit journal is broken", event.payoutId(), e);
+            if (!broken) {
+                broken = true;
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the append-only audit journal ({@code payouts.audit-journal.*}).
+ *
+ * @param enabled            whether accepted create commands are journaled
+ * @param directory          directory holding the segment files
+ * @param recordsPerSegment  records per segment file before rolling to a new one
+ * @param ringCapacity       slots of the in-memory ring between request threads and the writer (power of two)
+ * @param forceInterval      how often the writer flushes mapped pages to disk
+ */
+@ConfigurationProperties("payouts.audit-journal")
+public record AuditJournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/audit-journal") Path directory,
+        @DefaultValue("262144") int recordsPerSegment,
+        @DefaultValue("65536") int ringCapacity,
+        @DefaultValue("200ms") Duration forceInterval
+) {
+}
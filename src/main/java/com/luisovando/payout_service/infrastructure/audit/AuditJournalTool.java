@@ -0,0 +1,65 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Command line entry point for offline journal checks.
+ *
+ * <pre>
+ * verify &lt;directory&gt; [threads]   verifies the hash chain of every segment
+ * dump &lt;directory&gt;               prints every record as CSV
+ * </pre>
+ *
+ * <p>Exits with status 1 when verification finds a problem.
+ */
+public final class AuditJournalTool {
+
+    private AuditJournalTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: (verify <directory> [threads] | dump <directory>)");
+            System.exit(2);
+        }
+
+        Path directory = Path.of(args[1]);
+        switch (args[0]) {
+            case "verify" -> {
+                int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+                long started = System.nanoTime();
+                AuditJournalVerifier.Report report = AuditJournalVerifier.verify(directory, threads);
+                long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+                System.out.printf("segments=%d records=%d gaps=%d sequences=%d..%d elapsed=%dms%n",
+                        report.segments(), report.records(), report.gaps(), report.firstSequence(),
+                        report.lastSequence(), elapsedMillis);
+                report.problems().forEach(problem -> System.out.println("PROBLEM " + problem));
+                System.exit(report.valid() ? 0 : 1);
+            }
+            case "dump" -> {
+                BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                out.write("sequence,accepted_at,payout_id,company_id,amount,currency,idempotency_key_sha256,hash,gap");
+                out.newLine();
+                AuditJournalVerifier.replay(directory, record -> {
+                    try {
+                        out.write(record.toString());
+                        out.newLine();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.flush();
+            }
+            default -> {
+                System.err.println("unknown command: " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Reads and verifies audit journal segments.
+ *
+ * <p>Segments are verified in parallel, each one checking its own hash chain
+ * starting from the anchor hash in its header. The segments are then linked:
+ * each anchor must equal the last hash of the previous segment and sequences must
+ * be contiguous. Gap records, written in place of commands the journal could not
+ * append, verify as part of the chain but are reported as problems.
+ */
+public final class AuditJournalVerifier {
+
+    private AuditJournalVerifier() {
+    }
+
+    public record Report(int segments, long records, long gaps, long firstSequence, long lastSequence,
+                         List<String> problems) {
+        public boolean valid() {
+            return problems.isEmpty();
+        }
+    }
+
+    private record SegmentSummary(Path file, long firstSequence, byte[] anchorHash, long records, byte[] lastHash,
+                                  List<String> gaps, String problem) {
+    }
+
+    /**
+     * Verifies every segment of the journal using {@code parallelism} threads.
+     */
+    public static Report verify(Path directory, int parallelism) throws IOException, InterruptedException {
+        List<Path> files = AuditSegment.list(directory);
+        List<SegmentSummary> summaries = new ArrayList<>(files.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<SegmentSummary>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submit(() -> verifySegment(file)));
+            }
+            for (Future<SegmentSummary> future : futures) {
+                summaries.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Audit journal verification failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> problems = new ArrayList<>();
+        long records = 0;
+        long gaps = 0;
+        byte[] previousHash = new byte[AuditRecord.HASH_LENGTH];
+        long expectedSequence = 1;
+        for (SegmentSummary summary : summaries) {
+            for (String gap : summary.gaps()) {
+                problems.add(summary.file().getFileName() + ": " + gap);
+            }
+            gaps += summary.gaps().size();
+            if (summary.problem() != null) {
+                problems.add(summary.file().getFileName() + ": " + summary.problem());
+            }
+            if (summary.firstSequence() != expectedSequence) {
+                problems.add(summary.file().getFileName() + ": expected first sequence " + expectedSequence
+                        + " but found " + summary.firstSequence());
+            }
+            if (!Arrays.equals(summary.anchorHash(), previousHash)) {
+                problems.add(summary.file().getFileName() + ": chain anchor does not match previous segment");
+            }
+            records += summary.records();
+            previousHash = summary.lastHash();
+            expectedSequence = summary.firstSequence() + summary.records();
+        }
+
+        long firstSequence = summaries.isEmpty() ? 0 : summaries.get(0).firstSequence();
+        return new Report(summaries.size(), records, gaps, firstSequence, expectedSequence - 1, List.copyOf(problems));
+    }
+
+    /**
+     * Streams every record of the journal, in sequence order, to {@code consumer}.
+     */
+    public static void replay(Path directory, Consumer<AuditRecord> consumer) throws IOException {
+        for (Path file : AuditSegment.list(directory)) {
+            MappedByteBuffer segment = AuditSegment.open(file, FileChannel.MapMode.READ_ONLY);
+            int capacity = AuditSegment.capacity(segment);
+            for (int index = 0; index < capacity; index++) {
+                int offset = AuditSegment.recordOffset(index);
+                if (segment.getLong(offset) == 0) {
+                    break;
+                }
+                consumer.accept(AuditRecord.decode(segment, offset));
+            }
+        }
+    }
+
+    /**
+     * Checks the record at {@code offset}: its sequence, its link to {@code previousHash}
+     * and its own hash.
+     *
+     * @return the record hash, or {@code null} when the record does not verify
+     */
+    static byte[] verifyRecord(ByteBuffer segment, int offset, long expectedSequence, byte[] previousHash,
+                               MessageDigest digest) {
+        if (segment.getLong(offset) != expectedSequence) {
+            return null;
+        }
+
+        byte[] body = new byte[AuditRecord.HASHED_LENGTH];
+        segment.get(offset, body);
+        if (!Arrays.equals(body, AuditRecord.PREVIOUS_HASH_OFFSET, AuditRecord.HASHED_LENGTH,
+                previousHash, 0, previousHash.length)) {
+            return null;
+        }
+
+        byte[] stored = new byte[AuditRecord.HASH_LENGTH];
+        segment.get(offset + AuditRecord.HASH_OFFSET, stored);
+        byte[] computed = digest.digest(body);
+        return Arrays.equals(stored, computed) ? stored : null;
+    }
+
+    private static SegmentSummary verifySegment(Path file) {
+        try {
+            MappedByteBuffer segment = AuditSegment.open(file, FileChannel.MapMode.READ_ONLY);
+            MessageDigest digest = AuditRecord.sha256();
+            int capacity = AuditSegment.capacity(segment);
+            long firstSequence = AuditSegment.firstSequence(segment);
+            byte[] anchor = AuditSegment.previousHash(segment);
+
+            byte[] previousHash = anchor;
+            List<String> gaps = new ArrayList<>();
+            int index = 0;
+            String problem = null;
+            for (; index < capacity; index++) {
+                int offset = AuditSegment.recordOffset(index);
+                if (segment.getLong(offset) == 0) {
+                    break;
+                }
+                byte[] hash = verifyRecord(segment, offset, firstSequence + index, previousHash, digest);
+                if (hash == null) {
+                    problem = "record " + (firstSequence + index) + " fails verification";
+                    break;
+                }
+                if ((segment.get(offset + AuditRecord.FLAGS_OFFSET) & AuditRecord.GAP) != 0) {
+                    AuditRecord gap = AuditRecord.decode(segment, offset);
+                    gaps.add("record " + gap.sequence() + " is a gap: payout " + gap.payoutId() + " was not journaled");
+                }
+                previousHash = hash;
+            }
+            if (problem == null) {
+                for (int next = index + 1; next < capacity; next++) {
+                    if (segment.getLong(AuditSegment.recordOffset(next)) != 0) {
+                        problem = "unexpected record after the end of the segment at slot " + next;
+                        break;
+                    }
+                }
+            }
+
+            return new SegmentSummary(file, firstSequence, anchor, index, previousHash, List.copyOf(gaps), problem);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends records to memory-mapped segment files and rolls to a new segment when
+ * the current one is full.
+ *
+ * <p>Not thread-safe: it is owned by the single journal writer thread.
+ */
+final class AuditJournalWriter implements AutoCloseable {
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final MessageDigest digest = AuditRecord.sha256();
+    private final ByteBuffer scratch = ByteBuffer.allocate(AuditRecord.HASHED_LENGTH);
+    private final byte[] lastHash = new byte[AuditRecord.HASH_LENGTH];
+
+    private MappedByteBuffer segment;
+    private int capacity;
+    private int position;
+    private long nextSequence = 1;
+    private boolean dirty;
+
+    AuditJournalWriter(Path directory, int recordsPerSegment) throws IOException {
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("recordsPerSegment must be greater than 0");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    long nextSequence() {
+        return nextSequence;
+    }
+
+    void append(PayoutCreatedEvent event) throws IOException {
+        if (segment == null || position == capacity) {
+            roll();
+        }
+
+        scratch.clear();
+        AuditRecord.encodeBody(
+                scratch,
+                nextSequence,
+                event.acceptedAt(),
+                event.payoutId(),
+                event.companyId(),
+                event.money().amount(),
+                event.money().currency().value(),
+                event.settlement().amount(),
+                event.settlement().currency().value(),
+                event.executeAt(),
+                event.status(),
+                event.idempotencyKey(),
+                lastHash,
+                digest
+        );
+        write();
+    }
+
+    /**
+     * Appends a gap record in place of {@code event}, which could not be appended.
+     */
+    void appendGap(PayoutCreatedEvent event) throws IOException {
+        if (segment == null || position == capacity) {
+            roll();
+        }
+
+        scratch.clear();
+        AuditRecord.encodeGap(
+                scratch,
+                nextSequence,
+                event.acceptedAt() != null ? event.acceptedAt() : Instant.now(),
+                event.payoutId(),
+                event.companyId(),
+                lastHash
+        );
+        write();
+    }
+
+    private void write() {
+        digest.update(scratch.array(), 0, AuditRecord.HASHED_LENGTH);
+        byte[] hash = digest.digest();
+
+        int offset = AuditSegment.recordOffset(position);
+        segment.put(offset, scratch.array(), 0, AuditRecord.HASHED_LENGTH);
+        segment.put(offset + AuditRecord.HASH_OFFSET, hash);
+
+        System.arraycopy(hash, 0, lastHash, 0, hash.length);
+        position++;
+        nextSequence++;
+        dirty = true;
+    }
+
+    /**
+     * Flushes written records of the current segment to the storage device.
+     */
+    void force() {
+        if (segment != null && dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        segment = null;
+    }
+
+    private void roll() throws IOException {
+        force();
+        capacity = recordsPerSegment;
+        segment = AuditSegment.create(AuditSegment.fileFor(directory, nextSequence), capacity, nextSequence, lastHash);
+        position = 0;
+    }
+
+    /**
+     * Reopens the last segment and positions after its last valid record. A record
+     * that fails verification is only tolerated as a torn write at the very tail;
+     * anything else means the journal was modified and the writer refuses to start.
+     */
+    private void recover() throws IOException {
+        List<Path> segments = AuditSegment.list(directory);
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        MappedByteBuffer last = AuditSegment.open(segments.get(segments.size() - 1), FileChannel.MapMode.READ_WRITE);
+        int lastCapacity = AuditSegment.capacity(last);
+        long firstSequence = AuditSegment.firstSequence(last);
+        byte[] previousHash = AuditSegment.previousHash(last);
+
+        int index = 0;
+        while (index < lastCapacity) {
+            int offset = AuditSegment.recordOffset(index);
+            if (last.getLong(offset) == 0) {
+                break;
+            }
+            byte[] hash = AuditJournalVerifier.verifyRecord(last, offset, firstSequence + index, previousHash, digest);
+            if (hash == null) {
+                tolerateTornTail(last, lastCapacity, index, segments.get(segments.size() - 1));
+                break;
+            }
+            previousHash = hash;
+            index++;
+        }
+
+        segment = last;
+        capacity = lastCapacity;
+        position = index;
+        nextSequence = firstSequence + index;
+        System.arraycopy(previousHash, 0, lastHash, 0, lastHash.length);
+    }
+
+    private static void tolerateTornTail(MappedByteBuffer segment, int capacity, int index, Path file) {
+        for (int next = index + 1; next < capacity; next++) {
+            if (segment.getLong(AuditSegment.recordOffset(next)) != 0) {
+                throw new IllegalStateException("Audit journal segment " + file + " is corrupted at record " + index);
+            }
+        }
+        int offset = AuditSegment.recordOffset(index);
+        segment.put(offset, new byte[AuditRecord.SIZE]);
+        segment.force();
+    }
+}
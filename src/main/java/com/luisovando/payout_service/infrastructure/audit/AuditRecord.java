@@ -0,0 +1,209 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * One journaled create command in its fixed binary layout.
+ *
+ * <pre>
+ * offset size field
+ *      0    8 sequence (starts at 1, 0 marks an empty slot)
+ *      8    8 accepted at, epoch microseconds
+ *     16   16 payout id
+ *     32   16 company id
+ *     48    8 amount, unscaled value
+ *     56    4 amount scale
+ *     60    3 currency, ASCII
+ *     63    1 flags: 1 marks a gap, a command that could not be journaled, 2 an execution time
+ *     64    8 settlement amount, unscaled value
+ *     72    4 settlement amount scale
+ *     76    3 settlement currency, ASCII
+ *     79    1 reserved
+ *     80    8 execute at, epoch microseconds (0 unless flag 2 is set)
+ *     88   16 status the payout was created in, ASCII padded with zeros
+ *    104   32 SHA-256 of the idempotency key
+ *    136   32 hash of the previous record
+ *    168   32 SHA-256 of bytes [0, 168)
+ * </pre>
+ */
+public record AuditRecord(
+        long sequence,
+        Instant acceptedAt,
+        UUID payoutId,
+        UUID companyId,
+        BigDecimal amount,
+        String currency,
+        BigDecimal settlementAmount,
+        String settlementCurrency,
+        Instant executeAt,
+        String status,
+        byte[] idempotencyKeyHash,
+        byte[] previousHash,
+        byte[] hash,
+        boolean gap
+) {
+    public static final int SIZE = 200;
+    static final int HASHED_LENGTH = 168;
+    static final int HASH_LENGTH = 32;
+    static final int PREVIOUS_HASH_OFFSET = 136;
+    static final int HASH_OFFSET = 168;
+    static final int FLAGS_OFFSET = 63;
+    static final int STATUS_LENGTH = 16;
+    static final byte GAP = 1;
+    static final byte HAS_EXECUTE_AT = 2;
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Writes the hashed part of a record (bytes [0, 168)) into {@code target} at its current position.
+     * A failed call may leave partial bytes in {@code target}, but never in {@code digest}.
+     */
+    static void encodeBody(
+            ByteBuffer target,
+            long sequence,
+            Instant acceptedAt,
+            UUID payoutId,
+            UUID companyId,
+            BigDecimal amount,
+            String currency,
+            BigDecimal settlementAmount,
+            String settlementCurrency,
+            Instant executeAt,
+            String status,
+            String idempotencyKey,
+            byte[] previousHash,
+            MessageDigest digest) {
+        byte[] statusBytes = status.getBytes(StandardCharsets.US_ASCII);
+        if (statusBytes.length > STATUS_LENGTH) {
+            throw new IllegalArgumentException("status does not fit the audit record: " + status);
+        }
+        target.putLong(sequence);
+        target.putLong(micros(acceptedAt));
+        target.putLong(payoutId.getMostSignificantBits());
+        target.putLong(payoutId.getLeastSignificantBits());
+        target.putLong(companyId.getMostSignificantBits());
+        target.putLong(companyId.getLeastSignificantBits());
+        target.putLong(amount.unscaledValue().longValueExact());
+        target.putInt(amount.scale());
+        target.put(currency.getBytes(StandardCharsets.US_ASCII), 0, 3);
+        target.put(executeAt != null ? HAS_EXECUTE_AT : 0);
+        target.putLong(settlementAmount.unscaledValue().longValueExact());
+        target.putInt(settlementAmount.scale());
+        target.put(settlementCurrency.getBytes(StandardCharsets.US_ASCII), 0, 3);
+        target.put((byte) 0);
+        target.putLong(executeAt != null ? micros(executeAt) : 0);
+        target.put(statusBytes);
+        target.put(new byte[STATUS_LENGTH - statusBytes.length]);
+        target.put(digest.digest(idempotencyKey.getBytes(StandardCharsets.UTF_8)));
+        target.put(previousHash);
+    }
+
+    /**
+     * Writes the hashed part of a gap record: it takes the sequence of a command that could not
+     * be journaled and keeps only what identifies it, so the chain stays intact and the
+     * verifier can report the gap.
+     */
+    static void encodeGap(ByteBuffer target, long sequence, Instant acceptedAt, UUID payoutId, UUID companyId,
+                          byte[] previousHash) {
+        UUID unknown = new UUID(0, 0);
+        UUID payout = payoutId != null ? payoutId : unknown;
+        UUID company = companyId != null ? companyId : unknown;
+        target.putLong(sequence);
+        target.putLong(micros(acceptedAt));
+        target.putLong(payout.getMostSignificantBits());
+        target.putLong(payout.getLeastSignificantBits());
+        target.putLong(company.getMostSignificantBits());
+        target.putLong(company.getLeastSignificantBits());
+        target.putLong(0);
+        target.putInt(0);
+        target.put(new byte[]{'?', '?', '?'});
+        target.put(GAP);
+        target.putLong(0);
+        target.putInt(0);
+        target.put(new byte[]{'?', '?', '?'});
+        target.put((byte) 0);
+        target.putLong(0);
+        target.put(new byte[STATUS_LENGTH]);
+        target.put(new byte[HASH_LENGTH]);
+        target.put(previousHash);
+    }
+
+    /**
+     * Reads the record stored at {@code offset} of {@code source}.
+     */
+    static AuditRecord decode(ByteBuffer source, int offset) {
+        ByteBuffer buffer = source.duplicate().position(offset);
+        long sequence = buffer.getLong();
+        long micros = buffer.getLong();
+        UUID payoutId = new UUID(buffer.getLong(), buffer.getLong());
+        UUID companyId = new UUID(buffer.getLong(), buffer.getLong());
+        long unscaled = buffer.getLong();
+        int scale = buffer.getInt();
+        byte[] currency = new byte[3];
+        buffer.get(currency);
+        byte flags = buffer.get();
+        long settlementUnscaled = buffer.getLong();
+        int settlementScale = buffer.getInt();
+        byte[] settlementCurrency = new byte[3];
+        buffer.get(settlementCurrency);
+        buffer.get();
+        long executeAtMicros = buffer.getLong();
+        byte[] status = new byte[STATUS_LENGTH];
+        buffer.get(status);
+        int statusLength = 0;
+        while (statusLength < STATUS_LENGTH && status[statusLength] != 0) {
+            statusLength++;
+        }
+        byte[] keyHash = new byte[HASH_LENGTH];
+        byte[] previousHash = new byte[HASH_LENGTH];
+        byte[] hash = new byte[HASH_LENGTH];
+        buffer.get(keyHash).get(previousHash).get(hash);
+
+        return new AuditRecord(
+                sequence,
+                instant(micros),
+                payoutId,
+                companyId,
+                BigDecimal.valueOf(unscaled, scale),
+                new String(currency, StandardCharsets.US_ASCII),
+                BigDecimal.valueOf(settlementUnscaled, settlementScale),
+                new String(settlementCurrency, StandardCharsets.US_ASCII),
+                (flags & HAS_EXECUTE_AT) != 0 ? instant(executeAtMicros) : null,
+                new String(status, 0, statusLength, StandardCharsets.US_ASCII),
+                keyHash,
+                previousHash,
+                hash,
+                (flags & GAP) != 0
+        );
+    }
+
+    private static long micros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    private static Instant instant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    @Override
+    public String toString() {
+        HexFormat hex = HexFormat.of();
+        return sequence + "," + acceptedAt + "," + payoutId + "," + companyId + "," + amount.toPlainString() + ","
+                + currency + "," + settlementAmount.toPlainString() + "," + settlementCurrency + ","
+                + (executeAt != null ? executeAt : "") + "," + status + ","
+                + hex.formatHex(idempotencyKeyHash) + "," + hex.formatHex(hash) + "," + gap;
+    }
+}
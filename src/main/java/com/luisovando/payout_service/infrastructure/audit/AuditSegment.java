@@ -0,0 +1,121 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Layout of a journal segment file: a 64-byte header followed by fixed-size records.
+ *
+ * <pre>
+ * offset size field
+ *      0    4 magic "PAJ1"
+ *      4    4 format version
+ *      8    4 record size
+ *     12    4 record capacity
+ *     16    8 sequence of the first record
+ *     24   32 hash of the last record of the previous segment (zeros for the first one)
+ *     56    8 reserved
+ * </pre>
+ */
+final class AuditSegment {
+    static final int MAGIC = 0x50414A31;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".journal";
+
+    private AuditSegment() {
+    }
+
+    static Path fileFor(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    /**
+     * Segment files of the directory, ordered by their first sequence.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static MappedByteBuffer create(Path file, int capacity, long firstSequence, byte[] previousHash) throws IOException {
+        MappedByteBuffer buffer = map(file, capacity, FileChannel.MapMode.READ_WRITE,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, AuditRecord.SIZE);
+        buffer.putInt(12, capacity);
+        buffer.putLong(16, firstSequence);
+        buffer.put(24, previousHash);
+        return buffer;
+    }
+
+    static MappedByteBuffer open(Path file, FileChannel.MapMode mode) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int capacity = readCapacity(channel, file);
+            StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                    ? new StandardOpenOption[]{StandardOpenOption.READ}
+                    : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+            return map(file, capacity, mode, options);
+        }
+    }
+
+    static int capacity(ByteBuffer segment) {
+        return segment.getInt(12);
+    }
+
+    static long firstSequence(ByteBuffer segment) {
+        return segment.getLong(16);
+    }
+
+    static byte[] previousHash(ByteBuffer segment) {
+        byte[] hash = new byte[AuditRecord.HASH_LENGTH];
+        segment.get(24, hash);
+        return hash;
+    }
+
+    static int recordOffset(int index) {
+        return HEADER_SIZE + index * AuditRecord.SIZE;
+    }
+
+    private static int readCapacity(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header) > 0) {
+            // keep reading until the header is complete
+        }
+        if (header.position() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException("Not an audit journal segment: " + file);
+        }
+        if (header.getInt(4) != VERSION || header.getInt(8) != AuditRecord.SIZE) {
+            throw new IOException("Unsupported audit journal segment format: " + file + " (version "
+                    + header.getInt(4) + ", record size " + header.getInt(8) + ")");
+        }
+        return header.getInt(12);
+    }
+
+    private static MappedByteBuffer map(Path file, int capacity, FileChannel.MapMode mode,
+                                        StandardOpenOption... options) throws IOException {
+        long size = HEADER_SIZE + (long) capacity * AuditRecord.SIZE;
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, size);
+        }
+    }
+}
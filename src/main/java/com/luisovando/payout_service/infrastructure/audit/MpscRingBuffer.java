@@ -0,0 +1,87 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer / single-consumer ring buffer.
+ *
+ * <p>Producers claim a slot with a single atomic increment and never take a lock.
+ * Each slot carries a sequence number telling whether it is free for the claiming
+ * producer or ready for the consumer. A producer only waits when the ring is full,
+ * i.e. when the consumer is a whole ring behind.
+ */
+final class MpscRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publishes an element, waiting only while the ring is full.
+     */
+    void publish(E element) {
+        long position = tail.getAndIncrement();
+        int index = (int) (position & mask);
+
+        int spins = 0;
+        while (sequences.get(index) != position) {
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(1_000);
+            }
+        }
+
+        elements.lazySet(index, element);
+        sequences.set(index, position + 1);
+    }
+
+    /**
+     * Hands up to {@code limit} published elements to {@code consumer}. Must only be
+     * called from the consumer thread.
+     *
+     * @return the number of elements consumed
+     */
+    int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+
+            E element = elements.get(index);
+            elements.lazySet(index, null);
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate number of published but not yet consumed elements.
+     */
+    long backlog() {
+        return Math.max(0, tail.get() - head);
+    }
+}
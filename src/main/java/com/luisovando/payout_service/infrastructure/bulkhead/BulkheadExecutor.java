@@ -0,0 +1,131 @@
+package com.luisovando.payout_service.infrastructure.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lane of work with its own threads, bounded queue and rejection policy, so a burst in one
+ * lane cannot take threads or queue slots from another.
+ *
+ * <p>When all threads are busy and the queue is full, {@link Overflow#REJECT} fails the
+ * submission with {@link BulkheadFullException}, and {@link Overflow#CALLER_RUNS} runs the
+ * task on the submitting thread, slowing the producer down to the pace of the lane. Both
+ * count as rejected in the {@code payouts.bulkhead.*} metrics, tagged with the lane.
+ */
+public class BulkheadExecutor implements MeterBinder {
+    private final String lane;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    public BulkheadExecutor(String lane, int threads, int queueCapacity, Overflow overflow) {
+        this.lane = lane;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "payout-" + lane + "-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejection(overflow));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private RejectedExecutionHandler rejection(Overflow overflow) {
+        return (runnable, pool) -> {
+            rejected.increment();
+            if (overflow == Overflow.CALLER_RUNS && !pool.isShutdown()) {
+                runnable.run();
+                return;
+            }
+            throw new BulkheadFullException(lane);
+        };
+    }
+
+    public String lane() {
+        return lane;
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Runs {@code task} in the lane and waits for its result; exceptions thrown by the task
+     * are rethrown as they are.
+     *
+     * @throws BulkheadFullException when the lane rejects overflow and is full
+     */
+    public <T> T call(Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the " + lane + " lane", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(executor.getActiveCount(), executor.getQueue().size(), executor.getCompletedTaskCount(),
+                rejected.sum());
+    }
+
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("payouts.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("lane", lane)
+                .description("Tasks running in the lane")
+                .register(registry);
+        Gauge.builder("payouts.bulkhead.queued", executor, pool -> pool.getQueue().size())
+                .tag("lane", lane)
+                .description("Tasks waiting for a thread of the lane")
+                .register(registry);
+        Gauge.builder("payouts.bulkhead.queue.capacity", () -> queueCapacity)
+                .tag("lane", lane)
+                .register(registry);
+        FunctionCounter.builder("payouts.bulkhead.completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .tag("lane", lane)
+                .register(registry);
+        FunctionCounter.builder("payouts.bulkhead.rejected", rejected, LongAdder::sum)
+                .tag("lane", lane)
+                .description("Tasks refused or run by their submitter because the lane was full")
+                .register(registry);
+    }
+
+    public enum Overflow {
+        REJECT,
+        CALLER_RUNS
+    }
+
+    public record Stats(int active, int queued, long completed, long rejected) {
+    }
+}
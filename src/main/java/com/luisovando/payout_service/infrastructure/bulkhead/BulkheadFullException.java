@@ -0,0 +1,17 @@
+package com.luisovando.payout_service.infrastructure.bulkhead;
+
+/**
+ * Thrown when a lane rejecting overflow has all its threads busy and its queue full.
+ */
+public class BulkheadFullException extends RuntimeException {
+    private final String lane;
+
+    public BulkheadFullException(String lane) {
+        super("The " + lane + " lane is full");
+        this.lane = lane;
+    }
+
+    public String lane() {
+        return lane;
+    }
+}
@@ -0,0 +1,46 @@
+package com.luisovando.payout_service.infrastructure.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the lanes keeping interactive creates apart from bulk and background work
+ * ({@code payouts.bulkheads.*}). The connection pool of the interactive lane is the primary
+ * {@code spring.datasource.hikari.*} pool.
+ *
+ * @param interactiveThreads       creates processed at the same time; keep it below the size of the primary
+ *                                 pool, which also serves requests and jobs outside the lane
+ * @param interactiveQueueCapacity creates waiting for a thread before new ones are rejected with {@code 503}
+ * @param bulkThreads              threads of the bulk lane, {@code 0} for one per core
+ * @param bulkQueueCapacity        bulk tasks waiting for a thread before submitters run them themselves
+ * @param bulkPoolSize             connections of the pool used by bulk and background work
+ * @param bulkConnectionTimeout    longest wait for a bulk connection
+ * @param leasePoolSize            connections of the pool leasing payout limit budget
+ * @param leaseConnectionTimeout   longest wait for a lease connection
+ */
+@ConfigurationProperties("payouts.bulkheads")
+public record BulkheadProperties(
+        @DefaultValue("16") int interactiveThreads,
+        @DefaultValue("64") int interactiveQueueCapacity,
+        @DefaultValue("0") int bulkThreads,
+        @DefaultValue("256") int bulkQueueCapacity,
+        @DefaultValue("8") int bulkPoolSize,
+        @DefaultValue("30s") Duration bulkConnectionTimeout,
+        @DefaultValue("4") int leasePoolSize,
+        @DefaultValue("5s") Duration leaseConnectionTimeout
+) {
+    public int effectiveBulkThreads() {
+        return bulkThreads > 0 ? bulkThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Bulk connections a partitioned job (reconciliation, rollup rebuild) may hold at once: half
+     * the pool, so the scheduler, callback batches, rollup flushes, archival and the command log
+     * keep the other half while a job holds a connection per partition for its whole run.
+     */
+    public int bulkJobConnections() {
+        return Math.max(1, bulkPoolSize / 2);
+    }
+}
@@ -0,0 +1,103 @@
+package com.luisovando.payout_service.infrastructure.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+/**
+ * The two lanes of the service. Interactive creates run in the {@code interactive} lane on the
+ * primary connection pool; schedulers, callback batches, reconciliation, archival and rollups
+ * inject the {@code bulk} pool, and run their parallel work in the {@code bulk} lane, so a
+ * saturated batch job waits for its own threads and connections instead of the ones of
+ * incoming requests.
+ *
+ * <p>Budget leases of payout limits get a small {@code leases} pool of their own: they run
+ * while a create already holds an interactive connection, and taking a second one from the
+ * same pool could wait on creates that are themselves waiting for the lease.
+ *
+ * <p>The bulk and lease pools and their transaction managers are not default candidates:
+ * unqualified injection points, JPA and {@code @Transactional} keep using the primary ones.
+ * The primary data source is a {@link LaneRoutingDataSource} over the interactive pool
+ * ({@code spring.datasource.hikari.*}) and the bulk pool, so background threads applying
+ * JPA use cases can bind themselves to the bulk pool.
+ */
+@Configuration(proxyBeanMethods = false)
+public class Bulkheads {
+    public static final String INTERACTIVE = "interactive";
+    public static final String BULK = "bulk";
+    public static final String LEASES = "leases";
+
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier(INTERACTIVE)
+    public BulkheadExecutor interactiveBulkhead(BulkheadProperties properties) {
+        return new BulkheadExecutor(INTERACTIVE, properties.interactiveThreads(),
+                properties.interactiveQueueCapacity(), BulkheadExecutor.Overflow.REJECT);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @Qualifier(BULK)
+    public BulkheadExecutor bulkBulkhead(BulkheadProperties properties) {
+        return new BulkheadExecutor(BULK, properties.effectiveBulkThreads(),
+                properties.bulkQueueCapacity(), BulkheadExecutor.Overflow.CALLER_RUNS);
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(INTERACTIVE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public LaneRoutingDataSource dataSource(
+            @Qualifier(INTERACTIVE) HikariDataSource interactiveDataSource,
+            @Qualifier(BULK) HikariDataSource bulkDataSource) {
+        return new LaneRoutingDataSource(interactiveDataSource, bulkDataSource);
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(BULK)
+    public HikariDataSource bulkDataSource(DataSourceProperties dataSourceProperties, BulkheadProperties properties) {
+        return bulkDataSource(dataSourceProperties, properties.bulkPoolSize(), properties.bulkConnectionTimeout().toMillis());
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(BULK)
+    public DataSourceTransactionManager bulkTransactionManager(@Qualifier(BULK) HikariDataSource bulkDataSource) {
+        return new DataSourceTransactionManager(bulkDataSource);
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(LEASES)
+    public HikariDataSource leaseDataSource(DataSourceProperties dataSourceProperties, BulkheadProperties properties) {
+        return pool(dataSourceProperties, LEASES, properties.leasePoolSize(), properties.leaseConnectionTimeout().toMillis());
+    }
+
+    @Bean(defaultCandidate = false)
+    @Qualifier(LEASES)
+    public DataSourceTransactionManager leaseTransactionManager(@Qualifier(LEASES) HikariDataSource leaseDataSource) {
+        return new DataSourceTransactionManager(leaseDataSource);
+    }
+
+    static HikariDataSource bulkDataSource(DataSourceProperties dataSourceProperties, int poolSize, long connectionTimeoutMillis) {
+        return pool(dataSourceProperties, BULK, poolSize, connectionTimeoutMillis);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, String name, int poolSize,
+                                         long connectionTimeoutMillis) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(Math.min(2, poolSize));
+        dataSource.setConnectionTimeout(connectionTimeoutMillis);
+        return dataSource;
+    }
+}
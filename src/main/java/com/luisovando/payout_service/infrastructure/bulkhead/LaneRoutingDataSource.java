@@ -0,0 +1,36 @@
+package com.luisovando.payout_service.infrastructure.bulkhead;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * The primary data source: hands out connections of the interactive pool, or of the bulk pool
+ * on threads bound with {@link #bindToBulkPool()}.
+ *
+ * <p>JPA and {@code @Transactional} only know the primary data source, so background work
+ * applying use cases through them, like the command log consumer, binds its thread here to
+ * keep off the connections of incoming requests. A binding lasts for the life of the thread;
+ * only bind threads owned by the component binding them.
+ */
+public class LaneRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<String> LANE = new ThreadLocal<>();
+
+    public LaneRoutingDataSource(DataSource interactive, DataSource bulk) {
+        setDefaultTargetDataSource(interactive);
+        setTargetDataSources(Map.of(Bulkheads.BULK, bulk));
+    }
+
+    /**
+     * Routes the connections the current thread takes from now on to the bulk pool.
+     */
+    public static void bindToBulkPool() {
+        LANE.set(Bulkheads.BULK);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return LANE.get();
+    }
+}
@@ -0,0 +1,293 @@
+package com.luisovando.payout_service.infrastructure.callback;
+
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies provider status callbacks to {@code payouts.status} in set-based batches.
+ *
+ * <p>Callbacks are buffered per payout for {@code flushInterval}. Repeated callbacks for
+ * the same payout and status inside that window collapse into one. A flush locks a
+ * batch of payouts, walks each one forward through its buffered statuses in lifecycle
+ * order along {@link PayoutStatus#canBecome}, and writes the resulting statuses with a
+ * single {@code UPDATE ... FROM (VALUES ...)} guarded by the status that was read.
+ *
+ * <p>Callbacks that would move a payout backwards, e.g. a late {@code PROCESSING} after
+ * {@code PAID}, and callbacks for unknown payouts are ignored. A payout reported both paid
+ * and failed, in the same window or across windows, is contradictory: neither outcome is
+ * applied over the other, the payout keeps the status it reached before them, and the
+ * conflict is logged and counted in {@link Stats#contradictions()} for review.
+ *
+ * <p>The buffer lives in memory only. Callbacks accepted but not yet flushed are lost if the
+ * process dies, and providers do not redeliver a callback they got a 2xx for.
+ */
+@Component
+public class PayoutCallbackIngestor {
+    private static final Logger log = LoggerFactory.getLogger(PayoutCallbackIngestor.class);
+    private static final PayoutStatus[] STATUSES = PayoutStatus.values();
+    private static final int SUCCEEDED = bit(PayoutStatus.PAID) | bit(PayoutStatus.RETURNED);
+    private static final int FAILED = bit(PayoutStatus.FAILED);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PayoutCallbackProperties properties;
+    private final Clock clock;
+
+    /**
+     * Buffered statuses per payout, one bit per {@link PayoutStatus#ordinal()}.
+     */
+    private final Map<UUID, Integer> pending = new ConcurrentHashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder ignored = new LongAdder();
+    private final LongAdder contradictions = new LongAdder();
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public PayoutCallbackIngestor(
+            @Qualifier(Bulkheads.BULK) DataSource dataSource,
+            @Qualifier(Bulkheads.BULK) PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            PayoutCallbackProperties properties) {
+        this(dataSource, transactionManager, eventPublisher, properties, Clock.systemUTC());
+    }
+
+    PayoutCallbackIngestor(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            PayoutCallbackProperties properties,
+            Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payout-callbacks");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.flushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        flushSafely();
+    }
+
+    /**
+     * Buffers a reported status. Acceptance only means the status is buffered in memory; it
+     * is not durable until the next flush commits.
+     *
+     * @return {@code false} when the buffer is full and the provider should retry later
+     */
+    public boolean offer(UUID payoutId, PayoutStatus status) {
+        if (!status.isProviderReported()) {
+            throw new IllegalArgumentException("status " + status + " is not reported by providers");
+        }
+        if (pending.size() >= properties.maxPending() && !pending.containsKey(payoutId)) {
+            return false;
+        }
+
+        int bit = bit(status);
+        received.increment();
+        pending.merge(payoutId, bit, (buffered, added) -> {
+            if ((buffered & added) != 0) {
+                duplicates.increment();
+            }
+            return buffered | added;
+        });
+        return true;
+    }
+
+    public Stats stats() {
+        return new Stats(received.sum(), duplicates.sum(), applied.sum(), ignored.sum(), contradictions.sum(),
+                pending.size());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Applying payout callbacks failed, retrying on the next flush", e);
+        }
+    }
+
+    /**
+     * Applies everything buffered so far. Runs on the callback thread only.
+     */
+    void flush() {
+        Map<UUID, Integer> batch = new HashMap<>();
+        for (UUID payoutId : pending.keySet()) {
+            Integer statuses = pending.remove(payoutId);
+            if (statuses == null) {
+                continue;
+            }
+            batch.put(payoutId, statuses);
+            if (batch.size() == properties.batchSize()) {
+                applyOrRequeue(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            applyOrRequeue(batch);
+        }
+    }
+
+    private void applyOrRequeue(Map<UUID, Integer> batch) {
+        try {
+            apply(batch);
+        } catch (RuntimeException e) {
+            batch.forEach((payoutId, statuses) -> pending.merge(payoutId, statuses, (a, b) -> a | b));
+            throw e;
+        }
+    }
+
+    private void apply(Map<UUID, Integer> batch) {
+        // Locking in id order keeps concurrent flushes on other nodes from deadlocking.
+        List<UUID> ids = new ArrayList<>(batch.keySet());
+        Collections.sort(ids);
+
+        List<Transition> contradicted = new ArrayList<>();
+        List<Transition> transitions = transaction.execute(status -> {
+            contradicted.clear();
+            List<Transition> changed = new ArrayList<>();
+            jdbcTemplate.query(
+                    "SELECT id, status FROM payouts WHERE id IN ("
+                            + String.join(",", Collections.nCopies(ids.size(), "?")) + ") ORDER BY id FOR UPDATE",
+                    rs -> {
+                        UUID payoutId = rs.getObject(1, UUID.class);
+                        PayoutStatus from = PayoutStatus.valueOf(rs.getString(2));
+                        int statuses = batch.get(payoutId);
+                        if (contradicts(from, statuses)) {
+                            // hold the outcome rather than let lifecycle order pick one
+                            statuses &= ~(SUCCEEDED | FAILED);
+                        }
+                        PayoutStatus to = advance(from, statuses);
+                        if (statuses != batch.get(payoutId)) {
+                            contradicted.add(new Transition(payoutId, from, to));
+                        }
+                        if (to != from) {
+                            changed.add(new Transition(payoutId, from, to));
+                        }
+                    },
+                    ids.toArray());
+            if (changed.isEmpty()) {
+                return changed;
+            }
+
+            Object[] params = new Object[changed.size() * 3];
+            for (int i = 0; i < changed.size(); i++) {
+                Transition transition = changed.get(i);
+                params[i * 3] = transition.payoutId();
+                params[i * 3 + 1] = transition.to().name();
+                params[i * 3 + 2] = transition.from().name();
+            }
+            jdbcTemplate.update(
+                    "UPDATE payouts SET status = v.status, updated_at = CURRENT_TIMESTAMP"
+                            + " FROM (VALUES " + String.join(",", Collections.nCopies(changed.size(), "(?, ?, ?)"))
+                            + ") AS v(id, status, from_status)"
+                            + " WHERE payouts.id = v.id AND payouts.status = v.from_status",
+                    params);
+            return changed;
+        });
+
+        applied.add(transitions.size());
+        ignored.add(batch.size() - transitions.size());
+        contradictions.add(contradicted.size());
+        for (Transition transition : contradicted) {
+            log.warn("Payout {} was reported both paid and failed (status {}, buffered {}); left at {} for review",
+                    transition.payoutId(), transition.from(), names(batch.get(transition.payoutId())), transition.to());
+        }
+
+        Instant changedAt = clock.instant();
+        for (Transition transition : transitions) {
+            eventPublisher.publishEvent(new PayoutStatusChangedEvent(transition.payoutId(), transition.from(), transition.to(), changedAt));
+        }
+    }
+
+    /**
+     * Walks {@code from} forward through the buffered statuses in lifecycle order.
+     */
+    private static PayoutStatus advance(PayoutStatus from, int statuses) {
+        PayoutStatus current = from;
+        for (PayoutStatus next : STATUSES) {
+            if ((statuses & bit(next)) != 0 && current.canBecome(next)) {
+                current = next;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Whether the payout's current status and its buffered statuses together claim it was
+     * both paid and failed.
+     */
+    private static boolean contradicts(PayoutStatus from, int statuses) {
+        int reported = statuses | bit(from);
+        return (reported & SUCCEEDED) != 0 && (reported & FAILED) != 0;
+    }
+
+    private static List<PayoutStatus> names(int statuses) {
+        List<PayoutStatus> names = new ArrayList<>();
+        for (PayoutStatus status : STATUSES) {
+            if ((statuses & bit(status)) != 0) {
+                names.add(status);
+            }
+        }
+        return names;
+    }
+
+    private static int bit(PayoutStatus status) {
+        return 1 << status.ordinal();
+    }
+
+    /**
+     * Counters since start; {@code ignored} counts payouts whose buffered callbacks changed
+     * nothing, {@code contradictions} payouts reported both paid and failed.
+     */
+    public record Stats(long received, long duplicates, long applied, long ignored, long contradictions, int pending) {
+    }
+
+    private record Transition(UUID payoutId, PayoutStatus from, PayoutStatus to) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.luisovando.payout_service.infrastructure.callback;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of provider status callback ingestion ({@code payouts.callbacks.*}).
+ *
+ * @param batchSize     payouts updated per statement
+ * @param flushInterval how long callbacks are buffered, and de-duplicated, before being applied
+ * @param maxPending    payouts with buffered callbacks before new ones are refused
+ */
+@ConfigurationProperties("payouts.callbacks")
+public record PayoutCallbackProperties(
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("50ms") Duration flushInterval,
+        @DefaultValue("200000") int maxPending
+) {
+}
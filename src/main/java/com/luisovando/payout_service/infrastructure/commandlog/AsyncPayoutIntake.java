@@ -0,0 +1,386 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.infrastructure.bulkhead.LaneRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Accepts create commands into a durable local command log and applies them in the background.
+ *
+ * <p>A request thread hands its command to the log writer thread and waits until the
+ * command is forced to disk; the writer group-commits whatever queued up meanwhile, so a
+ * request waits for one fsync, never for the database. A consumer thread reads the log
+ * from its checkpoint and applies commands through {@link CreatePayoutUseCase} in
+ * batches of one transaction each, falling back to one transaction per command when a
+ * batch fails. The same idempotency rules apply as for synchronous creates. The consumer
+ * takes its connections from the bulk pool, like the other background components, so a
+ * backlog being applied does not compete with requests for interactive connections.
+ *
+ * <p>Commands are applied at least once: after a crash the consumer resumes at its last
+ * checkpoint and re-applies commands whose batch committed just before, which the
+ * idempotency key turns into replays.
+ *
+ * <p>Outcomes are recorded in {@link CommandStatusStore} with the payouts they create, so a
+ * status can be polled on any node and after a restart. Pending commands are only known to
+ * this node: on start they are restored from the log between the checkpoint and its end.
+ * Failures that would fail the same way again, e.g. an invalid argument, are reported as
+ * failed right away instead of being retried.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payouts.command-log", name = "enabled", havingValue = "true")
+public class AsyncPayoutIntake {
+    private static final Logger log = LoggerFactory.getLogger(AsyncPayoutIntake.class);
+    private static final long IDLE_PARK_NANOS = 2_000_000;
+
+    private final CommandLogProperties properties;
+    private final CreatePayoutUseCase createPayoutUseCase;
+    private final CommandStatusStore statusStore;
+    private final TransactionTemplate batchTransaction;
+
+    private final BlockingQueue<PendingAppend> queue;
+    private final CommandLogWriter writer;
+    private final CommandLogReader reader;
+    private final CommandLogCheckpoint checkpoint;
+    private final Map<UUID, CommandStatus> statuses = new ConcurrentHashMap<>();
+
+    private final Thread writerThread;
+    private final Thread consumerThread;
+    private volatile LogPosition committed;
+    private volatile boolean running = true;
+    private UUID failingCommand;
+    private int failedAttempts;
+    private long prunedAtNanos;
+
+    public AsyncPayoutIntake(
+            CommandLogProperties properties,
+            CreatePayoutUseCase createPayoutUseCase,
+            CommandStatusStore statusStore,
+            PlatformTransactionManager transactionManager) throws IOException {
+        this.properties = properties;
+        this.createPayoutUseCase = createPayoutUseCase;
+        this.statusStore = statusStore;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        Files.createDirectories(properties.directory());
+        this.writer = new CommandLogWriter(properties.directory(), properties.segmentBytes());
+        this.reader = new CommandLogReader(properties.directory());
+        this.checkpoint = new CommandLogCheckpoint(properties.directory());
+        this.committed = writer.end();
+        restorePending();
+
+        this.writerThread = new Thread(this::runWriter, "command-log-writer");
+        this.writerThread.setDaemon(true);
+        this.consumerThread = new Thread(this::runConsumer, "command-log-consumer");
+        this.consumerThread.setDaemon(true);
+        this.writerThread.start();
+        this.consumerThread.start();
+
+        log.info("Command log opened at {} (end {})", properties.directory(), committed);
+    }
+
+    /**
+     * Makes the command durable in the log.
+     *
+     * @return the command id to poll, or empty when the log is saturated or unavailable and
+     * the caller should process the command synchronously instead
+     */
+    public Optional<UUID> submit(CreatePayoutCommand command) {
+        UUID commandId = UUID.randomUUID();
+        PendingAppend append = new PendingAppend(new LoggedCommand(commandId, Instant.now(), command).encode());
+
+        evictIfFull();
+        statuses.put(commandId, CommandStatus.pending(commandId));
+        if (!queue.offer(append)) {
+            statuses.remove(commandId);
+            return Optional.empty();
+        }
+
+        try {
+            append.durable.get(properties.appendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return Optional.of(commandId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Command {} was not acknowledged by the command log", commandId, e);
+        }
+        // The command may still reach the log; applying it twice is a replay.
+        statuses.remove(commandId);
+        return Optional.empty();
+    }
+
+    /**
+     * The status of a command pending on this node or applied by any node.
+     */
+    public Optional<CommandStatus> status(UUID commandId) {
+        CommandStatus status = statuses.get(commandId);
+        return status != null ? Optional.of(status) : statusStore.find(commandId);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        running = false;
+        writerThread.join();
+        consumerThread.join();
+        writer.close();
+        reader.close();
+    }
+
+    private void runWriter() {
+        List<PendingAppend> batch = new ArrayList<>(properties.batchSize());
+        List<byte[]> payloads = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                for (PendingAppend append : batch) {
+                    payloads.add(append.payload);
+                }
+
+                committed = writer.append(payloads);
+                batch.forEach(append -> append.durable.complete(null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Command log append failed", e);
+                batch.forEach(append -> append.durable.completeExceptionally(e));
+            } finally {
+                batch.clear();
+                payloads.clear();
+            }
+        }
+    }
+
+    private void runConsumer() {
+        LaneRoutingDataSource.bindToBulkPool();
+        LogPosition position;
+        try {
+            position = checkpoint.load(properties.directory());
+        } catch (IOException e) {
+            log.error("Could not read the command log checkpoint, consumer not started", e);
+            return;
+        }
+
+        // On shutdown, commands not applied yet stay in the log for the next start.
+        while (running) {
+            try {
+                List<CommandLogReader.Entry> entries = reader.read(position, committed, properties.batchSize());
+                if (entries.isEmpty()) {
+                    pruneStatuses();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                LogPosition applied = apply(entries);
+                if (!applied.equals(position)) {
+                    checkpoint.store(applied);
+                    deleteSegmentsBefore(applied.segment());
+                    position = applied;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Command log consumer failed at {}", position, e);
+                LockSupport.parkNanos(properties.retryBackoff().toNanos());
+            }
+        }
+    }
+
+    /**
+     * Applies the entries in one transaction, or one by one when that fails.
+     *
+     * @return the position up to which entries were applied
+     */
+    private LogPosition apply(List<CommandLogReader.Entry> entries) {
+        List<CommandStatus> outcomes = null;
+        try {
+            outcomes = batchTransaction.execute(status -> applyAndRecord(entries));
+        } catch (RuntimeException e) {
+            log.debug("Command batch of {} failed, applying one by one", entries.size(), e);
+        }
+
+        if (outcomes != null) {
+            outcomes.forEach(this::record);
+            return entries.get(entries.size() - 1).next();
+        }
+
+        for (CommandLogReader.Entry entry : entries) {
+            UUID commandId = entry.command().commandId();
+            try {
+                batchTransaction.execute(status -> applyAndRecord(List.of(entry))).forEach(this::record);
+                failingCommand = null;
+            } catch (RuntimeException e) {
+                if (!commandId.equals(failingCommand)) {
+                    failingCommand = commandId;
+                    failedAttempts = 0;
+                }
+                boolean retryable = isTransient(e);
+                if ((retryable && ++failedAttempts < properties.maxAttempts()) || !running) {
+                    log.warn("Command {} failed (attempt {}), retrying", commandId, failedAttempts, e);
+                    LockSupport.parkNanos(properties.retryBackoff().toNanos());
+                    return entry.position();
+                }
+                if (retryable) {
+                    log.error("Command {} failed {} times, skipping it", commandId, failedAttempts, e);
+                } else {
+                    log.error("Command {} cannot be applied, skipping it", commandId, e);
+                }
+                recordFailed(CommandStatus.failed(commandId, "Command could not be applied"));
+                failingCommand = null;
+            }
+        }
+        return entries.get(entries.size() - 1).next();
+    }
+
+    /**
+     * Applies the entries and records their outcomes, in the caller's transaction.
+     */
+    private List<CommandStatus> applyAndRecord(List<CommandLogReader.Entry> entries) {
+        List<CommandStatus> outcomes = new ArrayList<>(entries.size());
+        for (CommandLogReader.Entry entry : entries) {
+            outcomes.add(toStatus(entry.command().commandId(), createPayoutUseCase.execute(entry.command().command())));
+        }
+        statusStore.record(outcomes);
+        return outcomes;
+    }
+
+    /**
+     * Whether another attempt may succeed. Invalid arguments and data access failures other
+     * than an unavailable database fail the same way every time.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        if (e instanceof IllegalArgumentException) {
+            return false;
+        }
+        return !(e instanceof NonTransientDataAccessException) || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void recordFailed(CommandStatus failed) {
+        record(failed);
+        try {
+            batchTransaction.executeWithoutResult(status -> statusStore.record(List.of(failed)));
+        } catch (RuntimeException e) {
+            log.warn("Could not record the failure of command {}, it is only reported by this node",
+                    failed.commandId(), e);
+        }
+    }
+
+    private static CommandStatus toStatus(UUID commandId, CreatePayoutOutcome outcome) {
+        if (outcome instanceof CreatePayoutOutcome.Created created) {
+            return CommandStatus.completed(commandId, created.payoutId(), created.status());
+        } else if (outcome instanceof CreatePayoutOutcome.NearDuplicate nearDuplicate) {
+            return CommandStatus.completed(commandId, nearDuplicate.payoutId(), nearDuplicate.status());
+        } else if (outcome instanceof CreatePayoutOutcome.Replayed replayed) {
+            return CommandStatus.completed(commandId, replayed.payoutId(), replayed.status());
+        } else if (outcome instanceof CreatePayoutOutcome.Conflict) {
+            return CommandStatus.rejected(commandId, "IDEMPOTENCY_CONFLICT",
+                    "The same idempotency key was used with different request parameters");
+        } else if (outcome instanceof CreatePayoutOutcome.LimitExceeded limitExceeded) {
+            return CommandStatus.rejected(commandId, "LIMIT_EXCEEDED", limitExceeded.reason());
+        }
+        return CommandStatus.rejected(commandId, "VALIDATION_ERROR", ((CreatePayoutOutcome.Invalid) outcome).reason());
+    }
+
+    private void record(CommandStatus status) {
+        evictIfFull();
+        statuses.put(status.commandId(), status);
+    }
+
+    /**
+     * Marks the commands between the checkpoint and the end of the log as pending, so they
+     * can be polled while the consumer catches up after a restart.
+     */
+    private void restorePending() {
+        try (CommandLogReader pending = new CommandLogReader(properties.directory())) {
+            LogPosition position = checkpoint.load(properties.directory());
+            List<CommandLogReader.Entry> entries;
+            while (!(entries = pending.read(position, committed, properties.batchSize())).isEmpty()) {
+                for (CommandLogReader.Entry entry : entries) {
+                    UUID commandId = entry.command().commandId();
+                    statuses.put(commandId, CommandStatus.pending(commandId));
+                }
+                position = entries.get(entries.size() - 1).next();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore the pending command statuses from the log", e);
+        }
+    }
+
+    /**
+     * Deletes recorded outcomes past their retention, at most once an hour.
+     */
+    private void pruneStatuses() {
+        long now = System.nanoTime();
+        if (prunedAtNanos != 0 && now - prunedAtNanos < TimeUnit.HOURS.toNanos(1)) {
+            return;
+        }
+        prunedAtNanos = now;
+        try {
+            batchTransaction.executeWithoutResult(status ->
+                    statusStore.prune(Instant.now().minus(properties.statusRetention())));
+        } catch (RuntimeException e) {
+            log.warn("Could not prune the recorded command statuses", e);
+        }
+    }
+
+    private void deleteSegmentsBefore(long segment) throws IOException {
+        for (Path file : CommandLogSegments.list(properties.directory())) {
+            if (CommandLogSegments.segmentOf(file) < segment) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void evictIfFull() {
+        if (statuses.size() < properties.statusMaxEntries()) {
+            return;
+        }
+        Iterator<Map.Entry<UUID, CommandStatus>> iterator = statuses.entrySet().iterator();
+        while (iterator.hasNext() && statuses.size() >= properties.statusMaxEntries()) {
+            if (iterator.next().getValue().state() != CommandStatus.State.PENDING) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class PendingAppend {
+        final byte[] payload;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        PendingAppend(byte[] payload) {
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Position up to which the consumer has applied the log, replaced atomically on every store.
+ */
+final class CommandLogCheckpoint {
+    private static final String FILE = "consumer.checkpoint";
+
+    private final Path file;
+    private final Path temporary;
+
+    CommandLogCheckpoint(Path directory) {
+        this.file = directory.resolve(FILE);
+        this.temporary = directory.resolve(FILE + ".tmp");
+    }
+
+    /**
+     * The stored position, or the start of the oldest segment when nothing was applied yet.
+     */
+    LogPosition load(Path directory) throws IOException {
+        if (Files.exists(file)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            return new LogPosition(buffer.getLong(), buffer.getLong());
+        }
+        var segments = CommandLogSegments.list(directory);
+        return segments.isEmpty()
+                ? LogPosition.START
+                : new LogPosition(CommandLogSegments.segmentOf(segments.get(0)), 0);
+    }
+
+    void store(LogPosition position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16).putLong(position.segment()).putLong(position.offset());
+        Files.write(temporary, buffer.array(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,36 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the asynchronous create mode backed by a local command log ({@code payouts.command-log.*}).
+ *
+ * @param enabled          whether {@code Prefer: respond-async} creates are accepted through the log
+ * @param directory        directory holding the segment files and the consumer checkpoint
+ * @param segmentBytes     segment file size before rolling to a new one
+ * @param queueCapacity    commands waiting for the log writer; when full, requests are served synchronously
+ * @param batchSize        commands per fsync and per consumer transaction
+ * @param appendTimeout    how long a request waits for its command to be durable before falling back to synchronous
+ * @param statusMaxEntries command statuses kept in memory for polling
+ * @param maxAttempts      attempts to apply a command before it is reported as failed and skipped
+ * @param retryBackoff     pause of the consumer after a failed attempt
+ * @param statusRetention  how long recorded command outcomes can be polled
+ */
+@ConfigurationProperties("payouts.command-log")
+public record CommandLogProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/command-log") Path directory,
+        @DefaultValue("67108864") long segmentBytes,
+        @DefaultValue("4096") int queueCapacity,
+        @DefaultValue("256") int batchSize,
+        @DefaultValue("2s") Duration appendTimeout,
+        @DefaultValue("100000") int statusMaxEntries,
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("1s") Duration retryBackoff,
+        @DefaultValue("7d") Duration statusRetention
+) {
+}
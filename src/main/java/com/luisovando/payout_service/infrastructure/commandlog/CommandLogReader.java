@@ -0,0 +1,74 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads committed frames of the command log in order.
+ *
+ * <p>Not thread-safe: it is owned by the single consumer thread.
+ */
+final class CommandLogReader implements AutoCloseable {
+    private final Path directory;
+    private FileChannel channel;
+    private long openSegment = -1;
+
+    CommandLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads up to {@code max} commands in {@code [from, until)}.
+     */
+    List<Entry> read(LogPosition from, LogPosition until, int max) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        LogPosition position = from;
+        while (entries.size() < max && position.compareTo(until) < 0) {
+            FileChannel segment = segment(position.segment());
+            long limit = position.segment() == until.segment() ? until.offset() : segment.size();
+            byte[] payload = segment == null ? null : CommandLogSegments.readFrame(segment, position.offset(), limit);
+            if (payload == null) {
+                if (position.segment() == until.segment()) {
+                    throw new IllegalStateException("Command log is corrupted at " + position);
+                }
+                position = new LogPosition(position.segment() + 1, 0);
+                continue;
+            }
+
+            LogPosition next = new LogPosition(position.segment(), position.offset() + CommandLogSegments.FRAME_HEADER + payload.length);
+            entries.add(new Entry(LoggedCommand.decode(ByteBuffer.wrap(payload)), position, next));
+            position = next;
+        }
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel segment(long segment) throws IOException {
+        if (segment != openSegment) {
+            close();
+            Path file = CommandLogSegments.fileFor(directory, segment);
+            channel = Files.exists(file) ? FileChannel.open(file, StandardOpenOption.READ) : null;
+            openSegment = segment;
+        }
+        return channel;
+    }
+
+    /**
+     * A command with the position of its frame and of the frame after it.
+     */
+    record Entry(LoggedCommand command, LogPosition position, LogPosition next) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * File layout of the command log.
+ *
+ * <p>Segments are named {@code commands-<segment>.log} and hold frames of
+ * {@code [int length][int crc32c][payload]}. A frame that is cut short or fails its
+ * checksum marks the end of the valid data of a segment.
+ */
+final class CommandLogSegments {
+    static final int FRAME_HEADER = 8;
+    private static final String PREFIX = "commands-";
+    private static final String SUFFIX = ".log";
+
+    private CommandLogSegments() {
+    }
+
+    static Path fileFor(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, segment, SUFFIX));
+    }
+
+    static long segmentOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Segment files of {@code directory} in log order.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads the frame at {@code offset}.
+     *
+     * @return the payload, or {@code null} when there is no complete, valid frame there
+     */
+    static byte[] readFrame(FileChannel channel, long offset, long limit) throws IOException {
+        if (offset + FRAME_HEADER > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        readFully(channel, header, offset);
+        int length = header.getInt(0);
+        if (length <= 0 || offset + FRAME_HEADER + length > limit) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + FRAME_HEADER);
+        byte[] bytes = payload.array();
+        return checksum(bytes) == header.getInt(4) ? bytes : null;
+    }
+
+    /**
+     * Offset just after the last valid frame of a segment.
+     */
+    static long validEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        byte[] payload;
+        while ((payload = readFrame(channel, offset, size)) != null) {
+            offset += FRAME_HEADER + payload.length;
+        }
+        return offset;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of command log segment");
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends frames to the current segment and forces them to disk once per batch.
+ *
+ * <p>On open, the last segment is truncated after its last valid frame, dropping a
+ * frame torn by a crash before its batch was acknowledged. A batch that fails to write or
+ * force is cut off the same way right away, so later batches do not land behind it.
+ *
+ * <p>Not thread-safe: it is owned by the single log writer thread.
+ */
+final class CommandLogWriter implements AutoCloseable {
+    private final Path directory;
+    private final long segmentBytes;
+    private final SegmentOpener opener;
+
+    private FileChannel channel;
+    private long segment;
+    private long offset;
+    private IOException broken;
+
+    CommandLogWriter(Path directory, long segmentBytes) throws IOException {
+        this(directory, segmentBytes, file -> FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    CommandLogWriter(Path directory, long segmentBytes, SegmentOpener opener) throws IOException {
+        if (segmentBytes <= CommandLogSegments.FRAME_HEADER) {
+            throw new IllegalArgumentException("segmentBytes is too small");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.opener = opener;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Position after the last durable frame.
+     */
+    LogPosition end() {
+        return new LogPosition(segment, offset);
+    }
+
+    /**
+     * Writes the payloads and forces them to disk. When that fails, the frames the batch
+     * wrote to the current segment are truncated away before the failure is rethrown.
+     *
+     * @return the position after the last written frame
+     * @throws IOException when the batch is not durable, or the writer could not repair an
+     *                     earlier failed batch and refuses further appends
+     */
+    LogPosition append(List<byte[]> payloads) throws IOException {
+        if (broken != null) {
+            throw new IOException("Command log writer is unusable after a failed batch", broken);
+        }
+        long batchSegment = segment;
+        long batchOffset = offset;
+        try {
+            write(payloads);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            // frames in segments rolled over meanwhile were forced by the roll and stay
+            long durableEnd = segment == batchSegment ? batchOffset : 0;
+            try {
+                channel.truncate(durableEnd).position(durableEnd);
+                offset = durableEnd;
+            } catch (IOException | RuntimeException repair) {
+                e.addSuppressed(repair);
+                broken = e instanceof IOException io ? io : new IOException(e);
+            }
+            throw e;
+        }
+        return end();
+    }
+
+    private void write(List<byte[]> payloads) throws IOException {
+        for (byte[] payload : payloads) {
+            long frameLength = CommandLogSegments.FRAME_HEADER + payload.length;
+            if (offset > 0 && offset + frameLength > segmentBytes) {
+                roll();
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(CommandLogSegments.FRAME_HEADER);
+            header.putInt(payload.length).putInt(CommandLogSegments.checksum(payload)).flip();
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            offset += frameLength;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        channel.force(false);
+        channel.close();
+        open(segment + 1);
+    }
+
+    private void open(long newSegment) throws IOException {
+        channel = opener.open(CommandLogSegments.fileFor(directory, newSegment));
+        segment = newSegment;
+        offset = channel.size();
+        channel.position(offset);
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = CommandLogSegments.list(directory);
+        if (segments.isEmpty()) {
+            open(0);
+            return;
+        }
+
+        open(CommandLogSegments.segmentOf(segments.get(segments.size() - 1)));
+        long validEnd = CommandLogSegments.validEnd(channel);
+        if (validEnd < channel.size()) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        offset = validEnd;
+        channel.position(offset);
+    }
+
+    @FunctionalInterface
+    interface SegmentOpener {
+        FileChannel open(Path file) throws IOException;
+    }
+}
@@ -0,0 +1,55 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import java.util.UUID;
+
+/**
+ * Processing state of a create command accepted in async mode.
+ *
+ * @param payoutId     set once the command created or replayed a payout
+ * @param payoutStatus status of that payout when the command was applied
+ * @param code         error code when the command was rejected or failed
+ * @param message      error message when the command was rejected or failed
+ */
+public record CommandStatus(
+        UUID commandId,
+        State state,
+        UUID payoutId,
+        String payoutStatus,
+        String code,
+        String message
+) {
+    public enum State {
+        /**
+         * Durable in the command log, not applied yet.
+         */
+        PENDING,
+        /**
+         * Applied; the payout was created or already existed with the same parameters.
+         */
+        COMPLETED,
+        /**
+         * Applied and refused, e.g. an idempotency conflict or an exceeded limit.
+         */
+        REJECTED,
+        /**
+         * Could not be applied after the configured number of attempts.
+         */
+        FAILED
+    }
+
+    static CommandStatus pending(UUID commandId) {
+        return new CommandStatus(commandId, State.PENDING, null, null, null, null);
+    }
+
+    static CommandStatus completed(UUID commandId, UUID payoutId, String payoutStatus) {
+        return new CommandStatus(commandId, State.COMPLETED, payoutId, payoutStatus, null, null);
+    }
+
+    static CommandStatus rejected(UUID commandId, String code, String message) {
+        return new CommandStatus(commandId, State.REJECTED, null, null, code, message);
+    }
+
+    static CommandStatus failed(UUID commandId, String message) {
+        return new CommandStatus(commandId, State.FAILED, null, null, "INTERNAL_ERROR", message);
+    }
+}
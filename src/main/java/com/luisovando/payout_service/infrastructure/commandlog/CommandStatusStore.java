@@ -0,0 +1,80 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutCommandEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutCommandRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Outcomes of applied commands in {@code payout_commands}, shared by every node and kept
+ * across restarts. Pending commands are only known to the node holding them in its log.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payouts.command-log", name = "enabled", havingValue = "true")
+public class CommandStatusStore {
+    private static final String INSERT = "INSERT INTO payout_commands"
+            + " (command_id, state, payout_id, payout_status, code, message, recorded_at)"
+            + " SELECT CAST(? AS UUID), ?, CAST(? AS UUID), ?, ?, ?, ?"
+            + " WHERE NOT EXISTS (SELECT 1 FROM payout_commands WHERE command_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PayoutCommandRepository commandRepository;
+    private final Clock clock;
+
+    @Autowired
+    public CommandStatusStore(DataSource dataSource, PayoutCommandRepository commandRepository) {
+        this(dataSource, commandRepository, Clock.systemUTC());
+    }
+
+    CommandStatusStore(DataSource dataSource, PayoutCommandRepository commandRepository, Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.commandRepository = commandRepository;
+        this.clock = clock;
+    }
+
+    /**
+     * Records the outcomes in the current transaction. A command applied again after a
+     * restart keeps the outcome recorded first.
+     */
+    void record(List<CommandStatus> statuses) {
+        Timestamp recordedAt = Timestamp.from(clock.instant());
+        jdbcTemplate.batchUpdate(INSERT, statuses, statuses.size(), (ps, status) -> {
+            ps.setObject(1, status.commandId());
+            ps.setString(2, status.state().name());
+            ps.setObject(3, status.payoutId());
+            ps.setString(4, status.payoutStatus());
+            ps.setString(5, status.code());
+            ps.setString(6, status.message());
+            ps.setTimestamp(7, recordedAt);
+            ps.setObject(8, status.commandId());
+        });
+    }
+
+    Optional<CommandStatus> find(UUID commandId) {
+        return commandRepository.findById(commandId).map(CommandStatusStore::toStatus);
+    }
+
+    /**
+     * Deletes outcomes recorded before {@code cutoff}.
+     *
+     * @return the number of outcomes deleted
+     */
+    int prune(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM payout_commands WHERE recorded_at < ?", Timestamp.from(cutoff));
+    }
+
+    private static CommandStatus toStatus(PayoutCommandEntity command) {
+        return new CommandStatus(command.getCommandId(), CommandStatus.State.valueOf(command.getState()),
+                command.getPayoutId(), command.getPayoutStatus(), command.getCode(), command.getMessage());
+    }
+}
@@ -0,0 +1,18 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import java.util.Comparator;
+
+/**
+ * Byte position in the command log: segment number and offset inside that segment.
+ */
+record LogPosition(long segment, long offset) implements Comparable<LogPosition> {
+    static final LogPosition START = new LogPosition(0, 0);
+
+    private static final Comparator<LogPosition> ORDER =
+            Comparator.comparingLong(LogPosition::segment).thenComparingLong(LogPosition::offset);
+
+    @Override
+    public int compareTo(LogPosition other) {
+        return ORDER.compare(this, other);
+    }
+}
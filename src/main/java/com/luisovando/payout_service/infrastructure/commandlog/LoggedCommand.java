@@ -0,0 +1,98 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * A create command accepted in async mode, as stored in the command log.
+ *
+ * <p>Binary layout (big-endian): version byte, command id, accepted-at micros, company id,
+ * amount scale and unscaled bytes, currency, idempotency key (UTF-8), then the optional
+ * settlement currency and execute-at micros, each behind a presence byte.
+ */
+record LoggedCommand(UUID commandId, Instant acceptedAt, CreatePayoutCommand command) {
+    private static final byte VERSION = 1;
+
+    byte[] encode() {
+        byte[] unscaled = command.money().amount().unscaledValue().toByteArray();
+        byte[] key = command.idempotencyKey().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 16 + 8 + 16 + 4 + 1 + unscaled.length + 3 + 2 + key.length + 1 + 3 + 1 + 8);
+
+        buffer.put(VERSION);
+        putUuid(buffer, commandId);
+        buffer.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, acceptedAt));
+        putUuid(buffer, command.companyId());
+        buffer.putInt(command.money().amount().scale());
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+        buffer.put(command.money().currency().value().getBytes(StandardCharsets.US_ASCII));
+        buffer.putShort((short) key.length);
+        buffer.put(key);
+        if (command.settlementCurrency() == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1);
+            buffer.put(command.settlementCurrency().value().getBytes(StandardCharsets.US_ASCII));
+        }
+        if (command.executeAt() == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1);
+            buffer.putLong(ChronoUnit.MICROS.between(Instant.EPOCH, command.executeAt()));
+        }
+
+        byte[] encoded = new byte[buffer.position()];
+        buffer.flip().get(encoded);
+        return encoded;
+    }
+
+    static LoggedCommand decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported command log record version " + version);
+        }
+        UUID commandId = getUuid(buffer);
+        Instant acceptedAt = Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+        UUID companyId = getUuid(buffer);
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[buffer.get()];
+        buffer.get(unscaled);
+        String currency = ascii(buffer, 3);
+        byte[] key = new byte[buffer.getShort()];
+        buffer.get(key);
+        CurrencyVO settlementCurrency = buffer.get() == 0 ? null : CurrencyVO.of(ascii(buffer, 3));
+        Instant executeAt = buffer.get() == 0 ? null : Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS);
+
+        return new LoggedCommand(commandId, acceptedAt, new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal(new BigInteger(unscaled), scale), currency),
+                new String(key, StandardCharsets.UTF_8),
+                settlementCurrency,
+                executeAt
+        ));
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID value) {
+        buffer.putLong(value.getMostSignificantBits());
+        buffer.putLong(value.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static String ascii(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,76 @@
+package com.luisovando.payout_service.infrastructure.fx;
+
+import com.luisovando.payout_service.domain.fx.FxRateSnapshot;
+import com.luisovando.payout_service.domain.fx.FxRateSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads FX rates from a properties file, standing in for a market data feed.
+ *
+ * <pre>
+ * base=USD
+ * asOf=2026-01-01T00:00:00Z
+ * rate.MXN=17.0512
+ * rate.EUR=0.9213
+ * </pre>
+ *
+ * <p>Rates are units of the currency per one unit of {@code base}. Point
+ * {@code payouts.fx.rates-location} at a {@code file:} URL to change rates without
+ * a restart; the file is re-read on every refresh.
+ */
+@Component
+public class FileFxRateSource implements FxRateSource {
+    private static final String RATE_PREFIX = "rate.";
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    public FileFxRateSource(
+            ResourceLoader resourceLoader,
+            @Value("${payouts.fx.rates-location:classpath:fx-rates.properties}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+    }
+
+    @Override
+    public FxRateSnapshot load() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        Properties properties = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        String base = properties.getProperty("base");
+        if (base == null) {
+            throw new IOException("FX rates file " + location + " has no base currency");
+        }
+        String asOf = properties.getProperty("asOf");
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(RATE_PREFIX)) {
+                rates.put(name.substring(RATE_PREFIX.length()).trim().toUpperCase(),
+                        new BigDecimal(properties.getProperty(name).trim()));
+            }
+        }
+
+        try {
+            return new FxRateSnapshot(base, rates, asOf == null ? Instant.now() : Instant.parse(asOf.trim()));
+        } catch (RuntimeException e) {
+            throw new IOException("FX rates file " + location + " is invalid: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * JFR event timing a whole {@code POST /payouts} call in {@code PayoutController}.
+ */
+@Name("com.luisovando.payout.CreatePayoutRequest")
+@Label("Create Payout Request")
+@Category({"Payouts", "Create Payout"})
+@Description("A create payout HTTP request, from controller entry to response")
+@StackTrace(false)
+public class CreatePayoutRequestEvent extends Event {
+
+    @Label("Company Id")
+    String companyId;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("HTTP Status")
+    int httpStatus;
+
+    public static CreatePayoutRequestEvent start() {
+        CreatePayoutRequestEvent event = new CreatePayoutRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(UUID companyId, String outcome, int httpStatus) {
+        end();
+        if (shouldCommit()) {
+            this.companyId = companyId == null ? null : companyId.toString();
+            this.outcome = outcome;
+            this.httpStatus = httpStatus;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * JFR event timing one stage of {@code CreatePayoutUseCase}.
+ *
+ * <p>Fields are only filled when the event is going to be committed, so a disabled
+ * event costs a timestamp read at most.
+ */
+@Name("com.luisovando.payout.CreatePayoutStage")
+@Label("Create Payout Stage")
+@Category({"Payouts", "Create Payout"})
+@Description("One stage of the create payout use case")
+@StackTrace(false)
+public class CreatePayoutStageEvent extends Event {
+    public static final String VALIDATION = "validation";
+    public static final String LOOKUP = "lookup";
+    public static final String LIMITS = "limits";
+    public static final String INSERT = "insert";
+    public static final String CONFLICT_RETRY = "conflict-retry";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Company Id")
+    String companyId;
+
+    @Label("Outcome")
+    String outcome;
+
+    public static CreatePayoutStageEvent start(String stage) {
+        CreatePayoutStageEvent event = new CreatePayoutStageEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    public void complete(UUID companyId, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.companyId = companyId == null ? null : companyId.toString();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
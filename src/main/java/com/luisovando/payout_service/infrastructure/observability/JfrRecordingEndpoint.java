@@ -0,0 +1,160 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/jfr}) running one time-boxed JDK Flight Recorder
+ * recording at a time.
+ *
+ * <ul>
+ *     <li>{@code POST /actuator/jfr} starts a recording, optionally with
+ *     {@code durationSeconds} and {@code settings} ({@code default} or {@code profile})</li>
+ *     <li>{@code GET /actuator/jfr} describes the current recording</li>
+ *     <li>{@code POST /actuator/jfr/{id}} stops the recording if still running and writes the file</li>
+ *     <li>{@code GET /actuator/jfr/{id}} returns the file of a stopped recording</li>
+ * </ul>
+ *
+ * <p>Recordings can hold request data and cost disk, so the endpoint is only exposed over
+ * JMX by default. Exposing it over the web should go with a management port that is not
+ * reachable from outside, or authentication.
+ *
+ * <p>When no recording runs, the payout JFR events are disabled and cost next to nothing.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+    private static final int STATUS_CONFLICT = 409;
+
+    private final JfrRecordingProperties properties;
+    private Recording recording;
+    private Path file;
+    private Instant startedAt;
+
+    public JfrRecordingEndpoint(JfrRecordingProperties properties) {
+        this.properties = properties;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(
+            @Nullable Integer durationSeconds, @Nullable String settings) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(describe(), STATUS_CONFLICT);
+        }
+
+        Duration duration = durationSeconds == null
+                ? properties.defaultDuration()
+                : Duration.ofSeconds(durationSeconds);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(properties.maxDuration()) > 0) {
+            return new WebEndpointResponse<>(
+                    Map.of("error", "durationSeconds must be between 1 and " + properties.maxDuration().toSeconds()),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? "default" : settings);
+        } catch (ParseException | IOException e) {
+            return new WebEndpointResponse<>(Map.of("error", "unknown settings: " + settings),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        discardPrevious();
+        Files.createDirectories(properties.directory());
+
+        Recording next = new Recording(configuration);
+        next.setName("payout-service-on-demand");
+        next.setToDisk(true);
+        next.setDuration(duration);
+        next.setDestination(properties.directory().resolve("payout-service-" + next.getId() + ".jfr"));
+        next.start();
+
+        recording = next;
+        file = next.getDestination();
+        startedAt = Instant.now();
+
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        return describe();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> stop(@Selector long id) throws IOException {
+        if (recording == null || recording.getId() != id) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        if (running()) {
+            recording.stop();
+        }
+        if (!Files.exists(file)) {
+            recording.dump(file);
+        }
+
+        return new WebEndpointResponse<>(describe(), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Returns the file of a stopped recording; a running one answers 409 and keeps running.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> recording(@Selector long id) {
+        if (recording == null || recording.getId() != id) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (running() || !Files.exists(file)) {
+            return new WebEndpointResponse<>(STATUS_CONFLICT);
+        }
+
+        return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    private boolean running() {
+        return recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED;
+    }
+
+    private Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        if (recording == null) {
+            description.put("state", "NONE");
+            return description;
+        }
+        description.put("id", recording.getId());
+        description.put("state", recording.getState().name());
+        description.put("startedAt", startedAt);
+        description.put("duration", recording.getDuration());
+        description.put("file", file.toString());
+        return description;
+    }
+
+    private void discardPrevious() throws IOException {
+        if (recording != null) {
+            recording.close();
+            Files.deleteIfExists(file);
+            recording = null;
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the on-demand JFR recording endpoint ({@code payouts.jfr.*}).
+ *
+ * @param directory       where recording files are written
+ * @param defaultDuration duration used when the request does not give one
+ * @param maxDuration     upper bound for any requested duration
+ */
+@ConfigurationProperties("payouts.jfr")
+public record JfrRecordingProperties(
+        @DefaultValue("data/jfr") Path directory,
+        @DefaultValue("60s") Duration defaultDuration,
+        @DefaultValue("10m") Duration maxDuration
+) {
+}
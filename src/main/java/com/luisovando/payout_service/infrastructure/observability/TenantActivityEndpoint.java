@@ -0,0 +1,50 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code tenants}) listing the tenants sending the most create requests,
+ * with their replay and conflict rates.
+ *
+ * <p>Reads take optional {@code windowSeconds} and {@code limit} parameters.
+ *
+ * <p>The listing names customers and their traffic, so like the {@code jfr} endpoint it is
+ * only exposed over JMX by default. Exposing it over the web ({@code GET /actuator/tenants})
+ * should go with a management port that is not reachable from outside, or authentication.
+ */
+@Component
+@Endpoint(id = "tenants")
+public class TenantActivityEndpoint {
+    private final TenantActivityTracker tracker;
+    private final TenantActivityProperties properties;
+
+    public TenantActivityEndpoint(TenantActivityTracker tracker, TenantActivityProperties properties) {
+        this.tracker = tracker;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> top(@Nullable Integer windowSeconds, @Nullable Integer limit) {
+        Duration history = properties.bucket().multipliedBy(properties.buckets());
+        Duration window = windowSeconds == null ? properties.defaultWindow() : Duration.ofSeconds(windowSeconds);
+        if (window.isNegative() || window.isZero() || window.compareTo(history) > 0) {
+            return new WebEndpointResponse<>(
+                    Map.of("error", "windowSeconds must be between 1 and " + history.toSeconds()),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (limit != null && limit <= 0) {
+            return new WebEndpointResponse<>(Map.of("error", "limit must be positive"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        return new WebEndpointResponse<>(tracker.top(window, limit == null ? properties.topK() : limit),
+                WebEndpointResponse.STATUS_OK);
+    }
+}
@@ -0,0 +1,29 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the heavy-hitter tenant tracker ({@code payouts.tenant-activity.*}).
+ *
+ * @param bucket        time covered by one sketch; windows slide in steps of this size
+ * @param buckets       sketches kept, so the longest window is {@code bucket * buckets}
+ * @param defaultWindow window reported when the request does not give one
+ * @param depth         count-min rows
+ * @param width         count-min columns per row, a power of two
+ * @param candidates    candidate tenant slots per bucket, a power of two
+ * @param topK          tenants reported when the request does not give a limit
+ */
+@ConfigurationProperties("payouts.tenant-activity")
+public record TenantActivityProperties(
+        @DefaultValue("10s") Duration bucket,
+        @DefaultValue("30") int buckets,
+        @DefaultValue("1m") Duration defaultWindow,
+        @DefaultValue("4") int depth,
+        @DefaultValue("1024") int width,
+        @DefaultValue("256") int candidates,
+        @DefaultValue("20") int topK
+) {
+}
@@ -0,0 +1,243 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-memory tracker of the busiest tenants ({@code companyId}) by create requests,
+ * replays and conflicts over sliding windows.
+ *
+ * <p>Time is cut into buckets, each holding a count-min sketch per signal and a small
+ * table of candidate tenants. A tenant is hashed to two candidate slots and takes one
+ * over when its estimated request count beats the occupant's, so tenants with the most
+ * requests stay in the table without a global ordering. A window report merges the
+ * candidates and sketches of the buckets it covers.
+ *
+ * <p>Recording only does atomic increments and, on a candidate slot collision, one
+ * compare-and-set; no locks are taken. Counts are estimates: the sketch may overcount
+ * on hash collisions, and a few increments racing with the reuse of a bucket are lost.
+ */
+@Component
+public class TenantActivityTracker {
+    public enum Signal {
+        REQUEST, REPLAY, CONFLICT
+    }
+
+    private static final int SIGNALS = Signal.values().length;
+
+    private final TenantActivityProperties properties;
+    private final Clock clock;
+    private final long bucketMillis;
+    private final int widthMask;
+    private final int candidateMask;
+    private final Bucket[] buckets;
+
+    @Autowired
+    public TenantActivityTracker(TenantActivityProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    TenantActivityTracker(TenantActivityProperties properties, Clock clock) {
+        if (Integer.bitCount(properties.width()) != 1 || Integer.bitCount(properties.candidates()) != 1) {
+            throw new IllegalArgumentException("width and candidates must be powers of two");
+        }
+        this.properties = properties;
+        this.clock = clock;
+        this.bucketMillis = properties.bucket().toMillis();
+        this.widthMask = properties.width() - 1;
+        this.candidateMask = properties.candidates() - 1;
+        this.buckets = new Bucket[properties.buckets()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket(SIGNALS * properties.depth() * properties.width(), properties.candidates());
+        }
+    }
+
+    public void record(UUID companyId, Signal signal) {
+        if (companyId == null) {
+            return;
+        }
+        Bucket bucket = current(clock.millis() / bucketMillis);
+        long h1 = mix(companyId.getMostSignificantBits() ^ companyId.getLeastSignificantBits());
+        long h2 = mix(h1 ^ companyId.getLeastSignificantBits()) | 1;
+        for (int row = 0; row < properties.depth(); row++) {
+            bucket.counts.incrementAndGet(cell(signal, row, h1, h2));
+        }
+        if (signal == Signal.REQUEST) {
+            offerCandidate(bucket, companyId, h1, h2);
+        }
+    }
+
+    /**
+     * The busiest tenants by requests over the last {@code window}.
+     *
+     * @param window rounded up to whole buckets and capped to the tracked history
+     */
+    public Report top(Duration window, int limit) {
+        long now = clock.millis();
+        long currentEpoch = now / bucketMillis;
+        int covered = (int) Math.min(buckets.length, Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis));
+        long firstEpoch = currentEpoch - covered + 1;
+
+        List<Bucket> live = new ArrayList<>(covered);
+        for (Bucket bucket : buckets) {
+            long epoch = bucket.epoch.get();
+            if (epoch >= firstEpoch && epoch <= currentEpoch) {
+                live.add(bucket);
+            }
+        }
+
+        long totalRequests = 0;
+        Set<UUID> candidates = new HashSet<>();
+        for (Bucket bucket : live) {
+            // every count-min row sums to the exact total
+            for (int column = 0; column <= widthMask; column++) {
+                totalRequests += bucket.counts.get(column);
+            }
+            for (int slot = 0; slot <= candidateMask; slot++) {
+                UUID candidate = bucket.candidates.get(slot);
+                if (candidate != null) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+
+        double seconds = Math.max(1, now - firstEpoch * bucketMillis) / 1_000d;
+        List<TenantActivity> tenants = new ArrayList<>(candidates.size());
+        for (UUID companyId : candidates) {
+            long requests = estimate(live, companyId, Signal.REQUEST);
+            long replays = estimate(live, companyId, Signal.REPLAY);
+            long conflicts = estimate(live, companyId, Signal.CONFLICT);
+            tenants.add(new TenantActivity(companyId, requests, replays, conflicts,
+                    requests / seconds,
+                    requests == 0 ? 0 : (double) Math.min(replays, requests) / requests,
+                    requests == 0 ? 0 : (double) Math.min(conflicts, requests) / requests));
+        }
+        tenants.sort(Comparator.comparingLong(TenantActivity::requests).reversed());
+
+        return new Report(covered * properties.bucket().toSeconds(), totalRequests,
+                List.copyOf(tenants.subList(0, Math.min(limit, tenants.size()))));
+    }
+
+    /**
+     * The bucket of {@code epoch}, reset first when it still holds an older epoch. A bucket
+     * never used is already empty: clearing it would only race with the first increments.
+     */
+    private Bucket current(long epoch) {
+        Bucket bucket = buckets[(int) (epoch % buckets.length)];
+        long seen = bucket.epoch.get();
+        if (seen < epoch && bucket.epoch.compareAndSet(seen, epoch) && seen >= 0) {
+            bucket.clear();
+        }
+        return bucket;
+    }
+
+    private void offerCandidate(Bucket bucket, UUID companyId, long h1, long h2) {
+        int first = (int) h1 & candidateMask;
+        int second = (int) (h1 >>> 32) & candidateMask;
+
+        UUID firstOccupant = bucket.candidates.get(first);
+        UUID secondOccupant = bucket.candidates.get(second);
+        if (companyId.equals(firstOccupant) || companyId.equals(secondOccupant)) {
+            return;
+        }
+        if (firstOccupant == null && bucket.candidates.compareAndSet(first, null, companyId)) {
+            return;
+        }
+        if (secondOccupant == null && bucket.candidates.compareAndSet(second, null, companyId)) {
+            return;
+        }
+        if (firstOccupant == null || secondOccupant == null) {
+            return;
+        }
+
+        long firstCount = estimate(bucket, firstOccupant, Signal.REQUEST);
+        long secondCount = estimate(bucket, secondOccupant, Signal.REQUEST);
+        int slot = firstCount <= secondCount ? first : second;
+        UUID occupant = slot == first ? firstOccupant : secondOccupant;
+        if (estimate(bucket, companyId, h1, h2, Signal.REQUEST) > Math.min(firstCount, secondCount)) {
+            bucket.candidates.compareAndSet(slot, occupant, companyId);
+        }
+    }
+
+    private long estimate(List<Bucket> live, UUID companyId, Signal signal) {
+        long total = 0;
+        for (Bucket bucket : live) {
+            total += estimate(bucket, companyId, signal);
+        }
+        return total;
+    }
+
+    private long estimate(Bucket bucket, UUID companyId, Signal signal) {
+        long h1 = mix(companyId.getMostSignificantBits() ^ companyId.getLeastSignificantBits());
+        long h2 = mix(h1 ^ companyId.getLeastSignificantBits()) | 1;
+        return estimate(bucket, companyId, h1, h2, signal);
+    }
+
+    private long estimate(Bucket bucket, UUID companyId, long h1, long h2, Signal signal) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < properties.depth(); row++) {
+            min = Math.min(min, bucket.counts.get(cell(signal, row, h1, h2)));
+        }
+        return min;
+    }
+
+    private int cell(Signal signal, int row, long h1, long h2) {
+        int column = (int) ((h1 + row * h2) >>> 17) & widthMask;
+        return (signal.ordinal() * properties.depth() + row) * (widthMask + 1) + column;
+    }
+
+    /**
+     * SplitMix64 finalizer.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    public record TenantActivity(
+            UUID companyId,
+            long requests,
+            long replays,
+            long conflicts,
+            double requestsPerSecond,
+            double replayRate,
+            double conflictRate
+    ) {
+    }
+
+    public record Report(long windowSeconds, long totalRequests, List<TenantActivity> tenants) {
+    }
+
+    private static final class Bucket {
+        final AtomicLong epoch = new AtomicLong(-1);
+        final AtomicIntegerArray counts;
+        final AtomicReferenceArray<UUID> candidates;
+
+        Bucket(int cells, int candidateSlots) {
+            this.counts = new AtomicIntegerArray(cells);
+            this.candidates = new AtomicReferenceArray<>(candidateSlots);
+        }
+
+        void clear() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+            }
+            for (int i = 0; i < candidates.length(); i++) {
+                candidates.set(i, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.luisovando.payout_service.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of a create command accepted in async mode and applied from the command log.
+ * Rows are written by the command log consumer with the payouts they create, not through JPA.
+ */
+@Entity
+@Table(name = "payout_commands")
+public class PayoutCommandEntity {
+    protected PayoutCommandEntity() {
+    }
+
+    @Id
+    @Column(name = "command_id", nullable = false)
+    private UUID commandId;
+
+    @Column(name = "state", nullable = false, length = 16)
+    private String state;
+
+    @Column(name = "payout_id")
+    private UUID payoutId;
+
+    @Column(name = "payout_status", length = 32)
+    private String payoutStatus;
+
+    @Column(name = "code", length = 64)
+    private String code;
+
+    @Column(name = "message", length = 512)
+    private String message;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    public UUID getCommandId() {
+        return commandId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public UUID getPayoutId() {
+        return payoutId;
+    }
+
+    /**
+     * Status of the payout when the command was applied.
+     */
+    public String getPayoutStatus() {
+        return payoutStatus;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+}
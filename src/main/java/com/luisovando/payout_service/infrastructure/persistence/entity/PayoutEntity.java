@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -16,7 +17,8 @@ import java.util.UUID;
  * @since 1.0.0
  */
 @Entity
-@Table(name = "payouts")
+@Table(name = "payouts", uniqueConstraints = @UniqueConstraint(
+        name = "uk_payouts_company_id_idempotency_key", columnNames = {"company_id", "idempotency_key"}))
 public class PayoutEntity {
     protected PayoutEntity() {
     }
@@ -40,6 +42,18 @@ public class PayoutEntity {
     @Column(name = "idempotency_key", nullable = false, length = 128)
     private String idempotencyKey;
 
+    @Column(name = "settlement_amount", precision = 18, scale = 4)
+    private BigDecimal settlementAmount;
+
+    @Column(name = "settlement_currency", length = 3)
+    private String settlementCurrency;
+
+    @Column(name = "fx_rate", precision = 20, scale = 10)
+    private BigDecimal fxRate;
+
+    @Column(name = "execute_at")
+    private Instant executeAt;
+
     @Column(name = "created_at", insertable = false, updatable = false)
     private Instant createdAt;
 
@@ -81,6 +95,38 @@ public class PayoutEntity {
         return  entity;
     }
 
+    /**
+     * Records that the payout settles in another currency, converted at {@code fxRate}.
+     */
+    public void settleIn(BigDecimal settlementAmount, String settlementCurrency, BigDecimal fxRate) {
+        Objects.requireNonNull(settlementAmount, "settlementAmount is required");
+        Objects.requireNonNull(settlementCurrency, "settlementCurrency is required");
+        Objects.requireNonNull(fxRate, "fxRate is required");
+
+        if (settlementCurrency.length() != 3) {
+            throw new IllegalArgumentException("settlementCurrency must be ISO-4217 (3 chars)");
+        }
+
+        this.settlementAmount = settlementAmount;
+        this.settlementCurrency = settlementCurrency;
+        this.fxRate = fxRate;
+    }
+
+    /**
+     * Sets the requested execution time; the payout is only held back while its status is {@code SCHEDULED}.
+     */
+    public void scheduleAt(Instant executeAt) {
+        this.executeAt = Objects.requireNonNull(executeAt, "executeAt is required");
+    }
+
+    /**
+     * Holds a new payout for review instead of releasing it. A requested execution time is
+     * kept; it applies once the payout is released back to {@code SCHEDULED}.
+     */
+    public void hold() {
+        this.status = "HELD";
+    }
+
     public UUID getId() {
         return id;
     }
@@ -105,6 +151,29 @@ public class PayoutEntity {
         return idempotencyKey;
     }
 
+    public BigDecimal getSettlementAmount() {
+        return settlementAmount;
+    }
+
+    public String getSettlementCurrency() {
+        return settlementCurrency;
+    }
+
+    public BigDecimal getFxRate() {
+        return fxRate;
+    }
+
+    /**
+     * Currency the payout settles in: the settlement currency when converted, otherwise its own.
+     */
+    public String getEffectiveSettlementCurrency() {
+        return settlementCurrency != null ? settlementCurrency : currency;
+    }
+
+    public Instant getExecuteAt() {
+        return executeAt;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,99 @@
+package com.luisovando.payout_service.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Payout limits of a company for one payout currency.
+ */
+@Entity
+@Table(name = "payout_limits")
+@IdClass(PayoutLimitEntity.Key.class)
+public class PayoutLimitEntity {
+    protected PayoutLimitEntity() {
+    }
+
+    @Id
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Id
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "daily_limit", precision = 15, scale = 2)
+    private BigDecimal dailyLimit;
+
+    @Column(name = "per_payout_max", precision = 15, scale = 2)
+    private BigDecimal perPayoutMax;
+
+    /**
+     * @param dailyLimit   maximum total created per UTC day, {@code null} for none
+     * @param perPayoutMax maximum amount of a single payout, {@code null} for none
+     */
+    public static PayoutLimitEntity of(UUID companyId, String currency, BigDecimal dailyLimit, BigDecimal perPayoutMax) {
+        Objects.requireNonNull(companyId, "companyId is required");
+        Objects.requireNonNull(currency, "currency is required");
+
+        if (currency.length() != 3) {
+            throw new IllegalArgumentException("currency must be ISO-4217 (3 chars)");
+        }
+
+        PayoutLimitEntity entity = new PayoutLimitEntity();
+        entity.companyId = companyId;
+        entity.currency = currency;
+        entity.dailyLimit = dailyLimit;
+        entity.perPayoutMax = perPayoutMax;
+
+        return entity;
+    }
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public BigDecimal getDailyLimit() {
+        return dailyLimit;
+    }
+
+    public BigDecimal getPerPayoutMax() {
+        return perPayoutMax;
+    }
+
+    public static class Key implements Serializable {
+        private UUID companyId;
+        private String currency;
+
+        protected Key() {
+        }
+
+        public Key(UUID companyId, String currency) {
+            this.companyId = companyId;
+            this.currency = currency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(companyId, other.companyId)
+                    && Objects.equals(currency, other.currency);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(companyId, currency);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.luisovando.payout_service.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Daily limit budget leased to service nodes for a company and currency, in minor units.
+ */
+@Entity
+@Table(name = "payout_limit_usage")
+@IdClass(PayoutLimitUsageEntity.Key.class)
+public class PayoutLimitUsageEntity {
+    protected PayoutLimitUsageEntity() {
+    }
+
+    @Id
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Id
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Id
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "leased_minor", nullable = false)
+    private long leasedMinor;
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public LocalDate getUsageDate() {
+        return usageDate;
+    }
+
+    public long getLeasedMinor() {
+        return leasedMinor;
+    }
+
+    public static class Key implements Serializable {
+        private UUID companyId;
+        private String currency;
+        private LocalDate usageDate;
+
+        protected Key() {
+        }
+
+        public Key(UUID companyId, String currency, LocalDate usageDate) {
+            this.companyId = companyId;
+            this.currency = currency;
+            this.usageDate = usageDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(companyId, other.companyId)
+                    && Objects.equals(currency, other.currency)
+                    && Objects.equals(usageDate, other.usageDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(companyId, currency, usageDate);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.luisovando.payout_service.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Count and total of the payouts of a company created on a day, per currency and status.
+ * Rows are written with batched upserts by the rollup flusher, not through JPA.
+ */
+@Entity
+@Table(name = "payout_rollups")
+@IdClass(PayoutRollupEntity.Key.class)
+public class PayoutRollupEntity {
+    protected PayoutRollupEntity() {
+    }
+
+    @Id
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Id
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate day;
+
+    @Id
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Id
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "payout_count", nullable = false)
+    private long payoutCount;
+
+    @Column(name = "amount_total", nullable = false, precision = 20, scale = 2)
+    private BigDecimal amountTotal;
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getPayoutCount() {
+        return payoutCount;
+    }
+
+    public BigDecimal getAmountTotal() {
+        return amountTotal;
+    }
+
+    public static class Key implements Serializable {
+        private UUID companyId;
+        private LocalDate day;
+        private String currency;
+        private String status;
+
+        protected Key() {
+        }
+
+        public Key(UUID companyId, LocalDate day, String currency, String status) {
+            this.companyId = companyId;
+            this.day = day;
+            this.currency = currency;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(companyId, other.companyId)
+                    && Objects.equals(day, other.day)
+                    && Objects.equals(currency, other.currency)
+                    && Objects.equals(status, other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(companyId, day, currency, status);
+        }
+    }
+}
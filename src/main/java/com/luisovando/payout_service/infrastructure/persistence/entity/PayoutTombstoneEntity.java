@@ -0,0 +1,115 @@
+package com.luisovando.payout_service.infrastructure.persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Idempotency key and request parameters of a payout moved to the archive, so creates with
+ * the same key keep being replayed or refused after the payout left {@code payouts}.
+ * Rows are written by the archiver in the transaction that deletes the payout, not through JPA.
+ */
+@Entity
+@Table(name = "payout_tombstones")
+@IdClass(PayoutTombstoneEntity.Key.class)
+public class PayoutTombstoneEntity {
+    protected PayoutTombstoneEntity() {
+    }
+
+    @Id
+    @Column(name = "company_id", nullable = false)
+    private UUID companyId;
+
+    @Id
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "payout_id", nullable = false)
+    private UUID payoutId;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "settlement_currency", nullable = false, length = 3)
+    private String settlementCurrency;
+
+    @Column(name = "execute_at")
+    private Instant executeAt;
+
+    public UUID getCompanyId() {
+        return companyId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public UUID getPayoutId() {
+        return payoutId;
+    }
+
+    /**
+     * Status of the payout when it was archived; archived payouts no longer change.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Currency the payout settled in, its own currency when it was not converted.
+     */
+    public String getSettlementCurrency() {
+        return settlementCurrency;
+    }
+
+    public Instant getExecuteAt() {
+        return executeAt;
+    }
+
+    public static class Key implements Serializable {
+        private UUID companyId;
+        private String idempotencyKey;
+
+        protected Key() {
+        }
+
+        public Key(UUID companyId, String idempotencyKey) {
+            this.companyId = companyId;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(companyId, other.companyId)
+                    && Objects.equals(idempotencyKey, other.idempotencyKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(companyId, idempotencyKey);
+        }
+    }
+}
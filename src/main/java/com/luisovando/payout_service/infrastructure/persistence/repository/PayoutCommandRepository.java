@@ -0,0 +1,13 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutCommandEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+/**
+ * Read access to the outcomes of async create commands; they are written by
+ * {@link com.luisovando.payout_service.infrastructure.commandlog.CommandStatusStore}.
+ */
+public interface PayoutCommandRepository extends JpaRepository<PayoutCommandEntity, UUID> {
+}
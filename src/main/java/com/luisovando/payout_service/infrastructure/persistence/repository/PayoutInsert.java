@@ -0,0 +1,20 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PayoutInsert {
+    /**
+     * Inserts a new payout immediately instead of at commit, so a unique violation surfaces
+     * here as a {@link DataIntegrityViolationException}. The insert runs
+     * in a savepoint that is rolled back when it fails, leaving the surrounding transaction
+     * usable (PostgreSQL aborts the whole transaction otherwise) and the persistence context
+     * cleared. The violation does not mark the surrounding transaction rollback-only, so the
+     * caller can still read the winning row and commit.
+     *
+     * @return the inserted payout
+     */
+    @Transactional(noRollbackFor = DataIntegrityViolationException.class)
+    PayoutEntity insert(PayoutEntity payout);
+}
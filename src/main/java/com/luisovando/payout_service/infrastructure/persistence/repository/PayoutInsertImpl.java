@@ -0,0 +1,38 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+
+class PayoutInsertImpl implements PayoutInsert {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public PayoutEntity insert(PayoutEntity payout) {
+        // A failed flush of the shared session marks the whole transaction rollback-only, so the
+        // insert goes through a stateless session on the same connection instead.
+        Session session = entityManager.unwrap(Session.class);
+        Connection connection = session.doReturningWork(current -> current);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try (StatelessSession insert = session.getSessionFactory().withStatelessOptions()
+                .connection(connection)
+                .openStatelessSession()) {
+            insert.insert(payout);
+        } catch (ConstraintViolationException e) {
+            session.doWork(current -> current.rollback(savepoint));
+            // translated here rather than by the repository proxy so the transaction
+            // interceptors see the exception their rollback rules name
+            throw new DataIntegrityViolationException(e.getMessage(), e);
+        }
+        session.doWork(current -> current.releaseSavepoint(savepoint));
+        return payout;
+    }
+}
@@ -0,0 +1,7 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutLimitEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PayoutLimitRepository extends JpaRepository<PayoutLimitEntity, PayoutLimitEntity.Key> {
+}
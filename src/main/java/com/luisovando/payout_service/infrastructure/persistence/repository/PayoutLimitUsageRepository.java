@@ -0,0 +1,11 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutLimitUsageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Read access to the leased limit budgets; leases themselves are written by
+ * {@link com.luisovando.payout_service.application.limits.PayoutLimits} on its own pool.
+ */
+public interface PayoutLimitUsageRepository extends JpaRepository<PayoutLimitUsageEntity, PayoutLimitUsageEntity.Key> {
+}
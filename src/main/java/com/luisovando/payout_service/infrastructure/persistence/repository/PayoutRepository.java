@@ -2,10 +2,38 @@ package com.luisovando.payout_service.infrastructure.persistence.repository;
 
 import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface PayoutRepository extends JpaRepository<PayoutEntity, UUID> {
+public interface PayoutRepository extends JpaRepository<PayoutEntity, UUID>, PayoutInsert {
     Optional<PayoutEntity> findByCompanyIdAndIdempotencyKey(UUID companyId, String idempotencyKey);
+
+    /**
+     * Moves a payout from {@code from} to {@code to}; returns 0 when it is no longer in {@code from}.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE payouts SET status = :to, updated_at = CURRENT_TIMESTAMP WHERE id = :id AND status = :from",
+            nativeQuery = true)
+    int updateStatus(@Param("id") UUID id, @Param("from") String from, @Param("to") String to);
+
+    @Query("SELECT p.companyId AS companyId, p.currency AS currency, SUM(p.amount) AS total FROM PayoutEntity p"
+            + " WHERE p.createdAt >= :from AND p.createdAt < :to GROUP BY p.companyId, p.currency")
+    List<AmountTotal> sumAmountsCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    interface AmountTotal {
+        UUID getCompanyId();
+
+        String getCurrency();
+
+        BigDecimal getTotal();
+    }
 }
@@ -0,0 +1,14 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutRollupEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface PayoutRollupRepository extends JpaRepository<PayoutRollupEntity, PayoutRollupEntity.Key> {
+
+    List<PayoutRollupEntity> findByCompanyIdAndDayBetweenOrderByDayAscCurrencyAscStatusAsc(
+            UUID companyId, LocalDate from, LocalDate to);
+}
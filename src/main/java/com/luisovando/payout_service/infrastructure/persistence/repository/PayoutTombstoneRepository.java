@@ -0,0 +1,11 @@
+package com.luisovando.payout_service.infrastructure.persistence.repository;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutTombstoneEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Read access to the idempotency tombstones of archived payouts; they are written by
+ * {@link com.luisovando.payout_service.infrastructure.archive.PayoutArchiver}.
+ */
+public interface PayoutTombstoneRepository extends JpaRepository<PayoutTombstoneEntity, PayoutTombstoneEntity.Key> {
+}
@@ -0,0 +1,32 @@
+package com.luisovando.payout_service.infrastructure.persistence.support;
+
+import java.sql.SQLException;
+
+/**
+ * Classifies database errors by SQLState instead of driver-specific message text.
+ */
+public final class SqlStates {
+    /**
+     * SQL standard {@code unique_violation}, reported by both PostgreSQL and H2.
+     */
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    private SqlStates() {
+    }
+
+    /**
+     * Whether any {@link SQLException} in the cause chain is a unique violation.
+     */
+    public static boolean isUniqueViolation(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,208 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Sorts an unbounded stream of settlement lines with bounded memory.
+ *
+ * <p>Lines are buffered up to {@code maxLinesInMemory}; a full buffer is sorted and
+ * spilled to a run file in {@code workDirectory}. {@link #sorted()} then k-way merges
+ * the runs, in passes of at most {@code MAX_FAN_IN} runs. Input that never fills
+ * the buffer is sorted in memory without touching the disk.
+ */
+final class ExternalSorter implements AutoCloseable {
+    private static final int MAX_FAN_IN = 64;
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private final Path workDirectory;
+    private final int maxLinesInMemory;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<RunReader> openReaders = new ArrayList<>();
+    private List<SettlementLine> buffer = new ArrayList<>();
+
+    ExternalSorter(Path workDirectory, int maxLinesInMemory) {
+        if (maxLinesInMemory <= 0) {
+            throw new IllegalArgumentException("maxLinesInMemory must be greater than 0");
+        }
+        this.workDirectory = workDirectory;
+        this.maxLinesInMemory = maxLinesInMemory;
+    }
+
+    void add(SettlementLine line) throws IOException {
+        buffer.add(line);
+        if (buffer.size() >= maxLinesInMemory) {
+            spill();
+        }
+    }
+
+    int spilledRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Returns all added lines in {@link SettlementLine#ORDER}. No more lines may be added afterwards.
+     */
+    Iterator<SettlementLine> sorted() throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(SettlementLine.ORDER);
+            List<SettlementLine> inMemory = buffer;
+            buffer = List.of();
+            return inMemory.iterator();
+        }
+
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        buffer = List.of();
+
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> batch = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            runs.subList(0, MAX_FAN_IN).clear();
+            runs.add(mergeToRun(batch));
+        }
+
+        return merge(runs);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (RunReader reader : openReaders) {
+            reader.close();
+        }
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(SettlementLine.ORDER);
+        Path run = Files.createTempFile(workDirectory, "settlement-run-", ".bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER))) {
+            for (SettlementLine line : buffer) {
+                write(out, line);
+            }
+        }
+        runs.add(run);
+        buffer = new ArrayList<>(maxLinesInMemory);
+    }
+
+    private Path mergeToRun(List<Path> inputs) throws IOException {
+        Path run = Files.createTempFile(workDirectory, "settlement-run-", ".bin");
+        MergeIterator merged = merge(inputs);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER))) {
+            while (merged.hasNext()) {
+                write(out, merged.next());
+            }
+        } finally {
+            merged.close();
+            for (Path input : inputs) {
+                Files.deleteIfExists(input);
+            }
+        }
+        return run;
+    }
+
+    private MergeIterator merge(List<Path> inputs) throws IOException {
+        List<RunReader> readers = new ArrayList<>(inputs.size());
+        for (Path input : inputs) {
+            readers.add(new RunReader(input));
+        }
+        openReaders.addAll(readers);
+        return new MergeIterator(readers);
+    }
+
+    private static void write(DataOutputStream out, SettlementLine line) throws IOException {
+        out.writeLong(line.companyId().getMostSignificantBits());
+        out.writeLong(line.companyId().getLeastSignificantBits());
+        out.writeLong(line.payoutId().getMostSignificantBits());
+        out.writeLong(line.payoutId().getLeastSignificantBits());
+        out.writeUTF(line.amount().toPlainString());
+        out.writeUTF(line.currency());
+    }
+
+    private static final class RunReader implements AutoCloseable {
+        private final DataInputStream in;
+        private SettlementLine current;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), IO_BUFFER));
+            advance();
+        }
+
+        void advance() throws IOException {
+            try {
+                UUID companyId = new UUID(in.readLong(), in.readLong());
+                UUID payoutId = new UUID(in.readLong(), in.readLong());
+                current = new SettlementLine(companyId, payoutId, new BigDecimal(in.readUTF()), in.readUTF());
+            } catch (EOFException e) {
+                current = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class MergeIterator implements Iterator<SettlementLine>, AutoCloseable {
+        private final List<RunReader> readers;
+        private final PriorityQueue<RunReader> heads;
+
+        MergeIterator(List<RunReader> readers) {
+            this.readers = readers;
+            this.heads = new PriorityQueue<>(Math.max(1, readers.size()),
+                    (left, right) -> SettlementLine.ORDER.compare(left.current, right.current));
+            for (RunReader reader : readers) {
+                if (reader.current != null) {
+                    heads.add(reader);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public SettlementLine next() {
+            RunReader reader = heads.poll();
+            if (reader == null) {
+                throw new NoSuchElementException();
+            }
+            SettlementLine line = reader.current;
+            try {
+                reader.advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (reader.current != null) {
+                heads.add(reader);
+            }
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Contiguous slice of the company id space, used to split reconciliation and rollup rebuild work.
+ *
+ * <p>Ranges split the most significant 64 bits of the company id evenly, so a
+ * range maps to an index-friendly {@code company_id >= ? AND company_id < ?}
+ * predicate and every settlement line can be routed to its range in O(1).
+ *
+ * @param lower inclusive lower bound
+ * @param upper exclusive upper bound, {@code null} for the last range
+ */
+public record PayoutKeyRange(int index, UUID lower, UUID upper) {
+
+    public static List<PayoutKeyRange> split(int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be greater than 0");
+        }
+        long step = step(partitions);
+        List<PayoutKeyRange> ranges = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            UUID lower = new UUID(step * i, 0);
+            UUID upper = i == partitions - 1 ? null : new UUID(step * (i + 1), 0);
+            ranges.add(new PayoutKeyRange(i, lower, upper));
+        }
+        return ranges;
+    }
+
+    /**
+     * Index of the range holding {@code companyId} among {@code partitions} ranges.
+     */
+    static int indexOf(UUID companyId, int partitions) {
+        long index = Long.divideUnsigned(companyId.getMostSignificantBits(), step(partitions));
+        return (int) Math.min(index, partitions - 1);
+    }
+
+    public boolean contains(UUID companyId) {
+        return SettlementLine.UUID_ORDER.compare(companyId, lower) >= 0
+                && (upper == null || SettlementLine.UUID_ORDER.compare(companyId, upper) < 0);
+    }
+
+    private static long step(int partitions) {
+        return partitions == 1 ? -1L : Long.divideUnsigned(-1L, partitions);
+    }
+}
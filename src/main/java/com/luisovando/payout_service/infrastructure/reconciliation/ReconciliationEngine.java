@@ -0,0 +1,444 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import com.luisovando.payout_service.infrastructure.archive.ArchiveColumn;
+import com.luisovando.payout_service.infrastructure.archive.ArchivedPayout;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchive;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadProperties;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles a provider settlement file against {@code payouts} with a streaming
+ * sort-merge join.
+ *
+ * <p>The file is read once and each line is routed to the {@link PayoutKeyRange}
+ * of its company id, where an {@link ExternalSorter} orders it with bounded memory.
+ * Each range is then joined, in parallel on the bulk lane, against a {@code payouts}
+ * cursor ordered by the same key, holding one bulk connection per range, so memory stays bounded by the sort buffers and the fetch size
+ * whatever the size of the file or the table.
+ *
+ * <p>Payouts moved to the {@link PayoutArchive} are merged into the same cursor, one
+ * company at a time: the archived payouts of a company are read from its segments and
+ * ordered by an {@link ExternalSorter} with the same buffer size as the settlement lines
+ * of the range, so a company with a large archive spills instead of filling the heap.
+ */
+@Component
+public class ReconciliationEngine {
+    private static final String HEADER_PREFIX = "payout_id";
+    private static final Set<ArchiveColumn> ARCHIVE_COLUMNS = EnumSet.of(
+            ArchiveColumn.ID, ArchiveColumn.AMOUNT, ArchiveColumn.CURRENCY,
+            ArchiveColumn.SETTLEMENT_AMOUNT, ArchiveColumn.SETTLEMENT_CURRENCY);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReconciliationProperties properties;
+    private final PayoutArchive archive;
+    private final BulkheadExecutor bulkLane;
+    private final int bulkConnections;
+
+    public ReconciliationEngine(
+            @Qualifier(Bulkheads.BULK) DataSource dataSource,
+            @Qualifier(Bulkheads.BULK) PlatformTransactionManager transactionManager,
+            ReconciliationProperties properties,
+            PayoutArchive archive,
+            @Qualifier(Bulkheads.BULK) BulkheadExecutor bulkLane,
+            BulkheadProperties bulkheadProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.archive = archive;
+        this.bulkLane = bulkLane;
+        this.bulkConnections = bulkheadProperties.bulkJobConnections();
+    }
+
+    /**
+     * Reconciles {@code settlementFile} ({@code payout_id,company_id,amount,currency}, optional header)
+     * against the payouts created in {@code [createdFrom, createdTo)}; either bound may be {@code null}.
+     */
+    public ReconciliationReport reconcile(Path settlementFile, Instant createdFrom, Instant createdTo)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        int partitions = properties.effectivePartitions(bulkConnections);
+        List<PayoutKeyRange> ranges = PayoutKeyRange.split(partitions);
+
+        Files.createDirectories(properties.workDirectory());
+        Path runDirectory = Files.createTempDirectory(properties.workDirectory(), "run-");
+        Path discrepancies = properties.workDirectory().resolve(
+                "discrepancies-" + settlementFile.getFileName() + "-" + System.currentTimeMillis() + ".csv");
+
+        List<ExternalSorter> sorters = new ArrayList<>(partitions);
+        int linesPerPartition = Math.max(1, properties.maxLinesInMemory() / partitions);
+        for (int i = 0; i < partitions; i++) {
+            sorters.add(new ExternalSorter(runDirectory, linesPerPartition));
+        }
+
+        List<Future<long[]>> futures = new ArrayList<>(partitions);
+        try (DiscrepancyWriter writer = new DiscrepancyWriter(discrepancies)) {
+            long[] lineCounts = route(settlementFile, sorters, writer);
+
+            for (PayoutKeyRange range : ranges) {
+                ExternalSorter sorter = sorters.get(range.index());
+                futures.add(bulkLane.submit(() -> join(range, sorter, createdFrom, createdTo, writer,
+                        runDirectory, linesPerPartition)));
+            }
+
+            long[] totals = new long[Totals.SIZE];
+            for (Future<long[]> future : futures) {
+                long[] partial = future.get();
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += partial[i];
+                }
+            }
+
+            return new ReconciliationReport(
+                    settlementFile,
+                    lineCounts[0],
+                    lineCounts[1],
+                    totals[Totals.SCANNED],
+                    totals[Totals.MATCHED],
+                    totals[Totals.MISSING],
+                    totals[Totals.EXTRA],
+                    totals[Totals.AMOUNT_MISMATCH],
+                    totals[Totals.CURRENCY_MISMATCH],
+                    discrepancies,
+                    partitions,
+                    Duration.ofNanos(System.nanoTime() - started)
+            );
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Reconciliation of " + settlementFile + " failed", cause);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            for (ExternalSorter sorter : sorters) {
+                sorter.close();
+            }
+            deleteDirectory(runDirectory);
+        }
+    }
+
+    /**
+     * Reads the settlement file and hands every line to the sorter of its range.
+     *
+     * @return {@code [valid lines, malformed lines]}
+     */
+    private static long[] route(Path settlementFile, List<ExternalSorter> sorters, DiscrepancyWriter writer)
+            throws IOException {
+        long valid = 0;
+        long malformed = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(settlementFile, StandardCharsets.UTF_8)) {
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                lineNumber++;
+                if (raw.isBlank() || (lineNumber == 1 && raw.startsWith(HEADER_PREFIX))) {
+                    continue;
+                }
+                SettlementLine line;
+                try {
+                    line = SettlementLine.parse(raw);
+                } catch (IllegalArgumentException e) {
+                    malformed++;
+                    writer.malformed(lineNumber, e.getMessage());
+                    continue;
+                }
+                sorters.get(PayoutKeyRange.indexOf(line.companyId(), sorters.size())).add(line);
+                valid++;
+            }
+        }
+        return new long[]{valid, malformed};
+    }
+
+    private long[] join(PayoutKeyRange range, ExternalSorter sorter, Instant createdFrom, Instant createdTo,
+                        DiscrepancyWriter writer, Path runDirectory, int linesInMemory) throws IOException {
+        Iterator<SettlementLine> reported = sorter.sorted();
+        long[] totals = readOnlyTransaction.execute(status -> {
+            try (Stream<SettlementLine> rows = streamPayouts(range, createdFrom, createdTo);
+                 ArchivedPayouts archived = streamArchived(range, createdFrom, createdTo, runDirectory, linesInMemory)) {
+                Iterator<SettlementLine> stored = new StoredPayouts(rows.iterator(), archived);
+                return mergeJoin(reported, stored, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return totals;
+    }
+
+    private Stream<SettlementLine> streamPayouts(PayoutKeyRange range, Instant createdFrom, Instant createdTo) {
+        StringBuilder sql = new StringBuilder("SELECT company_id, id, COALESCE(settlement_amount, amount) AS amount,"
+                + " COALESCE(settlement_currency, currency) AS currency FROM payouts WHERE company_id >= ?");
+        List<Object> arguments = new ArrayList<>(4);
+        arguments.add(range.lower());
+        if (range.upper() != null) {
+            sql.append(" AND company_id < ?");
+            arguments.add(range.upper());
+        }
+        if (createdFrom != null) {
+            sql.append(" AND created_at >= ?");
+            arguments.add(Timestamp.from(createdFrom));
+        }
+        if (createdTo != null) {
+            sql.append(" AND created_at < ?");
+            arguments.add(Timestamp.from(createdTo));
+        }
+        sql.append(" ORDER BY company_id, id");
+
+        return jdbcTemplate.queryForStream(sql.toString(), (rs, rowNum) -> new SettlementLine(
+                rs.getObject("company_id", UUID.class),
+                rs.getObject("id", UUID.class),
+                rs.getBigDecimal("amount"),
+                rs.getString("currency")
+        ), arguments.toArray());
+    }
+
+    private ArchivedPayouts streamArchived(PayoutKeyRange range, Instant createdFrom, Instant createdTo,
+                                           Path runDirectory, int linesInMemory) throws IOException {
+        List<UUID> companies = archive.companies().stream()
+                .filter(range::contains)
+                .sorted(SettlementLine.UUID_ORDER)
+                .toList();
+        return new ArchivedPayouts(companies.iterator(), createdFrom, createdTo, runDirectory, linesInMemory);
+    }
+
+    private static long[] mergeJoin(Iterator<SettlementLine> reported, Iterator<SettlementLine> stored,
+                                    DiscrepancyWriter writer) throws IOException {
+        long[] totals = new long[Totals.SIZE];
+        Comparator<SettlementLine> order = SettlementLine.ORDER;
+
+        SettlementLine line = reported.hasNext() ? reported.next() : null;
+        SettlementLine payout = nextPayout(stored, totals);
+        while (line != null || payout != null) {
+            int comparison = line == null ? 1 : payout == null ? -1 : order.compare(line, payout);
+            if (comparison < 0) {
+                totals[Totals.EXTRA]++;
+                writer.write("EXTRA", null, line);
+                line = reported.hasNext() ? reported.next() : null;
+            } else if (comparison > 0) {
+                totals[Totals.MISSING]++;
+                writer.write("MISSING", payout, null);
+                payout = nextPayout(stored, totals);
+            } else {
+                if (!line.currency().equals(payout.currency())) {
+                    totals[Totals.CURRENCY_MISMATCH]++;
+                    writer.write("CURRENCY_MISMATCH", payout, line);
+                } else if (line.amount().compareTo(payout.amount()) != 0) {
+                    totals[Totals.AMOUNT_MISMATCH]++;
+                    writer.write("AMOUNT_MISMATCH", payout, line);
+                } else {
+                    totals[Totals.MATCHED]++;
+                }
+                line = reported.hasNext() ? reported.next() : null;
+                payout = nextPayout(stored, totals);
+            }
+        }
+        return totals;
+    }
+
+    private static SettlementLine nextPayout(Iterator<SettlementLine> stored, long[] totals) {
+        if (!stored.hasNext()) {
+            return null;
+        }
+        totals[Totals.SCANNED]++;
+        return stored.next();
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Archived payouts of a range in {@link SettlementLine#ORDER}, sorting one company at a time.
+     * The sorter of a company is closed, and its runs deleted, once its payouts are consumed.
+     */
+    private final class ArchivedPayouts implements Iterator<SettlementLine>, AutoCloseable {
+        private final Iterator<UUID> companies;
+        private final Instant createdFrom;
+        private final Instant createdTo;
+        private final Path runDirectory;
+        private final int linesInMemory;
+        private ExternalSorter sorter;
+        private Iterator<SettlementLine> current = Collections.emptyIterator();
+
+        ArchivedPayouts(Iterator<UUID> companies, Instant createdFrom, Instant createdTo,
+                        Path runDirectory, int linesInMemory) {
+            this.companies = companies;
+            this.createdFrom = createdFrom;
+            this.createdTo = createdTo;
+            this.runDirectory = runDirectory;
+            this.linesInMemory = linesInMemory;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (!current.hasNext()) {
+                    closeSorter();
+                    if (!companies.hasNext()) {
+                        return false;
+                    }
+                    current = sort(companies.next());
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public SettlementLine next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private Iterator<SettlementLine> sort(UUID companyId) throws IOException {
+            sorter = new ExternalSorter(runDirectory, linesInMemory);
+            try (Stream<ArchivedPayout> payouts = archive.stream(companyId, createdFrom, createdTo, ARCHIVE_COLUMNS)) {
+                Iterator<ArchivedPayout> iterator = payouts.iterator();
+                while (iterator.hasNext()) {
+                    ArchivedPayout payout = iterator.next();
+                    sorter.add(new SettlementLine(companyId, payout.id(), payout.settledAmount(), payout.settledCurrency()));
+                }
+            }
+            return sorter.sorted();
+        }
+
+        private void closeSorter() throws IOException {
+            if (sorter != null) {
+                sorter.close();
+                sorter = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            current = Collections.emptyIterator();
+            closeSorter();
+        }
+    }
+
+    /**
+     * Rows of {@code payouts} merged with archived payouts in {@link SettlementLine#ORDER}. A payout
+     * found in both, or in several segments, is returned once, preferring the row of the table.
+     */
+    private static final class StoredPayouts implements Iterator<SettlementLine> {
+        private final Iterator<SettlementLine> table;
+        private final Iterator<SettlementLine> archived;
+        private SettlementLine nextRow;
+        private SettlementLine nextArchived;
+
+        StoredPayouts(Iterator<SettlementLine> table, Iterator<SettlementLine> archived) {
+            this.table = table;
+            this.archived = archived;
+            this.nextRow = table.hasNext() ? table.next() : null;
+            this.nextArchived = archived.hasNext() ? archived.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextRow != null || nextArchived != null;
+        }
+
+        @Override
+        public SettlementLine next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            SettlementLine payout;
+            if (nextArchived == null || (nextRow != null && SettlementLine.ORDER.compare(nextRow, nextArchived) <= 0)) {
+                payout = nextRow;
+                nextRow = table.hasNext() ? table.next() : null;
+            } else {
+                payout = nextArchived;
+                nextArchived = archived.hasNext() ? archived.next() : null;
+            }
+            while (nextArchived != null && SettlementLine.ORDER.compare(nextArchived, payout) == 0) {
+                nextArchived = archived.hasNext() ? archived.next() : null;
+            }
+            return payout;
+        }
+    }
+
+    private static final class Totals {
+        static final int SCANNED = 0;
+        static final int MATCHED = 1;
+        static final int MISSING = 2;
+        static final int EXTRA = 3;
+        static final int AMOUNT_MISMATCH = 4;
+        static final int CURRENCY_MISMATCH = 5;
+        static final int SIZE = 6;
+    }
+
+    /**
+     * CSV sink shared by all partitions.
+     */
+    private static final class DiscrepancyWriter implements AutoCloseable {
+        private final BufferedWriter out;
+
+        DiscrepancyWriter(Path file) throws IOException {
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            out.write("type,company_id,payout_id,stored_amount,stored_currency,reported_amount,reported_currency,detail");
+            out.newLine();
+        }
+
+        synchronized void write(String type, SettlementLine stored, SettlementLine reported) throws IOException {
+            SettlementLine key = stored != null ? stored : reported;
+            out.write(type + "," + key.companyId() + "," + key.payoutId() + ","
+                    + (stored != null ? stored.amount().toPlainString() + "," + stored.currency() : ",") + ","
+                    + (reported != null ? reported.amount().toPlainString() + "," + reported.currency() : ",") + ",");
+            out.newLine();
+        }
+
+        synchronized void malformed(long lineNumber, String detail) throws IOException {
+            out.write("MALFORMED,,,,,,,line " + lineNumber + ": " + detail.replace(',', ';'));
+            out.newLine();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+}
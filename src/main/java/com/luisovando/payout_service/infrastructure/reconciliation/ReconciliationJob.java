@@ -0,0 +1,55 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles every settlement file dropped in the inbox, on the
+ * {@code payouts.reconciliation.cron} schedule (disabled by default).
+ * Processed files are moved to {@code <inbox>/processed}.
+ */
+@Component
+public class ReconciliationJob {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationJob.class);
+
+    private final ReconciliationEngine engine;
+    private final ReconciliationProperties properties;
+
+    public ReconciliationJob(ReconciliationEngine engine, ReconciliationProperties properties) {
+        this.engine = engine;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${payouts.reconciliation.cron:-}", zone = "UTC")
+    public void reconcileInbox() throws IOException, InterruptedException {
+        Path inbox = properties.inbox();
+        if (!Files.isDirectory(inbox)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(inbox)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(".csv")).sorted().toList();
+        }
+
+        Path processed = Files.createDirectories(inbox.resolve("processed"));
+        for (Path file : files) {
+            ReconciliationReport report = engine.reconcile(file, null, null);
+            log.info("Reconciled {}: lines={} malformed={} scanned={} matched={} missing={} extra={} "
+                            + "amountMismatches={} currencyMismatches={} elapsed={} report={}",
+                    file.getFileName(), report.settlementLines(), report.malformedLines(), report.payoutsScanned(),
+                    report.matched(), report.missing(), report.extra(), report.amountMismatches(),
+                    report.currencyMismatches(), report.elapsed(), report.discrepancies());
+            Files.move(file, processed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
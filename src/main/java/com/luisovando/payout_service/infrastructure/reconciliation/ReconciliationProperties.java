@@ -0,0 +1,30 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the settlement reconciliation job ({@code payouts.reconciliation.*}).
+ *
+ * @param inbox             directory scanned for settlement files ({@code *.csv})
+ * @param workDirectory     directory for sort spill files and discrepancy reports
+ * @param partitions        company id ranges reconciled in parallel, {@code 0} for one per core; each holds a
+ *                          bulk connection, so at most {@link BulkheadProperties#bulkJobConnections()} are used
+ * @param maxLinesInMemory  settlement lines buffered in memory across all partitions before spilling
+ * @param fetchSize         rows fetched per round trip from the {@code payouts} cursor
+ */
+@ConfigurationProperties("payouts.reconciliation")
+public record ReconciliationProperties(
+        @DefaultValue("data/settlements/inbox") Path inbox,
+        @DefaultValue("data/settlements/work") Path workDirectory,
+        @DefaultValue("0") int partitions,
+        @DefaultValue("1000000") int maxLinesInMemory,
+        @DefaultValue("5000") int fetchSize
+) {
+    public int effectivePartitions(int connections) {
+        return Math.min(partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors(), connections);
+    }
+}
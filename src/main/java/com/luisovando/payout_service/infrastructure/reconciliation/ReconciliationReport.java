@@ -0,0 +1,30 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Totals of one reconciliation run. Individual discrepancies are written to
+ * {@code discrepancies} as CSV rather than kept in memory.
+ *
+ * @param missing  payouts in {@code payouts} that the settlement file does not report
+ * @param extra    settlement lines without a matching payout (including duplicated lines)
+ */
+public record ReconciliationReport(
+        Path settlementFile,
+        long settlementLines,
+        long malformedLines,
+        long payoutsScanned,
+        long matched,
+        long missing,
+        long extra,
+        long amountMismatches,
+        long currencyMismatches,
+        Path discrepancies,
+        int partitions,
+        Duration elapsed
+) {
+    public boolean clean() {
+        return malformedLines == 0 && missing == 0 && extra == 0 && amountMismatches == 0 && currencyMismatches == 0;
+    }
+}
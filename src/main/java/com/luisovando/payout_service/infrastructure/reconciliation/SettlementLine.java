@@ -0,0 +1,48 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * One payout as reported by a provider settlement file, or as read from {@code payouts}.
+ *
+ * <p>Both sides are ordered by {@link #ORDER}: company id, then payout id, comparing
+ * UUIDs as unsigned bytes like PostgreSQL and H2 do in {@code ORDER BY}.
+ */
+record SettlementLine(UUID companyId, UUID payoutId, BigDecimal amount, String currency) {
+
+    static final Comparator<UUID> UUID_ORDER = (left, right) -> {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    };
+
+    static final Comparator<SettlementLine> ORDER = (left, right) -> {
+        int company = UUID_ORDER.compare(left.companyId(), right.companyId());
+        return company != 0 ? company : UUID_ORDER.compare(left.payoutId(), right.payoutId());
+    };
+
+    /**
+     * Parses {@code payout_id,company_id,amount,currency}.
+     *
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    static SettlementLine parse(String line) {
+        int first = line.indexOf(',');
+        int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+        int third = second < 0 ? -1 : line.indexOf(',', second + 1);
+        if (third < 0 || line.indexOf(',', third + 1) >= 0) {
+            throw new IllegalArgumentException("expected 4 columns");
+        }
+
+        UUID payoutId = UUID.fromString(line.substring(0, first).trim());
+        UUID companyId = UUID.fromString(line.substring(first + 1, second).trim());
+        BigDecimal amount = new BigDecimal(line.substring(second + 1, third).trim());
+        String currency = line.substring(third + 1).trim().toUpperCase();
+        if (currency.length() != 3) {
+            throw new IllegalArgumentException("currency must be ISO-4217 (3 chars)");
+        }
+
+        return new SettlementLine(companyId, payoutId, amount, currency);
+    }
+}
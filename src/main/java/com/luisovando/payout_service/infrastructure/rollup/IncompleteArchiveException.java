@@ -0,0 +1,26 @@
+package com.luisovando.payout_service.infrastructure.rollup;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a rebuild would read an archive that lacks payouts already deleted from
+ * {@code payouts}, e.g. on a node that does not hold the archive.
+ */
+public class IncompleteArchiveException extends IllegalStateException {
+    private final UUID companyId;
+    private final long missing;
+
+    public IncompleteArchiveException(UUID companyId, long missing) {
+        super("The local archive is missing " + missing + " archived payouts of company " + companyId);
+        this.companyId = companyId;
+        this.missing = missing;
+    }
+
+    public UUID companyId() {
+        return companyId;
+    }
+
+    public long missing() {
+        return missing;
+    }
+}
@@ -0,0 +1,58 @@
+package com.luisovando.payout_service.infrastructure.rollup;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Actuator endpoint ({@code rollups}) for the payout rollups.
+ *
+ * <ul>
+ *     <li>the read operation reports the changes waiting for the next flush</li>
+ *     <li>the write operation rebuilds the rollups from the table and the archive, or answers
+ *     {@code 409} when a rebuild is running or the local archive is incomplete</li>
+ * </ul>
+ *
+ * <p>A rebuild pauses the rollup flushes and scans the table and the archive, so like the
+ * {@code jfr} endpoint it is only exposed over JMX by default. Exposing it over the web should
+ * go with a management port that is not reachable from outside, or authentication.
+ */
+@Component
+@Endpoint(id = "rollups")
+public class PayoutRollupEndpoint {
+    private static final int STATUS_CONFLICT = 409;
+
+    private final PayoutRollups rollups;
+    private final PayoutRollupRebuilder rebuilder;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public PayoutRollupEndpoint(PayoutRollups rollups, PayoutRollupRebuilder rebuilder) {
+        this.rollups = rollups;
+        this.rebuilder = rebuilder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pending() {
+        return Map.of("pending", rollups.pending(), "rebuilding", rebuilding.get());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> rebuild() throws IOException, InterruptedException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return new WebEndpointResponse<>(Map.of("error", "a rebuild is already running"), STATUS_CONFLICT);
+        }
+        try {
+            return new WebEndpointResponse<>(rebuilder.rebuild(), WebEndpointResponse.STATUS_OK);
+        } catch (IncompleteArchiveException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), STATUS_CONFLICT);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.luisovando.payout_service.infrastructure.rollup;
+
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the incrementally maintained payout rollups ({@code payouts.rollups.*}).
+ *
+ * @param flushInterval     pause between two flushes of the changes accumulated in memory
+ * @param batchSize         rollup rows per batched upsert, and payouts per status-change lookup
+ * @param rebuildPartitions company id ranges recomputed in parallel by a rebuild, {@code 0} for one per core; each
+ *                          holds a bulk connection, so at most {@link BulkheadProperties#bulkJobConnections()} are used
+ * @param fetchSize         rows fetched per round trip while rebuilding
+ */
+@ConfigurationProperties("payouts.rollups")
+public record PayoutRollupProperties(
+        @DefaultValue("1s") Duration flushInterval,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("0") int rebuildPartitions,
+        @DefaultValue("5000") int fetchSize
+) {
+    public int effectiveRebuildPartitions(int connections) {
+        return Math.min(rebuildPartitions > 0 ? rebuildPartitions : Runtime.getRuntime().availableProcessors(), connections);
+    }
+}
@@ -0,0 +1,221 @@
+package com.luisovando.payout_service.infrastructure.rollup;
+
+import com.luisovando.payout_service.infrastructure.archive.ArchiveColumn;
+import com.luisovando.payout_service.infrastructure.archive.ArchivedPayout;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchive;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadProperties;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.infrastructure.reconciliation.PayoutKeyRange;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Recomputes {@code payout_rollups} from {@code payouts} and the {@link PayoutArchive}.
+ *
+ * <p>The company id space is split into {@code rebuild-partitions} ranges, at most
+ * {@link BulkheadProperties#bulkJobConnections()}, recomputed in parallel on the bulk lane, each in its own transaction: the table is aggregated by the
+ * database, archived payouts of the range are streamed from their segments, and the rows of
+ * the range are replaced. Incremental flushes are paused for the duration; changes committed while a range
+ * is recomputed may be counted twice or not at all until the next rebuild, so rebuilds are
+ * meant for quiet periods or after the rollups drifted.
+ *
+ * <p>The archive is local to the node that wrote it, so a rebuild first checks that every payout
+ * with an idempotency tombstone, i.e. every payout whose archival committed, is in the local
+ * archive, and refuses with {@link IncompleteArchiveException} otherwise. Archived payouts still
+ * in {@code payouts}, left by an archival batch that did not commit, are only counted from the table.
+ */
+@Component
+public class PayoutRollupRebuilder {
+    private static final Set<ArchiveColumn> ARCHIVE_COLUMNS = EnumSet.of(
+            ArchiveColumn.ID, ArchiveColumn.AMOUNT, ArchiveColumn.CURRENCY, ArchiveColumn.STATUS, ArchiveColumn.CREATED_AT);
+    private static final Set<ArchiveColumn> ID_COLUMN = EnumSet.of(ArchiveColumn.ID);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final PayoutRollups rollups;
+    private final PayoutArchive archive;
+    private final PayoutRollupProperties properties;
+    private final BulkheadExecutor bulkLane;
+    private final int bulkConnections;
+
+    public PayoutRollupRebuilder(
+            @Qualifier(Bulkheads.BULK) DataSource dataSource,
+            @Qualifier(Bulkheads.BULK) PlatformTransactionManager transactionManager,
+            PayoutRollups rollups,
+            PayoutArchive archive,
+            PayoutRollupProperties properties,
+            @Qualifier(Bulkheads.BULK) BulkheadExecutor bulkLane,
+            BulkheadProperties bulkheadProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rollups = rollups;
+        this.archive = archive;
+        this.properties = properties;
+        this.bulkLane = bulkLane;
+        this.bulkConnections = bulkheadProperties.bulkJobConnections();
+    }
+
+    /**
+     * @throws IncompleteArchiveException when the local archive lacks archived payouts; nothing is replaced
+     */
+    public Report rebuild() throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        int partitions = properties.effectiveRebuildPartitions(bulkConnections);
+        verifyArchive();
+        List<UUID> archivedCompanies = archive.companies();
+
+        rollups.pause();
+        List<Future<long[]>> futures = new ArrayList<>(partitions);
+        try {
+            for (PayoutKeyRange range : PayoutKeyRange.split(partitions)) {
+                List<UUID> companies = archivedCompanies.stream().filter(range::contains).toList();
+                futures.add(bulkLane.submit(() -> transaction.execute(status -> rebuild(range, companies))));
+            }
+
+            long archivedPayouts = 0;
+            long rows = 0;
+            for (Future<long[]> future : futures) {
+                long[] partial = future.get();
+                archivedPayouts += partial[0];
+                rows += partial[1];
+            }
+            return new Report(partitions, archivedPayouts, rows, Duration.ofNanos(System.nanoTime() - started));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IllegalStateException("Rollup rebuild failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            rollups.resume();
+        }
+    }
+
+    /**
+     * Checks, one company at a time, that each payout with a tombstone is in the local archive.
+     */
+    private void verifyArchive() throws IOException {
+        List<UUID> companies = jdbcTemplate.queryForList("SELECT DISTINCT company_id FROM payout_tombstones", UUID.class);
+        for (UUID companyId : companies) {
+            Set<UUID> missing = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT payout_id FROM payout_tombstones WHERE company_id = ?", UUID.class, companyId));
+            try (Stream<ArchivedPayout> payouts = archive.stream(companyId, null, null, ID_COLUMN)) {
+                payouts.forEach(payout -> missing.remove(payout.id()));
+            }
+            if (!missing.isEmpty()) {
+                throw new IncompleteArchiveException(companyId, missing.size());
+            }
+        }
+    }
+
+    /**
+     * @return {@code [archived payouts read, rollup rows written]}
+     */
+    private long[] rebuild(PayoutKeyRange range, List<UUID> archivedCompanies) {
+        String rangePredicate = range.upper() == null ? "company_id >= ?" : "company_id >= ? AND company_id < ?";
+        Object[] bounds = range.upper() == null
+                ? new Object[]{range.lower()}
+                : new Object[]{range.lower(), range.upper()};
+
+        Map<PayoutRollups.RollupKey, PayoutRollups.Delta> totals = new HashMap<>();
+        jdbcTemplate.query("SELECT company_id, CAST(created_at AT TIME ZONE 'UTC' AS DATE) AS rollup_date, currency, status,"
+                        + " COUNT(*) AS payout_count, SUM(amount) AS amount_total FROM payouts WHERE " + rangePredicate
+                        + " GROUP BY company_id, CAST(created_at AT TIME ZONE 'UTC' AS DATE), currency, status",
+                rs -> {
+                    totals.merge(new PayoutRollups.RollupKey(
+                                    rs.getObject("company_id", UUID.class),
+                                    rs.getObject("rollup_date", LocalDate.class),
+                                    rs.getString("currency"),
+                                    rs.getString("status")),
+                            new PayoutRollups.Delta(rs.getLong("payout_count"), rs.getBigDecimal("amount_total")),
+                            PayoutRollups.Delta::plus);
+                },
+                bounds);
+
+        long archivedPayouts = 0;
+        for (UUID companyId : archivedCompanies) {
+            // the same payout can sit in two segments, and stay in the table, after an interrupted archival batch
+            Set<UUID> seen = new HashSet<>();
+            List<ArchivedPayout> batch = new ArrayList<>(properties.batchSize());
+            try (Stream<ArchivedPayout> payouts = archive.stream(companyId, null, null, ARCHIVE_COLUMNS)) {
+                for (ArchivedPayout payout : (Iterable<ArchivedPayout>) payouts::iterator) {
+                    if (!seen.add(payout.id())) {
+                        continue;
+                    }
+                    batch.add(payout);
+                    if (batch.size() == properties.batchSize()) {
+                        archivedPayouts += mergeArchived(companyId, batch, totals);
+                        batch.clear();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            archivedPayouts += mergeArchived(companyId, batch, totals);
+        }
+
+        jdbcTemplate.update("DELETE FROM payout_rollups WHERE " + rangePredicate, bounds);
+        List<Map.Entry<PayoutRollups.RollupKey, PayoutRollups.Delta>> rows = new ArrayList<>(totals.entrySet());
+        jdbcTemplate.batchUpdate(PayoutRollups.INSERT_ROLLUP, rows, properties.batchSize(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue().count());
+            ps.setBigDecimal(2, entry.getValue().amount());
+            entry.getKey().bind(ps, 3);
+        });
+        return new long[]{archivedPayouts, rows.size()};
+    }
+
+    /**
+     * Adds the archived payouts that are no longer in {@code payouts}; the others are already
+     * counted from the table.
+     *
+     * @return the number of payouts added
+     */
+    private long mergeArchived(UUID companyId, List<ArchivedPayout> batch,
+                               Map<PayoutRollups.RollupKey, PayoutRollups.Delta> totals) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<UUID> inTable = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM payouts WHERE id IN (" + String.join(",", Collections.nCopies(batch.size(), "?")) + ")",
+                UUID.class, batch.stream().map(ArchivedPayout::id).toArray()));
+        long merged = 0;
+        for (ArchivedPayout payout : batch) {
+            if (inTable.contains(payout.id())) {
+                continue;
+            }
+            merged++;
+            totals.merge(new PayoutRollups.RollupKey(companyId,
+                            LocalDate.ofInstant(payout.createdAt(), ZoneOffset.UTC),
+                            payout.currency(), payout.status()),
+                    new PayoutRollups.Delta(1, payout.amount()), PayoutRollups.Delta::plus);
+        }
+        return merged;
+    }
+
+    public record Report(int partitions, long archivedPayouts, long rollupRows, Duration elapsed) {
+    }
+}
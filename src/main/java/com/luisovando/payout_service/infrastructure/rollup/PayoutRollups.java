@@ -0,0 +1,294 @@
+package com.luisovando.payout_service.infrastructure.rollup;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Count and total of payouts per company, currency, status and day of creation (UTC),
+ * maintained incrementally in {@code payout_rollups}.
+ *
+ * <p>Created payouts and status changes only update deltas in memory, so the write path
+ * pays for a map update. A background thread flushes them every {@code flush-interval}:
+ * status changes are resolved to the company, currency, amount and creation day of their
+ * payout with one query per batch, then the deltas are applied as batched {@code UPDATE}s
+ * plus one batched {@code INSERT} for the rows that do not exist yet. All changes of a row
+ * between two flushes collapse into one write. Deltas of a batch that fails are merged back
+ * and retried with the next flush.
+ *
+ * <p>The day of a created payout is taken from the time it was accepted, which can differ
+ * from {@code created_at} by the duration of the insert around midnight; a rebuild
+ * ({@link PayoutRollupRebuilder}) realigns the rollups with the table.
+ */
+@Component
+public class PayoutRollups {
+    private static final Logger log = LoggerFactory.getLogger(PayoutRollups.class);
+    private static final String UPDATE_ROLLUP = "UPDATE payout_rollups"
+            + " SET payout_count = payout_count + ?, amount_total = amount_total + ?"
+            + " WHERE company_id = ? AND rollup_date = ? AND currency = ? AND status = ?";
+    static final String INSERT_ROLLUP = "INSERT INTO payout_rollups"
+            + " (payout_count, amount_total, company_id, rollup_date, currency, status) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final PayoutRollupProperties properties;
+    private final Map<RollupKey, Delta> deltas = new ConcurrentHashMap<>();
+    private final Map<UUID, Transition> transitions = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService executor;
+
+    public PayoutRollups(
+            @Qualifier(Bulkheads.BULK) DataSource dataSource,
+            @Qualifier(Bulkheads.BULK) PlatformTransactionManager transactionManager,
+            PayoutRollupProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payout-rollups");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = properties.flushInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        flushSafely();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayoutCreated(PayoutCreatedEvent event) {
+        RollupKey key = new RollupKey(event.companyId(), LocalDate.ofInstant(event.acceptedAt(), ZoneOffset.UTC),
+                event.money().currency().value(), event.status());
+        deltas.merge(key, new Delta(1, event.money().amount()), Delta::plus);
+    }
+
+    @EventListener
+    public void onPayoutStatusChanged(PayoutStatusChangedEvent event) {
+        transitions.merge(event.payoutId(), new Transition(event.from(), event.to()), Transition::then);
+    }
+
+    /**
+     * Rollup rows and status changes waiting for the next flush.
+     */
+    public int pending() {
+        return deltas.size() + transitions.size();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Payout rollup flush failed, retrying on the next flush", e);
+        }
+    }
+
+    /**
+     * Writes everything accumulated so far to {@code payout_rollups}.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            resolveTransitions();
+            writeDeltas();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes and keeps further flushes from running until {@link #resume()}, so a rebuild
+     * does not interleave with incremental writes.
+     */
+    void pause() {
+        flushLock.lock();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            flushLock.unlock();
+            throw e;
+        }
+    }
+
+    void resume() {
+        flushLock.unlock();
+    }
+
+    private void resolveTransitions() {
+        List<Map.Entry<UUID, Transition>> drained = drain(transitions);
+        for (int start = 0; start < drained.size(); start += properties.batchSize()) {
+            List<Map.Entry<UUID, Transition>> chunk = drained.subList(start, Math.min(drained.size(), start + properties.batchSize()));
+            try {
+                resolve(chunk);
+            } catch (RuntimeException e) {
+                // entries recorded meanwhile happened after the drained ones
+                for (Map.Entry<UUID, Transition> entry : drained.subList(start, drained.size())) {
+                    transitions.merge(entry.getKey(), entry.getValue(), (newer, older) -> older.then(newer));
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void resolve(List<Map.Entry<UUID, Transition>> chunk) {
+        Map<UUID, Transition> byId = new HashMap<>(chunk.size() * 2);
+        for (Map.Entry<UUID, Transition> entry : chunk) {
+            if (entry.getValue().from() != entry.getValue().to()) {
+                byId.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+
+        Map<RollupKey, Delta> resolved = new HashMap<>();
+        jdbcTemplate.query("SELECT id, company_id, currency, amount, created_at FROM payouts WHERE id IN ("
+                        + String.join(",", Collections.nCopies(byId.size(), "?")) + ")",
+                rs -> {
+                    Transition transition = byId.get(rs.getObject("id", UUID.class));
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    if (transition == null || createdAt == null) {
+                        return;
+                    }
+                    UUID companyId = rs.getObject("company_id", UUID.class);
+                    LocalDate day = LocalDate.ofInstant(createdAt.toInstant(), ZoneOffset.UTC);
+                    String currency = rs.getString("currency");
+                    BigDecimal amount = rs.getBigDecimal("amount");
+                    resolved.merge(new RollupKey(companyId, day, currency, transition.from().name()),
+                            new Delta(-1, amount.negate()), Delta::plus);
+                    resolved.merge(new RollupKey(companyId, day, currency, transition.to().name()),
+                            new Delta(1, amount), Delta::plus);
+                },
+                byId.keySet().toArray());
+        // payouts not found were archived before their change was resolved; their rollups stay as they were
+        resolved.forEach((key, delta) -> deltas.merge(key, delta, Delta::plus));
+    }
+
+    private void writeDeltas() {
+        List<Map.Entry<RollupKey, Delta>> drained = drain(deltas);
+        drained.removeIf(entry -> entry.getValue().isZero());
+        // the same order on every node keeps concurrent flushes from deadlocking on row locks
+        drained.sort(Map.Entry.comparingByKey(RollupKey.ORDER));
+        for (int start = 0; start < drained.size(); start += properties.batchSize()) {
+            List<Map.Entry<RollupKey, Delta>> chunk = drained.subList(start, Math.min(drained.size(), start + properties.batchSize()));
+            try {
+                transaction.executeWithoutResult(status -> upsert(chunk));
+            } catch (RuntimeException e) {
+                for (Map.Entry<RollupKey, Delta> entry : drained.subList(start, drained.size())) {
+                    deltas.merge(entry.getKey(), entry.getValue(), Delta::plus);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void upsert(List<Map.Entry<RollupKey, Delta>> chunk) {
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_ROLLUP, chunk, chunk.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue().count());
+            ps.setBigDecimal(2, entry.getValue().amount());
+            entry.getKey().bind(ps, 3);
+        });
+
+        List<Map.Entry<RollupKey, Delta>> missing = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (updated[0][i] == 0) {
+                missing.add(chunk.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        // a row inserted meanwhile by another node fails the batch with a unique violation; it is retried as an update
+        jdbcTemplate.batchUpdate(INSERT_ROLLUP, missing, missing.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue().count());
+            ps.setBigDecimal(2, entry.getValue().amount());
+            entry.getKey().bind(ps, 3);
+        });
+    }
+
+    private static <K, V> List<Map.Entry<K, V>> drain(Map<K, V> map) {
+        List<Map.Entry<K, V>> drained = new ArrayList<>(map.size());
+        for (K key : map.keySet()) {
+            V value = map.remove(key);
+            if (value != null) {
+                drained.add(Map.entry(key, value));
+            }
+        }
+        return drained;
+    }
+
+    record RollupKey(UUID companyId, LocalDate day, String currency, String status) {
+        static final Comparator<RollupKey> ORDER = Comparator.comparing(RollupKey::companyId)
+                .thenComparing(RollupKey::day)
+                .thenComparing(RollupKey::currency)
+                .thenComparing(RollupKey::status);
+
+        void bind(PreparedStatement ps, int firstIndex) throws SQLException {
+            ps.setObject(firstIndex, companyId);
+            ps.setObject(firstIndex + 1, day);
+            ps.setString(firstIndex + 2, currency);
+            ps.setString(firstIndex + 3, status);
+        }
+    }
+
+    record Delta(long count, BigDecimal amount) {
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, amount.add(other.amount));
+        }
+
+        boolean isZero() {
+            return count == 0 && amount.signum() == 0;
+        }
+    }
+
+    /**
+     * Net status change of a payout between two flushes.
+     */
+    private record Transition(PayoutStatus from, PayoutStatus to) {
+        Transition then(Transition next) {
+            return new Transition(from, next.to);
+        }
+    }
+}
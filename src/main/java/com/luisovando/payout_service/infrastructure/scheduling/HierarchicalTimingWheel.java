@@ -0,0 +1,179 @@
+package com.luisovando.payout_service.infrastructure.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with O(1) insertion and amortized O(1) expiry per entry.
+ *
+ * <p>Time is counted in ticks. Level {@code l} has {@code wheelSize} slots of
+ * {@code wheelSize^l} ticks each. An entry goes into the lowest level whose current
+ * rotation contains its deadline; when the clock reaches the start of a higher-level
+ * slot, that slot is cascaded into the levels below. Entries therefore move down at
+ * most {@code levels - 1} times before they expire from level 0.
+ *
+ * <p>The span is {@code wheelSize^levels} ticks; deadlines beyond it are refused and
+ * must be offered again later. Not thread-safe: one thread owns the wheel.
+ *
+ * @param <T> entry payload
+ */
+final class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final List<List<Slot<T>>> slots;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param wheelSize slots per level, a power of two
+     */
+    HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be greater than 0");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        if (levels <= 0 || (long) Integer.numberOfTrailingZeros(wheelSize) * levels >= 62) {
+            throw new IllegalArgumentException("levels must be between 1 and the span of a long");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.slots = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            List<Slot<T>> wheel = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                wheel.add(new Slot<>());
+            }
+            slots.add(wheel);
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Adds an entry expiring at {@code deadlineMillis}.
+     *
+     * @return {@code false} when the deadline is already due or beyond the span of the wheel
+     */
+    boolean add(T payload, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis, tickMillis);
+        return deadlineTick > currentTick && place(payload, deadlineTick);
+    }
+
+    /**
+     * Puts the entry into the lowest level whose current rotation contains its deadline.
+     */
+    private boolean place(T payload, long deadlineTick) {
+        for (int level = 0; level < levels; level++) {
+            int shift = bits * (level + 1);
+            if ((deadlineTick >>> shift) == (currentTick >>> shift)) {
+                slotOf(level, deadlineTick).add(payload, deadlineTick);
+                size++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Latest time {@link #add} accepts, exclusive.
+     */
+    long horizonMillis() {
+        long span = 1L << (bits * levels);
+        long rotationStart = currentTick & ~(span - 1);
+        return (rotationStart + span) * tickMillis;
+    }
+
+    /**
+     * Advances the clock to {@code nowMillis}, handing every expired entry to {@code expired}.
+     */
+    void advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Slot<T> due = slots.get(0).get((int) (currentTick & mask));
+            size -= due.count;
+            due.drain(expired);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Moves the entries of every higher-level slot that starts at the current tick down a level,
+     * highest level first so cascaded entries can cascade again in the same tick.
+     */
+    private void cascade() {
+        for (int level = levels - 1; level > 0; level--) {
+            long lowerBits = currentTick & ((1L << (bits * level)) - 1);
+            if (lowerBits != 0) {
+                continue;
+            }
+            Slot<T> slot = slotOf(level, currentTick);
+            int count = slot.count;
+            Object[] payloads = slot.payloads;
+            long[] deadlines = slot.deadlines;
+            slot.reset();
+            for (int i = 0; i < count; i++) {
+                @SuppressWarnings("unchecked")
+                T payload = (T) payloads[i];
+                size--;
+                if (!place(payload, deadlines[i])) {
+                    throw new IllegalStateException("cascaded entry is not in the next rotation");
+                }
+            }
+        }
+    }
+
+    private Slot<T> slotOf(int level, long tick) {
+        return slots.get(level).get((int) ((tick >>> (bits * level)) & mask));
+    }
+
+    /**
+     * Unordered bag of entries backed by parallel arrays, so a slot costs no node per entry.
+     */
+    private static final class Slot<T> {
+        private static final Object[] NO_PAYLOADS = new Object[0];
+        private static final long[] NO_DEADLINES = new long[0];
+
+        Object[] payloads = NO_PAYLOADS;
+        long[] deadlines = NO_DEADLINES;
+        int count;
+
+        void add(T payload, long deadlineTick) {
+            if (count == payloads.length) {
+                int capacity = Math.max(4, count * 2);
+                payloads = Arrays.copyOf(payloads, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            payloads[count] = payload;
+            deadlines[count] = deadlineTick;
+            count++;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drain(Consumer<T> consumer) {
+            int drained = count;
+            Object[] drainedPayloads = payloads;
+            reset();
+            for (int i = 0; i < drained; i++) {
+                consumer.accept((T) drainedPayloads[i]);
+            }
+        }
+
+        void reset() {
+            payloads = NO_PAYLOADS;
+            deadlines = NO_DEADLINES;
+            count = 0;
+        }
+    }
+}
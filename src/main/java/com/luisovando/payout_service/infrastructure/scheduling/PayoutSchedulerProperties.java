@@ -0,0 +1,27 @@
+package com.luisovando.payout_service.infrastructure.scheduling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the scheduled payout dispatcher ({@code payouts.scheduler.*}).
+ *
+ * @param tick      resolution of the timing wheel and interval between dispatcher runs
+ * @param window    how far ahead scheduled payouts are loaded into memory
+ * @param wheelSize slots per timing wheel level, a power of two
+ * @param levels    timing wheel levels
+ * @param batchSize payouts released per status update
+ * @param fetchSize rows fetched per round trip when loading a window
+ */
+@ConfigurationProperties("payouts.scheduler")
+public record PayoutSchedulerProperties(
+        @DefaultValue("1s") Duration tick,
+        @DefaultValue("10m") Duration window,
+        @DefaultValue("512") int wheelSize,
+        @DefaultValue("4") int levels,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("5000") int fetchSize
+) {
+}
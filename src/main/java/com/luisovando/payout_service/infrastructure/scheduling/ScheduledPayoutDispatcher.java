@@ -0,0 +1,241 @@
+package com.luisovando.payout_service.infrastructure.scheduling;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import com.luisovando.payout_service.application.usecase.releasepayout.PayoutReleasedEvent;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases scheduled payouts ({@code SCHEDULED} with a future {@code execute_at}) when they are due.
+ *
+ * <p>Only the next {@code window} of schedules is kept in memory, in a
+ * {@link HierarchicalTimingWheel} owned by a single dispatcher thread. Halfway through
+ * the window the next one is loaded from the {@code (status, execute_at)} index, together
+ * with any schedule already overdue (e.g. after a restart or from a node that died).
+ * Payouts scheduled, or released from review back to {@code SCHEDULED}, on this node inside
+ * the loaded window are handed to the wheel directly after commit.
+ *
+ * <p>Due payouts are released to {@code CREATED} in batches. A payout is released once
+ * whichever node sees it first: the batch only updates rows still {@code SCHEDULED}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payouts.scheduler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ScheduledPayoutDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(ScheduledPayoutDispatcher.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PayoutSchedulerProperties properties;
+    private final Clock clock;
+
+    private final Queue<Pending> incoming = new ConcurrentLinkedQueue<>();
+    private final List<UUID> unreleased = new ArrayList<>();
+    private volatile long loadedUntilMillis = Long.MIN_VALUE;
+    private HierarchicalTimingWheel<UUID> wheel;
+    private ScheduledExecutorService executor;
+
+    @Autowired
+    public ScheduledPayoutDispatcher(
+            @Qualifier(Bulkheads.BULK) DataSource dataSource,
+            @Qualifier(Bulkheads.BULK) PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            PayoutSchedulerProperties properties) {
+        this(dataSource, transactionManager, eventPublisher, properties, Clock.systemUTC());
+    }
+
+    ScheduledPayoutDispatcher(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            PayoutSchedulerProperties properties,
+            Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payout-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = properties.tick().toMillis();
+        executor.scheduleWithFixedDelay(this::tickSafely, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayoutCreated(PayoutCreatedEvent event) {
+        handOver(event.payoutId(), event.status(), event.executeAt());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayoutReleased(PayoutReleasedEvent event) {
+        handOver(event.payoutId(), event.status(), event.executeAt());
+    }
+
+    private void handOver(UUID payoutId, String status, Instant executeAt) {
+        if (executeAt == null || !PayoutStatus.SCHEDULED.name().equals(status)) {
+            return;
+        }
+        long executeAtMillis = executeAt.toEpochMilli();
+        if (executeAtMillis < loadedUntilMillis) {
+            incoming.add(new Pending(payoutId, executeAtMillis));
+        }
+    }
+
+    /**
+     * Schedules held in memory.
+     */
+    int pending() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.warn("Scheduled payout dispatch failed, retrying on the next tick", e);
+        }
+    }
+
+    /**
+     * One dispatcher run: loads the next window when due, moves new schedules into the wheel
+     * and releases everything that expired. Runs on the dispatcher thread only.
+     */
+    void tick() {
+        long now = clock.millis();
+        if (wheel == null) {
+            wheel = new HierarchicalTimingWheel<>(properties.tick().toMillis(), properties.wheelSize(), properties.levels(), now);
+        }
+
+        List<UUID> due = unreleased;
+        if (now + properties.window().toMillis() / 2 >= loadedUntilMillis) {
+            loadWindow(now, due);
+        }
+
+        Pending pending;
+        while ((pending = incoming.poll()) != null) {
+            if (!wheel.add(pending.payoutId(), pending.executeAtMillis())) {
+                due.add(pending.payoutId());
+            }
+        }
+        wheel.advanceTo(now, due::add);
+
+        while (!due.isEmpty()) {
+            List<UUID> batch = due.subList(0, Math.min(properties.batchSize(), due.size()));
+            release(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Loads overdue schedules and those in {@code [loadedUntil, now + window)}. The new bound is
+     * published before querying, so a payout committed meanwhile is either found here or handed
+     * over by {@link #onPayoutCreated} or {@link #onPayoutReleased}; seeing it twice is harmless.
+     */
+    private void loadWindow(long now, List<UUID> due) {
+        long from = Math.max(loadedUntilMillis, now);
+        long until = Math.min(now + properties.window().toMillis(), wheel.horizonMillis());
+        loadedUntilMillis = until;
+
+        int[] loaded = {0};
+        jdbcTemplate.query(
+                "SELECT id FROM payouts WHERE status = ? AND execute_at < ?",
+                rs -> {
+                    due.add(rs.getObject(1, UUID.class));
+                    loaded[0]++;
+                },
+                PayoutStatus.SCHEDULED.name(), Timestamp.from(Instant.ofEpochMilli(now)));
+        jdbcTemplate.query(
+                "SELECT id, execute_at FROM payouts WHERE status = ? AND execute_at >= ? AND execute_at < ?",
+                rs -> {
+                    UUID payoutId = rs.getObject(1, UUID.class);
+                    if (!wheel.add(payoutId, rs.getTimestamp(2).getTime())) {
+                        due.add(payoutId);
+                    }
+                    loaded[0]++;
+                },
+                PayoutStatus.SCHEDULED.name(), Timestamp.from(Instant.ofEpochMilli(from)), Timestamp.from(Instant.ofEpochMilli(until)));
+
+        log.debug("Loaded {} scheduled payouts due before {}", loaded[0], Instant.ofEpochMilli(until));
+    }
+
+    /**
+     * Releases one batch to {@code CREATED}. Rows no longer {@code SCHEDULED} are skipped.
+     */
+    private void release(List<UUID> batch) {
+        String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+        Object[] ids = batch.toArray();
+
+        List<UUID> released = transaction.execute(status -> {
+            Object[] lockParams = new Object[ids.length + 1];
+            lockParams[0] = PayoutStatus.SCHEDULED.name();
+            System.arraycopy(ids, 0, lockParams, 1, ids.length);
+            List<UUID> locked = jdbcTemplate.queryForList(
+                    "SELECT id FROM payouts WHERE status = ? AND id IN (" + placeholders + ") FOR UPDATE",
+                    UUID.class, lockParams);
+            if (locked.isEmpty()) {
+                return locked;
+            }
+
+            Object[] updateParams = new Object[locked.size() + 1];
+            updateParams[0] = PayoutStatus.CREATED.name();
+            System.arraycopy(locked.toArray(), 0, updateParams, 1, locked.size());
+            jdbcTemplate.update(
+                    "UPDATE payouts SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE id IN ("
+                            + String.join(",", Collections.nCopies(locked.size(), "?")) + ")",
+                    updateParams);
+            return locked;
+        });
+
+        Instant changedAt = clock.instant();
+        for (UUID payoutId : released) {
+            eventPublisher.publishEvent(new PayoutStatusChangedEvent(payoutId, PayoutStatus.SCHEDULED, PayoutStatus.CREATED, changedAt));
+        }
+    }
+
+    private record Pending(UUID payoutId, long executeAtMillis) {
+    }
+}
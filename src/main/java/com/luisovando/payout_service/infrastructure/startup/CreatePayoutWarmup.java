@@ -0,0 +1,144 @@
+package com.luisovando.payout_service.infrastructure.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luisovando.payout_service.application.fx.FxRateService;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.infrastructure.web.payout.CreatePayoutRequest;
+import com.luisovando.payout_service.infrastructure.web.payout.CreatePayoutResponse;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exercises the create path before the service reports ready.
+ *
+ * <p>Application runners complete before Spring Boot moves readiness to
+ * {@code ACCEPTING_TRAFFIC}, so {@code /actuator/health/readiness} stays
+ * {@code OUT_OF_SERVICE} until the warmup is over. Each iteration creates a payout for a
+ * company nobody uses and replays it, in a transaction that is rolled back: nothing is
+ * stored, and since events, limit reservations and near-duplicate registrations only take
+ * effect on commit, nothing else sees it. The request and response of each iteration also go
+ * through the application's JSON mapper and validator. The iterations run on the interactive
+ * lane, so its threads, the JIT-compiled hot path, the mapper's serializers and the statements
+ * prepared on several pooled connections are all in place when the first request arrives.
+ */
+@Component
+@ConditionalOnProperty(name = "payouts.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class CreatePayoutWarmup implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(CreatePayoutWarmup.class);
+
+    private final CreatePayoutUseCase createPayoutUseCase;
+    private final TransactionTemplate transaction;
+    private final FxRateService fxRateService;
+    private final BulkheadExecutor interactiveLane;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final WarmupProperties properties;
+    private volatile Report report;
+
+    public CreatePayoutWarmup(
+            CreatePayoutUseCase createPayoutUseCase,
+            PlatformTransactionManager transactionManager,
+            FxRateService fxRateService,
+            @Qualifier(Bulkheads.INTERACTIVE) BulkheadExecutor interactiveLane,
+            ObjectMapper objectMapper,
+            Validator validator,
+            WarmupProperties properties) {
+        this.createPayoutUseCase = createPayoutUseCase;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.fxRateService = fxRateService;
+        this.interactiveLane = interactiveLane;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long started = System.nanoTime();
+        long deadline = started + properties.maxDuration().toNanos();
+        List<String> currencies = fxRateService.current().currencies().stream().sorted().toList();
+        UUID companyId = UUID.randomUUID();
+        AtomicInteger next = new AtomicInteger();
+        LongAdder creates = new LongAdder();
+
+        List<Future<Void>> workers = new ArrayList<>(properties.concurrency());
+        for (int i = 0; i < properties.concurrency(); i++) {
+            workers.add(interactiveLane.submit(() -> {
+                int iteration;
+                while ((iteration = next.getAndIncrement()) < properties.iterations() && System.nanoTime() < deadline) {
+                    warmUp(companyId, currencies, iteration);
+                    creates.increment();
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            // a cold path is slower, not broken: readiness still follows
+            log.warn("Create path warmup failed after {} creates", creates.sum(), e.getCause());
+            workers.forEach(worker -> worker.cancel(true));
+        }
+
+        report = new Report(creates.sum(), workers.size(), Duration.ofNanos(System.nanoTime() - started));
+        log.info("Warmed up the create path with {} creates on {} threads in {} ms",
+                report.creates(), report.threads(), report.elapsed().toMillis());
+    }
+
+    private void warmUp(UUID companyId, List<String> currencies, int iteration) throws IOException {
+        // a different settlement currency also warms the FX conversion
+        CreatePayoutRequest request = objectMapper.readValue(objectMapper.writeValueAsBytes(new CreatePayoutRequest(
+                companyId, BigDecimal.ONE, currencies.get(iteration % currencies.size()), "warmup-" + iteration,
+                currencies.get((iteration + 1) % currencies.size()), null)), CreatePayoutRequest.class);
+        validator.validate(request);
+
+        CreatePayoutCommand command = new CreatePayoutCommand(request.companyId(),
+                MoneyVO.of(request.amount(), request.currency()), request.idempotencyKey(),
+                CurrencyVO.of(request.settlementCurrency()), null);
+        CreatePayoutOutcome outcome = transaction.execute(status -> {
+            status.setRollbackOnly();
+            createPayoutUseCase.execute(command);
+            return createPayoutUseCase.execute(command);
+        });
+        if (outcome instanceof CreatePayoutOutcome.Replayed replayed) {
+            objectMapper.writeValueAsBytes(new CreatePayoutResponse(replayed.payoutId(), replayed.status()));
+        }
+    }
+
+    /**
+     * The last warmup, or {@code null} while it has not run.
+     */
+    public Report report() {
+        return report;
+    }
+
+    public record Report(long creates, int threads, Duration elapsed) {
+    }
+}
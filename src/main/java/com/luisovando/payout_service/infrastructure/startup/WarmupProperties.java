@@ -0,0 +1,23 @@
+package com.luisovando.payout_service.infrastructure.startup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the create-path warmup run before the service reports ready ({@code payouts.warmup.*}).
+ *
+ * @param enabled     whether to warm up at all
+ * @param iterations  rolled-back creates (each followed by its replay) to run
+ * @param concurrency interactive-lane threads sharing the iterations; at most the lane's threads plus its queue
+ * @param maxDuration longest the warmup may hold readiness back; the remaining iterations are skipped
+ */
+@ConfigurationProperties("payouts.warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") int iterations,
+        @DefaultValue("4") int concurrency,
+        @DefaultValue("20s") Duration maxDuration
+) {
+}
@@ -0,0 +1,84 @@
+package com.luisovando.payout_service.infrastructure.web.archive;
+
+import com.luisovando.payout_service.infrastructure.archive.ArchiveColumn;
+import com.luisovando.payout_service.infrastructure.archive.ArchivedPayout;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchive;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/payouts/archive")
+public class PayoutArchiveController {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final PayoutArchive archive;
+
+    public PayoutArchiveController(PayoutArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Exports the archived payouts of a company created in {@code [createdFrom, createdTo)} as CSV,
+     * streamed segment by segment; {@code status} optionally keeps a single status.
+     */
+    @GetMapping(value = "/{companyId}", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable UUID companyId,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) String status) {
+        String statusFilter = status == null ? null : status.toUpperCase(Locale.ROOT);
+        StreamingResponseBody body = output -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write("payout_id,company_id,amount,currency,status,idempotency_key,created_at,updated_at,"
+                    + "settlement_amount,settlement_currency,fx_rate,execute_at");
+            writer.newLine();
+            try (Stream<ArchivedPayout> payouts = archive.stream(companyId, createdFrom, createdTo,
+                    EnumSet.allOf(ArchiveColumn.class))) {
+                Iterator<ArchivedPayout> iterator = payouts.iterator();
+                while (iterator.hasNext()) {
+                    ArchivedPayout payout = iterator.next();
+                    if (statusFilter == null || statusFilter.equals(payout.status())) {
+                        writer.write(row(payout));
+                        writer.newLine();
+                    }
+                }
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(TEXT_CSV).body(body);
+    }
+
+    private static String row(ArchivedPayout payout) {
+        return payout.id() + "," + payout.companyId() + "," + plain(payout.amount()) + "," + payout.currency() + ","
+                + payout.status() + "," + payout.idempotencyKey().replace(',', ';') + ","
+                + text(payout.createdAt()) + "," + text(payout.updatedAt()) + ","
+                + plain(payout.settlementAmount()) + "," + text(payout.settlementCurrency()) + ","
+                + plain(payout.fxRate()) + "," + text(payout.executeAt());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
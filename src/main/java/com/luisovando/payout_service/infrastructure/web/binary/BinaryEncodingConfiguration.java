@@ -0,0 +1,21 @@
+package com.luisovando.payout_service.infrastructure.web.binary;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds the binary encoding after the default converters, so clients asking for anything
+ * ({@code *}{@code /*}) keep getting JSON and only an explicit {@code Accept} or
+ * {@code Content-Type} of {@value PayoutBinaryMessageConverter#MEDIA_TYPE_VALUE} selects it.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryEncodingConfiguration implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new PayoutBinaryMessageConverter());
+    }
+}
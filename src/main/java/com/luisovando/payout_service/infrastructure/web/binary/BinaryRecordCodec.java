@@ -0,0 +1,478 @@
+package com.luisovando.payout_service.infrastructure.web.binary;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Length-prefixed binary encoding of the API records.
+ *
+ * <p>A message is the 4-byte fingerprint of the record's schema followed by the record. A
+ * record is a varint bitmap of its non-null components followed by those components in
+ * declaration order: UUIDs as 16 bytes, strings as a varint length and UTF-8 bytes, decimals
+ * as a zigzag scale and length-prefixed unscaled bytes, instants as zigzag epoch seconds and
+ * varint nanos, dates as zigzag epoch days, numbers as zigzag varints, booleans as one byte,
+ * lists as a varint size and their elements, nested records recursively. The fingerprint
+ * covers component names and kinds, so a client built against another shape of a record is
+ * rejected instead of misread.
+ */
+final class BinaryRecordCodec {
+    private static final ClassValue<Schema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected Schema computeValue(Class<?> type) {
+            return Schema.of(type);
+        }
+    };
+
+    private BinaryRecordCodec() {
+    }
+
+    /**
+     * Whether every component of {@code type}, recursively, has an encoding.
+     */
+    static boolean supports(Class<?> type) {
+        return type.isRecord() && SCHEMAS.get(type).supported();
+    }
+
+    static byte[] encode(Record message) {
+        Schema schema = schema(message.getClass());
+        Writer out = new Writer();
+        out.int32(schema.fingerprint());
+        writeRecord(out, schema, message);
+        return out.toByteArray();
+    }
+
+    static <T> T decode(Class<T> type, byte[] message) {
+        Schema schema = schema(type);
+        Reader in = new Reader(message);
+        if (in.int32() != schema.fingerprint()) {
+            throw new IllegalArgumentException("Message is not a " + type.getSimpleName() + " of this API version");
+        }
+        Object value = readRecord(in, schema);
+        if (in.remaining() != 0) {
+            throw new IllegalArgumentException(in.remaining() + " trailing bytes after " + type.getSimpleName());
+        }
+        return type.cast(value);
+    }
+
+    private static Schema schema(Class<?> type) {
+        Schema schema = SCHEMAS.get(type);
+        if (!schema.supported()) {
+            throw new IllegalArgumentException(type.getName() + " has no binary encoding");
+        }
+        return schema;
+    }
+
+    private static void writeRecord(Writer out, Schema schema, Object record) {
+        Object[] values = new Object[schema.fields().length];
+        long present = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = schema.fields()[i].get(record);
+            if (values[i] != null) {
+                present |= 1L << i;
+            }
+        }
+        out.varlong(present);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                Field field = schema.fields()[i];
+                write(out, field.kind(), field.nested(), field.element(), values[i]);
+            }
+        }
+    }
+
+    private static void write(Writer out, Kind kind, Schema nested, Kind element, Object value) {
+        switch (kind) {
+            case STRING -> out.string((String) value);
+            case UUID -> {
+                UUID uuid = (UUID) value;
+                out.int64(uuid.getMostSignificantBits());
+                out.int64(uuid.getLeastSignificantBits());
+            }
+            case DECIMAL -> {
+                BigDecimal decimal = (BigDecimal) value;
+                out.zigzag(decimal.scale());
+                out.bytes(decimal.unscaledValue().toByteArray());
+            }
+            case INSTANT -> {
+                Instant instant = (Instant) value;
+                out.zigzag(instant.getEpochSecond());
+                out.varlong(instant.getNano());
+            }
+            case DATE -> out.zigzag(((LocalDate) value).toEpochDay());
+            case INT, LONG -> out.zigzag(((Number) value).longValue());
+            case BOOLEAN -> out.int8((Boolean) value ? 1 : 0);
+            case RECORD -> writeRecord(out, nested, value);
+            case LIST -> {
+                List<?> list = (List<?>) value;
+                out.varlong(list.size());
+                for (Object item : list) {
+                    if (item == null) {
+                        throw new IllegalArgumentException("Lists cannot hold nulls in the binary encoding");
+                    }
+                    write(out, element, nested, null, item);
+                }
+            }
+        }
+    }
+
+    private static Object readRecord(Reader in, Schema schema) {
+        Field[] fields = schema.fields();
+        long present = in.varlong();
+        if (fields.length < 64 && present >>> fields.length != 0) {
+            throw new IllegalArgumentException("Unknown components in " + schema.type().getSimpleName());
+        }
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if ((present & (1L << i)) != 0) {
+                values[i] = read(in, field.kind(), field.nested(), field.element());
+            } else {
+                values[i] = field.absent();
+            }
+        }
+        return schema.create(values);
+    }
+
+    private static Object read(Reader in, Kind kind, Schema nested, Kind element) {
+        return switch (kind) {
+            case STRING -> in.string();
+            case UUID -> new UUID(in.int64(), in.int64());
+            case DECIMAL -> {
+                long scale = in.zigzag();
+                if (scale != (int) scale) {
+                    throw new IllegalArgumentException("Decimal scale out of range");
+                }
+                byte[] unscaled = in.bytes();
+                if (unscaled.length == 0) {
+                    throw new IllegalArgumentException("Empty decimal");
+                }
+                yield new BigDecimal(new BigInteger(unscaled), (int) scale);
+            }
+            case INSTANT -> {
+                long seconds = in.zigzag();
+                long nanos = in.varlong();
+                if (nanos >= 1_000_000_000L) {
+                    throw new IllegalArgumentException("Instant nanos out of range");
+                }
+                yield Instant.ofEpochSecond(seconds, nanos);
+            }
+            case DATE -> LocalDate.ofEpochDay(in.zigzag());
+            case INT -> {
+                long value = in.zigzag();
+                if (value != (int) value) {
+                    throw new IllegalArgumentException("Integer out of range");
+                }
+                yield (int) value;
+            }
+            case LONG -> in.zigzag();
+            case BOOLEAN -> in.int8() != 0;
+            case RECORD -> readRecord(in, nested);
+            case LIST -> {
+                int size = in.length();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in, element, nested, null));
+                }
+                yield List.copyOf(list);
+            }
+        };
+    }
+
+    private enum Kind {
+        STRING, UUID, DECIMAL, INSTANT, DATE, INT, LONG, BOOLEAN, RECORD, LIST;
+
+        static Kind of(Class<?> type) {
+            if (type == String.class) {
+                return STRING;
+            }
+            if (type == UUID.class) {
+                return UUID;
+            }
+            if (type == BigDecimal.class) {
+                return DECIMAL;
+            }
+            if (type == Instant.class) {
+                return INSTANT;
+            }
+            if (type == LocalDate.class) {
+                return DATE;
+            }
+            if (type == int.class || type == Integer.class) {
+                return INT;
+            }
+            if (type == long.class || type == Long.class) {
+                return LONG;
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                return BOOLEAN;
+            }
+            if (type == List.class) {
+                return LIST;
+            }
+            return type.isRecord() ? RECORD : null;
+        }
+    }
+
+    /**
+     * @param nested  schema of a record component, or of the elements of a list of records
+     * @param element kind of the elements of a list
+     * @param absent  value of the component when it is missing from a message
+     */
+    private record Field(String name, Kind kind, Schema nested, Kind element, Method accessor, Object absent) {
+        Object get(Object record) {
+            try {
+                return accessor.invoke(record);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Could not read " + name, e);
+            }
+        }
+    }
+
+    private record Schema(Class<?> type, Field[] fields, Constructor<?> constructor, int fingerprint) {
+        private static final Schema UNSUPPORTED = new Schema(Void.class, new Field[0], null, 0);
+
+        boolean supported() {
+            return constructor != null;
+        }
+
+        Object create(Object[] values) {
+            try {
+                return constructor.newInstance(values);
+            } catch (InvocationTargetException e) {
+                // compact constructors validate their arguments
+                if (e.getCause() instanceof IllegalArgumentException invalid) {
+                    throw invalid;
+                }
+                throw new IllegalArgumentException("Invalid " + type.getSimpleName(), e.getCause());
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException("Could not create " + type.getName(), e);
+            }
+        }
+
+        static Schema of(Class<?> type) {
+            if (!type.isRecord() || type.getRecordComponents().length > 64) {
+                return UNSUPPORTED;
+            }
+            RecordComponent[] components = type.getRecordComponents();
+            Field[] fields = new Field[components.length];
+            CRC32C fingerprint = new CRC32C();
+            for (int i = 0; i < components.length; i++) {
+                RecordComponent component = components[i];
+                Kind kind = Kind.of(component.getType());
+                if (kind == null) {
+                    return UNSUPPORTED;
+                }
+                Schema nested = null;
+                Kind element = null;
+                if (kind == Kind.RECORD) {
+                    nested = SCHEMAS.get(component.getType());
+                } else if (kind == Kind.LIST) {
+                    Class<?> elementType = elementType(component.getGenericType());
+                    element = elementType == null ? null : Kind.of(elementType);
+                    if (element == null || element == Kind.LIST) {
+                        return UNSUPPORTED;
+                    }
+                    if (element == Kind.RECORD) {
+                        nested = SCHEMAS.get(elementType);
+                    }
+                }
+                if (nested != null && !nested.supported()) {
+                    return UNSUPPORTED;
+                }
+                Method accessor = component.getAccessor();
+                accessor.trySetAccessible();
+                fields[i] = new Field(component.getName(), kind, nested, element, accessor, absent(component.getType()));
+
+                String signature = component.getName() + ":" + kind + (element == null ? "" : "<" + element + ">")
+                        + (nested == null ? "" : "#" + nested.fingerprint()) + ";";
+                fingerprint.update(signature.getBytes(StandardCharsets.UTF_8));
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor(
+                        Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+                constructor.trySetAccessible();
+                return new Schema(type, fields, constructor, (int) fingerprint.getValue());
+            } catch (NoSuchMethodException e) {
+                return UNSUPPORTED;
+            }
+        }
+
+        private static Class<?> elementType(Type listType) {
+            if (listType instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+                return element;
+            }
+            return null;
+        }
+
+        private static Object absent(Class<?> type) {
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            if (type == boolean.class) {
+                return false;
+            }
+            return null;
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void int8(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void int32(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void int64(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void varlong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varlong((value << 1) ^ (value >> 63));
+        }
+
+        void bytes(byte[] value) {
+            varlong(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, size, value.length);
+            size += value.length;
+        }
+
+        void string(String value) {
+            bytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        int int8() {
+            require(1);
+            return buffer[position++];
+        }
+
+        int int32() {
+            require(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long int64() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long varlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                require(1);
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long zigzag() {
+            long value = varlong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /**
+         * A length or count, which can never exceed the bytes left in the message.
+         */
+        int length() {
+            long length = varlong();
+            if (length < 0 || length > remaining()) {
+                throw new IllegalArgumentException("Length " + length + " exceeds the message");
+            }
+            return (int) length;
+        }
+
+        byte[] bytes() {
+            int length = length();
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+
+        String string() {
+            int length = length();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private void require(int bytes) {
+            if (remaining() < bytes) {
+                throw new IllegalArgumentException("Truncated message");
+            }
+        }
+    }
+}
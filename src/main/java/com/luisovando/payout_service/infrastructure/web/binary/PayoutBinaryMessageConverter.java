@@ -0,0 +1,96 @@
+package com.luisovando.payout_service.infrastructure.web.binary;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Reads and writes the API records in the compact binary encoding of {@link BinaryRecordCodec}
+ * ({@value #MEDIA_TYPE_VALUE}), for server-to-server clients that would rather not pay for
+ * JSON. Request bodies go through the same bean validation as JSON ones.
+ */
+public class PayoutBinaryMessageConverter extends AbstractHttpMessageConverter<Record> {
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.payouts+binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    private static final int MAX_MESSAGE_BYTES = 1 << 20;
+
+    public PayoutBinaryMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    /**
+     * Whether an {@code Accept} header ranks the binary encoding above every other type; ties
+     * go to the type listed first.
+     */
+    public static boolean preferredBy(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType preferred = null;
+        for (MediaType mediaType : acceptable) {
+            if (preferred == null || mediaType.getQualityValue() > preferred.getQualityValue()) {
+                preferred = mediaType;
+            }
+        }
+        return preferred != null && preferred.getQualityValue() > 0 && MEDIA_TYPE.equalsTypeAndSubtype(preferred);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BinaryRecordCodec.supports(clazz);
+    }
+
+    @Override
+    protected Record readInternal(Class<? extends Record> clazz, HttpInputMessage inputMessage) throws IOException {
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        if (contentLength > MAX_MESSAGE_BYTES) {
+            throw new HttpMessageNotReadableException("Binary message exceeds " + MAX_MESSAGE_BYTES + " bytes", inputMessage);
+        }
+        byte[] body = read(inputMessage, (int) contentLength);
+        try {
+            return BinaryRecordCodec.decode(clazz, body);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Malformed binary message: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    /**
+     * Reads the body into an array of its announced length, so small messages do not pay for
+     * the chunked buffering of {@link java.io.InputStream#readNBytes(int)}.
+     */
+    private static byte[] read(HttpInputMessage inputMessage, int contentLength) throws IOException {
+        InputStream body = inputMessage.getBody();
+        if (contentLength < 0) {
+            byte[] message = body.readNBytes(MAX_MESSAGE_BYTES + 1);
+            if (message.length > MAX_MESSAGE_BYTES) {
+                throw new HttpMessageNotReadableException("Binary message exceeds " + MAX_MESSAGE_BYTES + " bytes", inputMessage);
+            }
+            return message;
+        }
+        byte[] message = new byte[contentLength];
+        if (body.readNBytes(message, 0, contentLength) < contentLength || body.read() != -1) {
+            throw new HttpMessageNotReadableException("Binary message does not match its Content-Length", inputMessage);
+        }
+        return message;
+    }
+
+    @Override
+    protected void writeInternal(Record record, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = BinaryRecordCodec.encode(record);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
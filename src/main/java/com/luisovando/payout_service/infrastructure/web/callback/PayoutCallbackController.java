@@ -0,0 +1,56 @@
+package com.luisovando.payout_service.infrastructure.web.callback;
+
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.infrastructure.callback.PayoutCallbackIngestor;
+import com.luisovando.payout_service.infrastructure.web.error.ApiErrorResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/payouts/callbacks")
+public class PayoutCallbackController {
+    private final PayoutCallbackIngestor callbackIngestor;
+
+    public PayoutCallbackController(PayoutCallbackIngestor callbackIngestor) {
+        this.callbackIngestor = callbackIngestor;
+    }
+
+    /**
+     * Buffers a provider status callback; it is applied with the next batch.
+     *
+     * <p>A 202 only means the callback is buffered in memory. It is lost if the service stops
+     * before the next flush, and the provider will not redeliver it.
+     */
+    @PostMapping
+    public ResponseEntity<?> receive(@Valid @RequestBody PayoutCallbackRequest request) {
+        PayoutStatus status = parse(request.status());
+        if (!callbackIngestor.offer(request.payoutId(), status)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiErrorResponse("CALLBACKS_BACKLOGGED", "Too many callbacks pending, retry later", Instant.now()));
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    private static PayoutStatus parse(String status) {
+        PayoutStatus parsed;
+        try {
+            parsed = PayoutStatus.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown payout status: " + status);
+        }
+        if (!parsed.isProviderReported()) {
+            throw new IllegalArgumentException("Payout status is not reported by providers: " + status);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,12 @@
+package com.luisovando.payout_service.infrastructure.web.callback;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record PayoutCallbackRequest(
+        @NotNull UUID payoutId,
+        @NotBlank String status
+) {
+}
@@ -0,0 +1,25 @@
+package com.luisovando.payout_service.infrastructure.web.payout;
+
+import com.luisovando.payout_service.infrastructure.commandlog.CommandStatus;
+
+import java.util.UUID;
+
+public record CommandStatusResponse(
+        UUID commandId,
+        String state,
+        UUID payoutId,
+        String payoutStatus,
+        String code,
+        String message
+) {
+    static CommandStatusResponse from(CommandStatus status) {
+        return new CommandStatusResponse(
+                status.commandId(),
+                status.state().name(),
+                status.payoutId(),
+                status.payoutStatus(),
+                status.code(),
+                status.message()
+        );
+    }
+}
@@ -6,12 +6,15 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.UUID;
 
 public record CreatePayoutRequest(
         @NotNull UUID companyId,
         @NotNull @DecimalMin(value = "0.01") BigDecimal amount,
         @NotBlank @Size(min = 3, max = 3) String currency,
-        @NotBlank @Size(max = 128) String idempotencyKey
+        @NotBlank @Size(max = 128) String idempotencyKey,
+        @Size(min = 3, max = 3) String settlementCurrency,
+        Instant executeAt
 ) {
 }
@@ -1,43 +1,228 @@
 package com.luisovando.payout_service.infrastructure.web.payout;
 
 import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
-import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutResult;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
 import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutUseCase;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
 import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadFullException;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.infrastructure.commandlog.AsyncPayoutIntake;
+import com.luisovando.payout_service.infrastructure.commandlog.CommandStatus;
+import com.luisovando.payout_service.infrastructure.observability.CreatePayoutRequestEvent;
+import com.luisovando.payout_service.infrastructure.observability.TenantActivityTracker;
+import com.luisovando.payout_service.infrastructure.web.binary.PayoutBinaryMessageConverter;
+import com.luisovando.payout_service.infrastructure.web.error.ApiErrorResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/payouts")
 public class PayoutController {
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String NEAR_DUPLICATE_OF = "Near-Duplicate-Of";
+
     private final CreatePayoutUseCase createPayoutUseCase;
+    private final ReleasePayoutUseCase releasePayoutUseCase;
+    private final ReplayResponseCache replayResponseCache;
+    private final ObjectProvider<AsyncPayoutIntake> asyncPayoutIntake;
+    private final TenantActivityTracker tenantActivity;
+    private final BulkheadExecutor interactiveLane;
 
-    public PayoutController(CreatePayoutUseCase createPayoutUseCase) {
+    public PayoutController(
+            CreatePayoutUseCase createPayoutUseCase,
+            ReleasePayoutUseCase releasePayoutUseCase,
+            ReplayResponseCache replayResponseCache,
+            ObjectProvider<AsyncPayoutIntake> asyncPayoutIntake,
+            TenantActivityTracker tenantActivity,
+            @Qualifier(Bulkheads.INTERACTIVE) BulkheadExecutor interactiveLane) {
         this.createPayoutUseCase = createPayoutUseCase;
+        this.releasePayoutUseCase = releasePayoutUseCase;
+        this.replayResponseCache = replayResponseCache;
+        this.asyncPayoutIntake = asyncPayoutIntake;
+        this.tenantActivity = tenantActivity;
+        this.interactiveLane = interactiveLane;
     }
 
+    /**
+     * Creates a payout. With {@code Prefer: respond-async} and the command log enabled, the
+     * command is only made durable and {@code 202} is returned with the URL of its status;
+     * when the log cannot take it the request is processed synchronously. Synchronous creates
+     * run in the interactive lane and get {@code 503} when it is full. Clients preferring the
+     * binary encoding get it instead of the pre-serialized JSON.
+     */
     @PostMapping
-    public ResponseEntity<CreatePayoutResponse> create(@Valid @RequestBody CreatePayoutRequest request) {
+    public ResponseEntity<?> create(
+            @Valid @RequestBody CreatePayoutRequest request,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        CreatePayoutRequestEvent event = CreatePayoutRequestEvent.start();
+        boolean binary = PayoutBinaryMessageConverter.preferredBy(accept);
+        tenantActivity.record(request.companyId(), TenantActivityTracker.Signal.REQUEST);
+        MoneyVO money;
+        CurrencyVO settlementCurrency;
+        try {
+            money = MoneyVO.of(request.amount(), request.currency());
+            settlementCurrency = request.settlementCurrency() == null
+                    ? money.currency()
+                    : CurrencyVO.of(request.settlementCurrency());
+        } catch (IllegalArgumentException e) {
+            event.complete(request.companyId(), "invalid", HttpStatus.BAD_REQUEST.value());
+            throw e;
+        }
+
         CreatePayoutCommand command = new CreatePayoutCommand(
                 request.companyId(),
-                MoneyVO.of(request.amount(), request.currency()),
-                request.idempotencyKey()
+                money,
+                request.idempotencyKey(),
+                settlementCurrency,
+                request.executeAt()
         );
 
-        CreatePayoutResult result = createPayoutUseCase.execute(command);
+        ReplayResponseCache.CachedReplay cached = replayResponseCache.get(request.companyId(), request.idempotencyKey());
+        if (cached != null && cached.matches(command)) {
+            tenantActivity.record(request.companyId(), TenantActivityTracker.Signal.REPLAY);
+            event.complete(request.companyId(), "replayed-cached", cached.status());
+            return respond(ResponseEntity.status(cached.status()), binary, cached.body(), cached.response());
+        }
+
+        AsyncPayoutIntake intake = prefer != null && prefer.contains(RESPOND_ASYNC)
+                ? asyncPayoutIntake.getIfAvailable()
+                : null;
+        if (intake != null) {
+            Optional<UUID> commandId = intake.submit(command);
+            if (commandId.isPresent()) {
+                event.complete(request.companyId(), "accepted", HttpStatus.ACCEPTED.value());
+                return ResponseEntity.accepted()
+                        .location(URI.create("/payouts/commands/" + commandId.get()))
+                        .header("Preference-Applied", RESPOND_ASYNC)
+                        .body(new CommandStatusResponse(commandId.get(), CommandStatus.State.PENDING.name(),
+                                null, null, null, null));
+            }
+        }
+
+        long readAt = replayResponseCache.now();
+        CreatePayoutOutcome outcome;
+        try {
+            outcome = interactiveLane.call(() -> createPayoutUseCase.execute(command));
+        } catch (BulkheadFullException e) {
+            event.complete(request.companyId(), "overloaded", HttpStatus.SERVICE_UNAVAILABLE.value());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiErrorResponse("OVERLOADED", "Too many payouts are being created, retry shortly",
+                            Instant.now()));
+        } catch (RuntimeException e) {
+            event.complete(request.companyId(), "error", HttpStatus.INTERNAL_SERVER_ERROR.value());
+            throw e;
+        }
+
+        if (outcome instanceof CreatePayoutOutcome.Created created) {
+            CreatePayoutResponse response = new CreatePayoutResponse(created.payoutId(), created.status());
+            byte[] body = replayResponseCache.store(command, response, readAt);
+            URI location = URI.create("/payouts/" + created.payoutId());
+
+            event.complete(request.companyId(), "created", HttpStatus.CREATED.value());
+            return respond(ResponseEntity.created(location), binary, body, response);
+        }
+
+        if (outcome instanceof CreatePayoutOutcome.NearDuplicate nearDuplicate) {
+            CreatePayoutResponse response = new CreatePayoutResponse(nearDuplicate.payoutId(), nearDuplicate.status());
+            // not cached: replays answer like any other replay, without the header
+            byte[] body = replayResponseCache.serialize(response);
+            URI location = URI.create("/payouts/" + nearDuplicate.payoutId());
+
+            event.complete(request.companyId(), "near-duplicate", HttpStatus.CREATED.value());
+            return respond(ResponseEntity.created(location)
+                    .header(NEAR_DUPLICATE_OF, nearDuplicate.duplicateOf().toString()), binary, body, response);
+        }
+
+        if (outcome instanceof CreatePayoutOutcome.Replayed replayed) {
+            tenantActivity.record(request.companyId(), TenantActivityTracker.Signal.REPLAY);
+            CreatePayoutResponse response = new CreatePayoutResponse(replayed.payoutId(), replayed.status());
+            byte[] body = replayResponseCache.store(command, response, readAt);
+
+            event.complete(request.companyId(), "replayed", HttpStatus.OK.value());
+            return respond(ResponseEntity.status(HttpStatus.OK), binary, body, response);
+        }
+
+        if (outcome instanceof CreatePayoutOutcome.Conflict) {
+            tenantActivity.record(request.companyId(), TenantActivityTracker.Signal.CONFLICT);
+            event.complete(request.companyId(), "conflict", HttpStatus.CONFLICT.value());
+            return error(HttpStatus.CONFLICT, "IDEMPOTENCY_CONFLICT",
+                    "The same idempotency key was used with different request parameters");
+        }
+
+        if (outcome instanceof CreatePayoutOutcome.LimitExceeded limitExceeded) {
+            event.complete(request.companyId(), "limit-exceeded", HttpStatus.UNPROCESSABLE_ENTITY.value());
+            return error(HttpStatus.UNPROCESSABLE_ENTITY, "LIMIT_EXCEEDED", limitExceeded.reason());
+        }
+
+        CreatePayoutOutcome.Invalid invalid = (CreatePayoutOutcome.Invalid) outcome;
+        event.complete(request.companyId(), "invalid", HttpStatus.BAD_REQUEST.value());
+        return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", invalid.reason());
+    }
+
+    /**
+     * Releases a payout held for review as a near duplicate, to {@code SCHEDULED} when it has
+     * an execution time and to {@code CREATED} otherwise. Runs in the interactive lane.
+     */
+    @PostMapping("/{payoutId}/release")
+    public ResponseEntity<?> release(@PathVariable UUID payoutId) {
+        ReleasePayoutOutcome outcome;
+        try {
+            outcome = interactiveLane.call(() -> releasePayoutUseCase.execute(payoutId));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiErrorResponse("OVERLOADED", "Too many payouts are being changed, retry shortly",
+                            Instant.now()));
+        }
+
+        if (outcome instanceof ReleasePayoutOutcome.Released released) {
+            return ResponseEntity.ok(new CreatePayoutResponse(released.payoutId(), released.status()));
+        }
+        if (outcome instanceof ReleasePayoutOutcome.NotHeld notHeld) {
+            return error(HttpStatus.CONFLICT, "PAYOUT_NOT_HELD", "Payout " + payoutId + " is " + notHeld.status());
+        }
+        return error(HttpStatus.NOT_FOUND, "PAYOUT_NOT_FOUND", "Unknown payout " + payoutId);
+    }
 
-        URI location = URI.create("/payouts/" + result.payoutId());
+    @GetMapping("/commands/{commandId}")
+    public ResponseEntity<?> commandStatus(@PathVariable UUID commandId) {
+        AsyncPayoutIntake intake = asyncPayoutIntake.getIfAvailable();
+        Optional<CommandStatus> status = intake == null ? Optional.empty() : intake.status(commandId);
+        if (status.isEmpty()) {
+            return error(HttpStatus.NOT_FOUND, "COMMAND_NOT_FOUND", "Unknown command " + commandId);
+        }
+        return ResponseEntity.ok(CommandStatusResponse.from(status.get()));
+    }
 
-        if (!result.created()) {
-            return ResponseEntity.status(HttpStatus.OK)
-                    .body(new CreatePayoutResponse(result.payoutId(), result.status()));
+    /**
+     * Writes the pre-serialized JSON as is, or lets the binary converter encode the response.
+     */
+    private static ResponseEntity<?> respond(
+            ResponseEntity.BodyBuilder builder, boolean binary, byte[] json, CreatePayoutResponse response) {
+        if (binary) {
+            return builder.contentType(PayoutBinaryMessageConverter.MEDIA_TYPE).body(response);
         }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(json);
+    }
 
-        return ResponseEntity.created(location).location(location)
-                .body(new CreatePayoutResponse(result.payoutId(), result.status()));
+    private static ResponseEntity<ApiErrorResponse> error(HttpStatus status, String code, String message) {
+        return ResponseEntity.status(status).body(new ApiErrorResponse(code, message, Instant.now()));
     }
 }
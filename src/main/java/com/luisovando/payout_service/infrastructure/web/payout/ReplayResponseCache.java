@@ -0,0 +1,231 @@
+package com.luisovando.payout_service.infrastructure.web.payout;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of pre-serialized responses for idempotent replays.
+ *
+ * <p>Each entry holds the JSON bytes and status code that a replay of
+ * {@code (companyId, idempotencyKey)} must return, the response itself for clients that
+ * negotiated another encoding, plus the parameters of the
+ * original request so a mismatching replay can still be detected without
+ * touching the database.
+ *
+ * <p>Entries are dropped when the payout status changes on this node
+ * ({@link PayoutStatusChangedEvent}) and expire after {@code ttl}, which bounds how long a
+ * change made on another node can be served stale. A replay that read the payout before one
+ * of its status changes is not stored, so an invalidation cannot be undone by a slow request.
+ * When the cache is full an arbitrary entry is evicted; a miss only costs the
+ * regular lookup through the use case.
+ */
+@Component
+public class ReplayResponseCache {
+    private static final int INVALIDATION_STRIPES = 4096;
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final Map<ReplayKey, CachedReplay> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, ReplayKey> keysByPayoutId = new ConcurrentHashMap<>();
+    /**
+     * Latest invalidation time per stripe of payout ids; a collision only skips a store.
+     */
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    @Autowired
+    public ReplayResponseCache(
+            ObjectMapper objectMapper,
+            @Value("${payouts.replay-cache.max-entries:100000}") int maxEntries,
+            @Value("${payouts.replay-cache.ttl:10s}") Duration ttl) {
+        this(objectMapper, maxEntries, ttl, System::nanoTime);
+    }
+
+    ReplayResponseCache(ObjectMapper objectMapper, int maxEntries, Duration ttl, LongSupplier ticker) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("payouts.replay-cache.max-entries must be greater than 0");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("payouts.replay-cache.ttl must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        long createdAt = ticker.getAsLong();
+        for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+            invalidatedAt.set(i, createdAt - 1);
+        }
+    }
+
+    /**
+     * Current time of the cache, taken before reading a payout to {@link #store} its answer.
+     */
+    public long now() {
+        return ticker.getAsLong();
+    }
+
+    /**
+     * Returns the cached replay for the given key, or {@code null} when absent or expired.
+     */
+    public CachedReplay get(UUID companyId, String idempotencyKey) {
+        ReplayKey key = new ReplayKey(companyId, idempotencyKey);
+        CachedReplay cached = entries.get(key);
+        if (cached != null && ticker.getAsLong() - cached.storedAt() > ttlNanos) {
+            if (entries.remove(key, cached)) {
+                keysByPayoutId.remove(cached.payoutId(), key);
+            }
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Serializes the response once and stores it as the replay answer, unless the payout was
+     * invalidated since {@code readAt} ({@link #now()} before the payout was read) or the read
+     * took longer than the TTL: the status in the response may already be stale.
+     *
+     * @return the serialized response bytes, so the caller can write them directly
+     */
+    public byte[] store(CreatePayoutCommand command, CreatePayoutResponse response, long readAt) {
+        byte[] body = serialize(response);
+        ReplayKey key = new ReplayKey(command.companyId(), command.idempotencyKey());
+        long storedAt = ticker.getAsLong();
+        if (storedAt - readAt > ttlNanos || invalidatedSince(response.payoutId(), readAt)) {
+            return body;
+        }
+
+        evictIfFull();
+        CachedReplay cached = new CachedReplay(
+                response.payoutId(),
+                command.money().amount(),
+                command.money().currency().value(),
+                command.effectiveSettlementCurrency().value(),
+                command.executeAt(),
+                200,
+                body,
+                response,
+                storedAt
+        );
+        entries.put(key, cached);
+        keysByPayoutId.put(response.payoutId(), key);
+        // an invalidation that ran after the check above but before the put did not see the entry
+        if (invalidatedSince(response.payoutId(), readAt) && entries.remove(key, cached)) {
+            keysByPayoutId.remove(response.payoutId(), key);
+        }
+
+        return body;
+    }
+
+    /**
+     * Drops the cached replay of a payout, e.g. after its status changed, and keeps answers
+     * read before now from being stored.
+     */
+    public void invalidate(UUID payoutId) {
+        long now = ticker.getAsLong();
+        invalidatedAt.accumulateAndGet(stripe(payoutId), now, (previous, next) -> next - previous > 0 ? next : previous);
+        ReplayKey key = keysByPayoutId.remove(payoutId);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    @EventListener
+    public void onStatusChanged(PayoutStatusChangedEvent event) {
+        invalidate(event.payoutId());
+    }
+
+    private boolean invalidatedSince(UUID payoutId, long readAt) {
+        return invalidatedAt.get(stripe(payoutId)) - readAt >= 0;
+    }
+
+    private static int stripe(UUID payoutId) {
+        return (payoutId.hashCode() & Integer.MAX_VALUE) % INVALIDATION_STRIPES;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+        keysByPayoutId.clear();
+    }
+
+    private void evictIfFull() {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        Iterator<Map.Entry<ReplayKey, CachedReplay>> iterator = entries.entrySet().iterator();
+        if (iterator.hasNext()) {
+            Map.Entry<ReplayKey, CachedReplay> evicted = iterator.next();
+            iterator.remove();
+            keysByPayoutId.remove(evicted.getValue().payoutId());
+        }
+    }
+
+    /**
+     * Serializes a response that is answered without being cached.
+     */
+    byte[] serialize(CreatePayoutResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize payout response", e);
+        }
+    }
+
+    private record ReplayKey(UUID companyId, String idempotencyKey) {
+    }
+
+    /**
+     * Pre-serialized replay answer.
+     *
+     * @param storedAt {@link #now()} when the entry was stored
+     */
+    public record CachedReplay(
+            UUID payoutId,
+            BigDecimal amount,
+            String currency,
+            String settlementCurrency,
+            Instant executeAt,
+            int status,
+            byte[] body,
+            CreatePayoutResponse response,
+            long storedAt
+    ) {
+        public CachedReplay {
+            Objects.requireNonNull(body, "body is required");
+            Objects.requireNonNull(response, "response is required");
+        }
+
+        /**
+         * Whether a replay with the given command is the same request as the cached one.
+         */
+        public boolean matches(CreatePayoutCommand command) {
+            return amount.compareTo(command.money().amount()) == 0
+                    && currency.equals(command.money().currency().value())
+                    && settlementCurrency.equals(command.effectiveSettlementCurrency().value())
+                    && Objects.equals(executeAt, command.executeAt());
+        }
+    }
+}
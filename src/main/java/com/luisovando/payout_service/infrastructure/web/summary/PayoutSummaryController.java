@@ -0,0 +1,67 @@
+package com.luisovando.payout_service.infrastructure.web.summary;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutRollupEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRollupRepository;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/payouts/summary")
+public class PayoutSummaryController {
+    private static final long MAX_DAYS = 366;
+
+    private final PayoutRollupRepository rollupRepository;
+
+    public PayoutSummaryController(PayoutRollupRepository rollupRepository) {
+        this.rollupRepository = rollupRepository;
+    }
+
+    /**
+     * Summarizes the payouts of a company created from {@code from} to {@code to} (inclusive, UTC days),
+     * optionally in one currency. Served from the rollups only, which trail the table by one flush.
+     */
+    @GetMapping
+    public PayoutSummaryResponse summary(
+            @RequestParam UUID companyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String currency) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("the range must not exceed " + MAX_DAYS + " days");
+        }
+        String currencyFilter = currency == null ? null : currency.toUpperCase(Locale.ROOT);
+
+        List<PayoutSummaryResponse.DayTotal> days = new ArrayList<>();
+        Map<String, PayoutSummaryResponse.Total> totals = new TreeMap<>();
+        for (PayoutRollupEntity rollup
+                : rollupRepository.findByCompanyIdAndDayBetweenOrderByDayAscCurrencyAscStatusAsc(companyId, from, to)) {
+            if ((currencyFilter != null && !currencyFilter.equals(rollup.getCurrency()))
+                    || (rollup.getPayoutCount() == 0 && rollup.getAmountTotal().signum() == 0)) {
+                continue;
+            }
+            days.add(new PayoutSummaryResponse.DayTotal(rollup.getDay(), rollup.getCurrency(), rollup.getStatus(),
+                    rollup.getPayoutCount(), rollup.getAmountTotal()));
+            totals.merge(rollup.getCurrency() + "/" + rollup.getStatus(),
+                    new PayoutSummaryResponse.Total(rollup.getCurrency(), rollup.getStatus(),
+                            rollup.getPayoutCount(), rollup.getAmountTotal()),
+                    (left, right) -> new PayoutSummaryResponse.Total(left.currency(), left.status(),
+                            left.count() + right.count(), left.amount().add(right.amount())));
+        }
+        return new PayoutSummaryResponse(companyId, from, to, new ArrayList<>(totals.values()), days);
+    }
+}
@@ -0,0 +1,26 @@
+package com.luisovando.payout_service.infrastructure.web.summary;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payout counts and amounts of a company over a range of creation days, per currency and status.
+ *
+ * @param totals totals over the whole range
+ * @param days   the same figures per day
+ */
+public record PayoutSummaryResponse(
+        UUID companyId,
+        LocalDate from,
+        LocalDate to,
+        List<Total> totals,
+        List<DayTotal> days
+) {
+    public record Total(String currency, String status, long count, BigDecimal amount) {
+    }
+
+    public record DayTotal(LocalDate day, String currency, String status, long count, BigDecimal amount) {
+    }
+}
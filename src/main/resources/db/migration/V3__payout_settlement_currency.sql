@@ -0,0 +1,5 @@
+-- Payouts accepted in one currency and settled in another.
+-- NULL settlement columns mean the payout settles in its own currency.
+ALTER TABLE payouts ADD COLUMN settlement_amount NUMERIC(18, 4);
+ALTER TABLE payouts ADD COLUMN settlement_currency VARCHAR(3);
+ALTER TABLE payouts ADD COLUMN fx_rate NUMERIC(20, 10);
@@ -0,0 +1,32 @@
+-- ============================
+-- Per-company payout limits
+-- ============================
+
+-- Limits per company and payout currency. NULL means no limit of that kind.
+CREATE TABLE payout_limits
+(
+    company_id     UUID                     NOT NULL,
+    currency       VARCHAR(3)               NOT NULL,
+    daily_limit    NUMERIC(15, 2),
+    per_payout_max NUMERIC(15, 2),
+
+    updated_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+
+    PRIMARY KEY (company_id, currency)
+);
+
+-- Daily budget handed out to service nodes, in minor units of the currency.
+-- Nodes lease slices of the daily limit from this row and spend them locally.
+CREATE TABLE payout_limit_usage
+(
+    company_id   UUID       NOT NULL,
+    currency     VARCHAR(3) NOT NULL,
+    usage_date   DATE       NOT NULL,
+    leased_minor BIGINT     NOT NULL,
+
+    PRIMARY KEY (company_id, currency, usage_date)
+);
+
+-- Daily totals per company are summed over the payouts created that day
+CREATE INDEX ix_payouts_created_at_company
+    ON payouts (created_at, company_id);
@@ -0,0 +1,6 @@
+-- Future-dated payouts: SCHEDULED until execute_at, then released to CREATED.
+ALTER TABLE payouts ADD COLUMN execute_at TIMESTAMP WITH TIME ZONE;
+
+-- The scheduler loads the next window of due payouts by status and time
+CREATE INDEX ix_payouts_status_execute_at
+    ON payouts (status, execute_at);
@@ -0,0 +1,17 @@
+-- ============================
+-- Payout rollups
+-- ============================
+
+-- Count and total of payouts per company, currency, status and day of creation (UTC).
+-- Maintained incrementally by the service; rebuilt from payouts and the archive on demand.
+CREATE TABLE payout_rollups
+(
+    company_id   UUID           NOT NULL,
+    currency     VARCHAR(3)     NOT NULL,
+    status       VARCHAR(32)    NOT NULL,
+    rollup_date  DATE           NOT NULL,
+    payout_count BIGINT         NOT NULL,
+    amount_total NUMERIC(20, 2) NOT NULL,
+
+    PRIMARY KEY (company_id, rollup_date, currency, status)
+);
@@ -0,0 +1,20 @@
+-- ============================
+-- Idempotency tombstones
+-- ============================
+
+-- Idempotency key and request parameters of every payout moved to the archive, so a retry
+-- of an archived payout is still replayed (or refused as a conflict) instead of creating it again.
+-- Written in the same transaction that deletes the payout from payouts.
+CREATE TABLE payout_tombstones
+(
+    company_id          UUID                     NOT NULL,
+    idempotency_key     VARCHAR(128)             NOT NULL,
+    payout_id           UUID                     NOT NULL,
+    status              VARCHAR(32)              NOT NULL,
+    amount              NUMERIC(15, 2)           NOT NULL,
+    currency            VARCHAR(3)               NOT NULL,
+    settlement_currency VARCHAR(3)               NOT NULL,
+    execute_at          TIMESTAMP WITH TIME ZONE,
+
+    PRIMARY KEY (company_id, idempotency_key)
+);
@@ -0,0 +1,19 @@
+-- ============================
+-- Async create command outcomes
+-- ============================
+
+-- Outcome of every create command applied from a node's command log, so the status URL
+-- handed out with the 202 keeps answering after a restart and on every node.
+-- Written in the transaction that applies the command; the first outcome recorded wins.
+CREATE TABLE payout_commands
+(
+    command_id    UUID                     NOT NULL PRIMARY KEY,
+    state         VARCHAR(16)              NOT NULL,
+    payout_id     UUID,
+    payout_status VARCHAR(32),
+    code          VARCHAR(64),
+    message       VARCHAR(512),
+    recorded_at   TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX ix_payout_commands_recorded_at ON payout_commands (recorded_at);
@@ -0,0 +1,103 @@
+package com.luisovando.payout_service.application.duplicates;
+
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NearDuplicateDetectorTest {
+    private static final UUID COMPANY_ID = UUID.randomUUID();
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-05-01T09:00:00Z"));
+    private final NearDuplicateDetector detector = new NearDuplicateDetector(
+            new NearDuplicateProperties(NearDuplicateProperties.Mode.FLAG, Duration.ofMinutes(10), 10), clock);
+
+    private NearDuplicateCheck register(UUID payoutId, String amount, String currency, String key) {
+        return detector.register(payoutId, COMPANY_ID, MoneyVO.of(new BigDecimal(amount), currency), key);
+    }
+
+    @Test
+    void shouldMatchSameCompanyAmountAndCurrencyUnderAnotherKeyInsideTheWindow() {
+        UUID first = UUID.randomUUID();
+        assertThat(register(first, "100.00", "USD", "key-1").duplicate()).isFalse();
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(register(UUID.randomUUID(), "100.00", "USD", "key-1").duplicate()).isFalse();
+        assertThat(register(UUID.randomUUID(), "100.00", "MXN", "key-2").duplicate()).isFalse();
+        assertThat(register(UUID.randomUUID(), "100.01", "USD", "key-3").duplicate()).isFalse();
+        assertThat(register(UUID.randomUUID(), "100.0", "USD", "key-4").duplicateOf()).isEqualTo(first);
+
+        clock.advance(Duration.ofMinutes(6));
+        // the first registration has expired; the one from five minutes ago has not
+        assertThat(register(UUID.randomUUID(), "100.00", "USD", "key-5").duplicateOf()).isNotEqualTo(first).isNotNull();
+
+        clock.advance(Duration.ofMinutes(11));
+        assertThat(register(UUID.randomUUID(), "100.00", "USD", "key-6").duplicate()).isFalse();
+    }
+
+    @Test
+    void shouldForgetReleasedRegistrations() {
+        register(UUID.randomUUID(), "50.00", "USD", "key-1").release();
+
+        assertThat(register(UUID.randomUUID(), "50.00", "USD", "key-2").duplicate()).isFalse();
+    }
+
+    @Test
+    void shouldLetExactlyOneOfConcurrentCreatesThrough() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<NearDuplicateCheck>> checks = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            String key = "key-" + i;
+            checks.add(threads.submit(() -> register(UUID.randomUUID(), "75.00", "EUR", key)));
+        }
+        int originals = 0;
+        for (Future<NearDuplicateCheck> check : checks) {
+            if (!check.get().duplicate()) {
+                originals++;
+            }
+        }
+        threads.shutdown();
+
+        assertThat(originals).isEqualTo(1);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
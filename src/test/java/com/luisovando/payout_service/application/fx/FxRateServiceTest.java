@@ -0,0 +1,79 @@
+package com.luisovando.payout_service.application.fx;
+
+import com.luisovando.payout_service.domain.fx.FxRateSnapshot;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.fx.FileFxRateSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRateServiceTest {
+
+    private static FxRateSnapshot snapshot(Instant asOf, Map<String, BigDecimal> rates) {
+        return new FxRateSnapshot("USD", rates, asOf);
+    }
+
+    @Test
+    void shouldSwapInNewSnapshotAndSupportAddedCurrenciesWithoutRestart() {
+        Deque<FxRateSnapshot> loads = new ArrayDeque<>();
+        loads.add(snapshot(Instant.parse("2026-01-01T00:00:00Z"), Map.of("USD", BigDecimal.ONE, "MXN", new BigDecimal("17"))));
+        loads.add(snapshot(Instant.parse("2026-01-02T00:00:00Z"),
+                Map.of("USD", BigDecimal.ONE, "MXN", new BigDecimal("18"), "JPY", new BigDecimal("150"))));
+        FxRateService service = new FxRateService(loads::poll);
+
+        assertThat(service.supports(CurrencyVO.of("JPY"))).isFalse();
+
+        assertThat(service.refresh()).isTrue();
+
+        assertThat(service.supports(CurrencyVO.of("JPY"))).isTrue();
+        assertThat(service.current().asOf()).isEqualTo(Instant.parse("2026-01-02T00:00:00Z"));
+        assertThat(service.convert(MoneyVO.of(new BigDecimal("10.00"), "USD"), CurrencyVO.of("MXN")).amount())
+                .isEqualByComparingTo("180.00");
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenRefreshFails() {
+        FxRateSnapshot initial = snapshot(Instant.parse("2026-01-01T00:00:00Z"), Map.of("USD", BigDecimal.ONE));
+        boolean[] fail = {false};
+        FxRateService service = new FxRateService(() -> {
+            if (fail[0]) {
+                throw new IOException("source unavailable");
+            }
+            return initial;
+        });
+
+        fail[0] = true;
+
+        assertThat(service.refresh()).isFalse();
+        assertThat(service.current()).isSameAs(initial);
+    }
+
+    @Test
+    void shouldDeriveCrossRatesThroughTheBaseCurrency() {
+        FxRateSnapshot rates = snapshot(Instant.now(),
+                Map.of("USD", BigDecimal.ONE, "MXN", new BigDecimal("17.0512"), "EUR", new BigDecimal("0.9213")));
+
+        assertThat(rates.rate(CurrencyVO.of("EUR"), CurrencyVO.of("MXN"))).isEqualByComparingTo("18.5077607728");
+        assertThat(rates.rate(CurrencyVO.of("MXN"), CurrencyVO.of("MXN"))).isEqualByComparingTo("1");
+        assertThatThrownBy(() -> rates.rate(CurrencyVO.of("USD"), CurrencyVO.of("GBP")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldLoadBundledRatesFromProperties() throws IOException {
+        FxRateSnapshot loaded = new FileFxRateSource(new DefaultResourceLoader(), "classpath:fx-rates.properties").load();
+
+        assertThat(loaded.base()).isEqualTo("USD");
+        assertThat(loaded.currencies()).contains("USD", "MXN", "EUR");
+    }
+}
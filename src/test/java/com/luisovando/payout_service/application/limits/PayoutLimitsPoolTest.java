@@ -0,0 +1,112 @@
+package com.luisovando.payout_service.application.limits;
+
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutLimitEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutLimitRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutLimitUsageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creates of one limited company arriving together, with as many connections as interactive
+ * threads: every create holds a connection while one of them leases budget, so the lease
+ * must not need another connection from the same pool.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "payouts.bulkheads.interactive-threads=4",
+        "payouts.limits.slice-divisor=1000",
+        "payouts.warmup.enabled=false"
+})
+@ActiveProfiles("test")
+public class PayoutLimitsPoolTest {
+    private static final int CLIENTS = 16;
+    private static final int CREATES_PER_CLIENT = 25;
+
+    @Autowired
+    private CreatePayoutUseCase createPayoutUseCase;
+
+    @Autowired
+    @Qualifier(Bulkheads.INTERACTIVE)
+    private BulkheadExecutor interactiveLane;
+
+    @Autowired
+    private PayoutLimits payoutLimits;
+
+    @Autowired
+    private PayoutLimitRepository limitRepository;
+
+    @Autowired
+    private PayoutLimitUsageRepository usageRepository;
+
+    private final UUID companyId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        limitRepository.deleteAll();
+        usageRepository.deleteAll();
+        payoutLimits.reconcile();
+    }
+
+    @Test
+    void shouldLeaseBudgetWhileEveryInteractiveConnectionIsTaken() throws Exception {
+        limitRepository.save(PayoutLimitEntity.of(companyId, "USD", new BigDecimal("300.00"), null));
+        payoutLimits.reconcile();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                results.add(clients.submit(() -> {
+                    start.await();
+                    int[] counts = new int[2];
+                    for (int i = 0; i < CREATES_PER_CLIENT; i++) {
+                        CreatePayoutCommand command = new CreatePayoutCommand(companyId,
+                                MoneyVO.of(new BigDecimal("1.00"), "USD"), "pool-" + client + "-" + i);
+                        CreatePayoutOutcome outcome = interactiveLane.call(() -> createPayoutUseCase.execute(command));
+                        counts[outcome instanceof CreatePayoutOutcome.LimitExceeded ? 1 : 0]++;
+                    }
+                    return counts;
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int exceeded = 0;
+            for (Future<int[]> result : results) {
+                int[] counts = result.get(60, TimeUnit.SECONDS);
+                created += counts[0];
+                exceeded += counts[1];
+            }
+
+            assertThat(created).isEqualTo(300);
+            assertThat(exceeded).isEqualTo(CLIENTS * CREATES_PER_CLIENT - 300);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.luisovando.payout_service.application.limits;
+
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutLimitEntity;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutLimitUsageEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutLimitRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutLimitUsageRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayoutLimitsTest {
+    private static final Instant NOW = Instant.parse("2026-03-10T12:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+    private static final CurrencyVO USD = CurrencyVO.of("USD");
+
+    @Autowired
+    private PayoutLimitRepository limitRepository;
+
+    @Autowired
+    private PayoutLimitUsageRepository usageRepository;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final UUID companyId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        usageRepository.deleteAll();
+        limitRepository.deleteAll();
+        payoutRepository.deleteAll();
+    }
+
+    private PayoutLimits newNode() {
+        // a distinct DataSource, like the leases pool, so leases never join the caller's transaction
+        DataSource leaseDataSource = new DelegatingDataSource(dataSource);
+        PayoutLimits limits = new PayoutLimits(limitRepository, payoutRepository, leaseDataSource,
+                new DataSourceTransactionManager(leaseDataSource), new PayoutLimitsProperties(10, 4),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        limits.reconcile();
+        return limits;
+    }
+
+    private static MoneyVO usd(String amount) {
+        return MoneyVO.of(new BigDecimal(amount), "USD");
+    }
+
+    private long leasedToday() {
+        return usageRepository.findById(new PayoutLimitUsageEntity.Key(companyId, "USD", TODAY))
+                .map(PayoutLimitUsageEntity::getLeasedMinor)
+                .orElse(0L);
+    }
+
+    @Test
+    void shouldRejectPayoutsOverThePerPayoutMaximum() {
+        limitRepository.save(PayoutLimitEntity.of(companyId, "USD", null, new BigDecimal("500.00")));
+        PayoutLimits limits = newNode();
+
+        assertThat(limits.reserve(companyId, usd("500.00")).granted()).isTrue();
+        LimitReservation rejected = limits.reserve(companyId, usd("500.01"));
+        assertThat(rejected.granted()).isFalse();
+        assertThat(rejected.rejection()).isEqualTo("amount exceeds the per-payout maximum");
+        assertThat(limits.reserve(UUID.randomUUID(), usd("1000000.00")).granted()).isTrue();
+    }
+
+    @Test
+    void shouldLeaseSlicesAndReleaseReservationsOnRollback() {
+        limitRepository.save(PayoutLimitEntity.of(companyId, "USD", new BigDecimal("100.00"), null));
+        PayoutLimits limits = newNode();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(limits.reserve(companyId, usd("60.00")).granted()).isTrue();
+            status.setRollbackOnly();
+        });
+        assertThat(limits.committedToday(companyId, USD)).isZero();
+
+        transaction.executeWithoutResult(status ->
+                assertThat(limits.reserve(companyId, usd("95.00")).granted()).isTrue());
+        assertThat(limits.committedToday(companyId, USD)).isEqualTo(9_500);
+
+        LimitReservation exceeded = limits.reserve(companyId, usd("5.01"));
+        assertThat(exceeded.granted()).isFalse();
+        assertThat(exceeded.rejection()).isEqualTo("daily limit exceeded");
+        assertThat(leasedToday()).isEqualTo(10_000);
+
+        limits.returnUnusedBudget();
+        assertThat(leasedToday()).isEqualTo(9_500);
+    }
+
+    @Test
+    void shouldNotExceedTheDailyLimitAcrossNodes() throws Exception {
+        limitRepository.save(PayoutLimitEntity.of(companyId, "USD", new BigDecimal("250.00"), null));
+        List<PayoutLimits> nodes = List.of(newNode(), newNode(), newNode());
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                PayoutLimits node = nodes.get(t % nodes.size());
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long granted = 0;
+                    for (int i = 0; i < 2_000; i++) {
+                        if (node.reserve(companyId, usd("1.00")).granted()) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            long granted = 0;
+            for (Future<Long> result : results) {
+                granted += result.get();
+            }
+
+            assertThat(granted).isEqualTo(250);
+            assertThat(leasedToday()).isEqualTo(25_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRebuildLeasedBudgetFromTodaysPayouts() {
+        PayoutEntity payout = payoutRepository.save(
+                PayoutEntity.createNew(companyId, new BigDecimal("80.00"), "USD", "CREATED", "key-1"));
+        new JdbcTemplate(dataSource).update("UPDATE payouts SET created_at = ? WHERE id = ?",
+                Timestamp.from(NOW.minusSeconds(3600)), payout.getId());
+        limitRepository.save(PayoutLimitEntity.of(companyId, "USD", new BigDecimal("100.00"), null));
+
+        PayoutLimits limits = newNode();
+
+        assertThat(leasedToday()).isEqualTo(8_000);
+        assertThat(limits.reserve(companyId, usd("20.01")).granted()).isFalse();
+        assertThat(limits.reserve(companyId, usd("20.00")).granted()).isTrue();
+    }
+}
@@ -0,0 +1,66 @@
+package com.luisovando.payout_service.application.limits;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedBudgetTest {
+
+    @Test
+    void shouldGatherAcrossStripesAndRestoreOnFailure() {
+        StripedBudget budget = new StripedBudget(4);
+        budget.add(30);
+
+        assertThat(budget.tryAcquire(31)).isFalse();
+        assertThat(budget.available()).isEqualTo(30);
+        assertThat(budget.tryAcquire(30)).isTrue();
+        assertThat(budget.available()).isZero();
+    }
+
+    @Test
+    void shouldNeverHandOutMoreThanWasAddedUnderContention() throws Exception {
+        StripedBudget budget = new StripedBudget(8);
+        budget.add(100_000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int amount = t + 1;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long acquired = 0;
+                    for (int i = 0; i < 50_000; i++) {
+                        if (budget.tryAcquire(amount)) {
+                            acquired += amount;
+                        }
+                        if (i % 7 == 0 && budget.tryAcquire(amount)) {
+                            budget.add(amount);
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+
+            assertThat(total + budget.available()).isEqualTo(100_000);
+            assertThat(budget.drain()).isEqualTo(100_000 - total);
+            assertThat(budget.available()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.luisovando.payout_service.application.usecase;
+
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Races two creates for the same idempotency key against a real database: the winner's
+ * insert is left uncommitted while the loser passes the lookup and blocks on the unique
+ * key, so the loser's violation is raised by the database rather than a mock.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CreatePayoutUseCaseRaceTest {
+    @Autowired
+    private CreatePayoutUseCase createPayoutUseCase;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final UUID companyId = UUID.randomUUID();
+
+    private final ExecutorService loser = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        loser.shutdownNow();
+        payoutRepository.deleteAll(payoutRepository.findAll().stream()
+                .filter(payout -> payout.getCompanyId().equals(companyId))
+                .toList());
+    }
+
+    @Test
+    void shouldReplayWhenTheSameRequestLosesTheRace() throws Exception {
+        CreatePayoutCommand command = new CreatePayoutCommand(companyId, usd("100.00"), "race-key");
+
+        CreatePayoutOutcome[] outcomes = race(command, command);
+
+        assertThat(outcomes[0]).isInstanceOf(CreatePayoutOutcome.Created.class);
+        assertThat(outcomes[1]).isInstanceOf(CreatePayoutOutcome.Replayed.class);
+        assertThat(((CreatePayoutOutcome.Replayed) outcomes[1]).payoutId())
+                .isEqualTo(((CreatePayoutOutcome.Created) outcomes[0]).payoutId());
+        assertThat(payoutRepository.findByCompanyIdAndIdempotencyKey(companyId, "race-key")).isPresent();
+    }
+
+    @Test
+    void shouldConflictWhenADifferentRequestLosesTheRace() throws Exception {
+        CreatePayoutOutcome[] outcomes = race(
+                new CreatePayoutCommand(companyId, usd("100.00"), "race-key"),
+                new CreatePayoutCommand(companyId, usd("250.00"), "race-key"));
+
+        assertThat(outcomes[0]).isInstanceOf(CreatePayoutOutcome.Created.class);
+        assertThat(outcomes[1]).isInstanceOf(CreatePayoutOutcome.Conflict.class);
+    }
+
+    /**
+     * Runs {@code winner} in a transaction that stays open until {@code loser} is blocked
+     * inserting the same key, then commits it.
+     */
+    private CreatePayoutOutcome[] race(CreatePayoutCommand winner, CreatePayoutCommand loserCommand) throws Exception {
+        CreatePayoutOutcome[] outcomes = new CreatePayoutOutcome[2];
+        List<Thread> loserThread = new ArrayList<>();
+        List<Future<CreatePayoutOutcome>> loserOutcome = new ArrayList<>();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outcomes[0] = createPayoutUseCase.execute(winner);
+            loserOutcome.add(loser.submit(() -> {
+                synchronized (loserThread) {
+                    loserThread.add(Thread.currentThread());
+                }
+                return createPayoutUseCase.execute(loserCommand);
+            }));
+            awaitInsertWaiting(loserThread);
+        });
+
+        outcomes[1] = loserOutcome.get(0).get(10, TimeUnit.SECONDS);
+        return outcomes;
+    }
+
+    /**
+     * H2 retries a conflicting unique insert in a loop until the other transaction ends or the
+     * lock times out, so the loser shows up as a thread inside H2's insert rather than a
+     * blocked session.
+     */
+    private static void awaitInsertWaiting(List<Thread> loserThread) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread thread;
+            synchronized (loserThread) {
+                thread = loserThread.isEmpty() ? null : loserThread.get(0);
+            }
+            if (thread != null && Arrays.stream(thread.getStackTrace())
+                    .anyMatch(frame -> frame.getClassName().equals("org.h2.command.dml.Insert"))) {
+                return;
+            }
+            Thread.yield();
+        }
+        throw new AssertionError("loser never reached the insert");
+    }
+
+    private static MoneyVO usd(String amount) {
+        return MoneyVO.of(new BigDecimal(amount), "USD");
+    }
+}
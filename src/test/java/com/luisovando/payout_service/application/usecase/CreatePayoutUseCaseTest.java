@@ -1,12 +1,21 @@
 package com.luisovando.payout_service.application.usecase;
 
+import com.luisovando.payout_service.application.duplicates.NearDuplicateDetector;
+import com.luisovando.payout_service.application.duplicates.NearDuplicateProperties;
+import com.luisovando.payout_service.application.fx.FxRateService;
+import com.luisovando.payout_service.application.limits.LimitReservation;
+import com.luisovando.payout_service.application.limits.PayoutLimits;
 import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
-import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutResult;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
 import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
-import com.luisovando.payout_service.domain.exceptions.IdempotencyConflictException;
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import com.luisovando.payout_service.domain.fx.FxRateSnapshot;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
 import com.luisovando.payout_service.domain.valueobject.MoneyVO;
 import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutTombstoneEntity;
 import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutTombstoneRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +23,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
+
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,6 +48,21 @@ import static org.mockito.Mockito.*;
 public class CreatePayoutUseCaseTest {
     @Mock
     PayoutRepository payoutRepository;
+    @Mock
+    PayoutTombstoneRepository payoutTombstoneRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Spy
+    FxRateService fxRateService = new FxRateService(() -> new FxRateSnapshot(
+            "USD",
+            Map.of("USD", BigDecimal.ONE, "MXN", new BigDecimal("17.0512"), "EUR", new BigDecimal("0.9213")),
+            Instant.parse("2026-01-01T00:00:00Z")
+    ));
+    @Mock
+    PayoutLimits payoutLimits;
+    @Spy
+    NearDuplicateDetector nearDuplicateDetector = new NearDuplicateDetector(
+            new NearDuplicateProperties(NearDuplicateProperties.Mode.FLAG, Duration.ofMinutes(10), 10));
     @InjectMocks
     CreatePayoutUseCase useCase;
 
@@ -50,6 +82,7 @@ public class CreatePayoutUseCaseTest {
                 MoneyVO.of(new BigDecimal("1000.50"), " usd "),
                 idempotencyKey
         );
+        lenient().when(payoutLimits.reserve(any(), any())).thenReturn(LimitReservation.unlimited());
     }
 
     /**
@@ -71,13 +104,13 @@ public class CreatePayoutUseCaseTest {
                 eq(command.idempotencyKey())
         )).thenReturn(Optional.empty());
 
-        when(payoutRepository.save(any(PayoutEntity.class)))
+        when(payoutRepository.insert(any(PayoutEntity.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
-        CreatePayoutResult result = useCase.execute(command);
+        CreatePayoutOutcome outcome = useCase.execute(command);
 
         verify(payoutRepository).findByCompanyIdAndIdempotencyKey(eq(command.companyId()), eq(command.idempotencyKey()));
-        verify(payoutRepository).save(payoutCaptor.capture());
+        verify(payoutRepository).insert(payoutCaptor.capture());
 
         PayoutEntity savedPayout = payoutCaptor.getValue();
         assertThat(savedPayout.getCompanyId()).isEqualTo(companyId);
@@ -86,9 +119,15 @@ public class CreatePayoutUseCaseTest {
         assertThat(savedPayout.getStatus()).isEqualTo("CREATED");
         assertThat(savedPayout.getIdempotencyKey()).isEqualTo(idempotencyKey);
 
-        assertThat(result.payoutId()).isNotNull();
-        assertThat(result.status()).isEqualTo("CREATED");
-        assertThat(result.created()).isTrue();
+        assertThat(outcome).isInstanceOf(CreatePayoutOutcome.Created.class);
+        CreatePayoutOutcome.Created created = (CreatePayoutOutcome.Created) outcome;
+        assertThat(created.payoutId()).isEqualTo(savedPayout.getId());
+        assertThat(created.status()).isEqualTo("CREATED");
+
+        ArgumentCaptor<PayoutCreatedEvent> eventCaptor = ArgumentCaptor.forClass(PayoutCreatedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().payoutId()).isEqualTo(savedPayout.getId());
+        assertThat(eventCaptor.getValue().money()).isEqualTo(command.money());
 
         verifyNoMoreInteractions(payoutRepository);
     }
@@ -121,14 +160,12 @@ public class CreatePayoutUseCaseTest {
                 eq(command.idempotencyKey())
         )).thenReturn(Optional.of(existing));
 
-        CreatePayoutResult result = useCase.execute(command);
+        CreatePayoutOutcome outcome = useCase.execute(command);
 
-        verify(payoutRepository, never()).save(any(PayoutEntity.class));
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
         verify(payoutRepository, times(1)).findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey));
 
-        assertThat(result.payoutId()).isEqualTo(existing.getId());
-        assertThat(result.status()).isEqualTo(existing.getStatus());
-        assertThat(result.created()).isFalse();
+        assertThat(outcome).isEqualTo(new CreatePayoutOutcome.Replayed(existing.getId(), existing.getStatus()));
 
         verifyNoMoreInteractions(payoutRepository);
     }
@@ -156,14 +193,12 @@ public class CreatePayoutUseCaseTest {
         when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
                 .thenReturn(Optional.of(existing));
 
-        CreatePayoutResult result = useCase.execute(command);
+        CreatePayoutOutcome outcome = useCase.execute(command);
 
-        verify(payoutRepository, never()).save(any(PayoutEntity.class));
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
         verify(payoutRepository).findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey));
 
-        assertThat(result.payoutId()).isEqualTo(existing.getId());
-        assertThat(result.status()).isEqualTo(existing.getStatus());
-        assertThat(result.created()).isFalse();
+        assertThat(outcome).isEqualTo(new CreatePayoutOutcome.Replayed(existing.getId(), existing.getStatus()));
 
         verifyNoMoreInteractions(payoutRepository);
     }
@@ -182,54 +217,106 @@ public class CreatePayoutUseCaseTest {
                 .thenReturn(Optional.empty()) // First call returns empty (no existing payout)
                 .thenReturn(Optional.of(existing)); // Second call in catch block returns existing payout
 
-        when(payoutRepository.save(any(PayoutEntity.class)))
-                .thenThrow(new DataIntegrityViolationException("Duplicate entry", new RuntimeException("uk_payouts_company_id_idempotency_key")));
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry", new SQLException("duplicate key value", "23505")));
 
-        CreatePayoutResult result = useCase.execute(command);
+        CreatePayoutOutcome outcome = useCase.execute(command);
 
         verify(payoutRepository, times(2)).findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey));
-        verify(payoutRepository, times(1)).save(any(PayoutEntity.class));
+        verify(payoutRepository, times(1)).insert(any(PayoutEntity.class));
 
-        assertThat(result.payoutId()).isEqualTo(existing.getId());
-        assertThat(result.status()).isEqualTo(existing.getStatus());
-        assertThat(result.created()).isFalse();
+        assertThat(outcome).isEqualTo(new CreatePayoutOutcome.Replayed(existing.getId(), existing.getStatus()));
 
         verifyNoMoreInteractions(payoutRepository);
     }
 
     @Test
-    void shouldThrowWhenCurrencyIsInvalid() {
+    void shouldReplayAnArchivedPayoutFromItsTombstone() {
+        UUID archivedId = UUID.randomUUID();
+        PayoutTombstoneEntity tombstone = tombstone(archivedId, "1000.50");
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutTombstoneRepository.findById(any(PayoutTombstoneEntity.Key.class)))
+                .thenReturn(Optional.of(tombstone));
+
+        CreatePayoutOutcome outcome = useCase.execute(command);
+
+        assertThat(outcome).isEqualTo(new CreatePayoutOutcome.Replayed(archivedId, "PAID"));
+        verify(payoutTombstoneRepository).findById(eq(new PayoutTombstoneEntity.Key(companyId, idempotencyKey)));
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
+        verifyNoInteractions(payoutLimits);
+    }
+
+    @Test
+    void shouldReturnConflictWhenMoneyDiffersFromAnArchivedPayout() {
+        PayoutTombstoneEntity tombstone = tombstone(UUID.randomUUID(), "999.00");
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutTombstoneRepository.findById(any(PayoutTombstoneEntity.Key.class)))
+                .thenReturn(Optional.of(tombstone));
+
+        CreatePayoutOutcome outcome = useCase.execute(command);
+
+        assertThat(outcome).isInstanceOf(CreatePayoutOutcome.Conflict.class);
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
+    }
+
+    private static PayoutTombstoneEntity tombstone(UUID payoutId, String amount) {
+        PayoutTombstoneEntity tombstone = mock(PayoutTombstoneEntity.class);
+        when(tombstone.getPayoutId()).thenReturn(payoutId);
+        when(tombstone.getStatus()).thenReturn("PAID");
+        when(tombstone.getAmount()).thenReturn(new BigDecimal(amount));
+        when(tombstone.getCurrency()).thenReturn("USD");
+        when(tombstone.getSettlementCurrency()).thenReturn("USD");
+        when(tombstone.getExecuteAt()).thenReturn(null);
+        return tombstone;
+    }
+
+    @Test
+    void shouldRethrowWhenIntegrityViolationIsNotAUniqueViolation() {
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+
+        DataIntegrityViolationException notNullViolation = new DataIntegrityViolationException(
+                "null value", new SQLException("uk_payouts_company_id_idempotency_key", "23502"));
+        when(payoutRepository.insert(any(PayoutEntity.class))).thenThrow(notNullViolation);
+
+        assertThatThrownBy(() -> useCase.execute(command)).isSameAs(notNullViolation);
+
+        verify(payoutRepository, times(1)).findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey));
+    }
+
+    @Test
+    void shouldReturnInvalidWhenCurrencyIsInvalid() {
         CreatePayoutCommand invalidCommand = new CreatePayoutCommand(
                 companyId,
                 MoneyVO.of(new BigDecimal("100.50"), " cad "),
                 idempotencyKey
         );
 
-        assertThatThrownBy(() -> useCase.execute(invalidCommand))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("currency not supported");
+        assertThat(useCase.execute(invalidCommand))
+                .isEqualTo(new CreatePayoutOutcome.Invalid("currency not supported"));
 
         verifyNoInteractions(payoutRepository);
     }
 
     @Test
-    void shouldThrowWhenIdempotencyKeyIsBlank() {
+    void shouldReturnInvalidWhenIdempotencyKeyIsBlank() {
         CreatePayoutCommand invalidCommand = new CreatePayoutCommand(
                 companyId,
                 MoneyVO.of(new BigDecimal("1000.50"), "USD"),
                 ""
         );
 
-        assertThatThrownBy(() -> useCase.execute(invalidCommand))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("idempotencyKey must not be blank");
+        assertThat(useCase.execute(invalidCommand))
+                .isEqualTo(new CreatePayoutOutcome.Invalid("idempotencyKey must not be blank"));
 
         verifyNoInteractions(payoutRepository);
     }
 
     
     @Test
-    void shouldThrowWhenMoneyDiffersFromExistingPayout() {
+    void shouldReturnConflictWhenMoneyDiffersFromExistingPayout() {
         PayoutEntity existing = PayoutEntity.createNew(
                 companyId, 
                 new BigDecimal("1000.50"), 
@@ -246,13 +333,12 @@ public class CreatePayoutUseCaseTest {
                 idempotencyKey
         );
 
-        assertThatThrownBy(() -> useCase.execute(command))
-                .isInstanceOf(IdempotencyConflictException.class)
-                .hasMessage("Money amount differs from existing payout");
+        assertThat(useCase.execute(command))
+                .isEqualTo(new CreatePayoutOutcome.Conflict("Money amount differs from existing payout"));
     }
 
 @Test
-    void shouldThrowWhenCurrencyDiffersFromExistingPayout() {
+    void shouldReturnConflictWhenCurrencyDiffersFromExistingPayout() {
         PayoutEntity existing = PayoutEntity.createNew(
                 companyId, 
                 new BigDecimal("1000.50"), 
@@ -269,9 +355,8 @@ public class CreatePayoutUseCaseTest {
                 idempotencyKey
         );
 
-        assertThatThrownBy(() -> useCase.execute(command))
-                .isInstanceOf(IdempotencyConflictException.class)
-                .hasMessage("Currency differs from existing payout");
+        assertThat(useCase.execute(command))
+                .isEqualTo(new CreatePayoutOutcome.Conflict("Currency differs from existing payout"));
     }
 
     @Test
@@ -292,13 +377,264 @@ public class CreatePayoutUseCaseTest {
                 idempotencyKey
         );
 
-        CreatePayoutResult result = useCase.execute(command);
+        CreatePayoutOutcome outcome = useCase.execute(command);
 
-        assertThat(result.payoutId()).isEqualTo(existing.getId());
-        assertThat(result.status()).isEqualTo(existing.getStatus());
-        assertThat(result.created()).isFalse();
+        assertThat(outcome).isEqualTo(new CreatePayoutOutcome.Replayed(existing.getId(), existing.getStatus()));
         
-        verify(payoutRepository, never()).save(any(PayoutEntity.class));
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
         verify(payoutRepository, times(1)).findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldStoreConvertedAmountWhenSettlementCurrencyDiffers() {
+        CreatePayoutCommand fxCommand = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("1000.50"), "USD"),
+                idempotencyKey,
+                CurrencyVO.of("MXN"),
+                null
+        );
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(useCase.execute(fxCommand)).isInstanceOf(CreatePayoutOutcome.Created.class);
+
+        verify(payoutRepository).insert(payoutCaptor.capture());
+        PayoutEntity savedPayout = payoutCaptor.getValue();
+        assertThat(savedPayout.getAmount()).isEqualByComparingTo("1000.50");
+        assertThat(savedPayout.getCurrency()).isEqualTo("USD");
+        assertThat(savedPayout.getSettlementAmount()).isEqualByComparingTo("17059.73");
+        assertThat(savedPayout.getSettlementCurrency()).isEqualTo("MXN");
+        assertThat(savedPayout.getFxRate()).isEqualByComparingTo("17.0512");
+    }
+
+    @Test
+    void shouldNotConvertWhenSettlementCurrencyMatchesCurrency() {
+        CreatePayoutCommand sameCurrency = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("1000.50"), "USD"),
+                idempotencyKey,
+                CurrencyVO.of("USD"),
+                null
+        );
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        useCase.execute(sameCurrency);
+
+        verify(payoutRepository).insert(payoutCaptor.capture());
+        assertThat(payoutCaptor.getValue().getSettlementCurrency()).isNull();
+        assertThat(payoutCaptor.getValue().getFxRate()).isNull();
+    }
+
+    @Test
+    void shouldReturnConflictWhenSettlementCurrencyDiffersFromExistingPayout() {
+        PayoutEntity existing = PayoutEntity.createNew(
+                companyId,
+                new BigDecimal("1000.50"),
+                "USD",
+                "CREATED",
+                idempotencyKey);
+        existing.settleIn(new BigDecimal("17059.73"), "MXN", new BigDecimal("17.0512"));
+
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.of(existing));
+
+        CreatePayoutCommand replay = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("1000.50"), "USD"),
+                idempotencyKey,
+                CurrencyVO.of("EUR"),
+                null
+        );
+
+        assertThat(useCase.execute(replay))
+                .isEqualTo(new CreatePayoutOutcome.Conflict("Settlement currency differs from existing payout"));
+    }
+
+    @Test
+    void shouldReturnInvalidWhenSettlementCurrencyIsNotInSnapshot() {
+        CreatePayoutCommand invalidCommand = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("100.50"), "USD"),
+                idempotencyKey,
+                CurrencyVO.of("JPY"),
+                null
+        );
+
+        assertThat(useCase.execute(invalidCommand))
+                .isEqualTo(new CreatePayoutOutcome.Invalid("settlement currency not supported"));
+
+        verifyNoInteractions(payoutRepository);
+    }
+
+    @Test
+    void shouldReturnInvalidWithoutReservingWhenTheSettlementAmountRoundsToZero() {
+        CreatePayoutCommand tinyCommand = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("0.01"), "MXN"),
+                idempotencyKey,
+                CurrencyVO.of("USD"),
+                null
+        );
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+
+        assertThat(useCase.execute(tinyCommand))
+                .isEqualTo(new CreatePayoutOutcome.Invalid("amount is too small to settle in USD"));
+
+        verifyNoInteractions(payoutLimits);
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
+    }
+
+    @Test
+    void shouldReturnLimitExceededWithoutInsertingWhenReservationIsRejected() {
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutLimits.reserve(eq(companyId), eq(command.money())))
+                .thenReturn(LimitReservation.rejected("daily limit exceeded"));
+
+        assertThat(useCase.execute(command))
+                .isEqualTo(new CreatePayoutOutcome.LimitExceeded("daily limit exceeded"));
+
+        verify(payoutRepository, never()).insert(any(PayoutEntity.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldReleaseReservationWhenInsertLosesTheRace() {
+        PayoutEntity existing = PayoutEntity.createNew(
+                companyId,
+                new BigDecimal("1000.50"),
+                "USD",
+                "CREATED",
+                idempotencyKey
+        );
+        LimitReservation reservation = mock(LimitReservation.class);
+        when(reservation.granted()).thenReturn(true);
+        when(payoutLimits.reserve(eq(companyId), eq(command.money()))).thenReturn(reservation);
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(existing));
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry", new SQLException("duplicate key value", "23505")));
+
+        assertThat(useCase.execute(command)).isInstanceOf(CreatePayoutOutcome.Replayed.class);
+
+        verify(reservation).release();
+    }
+
+    @Test
+    void shouldCreateScheduledPayoutWhenExecuteAtIsInTheFuture() {
+        Instant executeAt = Instant.now().plusSeconds(3600);
+        CreatePayoutCommand scheduledCommand = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("1000.50"), "USD"),
+                idempotencyKey,
+                null,
+                executeAt
+        );
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        CreatePayoutOutcome outcome = useCase.execute(scheduledCommand);
+
+        verify(payoutRepository).insert(payoutCaptor.capture());
+        assertThat(payoutCaptor.getValue().getStatus()).isEqualTo("SCHEDULED");
+        assertThat(payoutCaptor.getValue().getExecuteAt()).isEqualTo(executeAt.truncatedTo(ChronoUnit.MICROS));
+        assertThat(((CreatePayoutOutcome.Created) outcome).status()).isEqualTo("SCHEDULED");
+
+        ArgumentCaptor<PayoutCreatedEvent> eventCaptor = ArgumentCaptor.forClass(PayoutCreatedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().executeAt()).isEqualTo(executeAt.truncatedTo(ChronoUnit.MICROS));
+    }
+
+    @Test
+    void shouldCreateImmediatelyWhenExecuteAtIsInThePast() {
+        CreatePayoutCommand pastCommand = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("1000.50"), "USD"),
+                idempotencyKey,
+                null,
+                Instant.now().minusSeconds(60)
+        );
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.empty());
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        useCase.execute(pastCommand);
+
+        verify(payoutRepository).insert(payoutCaptor.capture());
+        assertThat(payoutCaptor.getValue().getStatus()).isEqualTo("CREATED");
+    }
+
+    @Test
+    void shouldReturnConflictWhenExecuteAtDiffersFromExistingPayout() {
+        PayoutEntity existing = PayoutEntity.createNew(
+                companyId,
+                new BigDecimal("1000.50"),
+                "USD",
+                "SCHEDULED",
+                idempotencyKey);
+        existing.scheduleAt(Instant.parse("2030-01-01T10:00:00Z"));
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), eq(idempotencyKey)))
+                .thenReturn(Optional.of(existing));
+
+        CreatePayoutCommand replay = new CreatePayoutCommand(
+                companyId,
+                MoneyVO.of(new BigDecimal("1000.50"), "USD"),
+                idempotencyKey,
+                null,
+                Instant.parse("2030-01-01T11:00:00Z")
+        );
+
+        assertThat(useCase.execute(replay))
+                .isEqualTo(new CreatePayoutOutcome.Conflict("Execution time differs from existing payout"));
+        assertThat(useCase.execute(new CreatePayoutCommand(companyId, replay.money(), idempotencyKey, null,
+                Instant.parse("2030-01-01T10:00:00Z"))))
+                .isEqualTo(new CreatePayoutOutcome.Replayed(existing.getId(), "SCHEDULED"));
+    }
+
+    @Test
+    void shouldFlagNearDuplicateWithAnotherIdempotencyKey() {
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), any()))
+                .thenReturn(Optional.empty());
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        CreatePayoutOutcome first = useCase.execute(command);
+        CreatePayoutOutcome second = useCase.execute(new CreatePayoutCommand(
+                companyId, MoneyVO.of(new BigDecimal("1000.5"), "USD"), "another-key"));
+
+        UUID firstId = ((CreatePayoutOutcome.Created) first).payoutId();
+        assertThat(second).isInstanceOf(CreatePayoutOutcome.NearDuplicate.class);
+        CreatePayoutOutcome.NearDuplicate nearDuplicate = (CreatePayoutOutcome.NearDuplicate) second;
+        assertThat(nearDuplicate.duplicateOf()).isEqualTo(firstId);
+        assertThat(nearDuplicate.status()).isEqualTo("CREATED");
+    }
+
+    @Test
+    void shouldHoldNearDuplicateWhenConfiguredTo() {
+        doReturn(NearDuplicateProperties.Mode.HOLD).when(nearDuplicateDetector).mode();
+        when(payoutRepository.findByCompanyIdAndIdempotencyKey(eq(companyId), any()))
+                .thenReturn(Optional.empty());
+        when(payoutRepository.insert(any(PayoutEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        useCase.execute(command);
+        CreatePayoutOutcome second = useCase.execute(new CreatePayoutCommand(
+                companyId, MoneyVO.of(new BigDecimal("1000.50"), "USD"), "another-key"));
+
+        verify(payoutRepository, times(2)).insert(payoutCaptor.capture());
+        assertThat(payoutCaptor.getAllValues().get(0).getStatus()).isEqualTo("CREATED");
+        assertThat(payoutCaptor.getAllValues().get(1).getStatus()).isEqualTo("HELD");
+        assertThat(((CreatePayoutOutcome.NearDuplicate) second).status()).isEqualTo("HELD");
+    }
+}
@@ -0,0 +1,110 @@
+package com.luisovando.payout_service.application.usecase;
+
+import com.luisovando.payout_service.application.usecase.releasepayout.PayoutReleasedEvent;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutUseCase;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReleasePayoutUseCaseTest {
+    @Mock
+    PayoutRepository payoutRepository;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    ReleasePayoutUseCase useCase;
+    @Captor
+    ArgumentCaptor<Object> eventCaptor;
+
+    private PayoutEntity payout(String status) {
+        return PayoutEntity.createNew(UUID.randomUUID(), new BigDecimal("10.00"), "USD", status, "key-" + UUID.randomUUID());
+    }
+
+    @Test
+    void shouldReleaseAHeldPayoutToCreated() {
+        PayoutEntity held = payout("HELD");
+        when(payoutRepository.findById(held.getId())).thenReturn(Optional.of(held));
+        when(payoutRepository.updateStatus(held.getId(), "HELD", "CREATED")).thenReturn(1);
+
+        ReleasePayoutOutcome outcome = useCase.execute(held.getId());
+
+        assertThat(outcome).isEqualTo(new ReleasePayoutOutcome.Released(held.getId(), "CREATED"));
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues().get(0)).isInstanceOfSatisfying(PayoutStatusChangedEvent.class, changed -> {
+            assertThat(changed.from()).isEqualTo(PayoutStatus.HELD);
+            assertThat(changed.to()).isEqualTo(PayoutStatus.CREATED);
+        });
+        assertThat(eventCaptor.getAllValues().get(1)).isInstanceOfSatisfying(PayoutReleasedEvent.class, released -> {
+            assertThat(released.status()).isEqualTo("CREATED");
+            assertThat(released.executeAt()).isNull();
+        });
+    }
+
+    @Test
+    void shouldReleaseAHeldPayoutWithAnExecutionTimeBackToScheduled() {
+        Instant executeAt = Instant.parse("2030-01-01T00:00:00Z");
+        PayoutEntity held = payout("HELD");
+        held.scheduleAt(executeAt);
+        when(payoutRepository.findById(held.getId())).thenReturn(Optional.of(held));
+        when(payoutRepository.updateStatus(held.getId(), "HELD", "SCHEDULED")).thenReturn(1);
+
+        ReleasePayoutOutcome outcome = useCase.execute(held.getId());
+
+        assertThat(outcome).isEqualTo(new ReleasePayoutOutcome.Released(held.getId(), "SCHEDULED"));
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues().get(1)).isInstanceOfSatisfying(PayoutReleasedEvent.class, released -> {
+            assertThat(released.status()).isEqualTo("SCHEDULED");
+            assertThat(released.executeAt()).isEqualTo(executeAt);
+        });
+    }
+
+    @Test
+    void shouldNotReleasePayoutsThatAreNotHeld() {
+        PayoutEntity created = payout("CREATED");
+        when(payoutRepository.findById(created.getId())).thenReturn(Optional.of(created));
+
+        assertThat(useCase.execute(created.getId())).isEqualTo(new ReleasePayoutOutcome.NotHeld("CREATED"));
+        verify(payoutRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldReportTheCurrentStatusWhenAConcurrentReleaseWon() {
+        PayoutEntity held = payout("HELD");
+        PayoutEntity released = payout("CREATED");
+        when(payoutRepository.findById(held.getId())).thenReturn(Optional.of(held))
+                .thenReturn(Optional.of(released));
+        when(payoutRepository.updateStatus(held.getId(), "HELD", "CREATED")).thenReturn(0);
+
+        assertThat(useCase.execute(held.getId())).isEqualTo(new ReleasePayoutOutcome.NotHeld("CREATED"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldReportUnknownPayouts() {
+        UUID payoutId = UUID.randomUUID();
+        when(payoutRepository.findById(payoutId)).thenReturn(Optional.empty());
+
+        assertThat(useCase.execute(payoutId)).isEqualTo(new ReleasePayoutOutcome.NotFound());
+    }
+}
@@ -0,0 +1,98 @@
+package com.luisovando.payout_service.benchmark;
+
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measurement helper for the {@code benchmark} tagged tests.
+ *
+ * <p>Reports wall time, and CPU time and allocated bytes normalized per operation. CPU and
+ * allocations are those of the calling thread and of the interactive lane threads, where
+ * {@code PayoutController} runs the use case of a request. Lane threads ending during a run
+ * are left out; the lane keeps idle threads alive for a minute.
+ */
+public final class BenchmarkRun {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final String LANE_THREAD = "payout-" + Bulkheads.INTERACTIVE + "-";
+
+    private BenchmarkRun() {
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+        void run(int iteration) throws Exception;
+    }
+
+    public record Result(String name, int operations, long wallNanos, long cpuNanos, long allocatedBytes) {
+        public double opsPerSecond() {
+            return operations * 1_000_000_000d / wallNanos;
+        }
+
+        public double cpuMicrosPerOp() {
+            return cpuNanos / 1_000d / operations;
+        }
+
+        public double allocatedBytesPerOp() {
+            return (double) allocatedBytes / operations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-28s %10.0f ops/s %10.2f us cpu/op %12.0f B/op",
+                    name, opsPerSecond(), cpuMicrosPerOp(), allocatedBytesPerOp());
+        }
+    }
+
+    /**
+     * Runs {@code warmup} untimed iterations followed by {@code operations} measured ones.
+     */
+    public static Result measure(String name, int warmup, int operations, Operation operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run(i);
+        }
+
+        Map<Long, long[]> before = usage();
+        long wallBefore = System.nanoTime();
+
+        for (int i = 0; i < operations; i++) {
+            operation.run(warmup + i);
+        }
+
+        long wall = System.nanoTime() - wallBefore;
+        long cpu = 0;
+        long allocated = 0;
+        for (Map.Entry<Long, long[]> after : usage().entrySet()) {
+            long[] started = before.getOrDefault(after.getKey(), new long[2]);
+            cpu += after.getValue()[0] - started[0];
+            allocated += after.getValue()[1] - started[1];
+        }
+
+        Result result = new Result(name, operations, wall, cpu, allocated);
+        System.out.println("[benchmark] " + result);
+        return result;
+    }
+
+    /**
+     * {@code [cpu nanos, allocated bytes]} so far of the calling thread and the lane threads, by thread id.
+     */
+    private static Map<Long, long[]> usage() {
+        Map<Long, long[]> usage = new HashMap<>();
+        Thread caller = Thread.currentThread();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread == caller || thread.getName().startsWith(LANE_THREAD)) {
+                long id = thread.getId();
+                long cpu = THREADS.getThreadCpuTime(id);
+                long allocated = THREADS.getThreadAllocatedBytes(id);
+                if (cpu >= 0 && allocated >= 0) {
+                    usage.put(id, new long[]{cpu, allocated});
+                }
+            }
+        }
+        return usage;
+    }
+}
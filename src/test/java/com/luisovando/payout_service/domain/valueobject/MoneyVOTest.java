@@ -58,4 +58,31 @@ public class MoneyVOTest {
         assertThat(money.amount()).isEqualByComparingTo("100.50");
         assertThat(money.currency().value()).isEqualTo("USD");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldConvertAndRoundToTargetCurrencyMinorUnits() {
+        MoneyVO money = MoneyVO.of(new BigDecimal("100.00"), "USD");
+
+        MoneyVO converted = money.convert(CurrencyVO.of("JPY"), new BigDecimal("149.8765432100"));
+
+        assertThat(converted.currency().value()).isEqualTo("JPY");
+        assertThat(converted.amount()).isEqualByComparingTo("14988");
+        assertThat(converted.amount().scale()).isZero();
+    }
+
+    @Test
+    void shouldRoundConversionHalfEven() {
+        MoneyVO money = MoneyVO.of(new BigDecimal("1.00"), "USD");
+
+        assertThat(money.convert(CurrencyVO.of("EUR"), new BigDecimal("0.125")).amount()).isEqualByComparingTo("0.12");
+        assertThat(money.convert(CurrencyVO.of("EUR"), new BigDecimal("0.135")).amount()).isEqualByComparingTo("0.14");
+    }
+
+    @Test
+    void shouldThrowWhenConversionRateIsNotPositive() {
+        MoneyVO money = MoneyVO.of(new BigDecimal("1.00"), "USD");
+
+        assertThatThrownBy(() -> money.convert(CurrencyVO.of("EUR"), BigDecimal.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,170 @@
+package com.luisovando.payout_service.infrastructure.archive;
+
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutTombstoneEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayoutArchiverTest {
+    private static final Instant NOW = Instant.parse("2026-06-01T00:00:00Z");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private PayoutTombstoneRepository tombstoneRepository;
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        payoutRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    private PayoutArchiveProperties properties() {
+        return new PayoutArchiveProperties(directory, Duration.ofDays(90), 2);
+    }
+
+    private PayoutArchiver archiver(PayoutArchive archive) {
+        return new PayoutArchiver(dataSource, transactionManager, archive, properties(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private PayoutEntity payout(UUID companyId, String amount, String status, Instant createdAt) {
+        PayoutEntity payout = payoutRepository.save(
+                PayoutEntity.createNew(companyId, new BigDecimal(amount), "USD", status, "key-" + UUID.randomUUID()));
+        new JdbcTemplate(dataSource).update("UPDATE payouts SET created_at = ?, updated_at = ? WHERE id = ?",
+                Timestamp.from(createdAt), Timestamp.from(createdAt.plusSeconds(60)), payout.getId());
+        return payout;
+    }
+
+    @Test
+    void shouldMoveOldSettledPayoutsToSegmentsByCompanyAndMonth() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        UUID otherCompanyId = UUID.randomUUID();
+        PayoutEntity january = payout(companyId, "10.00", "PAID", Instant.parse("2026-01-10T08:00:00Z"));
+        PayoutEntity januaryFailed = payout(companyId, "11.50", "FAILED", Instant.parse("2026-01-31T23:59:59Z"));
+        PayoutEntity february = payout(companyId, "12.00", "RETURNED", Instant.parse("2026-02-01T00:00:00Z"));
+        PayoutEntity other = payout(otherCompanyId, "13.00", "PAID", Instant.parse("2026-01-20T00:00:00Z"));
+        PayoutEntity unsettled = payout(companyId, "14.00", "CREATED", Instant.parse("2026-01-05T00:00:00Z"));
+        PayoutEntity recent = payout(companyId, "15.00", "PAID", NOW.minus(Duration.ofDays(10)));
+
+        PayoutArchive archive = new PayoutArchive(properties());
+        long archived = archiver(archive).archive();
+
+        assertThat(archived).isEqualTo(4);
+        assertThat(payoutRepository.findAll()).extracting(PayoutEntity::getId)
+                .containsExactlyInAnyOrder(unsettled.getId(), recent.getId());
+        assertThat(Files.isDirectory(directory.resolve(companyId.toString()).resolve("2026-01"))).isTrue();
+        assertThat(Files.isDirectory(directory.resolve(companyId.toString()).resolve("2026-02"))).isTrue();
+        assertThat(archive.companies()).containsExactlyInAnyOrder(companyId, otherCompanyId);
+
+        List<ArchivedPayout> all;
+        try (Stream<ArchivedPayout> payouts = archive.stream(companyId, null, null, EnumSet.allOf(ArchiveColumn.class))) {
+            all = payouts.toList();
+        }
+        assertThat(all).extracting(ArchivedPayout::id)
+                .containsExactlyInAnyOrder(january.getId(), januaryFailed.getId(), february.getId());
+        ArchivedPayout first = all.stream().filter(payout -> payout.id().equals(january.getId())).findFirst().orElseThrow();
+        assertThat(first.companyId()).isEqualTo(companyId);
+        assertThat(first.amount()).isEqualByComparingTo("10.00");
+        assertThat(first.currency()).isEqualTo("USD");
+        assertThat(first.status()).isEqualTo("PAID");
+        assertThat(first.idempotencyKey()).isEqualTo(january.getIdempotencyKey());
+        assertThat(first.createdAt()).isEqualTo(Instant.parse("2026-01-10T08:00:00Z"));
+        assertThat(first.updatedAt()).isEqualTo(Instant.parse("2026-01-10T08:01:00Z"));
+        assertThat(first.settlementAmount()).isNull();
+        assertThat(first.settledAmount()).isEqualByComparingTo("10.00");
+
+        try (Stream<ArchivedPayout> payouts = archive.stream(companyId,
+                Instant.parse("2026-01-15T00:00:00Z"), Instant.parse("2026-02-01T00:00:00Z"),
+                EnumSet.of(ArchiveColumn.ID, ArchiveColumn.AMOUNT))) {
+            List<ArchivedPayout> projected = payouts.toList();
+            assertThat(projected).extracting(ArchivedPayout::id).containsExactly(januaryFailed.getId());
+            assertThat(projected.get(0).amount()).isEqualByComparingTo("11.50");
+            assertThat(projected.get(0).status()).isNull();
+            assertThat(projected.get(0).idempotencyKey()).isNull();
+        }
+        try (Stream<ArchivedPayout> payouts = archive.stream(otherCompanyId, null, null, EnumSet.of(ArchiveColumn.ID))) {
+            assertThat(payouts).extracting(ArchivedPayout::id).containsExactly(other.getId());
+        }
+    }
+
+    @Test
+    void shouldKeepTheIdempotencyKeysOfArchivedPayoutsAsTombstones() {
+        UUID companyId = UUID.randomUUID();
+        PayoutEntity paid = payout(companyId, "10.00", "PAID", Instant.parse("2026-01-10T08:00:00Z"));
+        PayoutEntity unsettled = payout(companyId, "14.00", "CREATED", Instant.parse("2026-01-05T00:00:00Z"));
+
+        archiver(new PayoutArchive(properties())).archive();
+
+        assertThat(tombstoneRepository.findById(new PayoutTombstoneEntity.Key(companyId, unsettled.getIdempotencyKey())))
+                .isEmpty();
+        PayoutTombstoneEntity tombstone = tombstoneRepository
+                .findById(new PayoutTombstoneEntity.Key(companyId, paid.getIdempotencyKey())).orElseThrow();
+        assertThat(tombstone.getPayoutId()).isEqualTo(paid.getId());
+        assertThat(tombstone.getStatus()).isEqualTo("PAID");
+        assertThat(tombstone.getAmount()).isEqualByComparingTo("10.00");
+        assertThat(tombstone.getCurrency()).isEqualTo("USD");
+        assertThat(tombstone.getSettlementCurrency()).isEqualTo("USD");
+        assertThat(tombstone.getExecuteAt()).isNull();
+    }
+
+    @Test
+    void shouldRoundTripSettlementColumnsAndNullsThroughASegment() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        ArchivedPayout converted = new ArchivedPayout(UUID.randomUUID(), companyId, new BigDecimal("100.00"), "USD",
+                "PAID", "key-1", Instant.parse("2026-03-01T10:15:30.123456Z"), Instant.parse("2026-03-02T00:00:00Z"),
+                new BigDecimal("1712.3456"), "MXN", new BigDecimal("17.1234560000"), Instant.parse("2026-03-01T12:00:00Z"));
+        ArchivedPayout plain = new ArchivedPayout(UUID.randomUUID(), companyId, new BigDecimal("0.01"), "EUR",
+                "FAILED", "key-2", Instant.parse("2026-03-31T23:59:59Z"), Instant.parse("2026-04-01T00:00:00Z"),
+                null, null, null, null);
+
+        PayoutArchive archive = new PayoutArchive(properties());
+        Path segment = archive.write(companyId, YearMonth.of(2026, 3), List.of(converted, plain));
+
+        assertThat(segment.getFileName().toString()).endsWith(".pcol");
+        assertThat(ArchiveSegment.read(segment, companyId, EnumSet.allOf(ArchiveColumn.class)))
+                .containsExactly(converted, plain);
+        try (Stream<Path> files = Files.list(segment.getParent())) {
+            assertThat(files).containsExactly(segment);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.luisovando.payout_service.infrastructure.audit;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AuditJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRollSegmentsAndVerifyTheHashChain() throws Exception {
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            for (int i = 0; i < 1_050; i++) {
+                writer.append(event(i));
+            }
+        }
+
+        AuditJournalVerifier.Report report = AuditJournalVerifier.verify(directory, 4);
+
+        assertThat(report.valid()).isTrue();
+        assertThat(report.segments()).isEqualTo(11);
+        assertThat(report.records()).isEqualTo(1_050);
+        assertThat(report.firstSequence()).isEqualTo(1);
+        assertThat(report.lastSequence()).isEqualTo(1_050);
+    }
+
+    @Test
+    void shouldContinueTheChainAfterReopening() throws Exception {
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            for (int i = 0; i < 150; i++) {
+                writer.append(event(i));
+            }
+        }
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            assertThat(writer.nextSequence()).isEqualTo(151);
+            writer.append(event(150));
+        }
+
+        List<AuditRecord> records = new ArrayList<>();
+        AuditJournalVerifier.replay(directory, records::add);
+
+        assertThat(AuditJournalVerifier.verify(directory, 2).valid()).isTrue();
+        assertThat(records).hasSize(151);
+        assertThat(records.get(150).sequence()).isEqualTo(151);
+        assertThat(records.get(150).amount()).isEqualByComparingTo("150.25");
+    }
+
+    @Test
+    void shouldDetectTamperedRecords() throws Exception {
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            for (int i = 0; i < 50; i++) {
+                writer.append(event(i));
+            }
+        }
+
+        Path segment = AuditSegment.list(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(AuditSegment.recordOffset(10) + 48 + 7);
+            file.write(0x7F);
+        }
+
+        AuditJournalVerifier.Report report = AuditJournalVerifier.verify(directory, 1);
+
+        assertThat(report.valid()).isFalse();
+        assertThat(report.problems()).anyMatch(problem -> problem.contains("record 11 fails verification"));
+        assertThatThrownBy(() -> new AuditJournalWriter(directory, 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("corrupted");
+    }
+
+    @Test
+    void shouldChainTheSettlementExecutionTimeAndStatus() throws Exception {
+        Instant executeAt = Instant.parse("2026-06-01T10:00:00.123456Z");
+        PayoutCreatedEvent held = new PayoutCreatedEvent(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                MoneyVO.of(new BigDecimal("1000.00"), "MXN"),
+                MoneyVO.of(new BigDecimal("58.82"), "USD"),
+                "key-held",
+                "HELD",
+                Instant.now(),
+                executeAt
+        );
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            writer.append(event(0));
+            writer.append(held);
+        }
+
+        List<AuditRecord> records = new ArrayList<>();
+        AuditJournalVerifier.replay(directory, records::add);
+
+        assertThat(records.get(0).settlementAmount()).isEqualByComparingTo("0.25");
+        assertThat(records.get(0).executeAt()).isNull();
+        assertThat(records.get(0).status()).isEqualTo("CREATED");
+        assertThat(records.get(1).amount()).isEqualByComparingTo("1000.00");
+        assertThat(records.get(1).currency()).isEqualTo("MXN");
+        assertThat(records.get(1).settlementAmount()).isEqualByComparingTo("58.82");
+        assertThat(records.get(1).settlementCurrency()).isEqualTo("USD");
+        assertThat(records.get(1).executeAt()).isEqualTo(executeAt);
+        assertThat(records.get(1).status()).isEqualTo("HELD");
+
+        // rewrite HELD as CREATED
+        Path segment = AuditSegment.list(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(AuditSegment.recordOffset(1) + 88);
+            file.write("CREATED".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        assertThat(AuditJournalVerifier.verify(directory, 1).problems())
+                .anyMatch(problem -> problem.contains("record 2 fails verification"));
+    }
+
+    @Test
+    void shouldRefuseSegmentsWrittenInAnotherFormat() throws Exception {
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            writer.append(event(0));
+        }
+        Path segment = AuditSegment.list(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(4);
+            file.writeInt(1);
+        }
+
+        assertThatThrownBy(() -> new AuditJournalWriter(directory, 100))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unsupported audit journal segment format: " + segment
+                        + " (version 1, record size " + AuditRecord.SIZE + ")");
+    }
+
+    @Test
+    void shouldDiscardATornRecordAtTheTail() throws Exception {
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            for (int i = 0; i < 20; i++) {
+                writer.append(event(i));
+            }
+        }
+
+        Path segment = AuditSegment.list(directory).get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(AuditSegment.recordOffset(19) + AuditRecord.HASH_OFFSET);
+            file.write(new byte[AuditRecord.HASH_LENGTH]);
+        }
+
+        try (AuditJournalWriter writer = new AuditJournalWriter(directory, 100)) {
+            assertThat(writer.nextSequence()).isEqualTo(20);
+            writer.append(event(19));
+        }
+
+        assertThat(AuditJournalVerifier.verify(directory, 1).records()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldJournalEventsPublishedConcurrently() throws Exception {
+        AuditJournal journal = new AuditJournal(new AuditJournalProperties(
+                true, directory, 1_000, 1_024, Duration.ofMillis(10)), event -> {
+        });
+
+        int threads = 8;
+        int perThread = 2_500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    journal.onPayoutCreated(event(i));
+                }
+                done.countDown();
+            });
+        }
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        journal.close();
+
+        AuditJournalVerifier.Report report = AuditJournalVerifier.verify(directory, 4);
+        assertThat(report.valid()).isTrue();
+        assertThat(report.records()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void shouldRecordAGapForACommandThatCannotBeJournaled() throws Exception {
+        AuditJournal journal = new AuditJournal(new AuditJournalProperties(
+                true, directory, 100, 1_024, Duration.ofMillis(10)), event -> {
+        });
+        PayoutCreatedEvent unencodable = new PayoutCreatedEvent(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                MoneyVO.of(new BigDecimal("123456789012345678901234567890.25"), "USD"),
+                MoneyVO.of(new BigDecimal("123456789012345678901234567890.25"), "USD"),
+                "key-too-large",
+                "CREATED",
+                Instant.now(),
+                null
+        );
+
+        journal.onPayoutCreated(event(0));
+        journal.onPayoutCreated(unencodable);
+        journal.onPayoutCreated(event(2));
+        journal.close();
+
+        List<AuditRecord> records = new ArrayList<>();
+        AuditJournalVerifier.replay(directory, records::add);
+        AuditJournalVerifier.Report report = AuditJournalVerifier.verify(directory, 1);
+
+        assertThat(journal.gaps()).isEqualTo(1);
+        assertThat(journal.broken()).isFalse();
+        assertThat(records).extracting(AuditRecord::gap).containsExactly(false, true, false);
+        assertThat(records.get(1).payoutId()).isEqualTo(unencodable.payoutId());
+        assertThat(report.records()).isEqualTo(3);
+        assertThat(report.gaps()).isEqualTo(1);
+        assertThat(report.problems()).containsExactly(
+                AuditSegment.list(directory).get(0).getFileName() + ": record 2 is a gap: payout "
+                        + unencodable.payoutId() + " was not journaled");
+    }
+
+    @Test
+    void shouldRefuseTrafficWhenNotEvenAGapCanBeWritten() throws Exception {
+        List<Object> published = new ArrayList<>();
+        AuditJournal journal = new AuditJournal(new AuditJournalProperties(
+                true, directory, 1, 1_024, Duration.ofMillis(10)), published::add);
+        // the second segment cannot be created, so neither the record nor its gap fits
+        Files.createDirectories(AuditSegment.fileFor(directory, 2));
+
+        journal.onPayoutCreated(event(0));
+        journal.onPayoutCreated(event(1));
+        journal.close();
+
+        assertThat(journal.broken()).isTrue();
+        assertThat(journal.lost()).isEqualTo(1);
+        assertThat(published).singleElement()
+                .isInstanceOfSatisfying(AvailabilityChangeEvent.class,
+                        event -> assertThat(event.getState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC));
+    }
+
+    private static PayoutCreatedEvent event(int i) {
+        return new PayoutCreatedEvent(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                MoneyVO.of(new BigDecimal(i + ".25"), "USD"),
+                MoneyVO.of(new BigDecimal(i + ".25"), "USD"),
+                "key-" + i,
+                "CREATED",
+                Instant.now(),
+                null
+        );
+    }
+}
@@ -0,0 +1,289 @@
+package com.luisovando.payout_service.infrastructure.bulkhead;
+
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRollupRepository;
+import com.luisovando.payout_service.infrastructure.rollup.PayoutRollupRebuilder;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Records which threads take connections from which pool while requests go through the
+ * controller and the background components do their work, and measures creates while the
+ * bulk lane and pool are saturated.
+ */
+@SpringBootTest(properties = {
+        "payouts.warmup.enabled=false",
+        "payouts.scheduler.tick=50ms",
+        "payouts.rollups.flush-interval=50ms",
+        "payouts.rollups.rebuild-partitions=4",
+        "payouts.bulkheads.bulk-threads=8",
+        "payouts.bulkheads.bulk-queue-capacity=16",
+        "payouts.command-log.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BulkheadIsolationTest {
+    private static final int OPERATIONS = 200;
+    private static final long BULK_HOLD_MILLIS = 400;
+    private static final String INTERACTIVE_THREAD = "payout-" + Bulkheads.INTERACTIVE + "-";
+    private static final Set<String> BULK_THREADS = Set.of(
+            "payout-scheduler", "payout-callbacks", "payout-rollups", "command-log-consumer", "payout-" + Bulkheads.BULK + "-");
+
+    @TempDir
+    static Path commandLog;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConnectionOwners connectionOwners;
+
+    @Autowired
+    private PayoutRollupRebuilder rollupRebuilder;
+
+    @Autowired
+    @Qualifier(Bulkheads.BULK)
+    private DataSource bulkDataSource;
+
+    @Autowired
+    @Qualifier(Bulkheads.BULK)
+    private HikariDataSource bulkPool;
+
+    @Autowired
+    @Qualifier(Bulkheads.BULK)
+    private BulkheadExecutor bulkLane;
+
+    @Autowired
+    @Qualifier(Bulkheads.INTERACTIVE)
+    private BulkheadExecutor interactiveLane;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private PayoutRollupRepository rollupRepository;
+
+    @DynamicPropertySource
+    static void commandLog(DynamicPropertyRegistry registry) {
+        registry.add("payouts.command-log.directory", () -> commandLog.toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionOwners.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        payoutRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void shouldTakeInteractiveAndBulkConnectionsFromTheirOwnPools() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        create(companyId, "bulkheads-now", null);
+        UUID scheduled = create(companyId, "bulkheads-scheduled", Instant.now().plusMillis(200));
+        UUID paid = payoutRepository.findByCompanyIdAndIdempotencyKey(companyId, "bulkheads-now").orElseThrow().getId();
+        mockMvc.perform(post("/payouts/callbacks").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"payoutId\": \"%s\", \"status\": \"PAID\"}".formatted(paid)))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).header("Prefer", "respond-async")
+                        .content(body(companyId, "bulkheads-async", null)))
+                .andExpect(status().isAccepted());
+
+        JdbcTemplate bulkJdbc = new JdbcTemplate(bulkDataSource);
+        awaitUntil(() -> "CREATED".equals(bulkJdbc.queryForObject(
+                "SELECT status FROM payouts WHERE id = ?", String.class, scheduled)));
+        awaitUntil(() -> "PAID".equals(bulkJdbc.queryForObject(
+                "SELECT status FROM payouts WHERE id = ?", String.class, paid)));
+        awaitUntil(() -> connectionOwners.threads(Bulkheads.BULK).contains("payout-rollups"));
+        awaitUntil(() -> payoutRepository.findByCompanyIdAndIdempotencyKey(companyId, "bulkheads-async").isPresent());
+        // the schema generated for tests lacks the created_at default of the migrations
+        bulkJdbc.update("UPDATE payouts SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL");
+        rollupRebuilder.rebuild();
+
+        Set<String> interactive = connectionOwners.threads(Bulkheads.INTERACTIVE);
+        Set<String> bulk = connectionOwners.threads(Bulkheads.BULK);
+        assertThat(interactive).anyMatch(thread -> thread.startsWith(INTERACTIVE_THREAD));
+        assertThat(interactive).noneMatch(BulkheadIsolationTest::isBulkThread);
+        assertThat(bulk).contains("payout-scheduler", "payout-callbacks", "payout-rollups", "command-log-consumer");
+        assertThat(bulk).anyMatch(thread -> thread.startsWith("payout-" + Bulkheads.BULK + "-"));
+        assertThat(bulk).noneMatch(thread -> thread.startsWith(INTERACTIVE_THREAD));
+    }
+
+    @Test
+    void shouldKeepInteractiveP99StableWhileTheBulkLaneAndPoolAreSaturated() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        long baselineP99 = createP99Micros(companyId, "baseline-");
+        long interactiveRejected = interactiveLane.stats().rejected();
+        long bulkRejected = bulkLane.stats().rejected();
+
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        AtomicBoolean loading = new AtomicBoolean(true);
+        try {
+            for (int i = 0; i < 4; i++) {
+                producers.submit(() -> {
+                    while (loading.get()) {
+                        bulkLane.submit(() -> holdBulkConnection(loading));
+                    }
+                    return null;
+                });
+            }
+            awaitUntil(() -> bulkLane.stats().rejected() > bulkRejected
+                    && bulkPool.getHikariPoolMXBean().getThreadsAwaitingConnection() > 0);
+
+            long saturatedP99 = createP99Micros(companyId, "saturated-");
+
+            // bulk work is still piling up behind its own threads and connections
+            assertThat(bulkLane.stats().queued()).isPositive();
+            assertThat(bulkPool.getHikariPoolMXBean().getActiveConnections()).isEqualTo(bulkPool.getMaximumPoolSize());
+            assertThat(bulkPool.getHikariPoolMXBean().getThreadsAwaitingConnection()).isPositive();
+            assertThat(interactiveLane.stats().rejected()).isEqualTo(interactiveRejected);
+            // sharing the bulk threads or connections would cost up to a whole bulk task per create
+            assertThat(saturatedP99)
+                    .as("interactive p99 %dus, baseline %dus", saturatedP99, baselineP99)
+                    .isLessThan(TimeUnit.MILLISECONDS.toMicros(BULK_HOLD_MILLIS / 2));
+        } finally {
+            loading.set(false);
+            producers.shutdown();
+            assertThat(producers.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            awaitUntil(() -> bulkLane.stats().active() == 0 && bulkLane.stats().queued() == 0);
+        }
+    }
+
+    /**
+     * Creates {@link #OPERATIONS} payouts through the controller, failing on any other answer
+     * than {@code 201}, e.g. a {@code 503} of a full interactive lane.
+     */
+    private long createP99Micros(UUID companyId, String keyPrefix) throws Exception {
+        long[] latencies = new long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            long started = System.nanoTime();
+            mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON)
+                            .content(body(companyId, keyPrefix + i, null)))
+                    .andExpect(status().isCreated());
+            latencies[i] = (System.nanoTime() - started) / 1_000;
+        }
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(OPERATIONS * 0.99) - 1];
+    }
+
+    /**
+     * Holds a bulk connection for {@link #BULK_HOLD_MILLIS}, or until the load stops.
+     */
+    private Void holdBulkConnection(AtomicBoolean loading) throws Exception {
+        try (Connection connection = bulkPool.getConnection()) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BULK_HOLD_MILLIS);
+            while (loading.get() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        return null;
+    }
+
+    private UUID create(UUID companyId, String idempotencyKey, Instant executeAt) throws Exception {
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body(companyId, idempotencyKey, executeAt)))
+                .andExpect(status().isCreated());
+        return payoutRepository.findByCompanyIdAndIdempotencyKey(companyId, idempotencyKey).orElseThrow().getId();
+    }
+
+    private static String body(UUID companyId, String idempotencyKey, Instant executeAt) {
+        return """
+                {
+                    "companyId": "%s",
+                    "amount": "10.00",
+                    "currency": "USD",
+                    "idempotencyKey": "%s"%s
+                }
+                """.formatted(companyId, idempotencyKey,
+                executeAt == null ? "" : ",\n\"executeAt\": \"" + executeAt + "\"");
+    }
+
+    private static boolean isBulkThread(String thread) {
+        return BULK_THREADS.stream().anyMatch(thread::startsWith);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class ConnectionOwnersConfiguration {
+        @Bean
+        static ConnectionOwners connectionOwners() {
+            return new ConnectionOwners();
+        }
+    }
+
+    /**
+     * Names of the threads that took a connection, per pool. Connection acquisition is
+     * tracked on the borrowing thread.
+     */
+    static class ConnectionOwners implements BeanPostProcessor {
+        private final Map<String, Set<String>> threadsByPool = new ConcurrentHashMap<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                MetricsTrackerFactory tracking = (poolName, poolStats) -> new IMetricsTracker() {
+                    @Override
+                    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                        threads(poolName).add(Thread.currentThread().getName());
+                    }
+                };
+                pool.setMetricsTrackerFactory(tracking);
+            }
+            return bean;
+        }
+
+        Set<String> threads(String pool) {
+            return threadsByPool.computeIfAbsent(pool, name -> ConcurrentHashMap.newKeySet());
+        }
+
+        void clear() {
+            threadsByPool.values().forEach(Set::clear);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.luisovando.payout_service.infrastructure.callback;
+
+import com.luisovando.payout_service.benchmark.BenchmarkRun;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 100k provider callbacks for 25k payouts: a burst of PROCESSING, the same burst again,
+ * PAID, then late PROCESSING callbacks that must not move payouts back.
+ */
+@Tag("benchmark")
+@DataJpaTest
+// UPDATE ... FROM needs the PostgreSQL mode of the configured H2 database
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayoutCallbackIngestorBenchmarkTest {
+    private static final int PAYOUTS = 25_000;
+    private static final int CALLBACKS = 100_000;
+    private static final PayoutStatus[] ROUNDS = {
+            PayoutStatus.PROCESSING, PayoutStatus.PROCESSING, PayoutStatus.PAID, PayoutStatus.PROCESSING
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).update("DELETE FROM payouts");
+    }
+
+    @Test
+    void shouldApply100kCallbacksInBatches() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<UUID> ids = new ArrayList<>(PAYOUTS);
+        List<Object[]> rows = new ArrayList<>(PAYOUTS);
+        for (int i = 0; i < PAYOUTS; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            rows.add(new Object[]{id, UUID.randomUUID(), "key-" + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO payouts (id, company_id, amount, currency, status, idempotency_key, created_at, updated_at)"
+                        + " VALUES (?, ?, 10.00, 'USD', 'CREATED', ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                rows);
+
+        PayoutCallbackIngestor ingestor = new PayoutCallbackIngestor(dataSource, transactionManager, event -> {
+        }, new PayoutCallbackProperties(1_000, Duration.ofMillis(50), 200_000));
+
+        BenchmarkRun.measure("callbacks (batched)", 0, CALLBACKS, i -> {
+            ingestor.offer(ids.get(i % PAYOUTS), ROUNDS[i / PAYOUTS]);
+            if (i % 10_000 == 9_999) {
+                ingestor.flush();
+            }
+        });
+
+        assertThat(ingestor.stats().applied()).isEqualTo(2L * PAYOUTS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payouts WHERE status = 'PAID'", Integer.class))
+                .isEqualTo(PAYOUTS);
+    }
+}
@@ -0,0 +1,147 @@
+package com.luisovando.payout_service.infrastructure.callback;
+
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+// UPDATE ... FROM needs the PostgreSQL mode of the configured H2 database
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayoutCallbackIngestorTest {
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<PayoutStatusChangedEvent> events = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        payoutRepository.deleteAll();
+    }
+
+    private PayoutCallbackIngestor ingestor(int batchSize, int maxPending) {
+        return new PayoutCallbackIngestor(dataSource, transactionManager,
+                event -> events.add((PayoutStatusChangedEvent) event),
+                new PayoutCallbackProperties(batchSize, Duration.ofMillis(50), maxPending),
+                Clock.fixed(Instant.parse("2026-05-01T09:00:00Z"), ZoneOffset.UTC));
+    }
+
+    private PayoutEntity payout(PayoutStatus status) {
+        return payoutRepository.save(PayoutEntity.createNew(UUID.randomUUID(), new BigDecimal("10.00"), "USD",
+                status.name(), "key-" + UUID.randomUUID()));
+    }
+
+    private String statusOf(PayoutEntity payout) {
+        return payoutRepository.findById(payout.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    void shouldApplyValidTransitionsAndIgnoreDuplicatesAndOutOfOrderCallbacks() {
+        PayoutEntity processing = payout(PayoutStatus.CREATED);
+        PayoutEntity paid = payout(PayoutStatus.CREATED);
+        PayoutEntity scheduled = payout(PayoutStatus.SCHEDULED);
+        PayoutCallbackIngestor ingestor = ingestor(2, 100);
+
+        ingestor.offer(processing.getId(), PayoutStatus.PROCESSING);
+        ingestor.offer(processing.getId(), PayoutStatus.PROCESSING);
+        ingestor.offer(paid.getId(), PayoutStatus.PAID);
+        ingestor.offer(scheduled.getId(), PayoutStatus.PAID);
+        ingestor.offer(UUID.randomUUID(), PayoutStatus.FAILED);
+        ingestor.flush();
+
+        assertThat(statusOf(processing)).isEqualTo("PROCESSING");
+        assertThat(statusOf(paid)).isEqualTo("PAID");
+        assertThat(statusOf(scheduled)).isEqualTo("SCHEDULED");
+
+        // a late PROCESSING after PAID does not move the payout back
+        ingestor.offer(paid.getId(), PayoutStatus.PROCESSING);
+        ingestor.offer(processing.getId(), PayoutStatus.FAILED);
+        ingestor.flush();
+
+        assertThat(statusOf(paid)).isEqualTo("PAID");
+        assertThat(statusOf(processing)).isEqualTo("FAILED");
+        assertThat(events).extracting(PayoutStatusChangedEvent::to)
+                .containsExactlyInAnyOrder(PayoutStatus.PROCESSING, PayoutStatus.PAID, PayoutStatus.FAILED);
+        assertThat(ingestor.stats()).isEqualTo(new PayoutCallbackIngestor.Stats(7, 1, 3, 3, 0, 0));
+    }
+
+    @Test
+    void shouldWalkThroughStatusesBufferedInTheSameWindowInLifecycleOrder() {
+        PayoutEntity returned = payout(PayoutStatus.CREATED);
+        PayoutCallbackIngestor ingestor = ingestor(100, 100);
+
+        ingestor.offer(returned.getId(), PayoutStatus.RETURNED);
+        ingestor.offer(returned.getId(), PayoutStatus.PROCESSING);
+        ingestor.offer(returned.getId(), PayoutStatus.PAID);
+        ingestor.flush();
+
+        assertThat(statusOf(returned)).isEqualTo("RETURNED");
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.from()).isEqualTo(PayoutStatus.CREATED);
+            assertThat(event.to()).isEqualTo(PayoutStatus.RETURNED);
+        });
+    }
+
+    @Test
+    void shouldHoldAndCountPayoutsReportedBothPaidAndFailed() {
+        PayoutEntity sameWindow = payout(PayoutStatus.CREATED);
+        PayoutEntity acrossWindows = payout(PayoutStatus.PROCESSING);
+        PayoutCallbackIngestor ingestor = ingestor(100, 100);
+
+        ingestor.offer(sameWindow.getId(), PayoutStatus.PROCESSING);
+        ingestor.offer(sameWindow.getId(), PayoutStatus.PAID);
+        ingestor.offer(sameWindow.getId(), PayoutStatus.FAILED);
+        ingestor.offer(acrossWindows.getId(), PayoutStatus.FAILED);
+        ingestor.flush();
+
+        assertThat(statusOf(sameWindow)).isEqualTo("PROCESSING");
+        assertThat(statusOf(acrossWindows)).isEqualTo("FAILED");
+
+        ingestor.offer(acrossWindows.getId(), PayoutStatus.PAID);
+        ingestor.flush();
+
+        assertThat(statusOf(acrossWindows)).isEqualTo("FAILED");
+        assertThat(events).extracting(PayoutStatusChangedEvent::to)
+                .containsExactlyInAnyOrder(PayoutStatus.PROCESSING, PayoutStatus.FAILED);
+        assertThat(ingestor.stats().contradictions()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRefuseNewPayoutsWhenTheBufferIsFull() {
+        PayoutCallbackIngestor ingestor = ingestor(100, 1);
+        UUID buffered = UUID.randomUUID();
+
+        assertThat(ingestor.offer(buffered, PayoutStatus.PROCESSING)).isTrue();
+        assertThat(ingestor.offer(UUID.randomUUID(), PayoutStatus.PROCESSING)).isFalse();
+        assertThat(ingestor.offer(buffered, PayoutStatus.PAID)).isTrue();
+    }
+}
@@ -0,0 +1,255 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import com.luisovando.payout_service.application.duplicates.NearDuplicateDetector;
+import com.luisovando.payout_service.application.duplicates.NearDuplicateProperties;
+import com.luisovando.payout_service.application.fx.FxRateService;
+import com.luisovando.payout_service.application.limits.PayoutLimits;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.domain.fx.FxRateSnapshot;
+import com.luisovando.payout_service.domain.valueobject.CurrencyVO;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncPayoutIntakeTest {
+    private static final UUID COMPANY_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    @TempDir
+    Path directory;
+
+    private final CreatePayoutUseCase createPayoutUseCase = mock(CreatePayoutUseCase.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final CommandStatusStore statusStore = mock(CommandStatusStore.class);
+    private final Map<UUID, CommandStatus> recorded = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            List<CommandStatus> statuses = invocation.getArgument(0);
+            statuses.forEach(status -> recorded.putIfAbsent(status.commandId(), status));
+            return null;
+        }).when(statusStore).record(any());
+        when(statusStore.find(any())).thenAnswer(invocation -> Optional.ofNullable(recorded.get(invocation.<UUID>getArgument(0))));
+    }
+
+    private AsyncPayoutIntake intake(int maxAttempts) throws IOException {
+        return intake(directory, maxAttempts, Duration.ofMillis(10));
+    }
+
+    private AsyncPayoutIntake intake(Path directory, int maxAttempts, Duration retryBackoff) throws IOException {
+        return new AsyncPayoutIntake(new CommandLogProperties(true, directory, 4_096, 1_024, 64,
+                Duration.ofSeconds(5), 100_000, maxAttempts, retryBackoff, Duration.ofDays(7)),
+                createPayoutUseCase, statusStore, transactionManager);
+    }
+
+    private static CreatePayoutCommand command(String key) {
+        return new CreatePayoutCommand(COMPANY_ID, MoneyVO.of(new BigDecimal("10.25"), "USD"), key,
+                CurrencyVO.of("EUR"), Instant.parse("2026-06-01T10:00:00.123456Z"));
+    }
+
+    private static void awaitState(AsyncPayoutIntake intake, UUID commandId, CommandStatus.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Optional<CommandStatus> status = intake.status(commandId);
+            if (status.isPresent() && status.get().state() == state) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        assertThat(intake.status(commandId)).get().extracting(CommandStatus::state).isEqualTo(state);
+    }
+
+    @Test
+    void shouldMakeConcurrentCommandsDurableAndApplyEachOne() throws Exception {
+        Map<String, CreatePayoutCommand> applied = new ConcurrentHashMap<>();
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class))).thenAnswer(invocation -> {
+            CreatePayoutCommand command = invocation.getArgument(0);
+            applied.put(command.idempotencyKey(), command);
+            return new CreatePayoutOutcome.Created(UUID.randomUUID(), "CREATED");
+        });
+
+        List<UUID> commandIds = new ArrayList<>();
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(10))) {
+            ExecutorService clients = Executors.newFixedThreadPool(8);
+            List<Future<Optional<UUID>>> submitted = new ArrayList<>();
+            for (int i = 0; i < 800; i++) {
+                String key = "key-" + i;
+                submitted.add(clients.submit(() -> handle.intake.submit(command(key))));
+            }
+            for (Future<Optional<UUID>> future : submitted) {
+                commandIds.add(future.get().orElseThrow());
+            }
+            clients.shutdown();
+
+            for (UUID commandId : commandIds) {
+                awaitState(handle.intake, commandId, CommandStatus.State.COMPLETED);
+            }
+        }
+
+        assertThat(applied).hasSize(800);
+        assertThat(applied.get("key-7")).isEqualTo(command("key-7"));
+        // 4 KiB segments roll often; applied ones are deleted behind the checkpoint
+        assertThat(CommandLogSegments.list(directory)).hasSizeLessThan(3);
+    }
+
+    @Test
+    void shouldApplyDurableCommandsAfterARestartAndIgnoreATornTail() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        UUID commandId;
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(Integer.MAX_VALUE))) {
+            commandId = handle.intake.submit(command("restart-key")).orElseThrow();
+            assertThat(handle.intake.status(commandId)).get()
+                    .extracting(CommandStatus::state).isEqualTo(CommandStatus.State.PENDING);
+        }
+        Path segment = CommandLogSegments.list(directory).get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        List<CreatePayoutCommand> applied = new CopyOnWriteArrayList<>();
+        UUID payoutId = UUID.randomUUID();
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class))).thenAnswer(invocation -> {
+            applied.add(invocation.getArgument(0));
+            return new CreatePayoutOutcome.Replayed(payoutId, "CREATED");
+        });
+
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(10))) {
+            awaitState(handle.intake, commandId, CommandStatus.State.COMPLETED);
+            assertThat(handle.intake.status(commandId)).get()
+                    .extracting(CommandStatus::payoutId).isEqualTo(payoutId);
+
+            UUID next = handle.intake.submit(command("after-restart")).orElseThrow();
+            awaitState(handle.intake, next, CommandStatus.State.COMPLETED);
+        }
+        assertThat(applied).containsExactly(command("restart-key"), command("after-restart"));
+    }
+
+    @Test
+    void shouldReportRejectedAndFailedCommands() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class))).thenAnswer(invocation -> {
+            CreatePayoutCommand command = invocation.getArgument(0);
+            if (command.idempotencyKey().equals("conflict")) {
+                return new CreatePayoutOutcome.Conflict("Money amount differs from existing payout");
+            }
+            throw new IllegalStateException("boom");
+        });
+
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(3))) {
+            UUID conflict = handle.intake.submit(command("conflict")).orElseThrow();
+            UUID failing = handle.intake.submit(command("failing")).orElseThrow();
+
+            awaitState(handle.intake, conflict, CommandStatus.State.REJECTED);
+            awaitState(handle.intake, failing, CommandStatus.State.FAILED);
+            assertThat(handle.intake.status(conflict)).get()
+                    .extracting(CommandStatus::code).isEqualTo("IDEMPOTENCY_CONFLICT");
+        }
+    }
+
+    @Test
+    void shouldAnswerStatusesAfterARestartAndOnOtherNodes() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        UUID pending;
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(Integer.MAX_VALUE))) {
+            pending = handle.intake.submit(command("pending-key")).orElseThrow();
+        }
+        try (AsyncIntakeHandle restarted = new AsyncIntakeHandle(intake(Integer.MAX_VALUE))) {
+            assertThat(restarted.intake.status(pending)).get()
+                    .extracting(CommandStatus::state).isEqualTo(CommandStatus.State.PENDING);
+        }
+
+        UUID payoutId = UUID.randomUUID();
+        doReturn(new CreatePayoutOutcome.Created(payoutId, "CREATED")).when(createPayoutUseCase).execute(any());
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(10))) {
+            awaitState(handle.intake, pending, CommandStatus.State.COMPLETED);
+        }
+        try (AsyncIntakeHandle otherNode = new AsyncIntakeHandle(intake(directory.resolve("other-node"), 10, Duration.ofMillis(10)))) {
+            assertThat(otherNode.intake.status(pending)).get()
+                    .extracting(CommandStatus::state, CommandStatus::payoutId)
+                    .containsExactly(CommandStatus.State.COMPLETED, payoutId);
+            assertThat(otherNode.intake.status(UUID.randomUUID())).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldSkipCommandsFailingDeterministicallyWithoutRetrying() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenThrow(new IllegalArgumentException("amount must be greater than 0"));
+
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(intake(directory, 10, Duration.ofSeconds(1)))) {
+            UUID commandId = handle.intake.submit(command("deterministic")).orElseThrow();
+
+            awaitState(handle.intake, commandId, CommandStatus.State.FAILED);
+        }
+        // once in the batch, once on its own, never again
+        verify(createPayoutUseCase, times(2)).execute(command("deterministic"));
+        assertThat(recorded.values()).extracting(CommandStatus::state).containsExactly(CommandStatus.State.FAILED);
+    }
+
+    @Test
+    void shouldRejectCommandsWhoseSettlementAmountRoundsToZeroWithoutRetrying() throws Exception {
+        CreatePayoutUseCase realUseCase = spy(new CreatePayoutUseCase(mock(PayoutRepository.class),
+                mock(PayoutTombstoneRepository.class), mock(ApplicationEventPublisher.class),
+                new FxRateService(() -> new FxRateSnapshot("USD",
+                        Map.of("USD", BigDecimal.ONE, "MXN", new BigDecimal("17.0512")), Instant.parse("2026-01-01T00:00:00Z"))),
+                mock(PayoutLimits.class),
+                new NearDuplicateDetector(new NearDuplicateProperties(NearDuplicateProperties.Mode.FLAG, Duration.ofMinutes(10), 10))));
+        CreatePayoutCommand tiny = new CreatePayoutCommand(COMPANY_ID, MoneyVO.of(new BigDecimal("0.01"), "MXN"), "tiny",
+                CurrencyVO.of("USD"), null);
+
+        try (AsyncIntakeHandle handle = new AsyncIntakeHandle(new AsyncPayoutIntake(new CommandLogProperties(true, directory,
+                4_096, 1_024, 64, Duration.ofSeconds(5), 100_000, 10, Duration.ofSeconds(1), Duration.ofDays(7)),
+                realUseCase, statusStore, transactionManager))) {
+            UUID commandId = handle.intake.submit(tiny).orElseThrow();
+
+            awaitState(handle.intake, commandId, CommandStatus.State.REJECTED);
+            assertThat(handle.intake.status(commandId)).get()
+                    .extracting(CommandStatus::code).isEqualTo("VALIDATION_ERROR");
+        }
+        verify(realUseCase, times(1)).execute(tiny);
+    }
+
+    private record AsyncIntakeHandle(AsyncPayoutIntake intake) implements AutoCloseable {
+        @Override
+        public void close() throws Exception {
+            intake.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CommandLogWriterTest {
+    @TempDir
+    Path directory;
+
+    private static LoggedCommand command(String key) {
+        return new LoggedCommand(UUID.randomUUID(), Instant.parse("2026-06-01T10:00:00Z"), new CreatePayoutCommand(
+                UUID.fromString("11111111-1111-1111-1111-111111111111"), MoneyVO.of(new BigDecimal("10.25"), "USD"), key));
+    }
+
+    @Test
+    void shouldCutOffABatchTornMidWriteSoLaterBatchesStayReadable() throws Exception {
+        LoggedCommand first = command("first");
+        LoggedCommand torn = command("torn");
+        LoggedCommand last = command("last");
+        FailingChannel[] current = new FailingChannel[1];
+        LogPosition end;
+
+        try (CommandLogWriter writer = new CommandLogWriter(directory, 4_096, file -> current[0] = new FailingChannel(
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)))) {
+            LogPosition afterFirst = writer.append(List.of(first.encode()));
+
+            current[0].failNextWrite = true;
+            assertThatThrownBy(() -> writer.append(List.of(torn.encode())))
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("disk full");
+            assertThat(writer.end()).isEqualTo(afterFirst);
+            assertThat(current[0].size()).isEqualTo(afterFirst.offset());
+
+            end = writer.append(List.of(last.encode()));
+        }
+
+        try (CommandLogWriter reopened = new CommandLogWriter(directory, 4_096);
+             CommandLogReader reader = new CommandLogReader(directory)) {
+            assertThat(reopened.end()).isEqualTo(end);
+            assertThat(reader.read(new LogPosition(0, 0), end, 10))
+                    .extracting(CommandLogReader.Entry::command)
+                    .containsExactly(first, last);
+        }
+    }
+
+    /**
+     * Writes the first buffer of the next gathering write, the frame header, then fails.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        boolean failNextWrite;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (failNextWrite) {
+                failNextWrite = false;
+                delegate.write(srcs[offset]);
+                throw new IOException("disk full");
+            }
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
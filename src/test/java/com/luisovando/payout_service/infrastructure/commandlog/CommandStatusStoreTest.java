@@ -0,0 +1,71 @@
+package com.luisovando.payout_service.infrastructure.commandlog;
+
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutCommandRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CommandStatusStoreTest {
+    private static final Instant NOW = Instant.parse("2026-06-01T00:00:00Z");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PayoutCommandRepository commandRepository;
+
+    @AfterEach
+    void tearDown() {
+        commandRepository.deleteAll();
+    }
+
+    private CommandStatusStore store(Instant now) {
+        return new CommandStatusStore(dataSource, commandRepository, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldKeepTheFirstOutcomeOfACommandAppliedTwice() {
+        UUID commandId = UUID.randomUUID();
+        UUID payoutId = UUID.randomUUID();
+        UUID rejectedId = UUID.randomUUID();
+        CommandStatus completed = CommandStatus.completed(commandId, payoutId, "CREATED");
+        CommandStatus rejected = CommandStatus.rejected(rejectedId, "LIMIT_EXCEEDED", "daily limit exceeded");
+
+        store(NOW).record(List.of(completed, rejected));
+        // re-applied after a restart, replayed against the payout it created
+        store(NOW).record(List.of(CommandStatus.completed(commandId, payoutId, "PAID")));
+
+        assertThat(store(NOW).find(commandId)).contains(completed);
+        assertThat(store(NOW).find(rejectedId)).contains(rejected);
+        assertThat(store(NOW).find(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void shouldPruneOutcomesRecordedBeforeTheCutoff() {
+        UUID old = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        store(NOW.minus(Duration.ofDays(8))).record(List.of(CommandStatus.completed(old, UUID.randomUUID(), "CREATED")));
+        store(NOW).record(List.of(CommandStatus.completed(recent, UUID.randomUUID(), "CREATED")));
+
+        assertThat(store(NOW).prune(NOW.minus(Duration.ofDays(7)))).isEqualTo(1);
+        assertThat(store(NOW).find(old)).isEmpty();
+        assertThat(store(NOW).find(recent)).isPresent();
+    }
+}
@@ -0,0 +1,45 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the test context leaves JMX off unless asked
+@SpringBootTest(properties = "spring.jmx.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ActuatorExposureTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MBeanServer mBeanServer;
+
+    @Test
+    void shouldKeepSensitiveEndpointsOffHttp() throws Exception {
+        mockMvc.perform(get("/actuator"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.health").exists())
+                .andExpect(jsonPath("$._links.jfr").doesNotExist())
+                .andExpect(jsonPath("$._links.tenants").doesNotExist())
+                .andExpect(jsonPath("$._links.rollups").doesNotExist());
+    }
+
+    @Test
+    void shouldExposeSensitiveEndpointsOverJmx() throws Exception {
+        assertThat(mBeanServer.queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Jfr,*"), null)).isNotEmpty();
+        assertThat(mBeanServer.queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Tenants,*"), null)).isNotEmpty();
+        assertThat(mBeanServer.queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Rollups,*"), null)).isNotEmpty();
+    }
+}
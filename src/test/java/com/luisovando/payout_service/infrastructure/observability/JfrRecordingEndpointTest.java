@@ -0,0 +1,67 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrRecordingEndpointTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRecordPayoutEventsAndReturnTheFile() throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(
+                new JfrRecordingProperties(directory, Duration.ofSeconds(30), Duration.ofMinutes(1)));
+
+        WebEndpointResponse<Map<String, Object>> started = endpoint.start(10, null);
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.start(10, null).getStatus()).isEqualTo(409);
+
+        UUID companyId = UUID.randomUUID();
+        CreatePayoutStageEvent.start(CreatePayoutStageEvent.LOOKUP).complete(companyId, "not-found");
+        CreatePayoutRequestEvent.start().complete(companyId, "created", 201);
+
+        long id = (Long) started.getBody().get("id");
+        assertThat(endpoint.recording(id).getStatus()).isEqualTo(409);
+        assertThat(endpoint.status().get("state")).isEqualTo("RUNNING");
+
+        assertThat(endpoint.stop(id).getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        WebEndpointResponse<Resource> dump = endpoint.recording(id);
+        assertThat(dump.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getBody().getFile().toPath());
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.luisovando.payout.CreatePayoutStage");
+            assertThat(event.getString("stage")).isEqualTo("lookup");
+            assertThat(event.getString("companyId")).isEqualTo(companyId.toString());
+            assertThat(event.getString("outcome")).isEqualTo("not-found");
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.luisovando.payout.CreatePayoutRequest");
+            assertThat(event.getInt("httpStatus")).isEqualTo(201);
+        });
+        assertThat(endpoint.status().get("state")).isIn("STOPPED", "CLOSED");
+    }
+
+    @Test
+    void shouldRejectDurationsAboveTheLimit() throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(
+                new JfrRecordingProperties(directory, Duration.ofSeconds(30), Duration.ofMinutes(1)));
+
+        assertThat(endpoint.start(3_600, null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+        assertThat(endpoint.recording(1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(endpoint.stop(1).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+        assertThat(endpoint.status().get("state")).isEqualTo("NONE");
+    }
+}
@@ -0,0 +1,140 @@
+package com.luisovando.payout_service.infrastructure.observability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TenantActivityTrackerTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-05-01T09:00:00Z"));
+
+    private TenantActivityTracker tracker() {
+        return new TenantActivityTracker(new TenantActivityProperties(Duration.ofSeconds(10), 30, Duration.ofMinutes(1),
+                4, 1024, 256, 20), clock);
+    }
+
+    @Test
+    void shouldFindHeavyHittersAmongManySmallTenantsWithTheirRates() {
+        TenantActivityTracker tracker = tracker();
+        List<UUID> heavy = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Random random = new Random(7);
+
+        for (int i = 0; i < 30_000; i++) {
+            tracker.record(UUID.randomUUID(), TenantActivityTracker.Signal.REQUEST);
+            if (i % 10 == 0) {
+                UUID tenant = heavy.get(random.nextInt(heavy.size()));
+                int weight = heavy.indexOf(tenant) + 1;
+                for (int w = 0; w < weight; w++) {
+                    tracker.record(tenant, TenantActivityTracker.Signal.REQUEST);
+                }
+                if (tenant.equals(heavy.get(0))) {
+                    tracker.record(tenant, TenantActivityTracker.Signal.CONFLICT);
+                }
+            }
+        }
+        clock.advance(Duration.ofSeconds(5));
+
+        TenantActivityTracker.Report report = tracker.top(Duration.ofMinutes(1), 3);
+
+        assertThat(report.tenants()).extracting(TenantActivityTracker.TenantActivity::companyId)
+                .containsExactly(heavy.get(2), heavy.get(1), heavy.get(0));
+        TenantActivityTracker.TenantActivity conflicting = report.tenants().get(2);
+        assertThat(conflicting.conflictRate()).isBetween(0.9, 1.0);
+        assertThat(conflicting.replayRate()).isLessThan(0.1);
+        assertThat(conflicting.requestsPerSecond()).isBetween(conflicting.requests() / 60d, conflicting.requests() / 4d);
+        assertThat(report.totalRequests()).isGreaterThan(30_000);
+    }
+
+    @Test
+    void shouldOnlyCountBucketsInsideTheWindow() {
+        TenantActivityTracker tracker = tracker();
+        UUID early = UUID.randomUUID();
+        UUID late = UUID.randomUUID();
+
+        for (int i = 0; i < 100; i++) {
+            tracker.record(early, TenantActivityTracker.Signal.REQUEST);
+        }
+        clock.advance(Duration.ofSeconds(90));
+        for (int i = 0; i < 10; i++) {
+            tracker.record(late, TenantActivityTracker.Signal.REQUEST);
+            tracker.record(late, TenantActivityTracker.Signal.REPLAY);
+        }
+
+        assertThat(tracker.top(Duration.ofMinutes(1), 5).tenants())
+                .singleElement()
+                .satisfies(activity -> {
+                    assertThat(activity.companyId()).isEqualTo(late);
+                    assertThat(activity.requests()).isEqualTo(10);
+                    assertThat(activity.replayRate()).isEqualTo(1.0);
+                });
+        assertThat(tracker.top(Duration.ofMinutes(5), 5).tenants())
+                .extracting(TenantActivityTracker.TenantActivity::companyId)
+                .containsExactly(early, late);
+        assertThat(tracker.top(Duration.ofMinutes(5), 5).totalRequests()).isEqualTo(110);
+    }
+
+    @Test
+    void shouldCountConcurrentUpdatesWithoutLocking() throws Exception {
+        TenantActivityTracker tracker = tracker();
+        UUID heavy = UUID.randomUUID();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(threads.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    tracker.record(i % 2 == 0 ? heavy : UUID.randomUUID(), TenantActivityTracker.Signal.REQUEST);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        threads.shutdown();
+
+        TenantActivityTracker.Report report = tracker.top(Duration.ofMinutes(1), 1);
+        assertThat(report.totalRequests()).isEqualTo(400_000);
+        assertThat(report.tenants()).singleElement().satisfies(activity -> {
+            assertThat(activity.companyId()).isEqualTo(heavy);
+            assertThat(activity.requests()).isBetween(200_000L, 201_000L);
+        });
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.luisovando.payout_service.infrastructure.reconciliation;
+
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchive;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchiveProperties;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchiver;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadProperties;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReconciliationEngineTest {
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private PayoutTombstoneRepository tombstoneRepository;
+
+    @TempDir
+    Path workDirectory;
+
+    @AfterEach
+    void tearDown() {
+        payoutRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReportMissingExtraAndMismatchedPayouts() throws Exception {
+        List<PayoutEntity> payouts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            payouts.add(PayoutEntity.createNew(UUID.randomUUID(), new BigDecimal(i + 1 + ".00"), "USD", "CREATED", "key-" + i));
+        }
+        payoutRepository.saveAll(payouts);
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PayoutEntity payout = payouts.get(i);
+            switch (i) {
+                case 0 -> { } // missing from the file
+                case 1 -> lines.add(line(payout.getId(), payout.getCompanyId(), "999.00", "USD"));
+                case 2 -> lines.add(line(payout.getId(), payout.getCompanyId(), payout.getAmount().toPlainString(), "MXN"));
+                case 3 -> {
+                    lines.add(line(payout.getId(), payout.getCompanyId(), payout.getAmount().toPlainString(), "USD"));
+                    lines.add(line(payout.getId(), payout.getCompanyId(), payout.getAmount().toPlainString(), "USD"));
+                }
+                default -> lines.add(line(payout.getId(), payout.getCompanyId(), payout.getAmount().toPlainString(), "usd"));
+            }
+        }
+        lines.add(line(UUID.randomUUID(), UUID.randomUUID(), "10.00", "USD"));
+        lines.add("not,a,valid,line,at-all");
+        Collections.shuffle(lines, new Random(42));
+        lines.add(0, "payout_id,company_id,amount,currency");
+
+        Path file = workDirectory.resolve("settlement.csv");
+        Files.write(file, lines);
+
+        ReconciliationEngine engine = engine();
+
+        ReconciliationReport report = engine.reconcile(file, null, null);
+
+        assertThat(report.settlementLines()).isEqualTo(41);
+        assertThat(report.malformedLines()).isEqualTo(1);
+        assertThat(report.payoutsScanned()).isEqualTo(40);
+        assertThat(report.matched()).isEqualTo(37);
+        assertThat(report.missing()).isEqualTo(1);
+        assertThat(report.extra()).isEqualTo(2);
+        assertThat(report.amountMismatches()).isEqualTo(1);
+        assertThat(report.currencyMismatches()).isEqualTo(1);
+        assertThat(report.clean()).isFalse();
+
+        List<String> discrepancies = Files.readAllLines(report.discrepancies());
+        assertThat(discrepancies).hasSize(7);
+        assertThat(discrepancies).anyMatch(row -> row.startsWith("MISSING," + payouts.get(0).getCompanyId()));
+        assertThat(discrepancies).anyMatch(row -> row.startsWith("AMOUNT_MISMATCH," + payouts.get(1).getCompanyId()));
+        assertThat(discrepancies).anyMatch(row -> row.startsWith("CURRENCY_MISMATCH," + payouts.get(2).getCompanyId()));
+        assertThat(discrepancies).anyMatch(row -> row.startsWith("EXTRA," + payouts.get(3).getCompanyId()));
+        assertThat(Files.list(workDirectory.resolve("work")).filter(Files::isDirectory)).isEmpty();
+    }
+
+    @Test
+    void shouldHoldAtMostHalfTheBulkPoolWhateverThePartitionsConfigured() throws Exception {
+        List<PayoutEntity> payouts = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PayoutEntity payout = PayoutEntity.createNew(UUID.randomUUID(), new BigDecimal("10.00"), "USD", "CREATED", "key-" + i);
+            payouts.add(payout);
+            lines.add(line(payout.getId(), payout.getCompanyId(), "10.00", "USD"));
+        }
+        payoutRepository.saveAll(payouts);
+        Path file = workDirectory.resolve("settlement.csv");
+        Files.write(file, lines);
+
+        CountingDataSource counting = new CountingDataSource(dataSource);
+        ReconciliationReport report = new ReconciliationEngine(counting, new DataSourceTransactionManager(counting),
+                new ReconciliationProperties(workDirectory.resolve("inbox"), workDirectory.resolve("work"), 8, 6, 7),
+                new PayoutArchive(new PayoutArchiveProperties(workDirectory.resolve("archive"), Duration.ofDays(90), 7)),
+                new BulkheadExecutor("bulk", 8, 8, BulkheadExecutor.Overflow.CALLER_RUNS),
+                new BulkheadProperties(16, 64, 8, 256, 4, Duration.ofSeconds(30), 4, Duration.ofSeconds(5)))
+                .reconcile(file, null, null);
+
+        assertThat(report.partitions()).isEqualTo(2);
+        assertThat(report.matched()).isEqualTo(40);
+        assertThat(report.clean()).isTrue();
+        assertThat(counting.peak.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void shouldSortWithSpillsInTheSameOrderAsTheDatabase() throws Exception {
+        ExternalSorter sorter = new ExternalSorter(workDirectory, 3);
+        List<SettlementLine> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            SettlementLine line = new SettlementLine(
+                    new UUID(i % 7 == 0 ? -1L - i : i, 0), UUID.randomUUID(), BigDecimal.ONE, "USD");
+            expected.add(line);
+            sorter.add(line);
+        }
+        expected.sort(SettlementLine.ORDER);
+
+        List<SettlementLine> sorted = new ArrayList<>();
+        sorter.sorted().forEachRemaining(sorted::add);
+        sorter.close();
+
+        assertThat(sorter.spilledRuns()).isGreaterThan(1);
+        assertThat(sorted).containsExactlyElementsOf(expected);
+        assertThat(sorted.get(sorted.size() - 1).companyId().getMostSignificantBits()).isNegative();
+    }
+
+    @Test
+    void shouldReconcileArchivedPayoutsLikeTheOnesInTheTable() throws Exception {
+        List<PayoutEntity> payouts = new ArrayList<>();
+        UUID companyId = UUID.randomUUID();
+        for (int i = 0; i < 30; i++) {
+            PayoutEntity payout = PayoutEntity.createNew(i % 2 == 0 ? companyId : UUID.randomUUID(),
+                    new BigDecimal(i + 1 + ".00"), "USD", i < 20 ? "PAID" : "CREATED", "key-" + i);
+            payouts.add(payout);
+        }
+        payoutRepository.saveAll(payouts);
+        Instant old = Instant.parse("2026-01-15T10:00:00Z");
+        new JdbcTemplate(dataSource).update("UPDATE payouts SET created_at = ?, updated_at = ?",
+                Timestamp.from(old), Timestamp.from(old));
+
+        PayoutArchiveProperties archiveProperties = new PayoutArchiveProperties(
+                workDirectory.resolve("archive"), Duration.ofDays(90), 7);
+        long archived = new PayoutArchiver(dataSource, transactionManager, new PayoutArchive(archiveProperties),
+                archiveProperties).archive();
+        assertThat(archived).isEqualTo(20);
+        assertThat(payoutRepository.count()).isEqualTo(10);
+
+        List<String> lines = new ArrayList<>();
+        for (PayoutEntity payout : payouts.subList(1, 30)) {
+            lines.add(line(payout.getId(), payout.getCompanyId(), payout.getAmount().toPlainString(), "USD"));
+        }
+        Path file = workDirectory.resolve("settlement.csv");
+        Files.write(file, lines);
+
+        ReconciliationReport report = engine().reconcile(file, old, old.plusSeconds(1));
+
+        assertThat(report.payoutsScanned()).isEqualTo(30);
+        assertThat(report.matched()).isEqualTo(29);
+        assertThat(report.missing()).isEqualTo(1);
+        assertThat(report.extra()).isZero();
+        assertThat(Files.readAllLines(report.discrepancies()))
+                .anyMatch(row -> row.startsWith("MISSING," + companyId + "," + payouts.get(0).getId()));
+    }
+
+    private ReconciliationEngine engine() {
+        return engine(3, 8);
+    }
+
+    private ReconciliationEngine engine(int partitions, int bulkPoolSize) {
+        return new ReconciliationEngine(dataSource, transactionManager,
+                new ReconciliationProperties(workDirectory.resolve("inbox"), workDirectory.resolve("work"), partitions, 6, 7),
+                new PayoutArchive(new PayoutArchiveProperties(workDirectory.resolve("archive"), Duration.ofDays(90), 7)),
+                new BulkheadExecutor("bulk", 8, 8, BulkheadExecutor.Overflow.CALLER_RUNS),
+                new BulkheadProperties(16, 64, 8, 256, bulkPoolSize, Duration.ofSeconds(30), 4, Duration.ofSeconds(5)));
+    }
+
+    private static String line(UUID payoutId, UUID companyId, String amount, String currency) {
+        return payoutId + "," + companyId + "," + amount + "," + currency;
+    }
+
+    /**
+     * Tracks the largest number of connections open at the same time.
+     */
+    private static final class CountingDataSource extends DelegatingDataSource {
+        private final AtomicInteger open = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            peak.accumulateAndGet(open.incrementAndGet(), Math::max);
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, arguments) -> {
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            open.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, arguments);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
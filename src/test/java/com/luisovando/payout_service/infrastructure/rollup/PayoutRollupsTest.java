@@ -0,0 +1,225 @@
+package com.luisovando.payout_service.infrastructure.rollup;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchive;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchiveProperties;
+import com.luisovando.payout_service.infrastructure.archive.PayoutArchiver;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadProperties;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutRollupEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRollupRepository;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutTombstoneRepository;
+import com.luisovando.payout_service.infrastructure.web.summary.PayoutSummaryController;
+import com.luisovando.payout_service.infrastructure.web.summary.PayoutSummaryResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PayoutRollupsTest {
+    private static final Instant DAY_ONE = Instant.parse("2026-01-10T10:00:00Z");
+    private static final Instant DAY_TWO = Instant.parse("2026-01-11T23:30:00Z");
+    private static final BulkheadProperties BULKHEADS =
+            new BulkheadProperties(16, 64, 2, 256, 8, Duration.ofSeconds(30), 4, Duration.ofSeconds(5));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private PayoutRollupRepository rollupRepository;
+
+    @Autowired
+    private PayoutTombstoneRepository tombstoneRepository;
+
+    @TempDir
+    Path archiveDirectory;
+
+    @AfterEach
+    void tearDown() {
+        payoutRepository.deleteAll();
+        rollupRepository.deleteAll();
+        tombstoneRepository.deleteAll();
+    }
+
+    private PayoutRollups rollups() {
+        return new PayoutRollups(dataSource, transactionManager, new PayoutRollupProperties(Duration.ofSeconds(1), 2, 3, 100));
+    }
+
+    private PayoutEntity payout(UUID companyId, String amount, String currency, String status, Instant createdAt) {
+        PayoutEntity payout = payoutRepository.save(
+                PayoutEntity.createNew(companyId, new BigDecimal(amount), currency, status, "key-" + UUID.randomUUID()));
+        new JdbcTemplate(dataSource).update("UPDATE payouts SET created_at = ?, updated_at = ? WHERE id = ?",
+                Timestamp.from(createdAt), Timestamp.from(createdAt), payout.getId());
+        return payout;
+    }
+
+    private static PayoutCreatedEvent created(PayoutEntity payout, Instant acceptedAt) {
+        return new PayoutCreatedEvent(payout.getId(), payout.getCompanyId(),
+                MoneyVO.of(payout.getAmount(), payout.getCurrency()), MoneyVO.of(payout.getAmount(), payout.getCurrency()),
+                payout.getIdempotencyKey(), payout.getStatus(),
+                acceptedAt, null);
+    }
+
+    private List<String> rows(UUID companyId) {
+        return rollupRepository.findByCompanyIdAndDayBetweenOrderByDayAscCurrencyAscStatusAsc(
+                        companyId, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)).stream()
+                .map(PayoutRollupsTest::describe)
+                .toList();
+    }
+
+    private static String describe(PayoutRollupEntity rollup) {
+        return rollup.getDay() + " " + rollup.getCurrency() + " " + rollup.getStatus() + " "
+                + rollup.getPayoutCount() + " " + rollup.getAmountTotal().setScale(2).toPlainString();
+    }
+
+    @Test
+    void shouldFlushCreatesAndStatusChangesAsUpserts() {
+        UUID companyId = UUID.randomUUID();
+        PayoutEntity first = payout(companyId, "10.00", "USD", "CREATED", DAY_ONE);
+        PayoutEntity second = payout(companyId, "5.50", "USD", "CREATED", DAY_ONE);
+        PayoutEntity third = payout(companyId, "7.00", "MXN", "CREATED", DAY_TWO);
+        PayoutRollups rollups = rollups();
+
+        rollups.onPayoutCreated(created(first, DAY_ONE));
+        rollups.onPayoutCreated(created(third, DAY_TWO));
+        assertThat(rollups.pending()).isEqualTo(2);
+        rollups.flush();
+        assertThat(rollups.pending()).isZero();
+
+        rollups.onPayoutCreated(created(second, DAY_ONE));
+        rollups.onPayoutStatusChanged(new PayoutStatusChangedEvent(first.getId(), PayoutStatus.CREATED, PayoutStatus.PROCESSING, DAY_TWO));
+        rollups.onPayoutStatusChanged(new PayoutStatusChangedEvent(first.getId(), PayoutStatus.PROCESSING, PayoutStatus.PAID, DAY_TWO));
+        rollups.onPayoutStatusChanged(new PayoutStatusChangedEvent(third.getId(), PayoutStatus.CREATED, PayoutStatus.FAILED, DAY_TWO));
+        rollups.flush();
+
+        assertThat(rows(companyId)).containsExactly(
+                "2026-01-10 USD CREATED 1 5.50",
+                "2026-01-10 USD PAID 1 10.00",
+                "2026-01-11 MXN CREATED 0 0.00",
+                "2026-01-11 MXN FAILED 1 7.00");
+
+        PayoutSummaryResponse summary = new PayoutSummaryController(rollupRepository)
+                .summary(companyId, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31), null);
+        assertThat(summary.days()).hasSize(3);
+        assertThat(summary.totals()).containsExactly(
+                new PayoutSummaryResponse.Total("MXN", "FAILED", 1, new BigDecimal("7.00")),
+                new PayoutSummaryResponse.Total("USD", "CREATED", 1, new BigDecimal("5.50")),
+                new PayoutSummaryResponse.Total("USD", "PAID", 1, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void shouldRebuildFromTheTableAndTheArchiveInParallel() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        UUID otherCompanyId = UUID.randomUUID();
+        payout(companyId, "10.00", "USD", "PAID", DAY_ONE);
+        payout(companyId, "20.00", "USD", "PAID", DAY_ONE);
+        payout(companyId, "1.00", "USD", "CREATED", DAY_TWO);
+        payout(otherCompanyId, "3.00", "EUR", "FAILED", DAY_TWO);
+
+        PayoutArchiveProperties archiveProperties = new PayoutArchiveProperties(archiveDirectory, Duration.ofDays(90), 10);
+        PayoutArchive archive = new PayoutArchive(archiveProperties);
+        assertThat(new PayoutArchiver(dataSource, transactionManager, archive, archiveProperties).archive()).isEqualTo(3);
+        payout(companyId, "4.00", "USD", "PAID", DAY_ONE);
+
+        // drifted and stale rows are replaced
+        new JdbcTemplate(dataSource).update(PayoutRollups.INSERT_ROLLUP, 99, new BigDecimal("1.00"),
+                companyId, LocalDate.of(2026, 1, 10), "USD", "PAID");
+        new JdbcTemplate(dataSource).update(PayoutRollups.INSERT_ROLLUP, 1, new BigDecimal("1.00"),
+                companyId, LocalDate.of(2026, 1, 12), "USD", "HELD");
+
+        PayoutRollupRebuilder.Report report = new PayoutRollupRebuilder(dataSource, transactionManager, rollups(), archive,
+                new PayoutRollupProperties(Duration.ofSeconds(1), 2, 3, 100),
+                new BulkheadExecutor("bulk", 2, 8, BulkheadExecutor.Overflow.CALLER_RUNS), BULKHEADS).rebuild();
+
+        assertThat(report.partitions()).isEqualTo(3);
+        assertThat(report.archivedPayouts()).isEqualTo(3);
+        assertThat(report.rollupRows()).isEqualTo(3);
+        assertThat(rows(companyId)).containsExactly(
+                "2026-01-10 USD PAID 3 34.00",
+                "2026-01-11 USD CREATED 1 1.00");
+        assertThat(rows(otherCompanyId)).containsExactly("2026-01-11 EUR FAILED 1 3.00");
+    }
+
+    @Test
+    void shouldCountPayoutsLeftInTheTableByAnInterruptedArchivalOnce() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        PayoutEntity paid = payout(companyId, "10.00", "USD", "PAID", DAY_ONE);
+        payout(companyId, "20.00", "USD", "PAID", DAY_ONE);
+
+        PayoutArchiveProperties archiveProperties = new PayoutArchiveProperties(archiveDirectory, Duration.ofDays(90), 10);
+        PayoutArchive archive = new PayoutArchive(archiveProperties);
+        assertThat(new PayoutArchiver(dataSource, transactionManager, archive, archiveProperties).archive()).isEqualTo(2);
+        // as if the delete of this payout had rolled back after its segment was written
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO payouts (id, company_id, amount, currency, status, idempotency_key, created_at, updated_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)", paid.getId(), companyId, paid.getAmount(), "USD", "PAID",
+                paid.getIdempotencyKey(), Timestamp.from(DAY_ONE), Timestamp.from(DAY_ONE));
+        jdbcTemplate.update("DELETE FROM payout_tombstones WHERE payout_id = ?", paid.getId());
+
+        PayoutRollupRebuilder.Report report = rebuilder(archive).rebuild();
+
+        assertThat(report.archivedPayouts()).isEqualTo(1);
+        assertThat(rows(companyId)).containsExactly("2026-01-10 USD PAID 2 30.00");
+    }
+
+    @Test
+    void shouldRefuseToRebuildWithoutTheArchivedPayouts() throws Exception {
+        UUID companyId = UUID.randomUUID();
+        payout(companyId, "10.00", "USD", "PAID", DAY_ONE);
+        PayoutArchiveProperties archiveProperties = new PayoutArchiveProperties(archiveDirectory, Duration.ofDays(90), 10);
+        assertThat(new PayoutArchiver(dataSource, transactionManager, new PayoutArchive(archiveProperties),
+                archiveProperties).archive()).isEqualTo(1);
+        new JdbcTemplate(dataSource).update(PayoutRollups.INSERT_ROLLUP, 1, new BigDecimal("10.00"),
+                companyId, LocalDate.of(2026, 1, 10), "USD", "PAID");
+
+        // another node's archive directory, without this node's segments
+        PayoutArchive elsewhere = new PayoutArchive(new PayoutArchiveProperties(
+                archiveDirectory.resolve("elsewhere"), Duration.ofDays(90), 10));
+
+        assertThatThrownBy(() -> rebuilder(elsewhere).rebuild())
+                .isInstanceOfSatisfying(IncompleteArchiveException.class, e -> {
+                    assertThat(e.companyId()).isEqualTo(companyId);
+                    assertThat(e.missing()).isEqualTo(1);
+                });
+        assertThat(rows(companyId)).containsExactly("2026-01-10 USD PAID 1 10.00");
+    }
+
+    private PayoutRollupRebuilder rebuilder(PayoutArchive archive) {
+        return new PayoutRollupRebuilder(dataSource, transactionManager, rollups(), archive,
+                new PayoutRollupProperties(Duration.ofSeconds(1), 2, 3, 100),
+                new BulkheadExecutor("bulk", 2, 8, BulkheadExecutor.Overflow.CALLER_RUNS), BULKHEADS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.luisovando.payout_service.infrastructure.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void shouldExpireEveryEntryOnItsTickAcrossCascades() {
+        // 4 slots x 5 levels: deadlines up to 1024 ticks cascade through every level
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 4, 5, 3);
+        Random random = new Random(7);
+        Map<Integer, Long> deadlineTicks = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadlineMillis = 10 + random.nextInt(10_000);
+            if (wheel.add(i, deadlineMillis)) {
+                deadlineTicks.put(i, deadlineMillis / 10);
+            }
+        }
+        assertThat(wheel.size()).isEqualTo(deadlineTicks.size());
+
+        Map<Integer, Long> expiredAt = new HashMap<>();
+        long now = 0;
+        while (now < 11_000) {
+            now += 1 + random.nextInt(40);
+            long tick = now / 10;
+            wheel.advanceTo(now, id -> expiredAt.put(id, tick));
+            for (Map.Entry<Integer, Long> expired : expiredAt.entrySet()) {
+                assertThat(expired.getValue()).isGreaterThanOrEqualTo(deadlineTicks.get(expired.getKey()));
+            }
+            for (Map.Entry<Integer, Long> entry : deadlineTicks.entrySet()) {
+                if (entry.getValue() <= tick) {
+                    assertThat(expiredAt).containsKey(entry.getKey());
+                }
+            }
+        }
+
+        assertThat(expiredAt).hasSameSizeAs(deadlineTicks);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldRefuseDueAndOutOfSpanDeadlines() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 8, 2, 5_000);
+
+        assertThat(wheel.add("due", 5_999)).isFalse();
+        assertThat(wheel.add("next", 6_000)).isTrue();
+        assertThat(wheel.horizonMillis()).isEqualTo(64_000);
+        assertThat(wheel.add("last", 63_999)).isTrue();
+        assertThat(wheel.add("beyond", 64_000)).isFalse();
+
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(63_999, expired::add);
+        assertThat(expired).containsExactly("next", "last");
+    }
+}
@@ -0,0 +1,197 @@
+package com.luisovando.payout_service.infrastructure.scheduling;
+
+import com.luisovando.payout_service.application.usecase.createpayout.PayoutCreatedEvent;
+import com.luisovando.payout_service.application.usecase.releasepayout.PayoutReleasedEvent;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutUseCase;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import com.luisovando.payout_service.infrastructure.persistence.entity.PayoutEntity;
+import com.luisovando.payout_service.infrastructure.persistence.repository.PayoutRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ScheduledPayoutDispatcherTest {
+    private static final Instant START = Instant.parse("2026-05-01T09:00:00Z");
+
+    @Autowired
+    private PayoutRepository payoutRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(START);
+    private final List<PayoutStatusChangedEvent> events = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        payoutRepository.deleteAll();
+    }
+
+    private ScheduledPayoutDispatcher dispatcher() {
+        return new ScheduledPayoutDispatcher(dataSource, transactionManager,
+                event -> events.add((PayoutStatusChangedEvent) event),
+                new PayoutSchedulerProperties(Duration.ofSeconds(1), Duration.ofMinutes(10), 64, 3, 2, 100), clock);
+    }
+
+    private PayoutEntity scheduled(Instant executeAt) {
+        return scheduled("SCHEDULED", executeAt);
+    }
+
+    private PayoutEntity scheduled(String status, Instant executeAt) {
+        PayoutEntity payout = PayoutEntity.createNew(UUID.randomUUID(), new BigDecimal("10.00"), "USD", status,
+                "key-" + UUID.randomUUID());
+        payout.scheduleAt(executeAt);
+        return payoutRepository.save(payout);
+    }
+
+    private String statusOf(PayoutEntity payout) {
+        return payoutRepository.findById(payout.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    void shouldReleaseOverdueAndWindowedPayoutsWhenDueAndLoadLaterWindows() {
+        PayoutEntity overdue = scheduled(START.minusSeconds(30));
+        PayoutEntity inFiveMinutes = scheduled(START.plusSeconds(300));
+        PayoutEntity inNineMinutes = scheduled(START.plusSeconds(540));
+        PayoutEntity inTwentyMinutes = scheduled(START.plusSeconds(1_200));
+        ScheduledPayoutDispatcher dispatcher = dispatcher();
+
+        dispatcher.tick();
+        assertThat(statusOf(overdue)).isEqualTo("CREATED");
+        assertThat(dispatcher.pending()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(299));
+        dispatcher.tick();
+        assertThat(statusOf(inFiveMinutes)).isEqualTo("SCHEDULED");
+
+        clock.advance(Duration.ofSeconds(1));
+        dispatcher.tick();
+        assertThat(statusOf(inFiveMinutes)).isEqualTo("CREATED");
+        // the next window [10m, 15m) was loaded, the schedule in 20 minutes is still only in the table
+        assertThat(dispatcher.pending()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(900));
+        dispatcher.tick();
+        assertThat(statusOf(inNineMinutes)).isEqualTo("CREATED");
+        assertThat(statusOf(inTwentyMinutes)).isEqualTo("CREATED");
+
+        assertThat(events).extracting(PayoutStatusChangedEvent::payoutId)
+                .containsExactlyInAnyOrder(overdue.getId(), inFiveMinutes.getId(), inNineMinutes.getId(), inTwentyMinutes.getId());
+    }
+
+    @Test
+    void shouldTakeNewSchedulesInsideTheLoadedWindowFromCreatedEvents() {
+        ScheduledPayoutDispatcher dispatcher = dispatcher();
+        dispatcher.tick();
+
+        PayoutEntity payout = scheduled(START.plusSeconds(60));
+        dispatcher.onPayoutCreated(new PayoutCreatedEvent(payout.getId(), payout.getCompanyId(),
+                MoneyVO.of(payout.getAmount(), "USD"), MoneyVO.of(payout.getAmount(), "USD"), payout.getIdempotencyKey(), "SCHEDULED", START, payout.getExecuteAt()));
+        dispatcher.tick();
+        assertThat(dispatcher.pending()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(61));
+        dispatcher.tick();
+
+        assertThat(statusOf(payout)).isEqualTo("CREATED");
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void shouldOnlyDispatchHeldSchedulesOnceReleasedFromReview() {
+        ScheduledPayoutDispatcher dispatcher = dispatcher();
+        dispatcher.tick();
+        PayoutEntity held = scheduled("HELD", START.plusSeconds(60));
+
+        clock.advance(Duration.ofSeconds(30));
+        dispatcher.tick();
+        assertThat(statusOf(held)).isEqualTo("HELD");
+
+        ReleasePayoutUseCase release = new ReleasePayoutUseCase(payoutRepository, event -> {
+            if (event instanceof PayoutReleasedEvent released) {
+                dispatcher.onPayoutReleased(released);
+            }
+        });
+        assertThat(release.execute(held.getId())).isEqualTo(new ReleasePayoutOutcome.Released(held.getId(), "SCHEDULED"));
+        dispatcher.tick();
+        assertThat(dispatcher.pending()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(31));
+        dispatcher.tick();
+
+        assertThat(statusOf(held)).isEqualTo("CREATED");
+        assertThat(events).singleElement().satisfies(event -> assertThat(event.payoutId()).isEqualTo(held.getId()));
+    }
+
+    @Test
+    void shouldReleaseEachPayoutOnceAcrossNodes() {
+        List<PayoutEntity> payouts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            payouts.add(scheduled(START.plusSeconds(10)));
+        }
+        ScheduledPayoutDispatcher first = dispatcher();
+        ScheduledPayoutDispatcher second = dispatcher();
+        first.tick();
+        second.tick();
+
+        clock.advance(Duration.ofSeconds(11));
+        first.tick();
+        second.tick();
+
+        assertThat(payouts).allSatisfy(payout -> assertThat(statusOf(payout)).isEqualTo("CREATED"));
+        assertThat(events).hasSize(5);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.luisovando.payout_service.infrastructure.startup;
+
+import com.luisovando.payout_service.PayoutServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time from launch until readiness reports {@code ACCEPTING_TRAFFIC}, and latency of the
+ * first create served afterwards, against the budgets new pods are expected to meet
+ * ({@code -Dstartup.budget-ms} and {@code -Dstartup.first-request-budget-ms} override them).
+ */
+@Tag("benchmark")
+public class StartupBudgetTest {
+    private static final Duration STARTUP_BUDGET = Duration.ofMillis(Long.getLong("startup.budget-ms", 30_000));
+    private static final Duration FIRST_REQUEST_BUDGET = Duration.ofMillis(Long.getLong("startup.first-request-budget-ms", 250));
+
+    @Test
+    void shouldWarmUpBeforeReadinessAndServeTheFirstCreateWithinBudget() throws Exception {
+        AtomicLong readyAt = new AtomicLong();
+        AtomicReference<CreatePayoutWarmup.Report> warmupWhenReady = new AtomicReference<>();
+        SpringApplication application = new SpringApplicationBuilder(PayoutServiceApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .build();
+        application.addListeners((ApplicationListener<ApplicationEvent>) event -> {
+            if (event instanceof AvailabilityChangeEvent<?> change && change.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                readyAt.set(System.nanoTime());
+                warmupWhenReady.set(((ApplicationContext) change.getSource()).getBean(CreatePayoutWarmup.class).report());
+            }
+        });
+
+        long launchedAt = System.nanoTime();
+        try (ConfigurableApplicationContext context = application.run()) {
+            Duration startup = Duration.ofNanos(readyAt.get() - launchedAt);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            HttpResponse<String> readiness = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            long requestedAt = System.nanoTime();
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/payouts"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("""
+                                    {
+                                        "companyId": "%s",
+                                        "amount": "1000.50",
+                                        "currency": "USD",
+                                        "idempotencyKey": "startup-budget"
+                                    }
+                                    """.formatted(UUID.randomUUID())))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Duration firstRequest = Duration.ofNanos(System.nanoTime() - requestedAt);
+
+            System.out.println("[benchmark] startup to readiness " + startup.toMillis() + " ms (warmup "
+                    + warmupWhenReady.get() + "), first create " + firstRequest.toMillis() + " ms");
+            assertThat(readiness.statusCode()).isEqualTo(200);
+            assertThat(warmupWhenReady.get()).isNotNull();
+            assertThat(warmupWhenReady.get().creates()).isPositive();
+            assertThat(created.statusCode()).isEqualTo(201);
+            assertThat(startup).isLessThan(STARTUP_BUDGET);
+            assertThat(firstRequest).isLessThan(FIRST_REQUEST_BUDGET);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.luisovando.payout_service.infrastructure.web.binary;
+
+import com.luisovando.payout_service.benchmark.BenchmarkRun;
+import com.luisovando.payout_service.infrastructure.web.callback.PayoutCallbackRequest;
+import com.luisovando.payout_service.infrastructure.web.payout.CreatePayoutRequest;
+import com.luisovando.payout_service.infrastructure.web.payout.CreatePayoutResponse;
+import com.luisovando.payout_service.infrastructure.web.summary.PayoutSummaryResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes on the wire and converter CPU per request of the binary encoding against JSON: a
+ * create (request read, response written), a provider callback, and a 31-day summary.
+ */
+@Tag("benchmark")
+public class BinaryEncodingBenchmarkTest {
+    private static final int WARMUP = 50_000;
+    private static final int OPERATIONS = 200_000;
+
+    private final MappingJackson2HttpMessageConverter json =
+            new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+    private final PayoutBinaryMessageConverter binary = new PayoutBinaryMessageConverter();
+
+    @Test
+    void shouldBeSmallerAndCheaperThanJson() throws Exception {
+        CreatePayoutRequest create = new CreatePayoutRequest(UUID.randomUUID(), new BigDecimal("1000.50"), "USD",
+                "order-2026-10-19-000184532", "MXN", Instant.parse("2026-10-20T09:00:00Z"));
+        CreatePayoutResponse created = new CreatePayoutResponse(UUID.randomUUID(), "CREATED");
+        PayoutCallbackRequest callback = new PayoutCallbackRequest(UUID.randomUUID(), "PAID");
+
+        byte[] jsonCreate = write(json, create, MediaType.APPLICATION_JSON);
+        byte[] binaryCreate = write(binary, create, PayoutBinaryMessageConverter.MEDIA_TYPE);
+        int jsonCreateBytes = jsonCreate.length + write(json, created, MediaType.APPLICATION_JSON).length;
+        int binaryCreateBytes = binaryCreate.length + write(binary, created, PayoutBinaryMessageConverter.MEDIA_TYPE).length;
+        byte[] jsonCallback = write(json, callback, MediaType.APPLICATION_JSON);
+        byte[] binaryCallback = write(binary, callback, PayoutBinaryMessageConverter.MEDIA_TYPE);
+        int jsonSummaryBytes = write(json, summary(), MediaType.APPLICATION_JSON).length;
+        int binarySummaryBytes = write(binary, summary(), PayoutBinaryMessageConverter.MEDIA_TYPE).length;
+
+        report("create request + response", jsonCreateBytes, binaryCreateBytes);
+        report("callback", jsonCallback.length, binaryCallback.length);
+        report("summary (31 days)", jsonSummaryBytes, binarySummaryBytes);
+
+        BenchmarkRun.Result jsonRun = BenchmarkRun.measure("create (json)", WARMUP, OPERATIONS,
+                i -> roundTrip(json, jsonCreate, created, MediaType.APPLICATION_JSON));
+        BenchmarkRun.Result binaryRun = BenchmarkRun.measure("create (binary)", WARMUP, OPERATIONS,
+                i -> roundTrip(binary, binaryCreate, created, PayoutBinaryMessageConverter.MEDIA_TYPE));
+        BenchmarkRun.measure("callback (json)", WARMUP, OPERATIONS,
+                i -> json.read(PayoutCallbackRequest.class, input(jsonCallback)));
+        BenchmarkRun.measure("callback (binary)", WARMUP, OPERATIONS,
+                i -> binary.read(PayoutCallbackRequest.class, input(binaryCallback)));
+
+        assertThat(binaryCreateBytes).isLessThan(jsonCreateBytes / 2);
+        assertThat(binaryCallback.length).isLessThan(jsonCallback.length);
+        assertThat(binarySummaryBytes).isLessThan(jsonSummaryBytes / 2);
+        assertThat(binaryRun.cpuMicrosPerOp()).isLessThan(jsonRun.cpuMicrosPerOp());
+    }
+
+    private static void roundTrip(HttpMessageConverter<? super Record> converter, byte[] request,
+                                  CreatePayoutResponse response, MediaType mediaType) throws Exception {
+        converter.read(CreatePayoutRequest.class, input(request));
+        converter.write(response, mediaType, new MockHttpOutputMessage());
+    }
+
+    /**
+     * A request body with its {@code Content-Length}, as servlet requests carry it.
+     */
+    private static MockHttpInputMessage input(byte[] body) {
+        MockHttpInputMessage input = new MockHttpInputMessage(body);
+        input.getHeaders().setContentLength(body.length);
+        return input;
+    }
+
+    private static byte[] write(HttpMessageConverter<? super Record> converter, Record message, MediaType mediaType)
+            throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(message, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+
+    private static void report(String name, int jsonBytes, int binaryBytes) {
+        System.out.println("[benchmark] " + String.format(Locale.ROOT, "%-28s %6d B json %6d B binary (%.0f%%)",
+                name, jsonBytes, binaryBytes, 100d * binaryBytes / jsonBytes));
+    }
+
+    private static PayoutSummaryResponse summary() {
+        List<PayoutSummaryResponse.DayTotal> days = new ArrayList<>();
+        for (int day = 1; day <= 31; day++) {
+            days.add(new PayoutSummaryResponse.DayTotal(LocalDate.of(2026, 1, day), "USD", "PAID", 120 + day,
+                    new BigDecimal("18450.25").add(BigDecimal.valueOf(day))));
+            days.add(new PayoutSummaryResponse.DayTotal(LocalDate.of(2026, 1, day), "MXN", "FAILED", day,
+                    new BigDecimal("1712.50")));
+        }
+        return new PayoutSummaryResponse(UUID.randomUUID(), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31),
+                List.of(new PayoutSummaryResponse.Total("USD", "PAID", 4_216, new BigDecimal("572453.75")),
+                        new PayoutSummaryResponse.Total("MXN", "FAILED", 496, new BigDecimal("53087.50"))),
+                days);
+    }
+}
@@ -0,0 +1,80 @@
+package com.luisovando.payout_service.infrastructure.web.binary;
+
+import com.luisovando.payout_service.infrastructure.web.payout.CommandStatusResponse;
+import com.luisovando.payout_service.infrastructure.web.payout.CreatePayoutRequest;
+import com.luisovando.payout_service.infrastructure.web.payout.CreatePayoutResponse;
+import com.luisovando.payout_service.infrastructure.web.summary.PayoutSummaryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinaryRecordCodecTest {
+
+    @Test
+    void shouldRoundTripNullsNestedRecordsAndLists() {
+        CreatePayoutRequest request = new CreatePayoutRequest(UUID.randomUUID(), new BigDecimal("-1712.3456"), "USD",
+                "key-ñ-1", null, Instant.parse("1969-12-31T23:59:59.123456789Z"));
+        PayoutSummaryResponse summary = new PayoutSummaryResponse(UUID.randomUUID(),
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31),
+                List.of(new PayoutSummaryResponse.Total("USD", "PAID", Long.MAX_VALUE, new BigDecimal("1E+40"))),
+                List.of(new PayoutSummaryResponse.DayTotal(LocalDate.of(2026, 1, 10), "USD", "PAID", 3, new BigDecimal("34.00")),
+                        new PayoutSummaryResponse.DayTotal(LocalDate.of(2026, 1, 11), "MXN", "HELD", 0, BigDecimal.ZERO)));
+        CommandStatusResponse pending = new CommandStatusResponse(UUID.randomUUID(), "PENDING", null, null, null, null);
+
+        assertThat(BinaryRecordCodec.decode(CreatePayoutRequest.class, BinaryRecordCodec.encode(request))).isEqualTo(request);
+        assertThat(BinaryRecordCodec.decode(PayoutSummaryResponse.class, BinaryRecordCodec.encode(summary))).isEqualTo(summary);
+        assertThat(BinaryRecordCodec.decode(CommandStatusResponse.class, BinaryRecordCodec.encode(pending))).isEqualTo(pending);
+        // 4 bytes of fingerprint, 1 of bitmap, 16 of UUID and 1 + 7 of "PENDING"
+        assertThat(BinaryRecordCodec.encode(pending)).hasSize(29);
+    }
+
+    @Test
+    void shouldRejectMalformedMessages() {
+        byte[] message = BinaryRecordCodec.encode(new CreatePayoutResponse(UUID.randomUUID(), "CREATED"));
+
+        assertThatThrownBy(() -> BinaryRecordCodec.decode(CreatePayoutResponse.class, Arrays.copyOf(message, message.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("exceeds the message");
+        assertThatThrownBy(() -> BinaryRecordCodec.decode(CreatePayoutResponse.class, Arrays.copyOf(message, 10)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Truncated message");
+        assertThatThrownBy(() -> BinaryRecordCodec.decode(CreatePayoutResponse.class, Arrays.copyOf(message, message.length + 1)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("trailing bytes");
+        assertThatThrownBy(() -> BinaryRecordCodec.decode(CommandStatusResponse.class, message))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("API version");
+
+        byte[] unknownComponent = message.clone();
+        unknownComponent[4] = 0x07;
+        assertThatThrownBy(() -> BinaryRecordCodec.decode(CreatePayoutResponse.class, unknownComponent))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Unknown components");
+    }
+
+    @Test
+    void shouldOnlySupportRecordsWithEncodableComponents() {
+        record WithMap(Map<String, String> values) {
+        }
+
+        assertThat(BinaryRecordCodec.supports(CreatePayoutRequest.class)).isTrue();
+        assertThat(BinaryRecordCodec.supports(PayoutSummaryResponse.class)).isTrue();
+        assertThat(BinaryRecordCodec.supports(WithMap.class)).isFalse();
+        assertThat(BinaryRecordCodec.supports(String.class)).isFalse();
+    }
+
+    @Test
+    void shouldPreferTheBinaryEncodingOnlyWhenRankedFirst() {
+        assertThat(PayoutBinaryMessageConverter.preferredBy("application/vnd.payouts+binary")).isTrue();
+        assertThat(PayoutBinaryMessageConverter.preferredBy("application/json;q=0.9, application/vnd.payouts+binary")).isTrue();
+        assertThat(PayoutBinaryMessageConverter.preferredBy("application/json, application/vnd.payouts+binary")).isFalse();
+        assertThat(PayoutBinaryMessageConverter.preferredBy("*/*")).isFalse();
+        assertThat(PayoutBinaryMessageConverter.preferredBy("application/vnd.payouts+binary;q=0")).isFalse();
+        assertThat(PayoutBinaryMessageConverter.preferredBy("not a media type")).isFalse();
+        assertThat(PayoutBinaryMessageConverter.preferredBy(null)).isFalse();
+    }
+}
@@ -0,0 +1,99 @@
+package com.luisovando.payout_service.infrastructure.web.payout;
+
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutUseCase;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.benchmark.BenchmarkRun;
+import com.luisovando.payout_service.infrastructure.observability.TenantActivityProperties;
+import com.luisovando.payout_service.infrastructure.observability.TenantActivityTracker;
+import com.luisovando.payout_service.infrastructure.web.error.ApiExceptionHandler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conflict-heavy load: every request is rejected by the use case. Compares
+ * signaling through a thrown exception resolved by {@link ApiExceptionHandler}
+ * with returning a {@link CreatePayoutOutcome.Conflict} mapped by the controller.
+ */
+@Tag("benchmark")
+@WebMvcTest(PayoutController.class)
+@Import({ApiExceptionHandler.class, ReplayResponseCache.class, TenantActivityTracker.class})
+@EnableConfigurationProperties(TenantActivityProperties.class)
+public class ConflictSignalingBenchmarkTest {
+    private static final int WARMUP = 5_000;
+    private static final int OPERATIONS = 50_000;
+    private static final String BODY = """
+            {
+                "companyId": "11111111-1111-1111-1111-111111111111",
+                "amount": "1000.50",
+                "currency": "USD",
+                "idempotencyKey": "conflict-benchmark"
+            }
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CreatePayoutUseCase createPayoutUseCase;
+
+    @Test
+    void outcomeSignalingIsCheaperThanExceptionSignaling() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenAnswer(invocation -> {
+                    throw new IllegalArgumentException("Money amount differs from existing payout");
+                });
+        BenchmarkRun.Result thrown = BenchmarkRun.measure("conflict (exception)", WARMUP, OPERATIONS, i ->
+                mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                        .andExpect(status().is4xxClientError()));
+
+        reset(createPayoutUseCase);
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenAnswer(invocation -> new CreatePayoutOutcome.Conflict("Money amount differs from existing payout"));
+        BenchmarkRun.Result returned = BenchmarkRun.measure("conflict (outcome)", WARMUP, OPERATIONS, i ->
+                mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                        .andExpect(status().isConflict()));
+
+        assertThat(returned.cpuMicrosPerOp()).isLessThan(thrown.cpuMicrosPerOp());
+        assertThat(returned.allocatedBytesPerOp()).isLessThan(thrown.allocatedBytesPerOp());
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        CreatePayoutUseCase createPayoutUseCase() {
+            return mock(CreatePayoutUseCase.class);
+        }
+
+        @Bean
+        ReleasePayoutUseCase releasePayoutUseCase() {
+            return mock(ReleasePayoutUseCase.class);
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        @Qualifier(Bulkheads.INTERACTIVE)
+        BulkheadExecutor interactiveBulkhead() {
+            return new BulkheadExecutor(Bulkheads.INTERACTIVE, 1, 1, BulkheadExecutor.Overflow.REJECT);
+        }
+    }
+}
@@ -1,29 +1,52 @@
 package com.luisovando.payout_service.infrastructure.web.payout;
 
 import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
-import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutResult;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutOutcome;
 import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutUseCase;
-import com.luisovando.payout_service.domain.exceptions.IdempotencyConflictException;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutOutcome;
+import com.luisovando.payout_service.application.usecase.releasepayout.ReleasePayoutUseCase;
+import com.luisovando.payout_service.infrastructure.bulkhead.BulkheadExecutor;
+import com.luisovando.payout_service.infrastructure.bulkhead.Bulkheads;
+import com.luisovando.payout_service.infrastructure.commandlog.AsyncPayoutIntake;
+import com.luisovando.payout_service.infrastructure.commandlog.CommandStatus;
+import com.luisovando.payout_service.infrastructure.observability.TenantActivityProperties;
+import com.luisovando.payout_service.infrastructure.observability.TenantActivityTracker;
+import com.luisovando.payout_service.infrastructure.web.binary.PayoutBinaryMessageConverter;
+import com.luisovando.payout_service.infrastructure.web.error.ApiErrorResponse;
 import com.luisovando.payout_service.infrastructure.web.error.ApiExceptionHandler;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PayoutController.class)
-@Import(ApiExceptionHandler.class)
+@Import({ApiExceptionHandler.class, ReplayResponseCache.class, TenantActivityTracker.class})
+@EnableConfigurationProperties(TenantActivityProperties.class)
 public class PayoutControllerTest {
 
     @Autowired
@@ -32,9 +55,23 @@ public class PayoutControllerTest {
     @Autowired
     private CreatePayoutUseCase createPayoutUseCase;
 
+    @Autowired
+    private ReleasePayoutUseCase releasePayoutUseCase;
+
+    @Autowired
+    private ReplayResponseCache replayResponseCache;
+
+    @Autowired
+    private AsyncPayoutIntake asyncPayoutIntake;
+
+    @Autowired
+    @Qualifier(Bulkheads.INTERACTIVE)
+    private BulkheadExecutor interactiveLane;
+
     @AfterEach
     void tearDown() {
-        reset(createPayoutUseCase);
+        reset(createPayoutUseCase, releasePayoutUseCase, asyncPayoutIntake);
+        replayResponseCache.clear();
     }
 
     @Test
@@ -42,7 +79,7 @@ public class PayoutControllerTest {
         UUID payoutId = UUID.randomUUID();
 
         when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
-                .thenReturn(new CreatePayoutResult(payoutId, "CREATED", true));
+                .thenReturn(new CreatePayoutOutcome.Created(payoutId, "CREATED"));
 
         String body = """
                 {
@@ -65,6 +102,62 @@ public class PayoutControllerTest {
         verify(createPayoutUseCase, times(1)).execute(any(CreatePayoutCommand.class));
     }
 
+    @Test
+    void shouldReturn503WhenTheInteractiveLaneIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new CreatePayoutOutcome.Created(UUID.randomUUID(), "CREATED");
+        });
+
+        // the test lane has one thread and one queue slot
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> running = clients.submit(() -> createStatus("lane-key-1"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Integer> queued = clients.submit(() -> createStatus("lane-key-2"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (interactiveLane.stats().queued() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            mockMvc.perform(post("/payouts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(createBody("lane-key-3")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.code").value("OVERLOADED"));
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(201);
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(201);
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+        verify(createPayoutUseCase, times(2)).execute(any(CreatePayoutCommand.class));
+    }
+
+    private int createStatus(String idempotencyKey) throws Exception {
+        return mockMvc.perform(post("/payouts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createBody(idempotencyKey)))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private static String createBody(String idempotencyKey) {
+        return """
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "%s"
+                }
+                """.formatted(idempotencyKey);
+    }
+
     @Test
     void shouldReturn400WhenRequestIsInvalid() throws Exception {
         String body = """
@@ -101,6 +194,26 @@ public class PayoutControllerTest {
         verifyNoInteractions(createPayoutUseCase);
     }
 
+    @Test
+    void shouldReturn400WhenUseCaseReturnsInvalid() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.Invalid("currency not supported"));
+
+        mockMvc.perform(post("/payouts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "companyId": "11111111-1111-1111-1111-111111111111",
+                                  "amount": "1000.50",
+                                  "currency": "CAD",
+                                  "idempotencyKey": "test-key-1"
+                                }
+                                """))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.message").value("currency not supported"));
+    }
+
     @Test
     void shouldReturn400WhenUseCaseThrowsIllegalArgument() throws Exception {
         when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
@@ -125,7 +238,7 @@ public class PayoutControllerTest {
     @Test
     void shouldReturn200WhenIdempotentReplay() throws Exception {
         UUID existingPayoutId = UUID.randomUUID();
-        CreatePayoutResult existingResult = new CreatePayoutResult(existingPayoutId, "PROCESSING", false);
+        CreatePayoutOutcome existingResult = new CreatePayoutOutcome.Replayed(existingPayoutId, "PROCESSING");
         
         when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
                 .thenReturn(existingResult);
@@ -150,7 +263,7 @@ public class PayoutControllerTest {
     @Test
     void shouldReturn201WhenNewPayoutCreated() throws Exception {
         UUID newPayoutId = UUID.randomUUID();
-        CreatePayoutResult newResult = new CreatePayoutResult(newPayoutId, "CREATED", true);
+        CreatePayoutOutcome newResult = new CreatePayoutOutcome.Created(newPayoutId, "CREATED");
         
         when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
                 .thenReturn(newResult);
@@ -176,7 +289,7 @@ public class PayoutControllerTest {
     @Test
     void shouldReturn409WhenIdempotencyConflict() throws Exception {
         when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
-                .thenThrow(new IdempotencyConflictException("idempotency key already used"));
+                .thenReturn(new CreatePayoutOutcome.Conflict("Money amount differs from existing payout"));
 
         mockMvc.perform(post("/payouts")
         .contentType(MediaType.APPLICATION_JSON)
@@ -192,11 +305,293 @@ public class PayoutControllerTest {
                 .andExpect(jsonPath("$.code").value("IDEMPOTENCY_CONFLICT"));
     }
 
+    @Test
+    void shouldReturn422WhenLimitExceeded() throws Exception {
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.LimitExceeded("daily limit exceeded"));
+
+        mockMvc.perform(post("/payouts")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "test-key-1"
+                }
+                """))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("LIMIT_EXCEEDED"))
+                .andExpect(jsonPath("$.message").value("daily limit exceeded"));
+    }
+
+    @Test
+    void shouldServeReplayFromCacheWithoutCallingUseCase() throws Exception {
+        UUID payoutId = UUID.randomUUID();
+
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.Created(payoutId, "CREATED"));
+
+        String body = """
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "test-key-1"
+                }
+                """;
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.payoutId").value(payoutId.toString()))
+                .andExpect(jsonPath("$.status").value("CREATED"));
+
+        verify(createPayoutUseCase, times(1)).execute(any(CreatePayoutCommand.class));
+    }
+
+    @Test
+    void shouldBypassCacheWhenReplayDiffersOrEntryInvalidated() throws Exception {
+        UUID payoutId = UUID.randomUUID();
+
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.Created(payoutId, "CREATED"))
+                .thenReturn(new CreatePayoutOutcome.Conflict("Money amount differs from existing payout"))
+                .thenReturn(new CreatePayoutOutcome.Replayed(payoutId, "PROCESSING"));
+
+        String body = """
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "%s",
+                    "currency": "USD",
+                    "idempotencyKey": "test-key-1"
+                }
+                """;
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body.formatted("1000.50")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body.formatted("2000.00")))
+                .andExpect(status().isConflict());
+
+        replayResponseCache.invalidate(payoutId);
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body.formatted("1000.50")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+
+        verify(createPayoutUseCase, times(3)).execute(any(CreatePayoutCommand.class));
+    }
+
+    @Test
+    void shouldReturn201WithNearDuplicateHeader() throws Exception {
+        UUID payoutId = UUID.randomUUID();
+        UUID duplicateOf = UUID.randomUUID();
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.NearDuplicate(payoutId, "HELD", duplicateOf));
+
+        String body = """
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "test-key-2"
+                }
+                """;
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Near-Duplicate-Of", duplicateOf.toString()))
+                .andExpect(jsonPath("$.payoutId").value(payoutId.toString()))
+                .andExpect(jsonPath("$.status").value("HELD"));
+
+        // a near duplicate is not cached, so its replay goes through the use case like any other
+        assertThat(replayResponseCache.size()).isZero();
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.Replayed(payoutId, "HELD"));
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Near-Duplicate-Of"))
+                .andExpect(jsonPath("$.status").value("HELD"));
+        verify(createPayoutUseCase, times(2)).execute(any(CreatePayoutCommand.class));
+    }
+
+    @Test
+    void shouldReleaseHeldPayouts() throws Exception {
+        UUID released = UUID.randomUUID();
+        UUID alreadyReleased = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        when(releasePayoutUseCase.execute(released))
+                .thenReturn(new ReleasePayoutOutcome.Released(released, "SCHEDULED"));
+        when(releasePayoutUseCase.execute(alreadyReleased))
+                .thenReturn(new ReleasePayoutOutcome.NotHeld("CREATED"));
+        when(releasePayoutUseCase.execute(unknown))
+                .thenReturn(new ReleasePayoutOutcome.NotFound());
+
+        mockMvc.perform(post("/payouts/{payoutId}/release", released))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.payoutId").value(released.toString()))
+                .andExpect(jsonPath("$.status").value("SCHEDULED"));
+        mockMvc.perform(post("/payouts/{payoutId}/release", alreadyReleased))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("PAYOUT_NOT_HELD"));
+        mockMvc.perform(post("/payouts/{payoutId}/release", unknown))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("PAYOUT_NOT_FOUND"));
+    }
+
+    @Test
+    void shouldNegotiateTheBinaryEncodingForCreatesAndCachedReplays() throws Exception {
+        UUID payoutId = UUID.randomUUID();
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.Created(payoutId, "CREATED"));
+        byte[] body = binary(new CreatePayoutRequest(UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                new BigDecimal("1000.50"), "USD", "test-key-binary", null, null));
+
+        byte[] created = mockMvc.perform(post("/payouts")
+                        .contentType(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .accept(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(PayoutBinaryMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(fromBinary(created, CreatePayoutResponse.class))
+                .isEqualTo(new CreatePayoutResponse(payoutId, "CREATED"));
+
+        byte[] replayed = mockMvc.perform(post("/payouts")
+                        .contentType(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .header("Accept", "application/json;q=0.5, " + PayoutBinaryMessageConverter.MEDIA_TYPE_VALUE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PayoutBinaryMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(fromBinary(replayed, CreatePayoutResponse.class))
+                .isEqualTo(new CreatePayoutResponse(payoutId, "CREATED"));
+
+        // a binary request without a binary Accept still gets JSON back
+        mockMvc.perform(post("/payouts")
+                        .contentType(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.payoutId").value(payoutId.toString()));
+
+        verify(createPayoutUseCase, times(1)).execute(any(CreatePayoutCommand.class));
+    }
+
+    @Test
+    void shouldValidateBinaryRequestsLikeJson() throws Exception {
+        byte[] body = binary(new CreatePayoutRequest(UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                new BigDecimal("1000.50"), "MX", "test-key-binary", null, null));
+
+        byte[] error = mockMvc.perform(post("/payouts")
+                        .contentType(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .accept(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(PayoutBinaryMessageConverter.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(fromBinary(error, ApiErrorResponse.class).code()).isEqualTo("REQUEST_INVALID");
+
+        mockMvc.perform(post("/payouts")
+                        .contentType(PayoutBinaryMessageConverter.MEDIA_TYPE)
+                        .content(binary(new CreatePayoutRequest(null, new BigDecimal("0.00"), "USD", " ", null, null))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("REQUEST_INVALID"));
+
+        verifyNoInteractions(createPayoutUseCase);
+    }
+
+    private static byte[] binary(Record message) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        new PayoutBinaryMessageConverter().write(message, PayoutBinaryMessageConverter.MEDIA_TYPE, output);
+        return output.getBodyAsBytes();
+    }
+
+    private static <T extends Record> T fromBinary(byte[] message, Class<T> type) throws Exception {
+        return type.cast(new PayoutBinaryMessageConverter().read(type, new MockHttpInputMessage(message)));
+    }
+
+    @Test
+    void shouldReturn202WithStatusLocationWhenAsyncIsPreferred() throws Exception {
+        UUID commandId = UUID.randomUUID();
+        UUID payoutId = UUID.randomUUID();
+        when(asyncPayoutIntake.submit(any(CreatePayoutCommand.class))).thenReturn(Optional.of(commandId));
+        when(asyncPayoutIntake.status(commandId)).thenReturn(Optional.of(
+                new CommandStatus(commandId, CommandStatus.State.COMPLETED, payoutId, "CREATED", null, null)));
+
+        String body = """
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "test-key-1"
+                }
+                """;
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).header("Prefer", "respond-async").content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/payouts/commands/" + commandId))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+
+        mockMvc.perform(get("/payouts/commands/" + commandId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.payoutId").value(payoutId.toString()));
+
+        mockMvc.perform(get("/payouts/commands/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("COMMAND_NOT_FOUND"));
+
+        verify(createPayoutUseCase, never()).execute(any(CreatePayoutCommand.class));
+    }
+
+    @Test
+    void shouldProcessSynchronouslyWhenTheCommandLogIsSaturated() throws Exception {
+        UUID payoutId = UUID.randomUUID();
+        when(asyncPayoutIntake.submit(any(CreatePayoutCommand.class))).thenReturn(Optional.empty());
+        when(createPayoutUseCase.execute(any(CreatePayoutCommand.class)))
+                .thenReturn(new CreatePayoutOutcome.Created(payoutId, "CREATED"));
+
+        String body = """
+                {
+                    "companyId": "11111111-1111-1111-1111-111111111111",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "test-key-1"
+                }
+                """;
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).header("Prefer", "respond-async").content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.payoutId").value(payoutId.toString()));
+    }
+
     @TestConfiguration
     static class TestConfig {
         @Bean
         CreatePayoutUseCase createPayoutUseCase() {
             return mock(CreatePayoutUseCase.class);
         }
+
+        @Bean
+        ReleasePayoutUseCase releasePayoutUseCase() {
+            return mock(ReleasePayoutUseCase.class);
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        @Qualifier(Bulkheads.INTERACTIVE)
+        BulkheadExecutor interactiveBulkhead() {
+            return new BulkheadExecutor(Bulkheads.INTERACTIVE, 1, 1, BulkheadExecutor.Overflow.REJECT);
+        }
+
+        @Bean
+        AsyncPayoutIntake asyncPayoutIntake() {
+            return mock(AsyncPayoutIntake.class);
+        }
     }
 }
@@ -0,0 +1,64 @@
+package com.luisovando.payout_service.infrastructure.web.payout;
+
+import com.luisovando.payout_service.benchmark.BenchmarkRun;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Replay-heavy load: the same request replayed many times, served from the
+ * replay cache versus going through the use case and the database every time.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplayCacheBenchmarkTest {
+    private static final int WARMUP = 2_000;
+    private static final int OPERATIONS = 20_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplayResponseCache replayResponseCache;
+
+    @Test
+    void replaysFromCacheAreCheaperThanUncachedReplays() throws Exception {
+        String body = """
+                {
+                    "companyId": "%s",
+                    "amount": "1000.50",
+                    "currency": "USD",
+                    "idempotencyKey": "replay-benchmark"
+                }
+                """.formatted(UUID.randomUUID());
+
+        mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+
+        BenchmarkRun.Result uncached = BenchmarkRun.measure("replay (no cache)", WARMUP, OPERATIONS, i -> {
+            replayResponseCache.clear();
+            mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk());
+        });
+
+        BenchmarkRun.Result cached = BenchmarkRun.measure("replay (cached bytes)", WARMUP, OPERATIONS, i ->
+                mockMvc.perform(post("/payouts").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isOk()));
+
+        assertThat(cached.cpuMicrosPerOp()).isLessThan(uncached.cpuMicrosPerOp());
+        assertThat(cached.allocatedBytesPerOp()).isLessThan(uncached.allocatedBytesPerOp());
+    }
+}
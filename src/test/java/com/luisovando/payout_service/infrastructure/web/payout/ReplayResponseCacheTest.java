@@ -0,0 +1,67 @@
+package com.luisovando.payout_service.infrastructure.web.payout;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luisovando.payout_service.application.usecase.createpayout.CreatePayoutCommand;
+import com.luisovando.payout_service.domain.payout.PayoutStatus;
+import com.luisovando.payout_service.domain.payout.PayoutStatusChangedEvent;
+import com.luisovando.payout_service.domain.valueobject.MoneyVO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplayResponseCacheTest {
+    private final AtomicLong ticker = new AtomicLong(-5_000_000_000L);
+    private final ReplayResponseCache cache =
+            new ReplayResponseCache(new ObjectMapper(), 100, Duration.ofSeconds(10), ticker::get);
+    private final CreatePayoutCommand command =
+            new CreatePayoutCommand(UUID.randomUUID(), MoneyVO.of(new BigDecimal("10.00"), "USD"), "key-1");
+    private final UUID payoutId = UUID.randomUUID();
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void shouldExpireEntriesAfterTheTtl() {
+        cache.store(command, new CreatePayoutResponse(payoutId, "CREATED"), cache.now());
+
+        advance(Duration.ofSeconds(10));
+        assertThat(cache.get(command.companyId(), "key-1")).isNotNull();
+
+        advance(Duration.ofMillis(1));
+        assertThat(cache.get(command.companyId(), "key-1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldNotStoreAnAnswerReadBeforeAStatusChange() {
+        long readAt = cache.now();
+        advance(Duration.ofMillis(5));
+        cache.onStatusChanged(new PayoutStatusChangedEvent(payoutId, PayoutStatus.CREATED, PayoutStatus.PAID, Instant.now()));
+        advance(Duration.ofMillis(5));
+
+        cache.store(command, new CreatePayoutResponse(payoutId, "CREATED"), readAt);
+        assertThat(cache.get(command.companyId(), "key-1")).isNull();
+
+        // read after the change: the answer is current
+        cache.store(command, new CreatePayoutResponse(payoutId, "PAID"), cache.now());
+        assertThat(cache.get(command.companyId(), "key-1").response().status()).isEqualTo("PAID");
+    }
+
+    @Test
+    void shouldNotStoreAnAnswerWhoseReadTookLongerThanTheTtl() {
+        long readAt = cache.now();
+        advance(Duration.ofSeconds(11));
+
+        byte[] body = cache.store(command, new CreatePayoutResponse(payoutId, "CREATED"), readAt);
+
+        assertThat(body).isNotEmpty();
+        assertThat(cache.get(command.companyId(), "key-1")).isNull();
+    }
+}
@@ -0,0 +1,198 @@
+package com.luisovando.payout_service.loadtest;
+
+import com.luisovando.payout_service.loadtest.LoadTestSettings.Scenario;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load against {@code POST /payouts}: operations are scheduled at a fixed rate and
+ * each request is timed from its scheduled start rather than from when a worker got to send
+ * it. A stalled server therefore shows up as latency of every request it delayed instead of
+ * as fewer, fast samples (coordinated omission); the time from actually sending is kept
+ * alongside as service time.
+ */
+class LoadGenerator {
+    private static final int RECENT_CREATES = 4_096;
+
+    private final HttpClient client;
+    private final URI payouts;
+    private final LoadTestSettings settings;
+    private final List<UUID> companies;
+    private final AtomicReferenceArray<Create> recent = new AtomicReferenceArray<>(RECENT_CREATES);
+    private final AtomicLong created = new AtomicLong();
+
+    LoadGenerator(String baseUrl, LoadTestSettings settings) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.payouts = URI.create(baseUrl + "/payouts");
+        this.settings = settings;
+        this.companies = new ArrayList<>(settings.companies());
+        for (int i = 0; i < settings.companies(); i++) {
+            companies.add(UUID.randomUUID());
+        }
+    }
+
+    /**
+     * Sends {@code rate * duration} scheduled operations and waits for all of them. Operations
+     * still unsent once the run is late by its own duration are dropped and reported.
+     */
+    LoadReport run(Duration duration) throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        long operations = duration.toNanos() / interval;
+        Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new ScenarioStats());
+        }
+        LongAdder dropped = new LongAdder();
+        AtomicLong next = new AtomicLong();
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        long deadline = start + 2 * duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(settings.workers(), runnable -> {
+            Thread thread = new Thread(runnable, "load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int w = 0; w < settings.workers(); w++) {
+            workers.execute(() -> {
+                for (long i = next.getAndIncrement(); i < operations; i = next.getAndIncrement()) {
+                    long scheduled = start + i * interval;
+                    for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    if (System.nanoTime() > deadline) {
+                        dropped.increment();
+                        continue;
+                    }
+                    Scenario scenario = settings.mix().pick();
+                    execute(scenario, scheduled, stats.get(scenario));
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() * 3 + 30, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Load generator did not finish");
+        }
+        return new LoadReport(Duration.ofNanos(System.nanoTime() - start), stats, dropped.sum());
+    }
+
+    private void execute(Scenario scenario, long scheduled, ScenarioStats stats) {
+        Create previous = recent.get((int) (ThreadLocalRandom.current().nextLong(Math.max(1, created.get())) % RECENT_CREATES));
+        switch (previous == null ? Scenario.CREATE : scenario) {
+            case CREATE -> {
+                Create create = newCreate();
+                if (send(create, scheduled, stats, 201) == 201) {
+                    remember(create);
+                }
+            }
+            case REPLAY -> send(previous, scheduled, stats, 200);
+            case CONFLICT -> send(previous.withAmount(previous.amount().add(BigDecimal.ONE)), scheduled, stats, 409);
+            case RACE -> race(newCreate(), scheduled, stats);
+        }
+    }
+
+    private void race(Create create, long scheduled, ScenarioStats stats) {
+        List<CompletableFuture<Integer>> racers = new ArrayList<>(settings.raceWidth());
+        for (int i = 0; i < settings.raceWidth(); i++) {
+            long sent = System.nanoTime();
+            racers.add(client.sendAsync(request(create), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> record(stats, scheduled, sent,
+                            failure == null ? response.statusCode() : -1)));
+        }
+        List<Integer> statuses = racers.stream().map(CompletableFuture::join).toList();
+        if (statuses.stream().filter(status -> status == 201).count() != 1
+                || !statuses.stream().allMatch(status -> status == 201 || status == 200)) {
+            stats.unexpected.increment();
+        } else {
+            remember(create);
+        }
+    }
+
+    private int send(Create create, long scheduled, ScenarioStats stats, int expected) {
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request(create), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        }
+        record(stats, scheduled, sent, status);
+        if (status != expected) {
+            stats.unexpected.increment();
+        }
+        return status;
+    }
+
+    private static int record(ScenarioStats stats, long scheduled, long sent, int status) {
+        long done = System.nanoTime();
+        stats.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(done - scheduled));
+        stats.serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - sent));
+        stats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        return status;
+    }
+
+    private HttpRequest request(Create create) {
+        return HttpRequest.newBuilder(payouts)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"companyId":"%s","amount":"%s","currency":"USD","idempotencyKey":"%s"}"""
+                        .formatted(create.companyId(), create.amount().toPlainString(), create.idempotencyKey())))
+                .build();
+    }
+
+    private Create newCreate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Create(companies.get(random.nextInt(companies.size())),
+                BigDecimal.valueOf(random.nextLong(100, 10_000_000), 2), "load-" + UUID.randomUUID());
+    }
+
+    private void remember(Create create) {
+        recent.set((int) (created.getAndIncrement() % RECENT_CREATES), create);
+    }
+
+    private record Create(UUID companyId, BigDecimal amount, String idempotencyKey) {
+        Create withAmount(BigDecimal other) {
+            return new Create(companyId, other, idempotencyKey);
+        }
+    }
+
+    /**
+     * Latencies in microseconds; {@code -1} stands for requests that got no response.
+     */
+    static final class ScenarioStats {
+        final Histogram latency = new ConcurrentHistogram(3);
+        final Histogram serviceTime = new ConcurrentHistogram(3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder unexpected = new LongAdder();
+    }
+}
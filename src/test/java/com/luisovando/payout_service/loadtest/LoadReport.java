@@ -0,0 +1,112 @@
+package com.luisovando.payout_service.loadtest;
+
+import com.luisovando.payout_service.loadtest.LoadGenerator.ScenarioStats;
+import com.luisovando.payout_service.loadtest.LoadTestSettings.Budgets;
+import com.luisovando.payout_service.loadtest.LoadTestSettings.Scenario;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a {@link LoadGenerator} run: latency and service time per scenario, statuses,
+ * and the checks against the {@link Budgets} of the run.
+ */
+record LoadReport(Duration elapsed, Map<Scenario, ScenarioStats> scenarios, long dropped) {
+
+    long requests() {
+        return latency().getTotalCount();
+    }
+
+    long unexpected() {
+        return scenarios.values().stream().mapToLong(stats -> stats.unexpected.sum()).sum();
+    }
+
+    double throughput() {
+        return requests() * 1_000_000_000d / elapsed.toNanos();
+    }
+
+    /**
+     * Latency of all requests, from their scheduled start.
+     */
+    Histogram latency() {
+        Histogram all = new Histogram(3);
+        scenarios.values().forEach(stats -> all.add(stats.latency));
+        return all;
+    }
+
+    Histogram serviceTime() {
+        Histogram all = new Histogram(3);
+        scenarios.values().forEach(stats -> all.add(stats.serviceTime));
+        return all;
+    }
+
+    /**
+     * Budgets the run did not meet, plus any request that got another status than its scenario
+     * expects or was never sent; empty when the run passes.
+     */
+    List<String> violations(Budgets budgets) {
+        List<String> violations = new ArrayList<>();
+        Histogram latency = latency();
+        check(violations, "p50", latency.getValueAtPercentile(50), budgets.p50());
+        check(violations, "p99", latency.getValueAtPercentile(99), budgets.p99());
+        check(violations, "p99.9", latency.getValueAtPercentile(99.9), budgets.p999());
+        if (throughput() < budgets.minThroughput()) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f/s below %.1f/s", throughput(), budgets.minThroughput()));
+        }
+        if (unexpected() > 0) {
+            violations.add(unexpected() + " operations with unexpected statuses");
+        }
+        if (dropped > 0) {
+            violations.add(dropped + " operations dropped because the run fell too far behind");
+        }
+        return violations;
+    }
+
+    private static void check(List<String> violations, String percentile, long micros, Duration budget) {
+        if (micros > TimeUnit.NANOSECONDS.toMicros(budget.toNanos())) {
+            violations.add(String.format(Locale.ROOT, "%s %.2f ms over %d ms", percentile, micros / 1_000d, budget.toMillis()));
+        }
+    }
+
+    void print(PrintStream out) {
+        out.println(String.format(Locale.ROOT, "[load] %d requests in %.1f s: %.1f/s, %d dropped",
+                requests(), elapsed.toNanos() / 1e9, throughput(), dropped));
+        line(out, "all", latency(), serviceTime(), unexpected(), Map.of());
+        scenarios.forEach((scenario, stats) -> line(out, scenario.name().toLowerCase(Locale.ROOT),
+                stats.latency, stats.serviceTime, stats.unexpected.sum(), stats.statuses));
+    }
+
+    private static void line(PrintStream out, String name, Histogram latency, Histogram serviceTime, long unexpected,
+                             Map<Integer, ?> statuses) {
+        out.println(String.format(Locale.ROOT,
+                "[load] %-9s n=%-7d p50 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f ms  (service p99 %8.2f ms)  unexpected %d %s",
+                name, latency.getTotalCount(), millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                latency.getMaxValue() / 1_000d, millis(serviceTime, 99), unexpected,
+                statuses.isEmpty() ? "" : new TreeMap<>(statuses)));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000d;
+    }
+
+    /**
+     * Writes the latency distribution in HdrHistogram's percentile format (milliseconds), for
+     * plotting and comparing runs.
+     */
+    void writeDistribution(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latency().outputPercentileDistribution(out, 1_000d);
+        }
+    }
+}
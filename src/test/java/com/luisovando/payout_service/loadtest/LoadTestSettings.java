@@ -0,0 +1,114 @@
+package com.luisovando.payout_service.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shape and budgets of a load test run, read from {@code -Dloadtest.*} system properties so
+ * the same run can be repeated from the command line or {@code scripts/load-test.sh}.
+ *
+ * @param profiles      Spring profiles of the application under load; {@code test} runs on the
+ *                      embedded database, {@code local} on the docker-compose PostgreSQL
+ * @param rate          requests per second the generator schedules, whatever the latency
+ * @param warmup        untimed load before the measured run
+ * @param duration      measured run
+ * @param workers       threads sending requests; enough to keep the rate while requests are slow
+ * @param companies     companies the creates are spread over
+ * @param raceWidth     concurrent identical requests of a duplicate race
+ * @param mix           relative weights of the scenarios
+ * @param budgets       limits the run fails on
+ */
+record LoadTestSettings(
+        String profiles,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int workers,
+        int companies,
+        int raceWidth,
+        Mix mix,
+        Budgets budgets
+) {
+    static LoadTestSettings fromSystemProperties() {
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "100"));
+        return new LoadTestSettings(
+                System.getProperty("loadtest.profiles", "test"),
+                rate,
+                Duration.ofMillis(Long.getLong("loadtest.warmup-ms", 5_000)),
+                Duration.ofMillis(Long.getLong("loadtest.duration-ms", 20_000)),
+                Integer.getInteger("loadtest.workers", 64),
+                Integer.getInteger("loadtest.companies", 1_000),
+                Integer.getInteger("loadtest.race-width", 4),
+                Mix.parse(System.getProperty("loadtest.mix", "create=70,replay=20,race=5,conflict=5")),
+                new Budgets(
+                        Duration.ofMillis(Long.getLong("loadtest.p50-ms", 25)),
+                        Duration.ofMillis(Long.getLong("loadtest.p99-ms", 250)),
+                        Duration.ofMillis(Long.getLong("loadtest.p999-ms", 500)),
+                        Double.parseDouble(System.getProperty("loadtest.min-throughput", String.valueOf(rate * 0.95)))));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "profiles=%s rate=%.0f/s warmup=%ss duration=%ss workers=%d mix=%s",
+                profiles, rate, warmup.toSeconds(), duration.toSeconds(), workers, mix);
+    }
+
+    enum Scenario {
+        /** A new payout: {@code 201}. */
+        CREATE,
+        /** The same request as an earlier create: {@code 200}. */
+        REPLAY,
+        /** {@code raceWidth} identical new requests at once: one {@code 201}, the others {@code 200}. */
+        RACE,
+        /** An earlier idempotency key with another amount: {@code 409}. */
+        CONFLICT
+    }
+
+    record Mix(Map<Scenario, Integer> weights, int total) {
+        static Mix parse(String spec) {
+            Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+            for (String entry : spec.split(",")) {
+                String[] parts = entry.trim().split("=");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("loadtest.mix entries look like create=70, got " + entry);
+                }
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("loadtest.mix weights cannot be negative: " + entry);
+                }
+                weights.put(Scenario.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+            int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+            if (total == 0) {
+                throw new IllegalArgumentException("loadtest.mix needs a positive weight");
+            }
+            return new Mix(weights, total);
+        }
+
+        Scenario pick() {
+            int ticket = ThreadLocalRandom.current().nextInt(total);
+            for (Map.Entry<Scenario, Integer> entry : weights.entrySet()) {
+                ticket -= entry.getValue();
+                if (ticket < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("unreachable");
+        }
+
+        @Override
+        public String toString() {
+            return weights.toString();
+        }
+    }
+
+    /**
+     * Latency budgets apply to all requests of the run, measured from the time each was
+     * scheduled to be sent; {@code minThroughput} is in completed requests per second.
+     */
+    record Budgets(Duration p50, Duration p99, Duration p999, double minThroughput) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.luisovando.payout_service.loadtest;
+
+import com.luisovando.payout_service.PayoutServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code POST /payouts} through the real HTTP stack with a mix of new creates,
+ * idempotent replays, duplicate races and conflicts, and fails when the latency or
+ * throughput budgets of {@link LoadTestSettings} are not met. Runs on the embedded database
+ * by default; {@code -Dloadtest.profiles=local} targets the docker-compose PostgreSQL
+ * ({@code scripts/load-test.sh postgres}). The latency distribution is written to
+ * {@code target/load-test/}.
+ */
+@Tag("load-test")
+public class PayoutsLoadTest {
+
+    @Test
+    void shouldMeetTheLatencyAndThroughputBudgets() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        System.out.println("[load] " + settings);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PayoutServiceApplication.class)
+                .profiles(settings.profiles().split(","))
+                .properties("server.port=0")
+                .run()) {
+            LoadGenerator generator = new LoadGenerator(
+                    "http://localhost:" + context.getEnvironment().getProperty("local.server.port"), settings);
+
+            generator.run(settings.warmup());
+            LoadReport report = generator.run(settings.duration());
+
+            report.print(System.out);
+            report.writeDistribution(Path.of("target", "load-test",
+                    "payouts-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".hgrm"));
+            List<String> violations = report.violations(settings.budgets());
+            assertThat(violations).as("budgets of %s", settings).isEmpty();
+        }
+    }
+}